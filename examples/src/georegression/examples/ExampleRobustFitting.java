@@ -19,8 +19,71 @@
 
 package georegression.examples;
 
+import georegression.fitting.robust.Ransac;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.fitting.se.ResidualSe3PointSq_F64;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 /**
+ * Demonstrates how to robustly estimate a rigid body transform from a set of associated points which
+ * contains outliers using RANSAC.
+ *
  * @author Peter Abeles
  */
 public class ExampleRobustFitting {
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+
+		// the transform which is to be estimated
+		Se3_F64 actual = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.5, 0.8, null ),
+				new Vector3D_F64( 2, -1, 0.5 ) );
+
+		// create a set of associated points where 40% are outliers
+		List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, 200, rand );
+		List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : from ) {
+			Point3D_F64 q = SePointOps_F64.transform( actual, p, null );
+			if( rand.nextDouble() < 0.4 )
+				q.set( rand.nextGaussian()*10, rand.nextGaussian()*10, rand.nextGaussian()*10 );
+			to.add( q );
+		}
+		UtilPoint3D_F64.noiseNormal( to, 0.01, rand );
+
+		// The threshold is in units of distance squared since that is what the residual function computes
+		Ransac<Se3_F64, Point3D_F64> ransac = new Ransac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 1000, 0.1*0.1 );
+
+		if( !ransac.process( from, to ) )
+			throw new RuntimeException( "RANSAC failed" );
+
+		System.out.println( "iterations = " + ransac.getIterations() );
+		System.out.println( "inliers    = " + ransac.getNumInliers() + " out of " + from.size() );
+
+		// refine the estimate using all the inliers
+		List<Point3D_F64> inlierFrom = new ArrayList<Point3D_F64>();
+		List<Point3D_F64> inlierTo = new ArrayList<Point3D_F64>();
+		int inliers[] = ransac.getInliers();
+		for( int i = 0; i < ransac.getNumInliers(); i++ ) {
+			inlierFrom.add( from.get( inliers[i] ) );
+			inlierTo.add( to.get( inliers[i] ) );
+		}
+
+		MotionSe3PointSVD_F64 fitter = new MotionSe3PointSVD_F64();
+		fitter.process( inlierFrom, inlierTo );
+
+		System.out.println( "Actual:" );
+		actual.print();
+		System.out.println( "Found:" );
+		fitter.getMotion().print();
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Geometric Regression Library (GeoRegression).
  *
@@ -16,11 +16,50 @@
  * You should have received a copy of the GNU Lesser General Public
  * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
  */
-
 package georegression.examples;
 
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.TransformGraph;
+import georegression.transform.se.SePointOps_F64;
+
 /**
+ * Example showing how the transform between any two coordinate frames can be found with {@link TransformGraph}.
+ * A robot drives around the world with a camera mounted on its body.
+ *
  * @author Peter Abeles
  */
 public class ExampleTransformGraph {
+
+	public static void main( String args[] ) {
+		TransformGraph<Se3_F64> graph = new TransformGraph<Se3_F64>();
+
+		// location of the robot in the world
+		Se3_F64 worldToBody = new Se3_F64();
+		worldToBody.getT().set( 2, 0, 0 );
+
+		// the camera is mounted on top of the robot and is pointed to the side
+		Se3_F64 bodyToCamera = new Se3_F64();
+		RotationMatrixGenerator.eulerXYZ( 0, Math.PI/2, 0, bodyToCamera.getR() );
+		bodyToCamera.getT().set( 0, 0.5, 0 );
+
+		graph.addTransform( "world", "body", worldToBody );
+		graph.addTransform( "body", "camera", bodyToCamera );
+
+		// a point in front of the camera
+		Point3D_F64 p = new Point3D_F64( 0, 0, 3 );
+
+		// the path from the camera to the world is found and composed automatically
+		Se3_F64 cameraToWorld = new Se3_F64();
+		graph.lookupTransform( "camera", "world", cameraToWorld );
+		System.out.println( "in world = " + SePointOps_F64.transform( cameraToWorld, p, null ) );
+
+		// The robot moves.  Only transforms which depend on the robot's location are recomputed.
+		// Looking up the same frames again without changing anything just copies a cached result.
+		worldToBody.getT().set( 3, 1, 0 );
+		graph.setTransform( "world", "body", worldToBody );
+		graph.lookupTransform( "camera", "world", cameraToWorld );
+		System.out.println( "in world = " + SePointOps_F64.transform( cameraToWorld, p, null ) );
+	}
 }
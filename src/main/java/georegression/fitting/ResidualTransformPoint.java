@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting;
+
+import georegression.struct.GeoTuple;
+import georegression.struct.InvertibleTransform;
+
+/**
+ * Computes the residual error between a pair of associated points given a transform.  Used to determine
+ * how well a transform found by {@link MotionTransformPoint} describes each pair of points.
+ *
+ * @author Peter Abeles
+ */
+public interface ResidualTransformPoint<T extends InvertibleTransform, P extends GeoTuple> {
+
+	/**
+	 * Specifies the transform which the residuals are computed for.  Any values derived from the transform
+	 * should be cached at this point.
+	 *
+	 * @param motion The transform.  Not modified.
+	 */
+	public void setMotion( T motion );
+
+	/**
+	 * Computes the residual error after the 'from' point has been transformed and compared against the 'to'
+	 * point.  The error is always zero or positive.
+	 *
+	 * @param from The point which is transformed.  Not modified.
+	 * @param to   The point it is compared against.  Not modified.
+	 * @return The residual error.
+	 */
+	public double computeResidual( P from, P to );
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.affine;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the same least squares solution as {@link MotionAffinePoint2D_F64}, but instead of constructing an N by 3
+ * matrix the normal equations are accumulated in a single pass through the points.  Only the sums needed for the
+ * 3x3 normal matrix and the 3x2 right hand side are stored, making memory usage constant no matter how many points
+ * there are.  Point pairs can also be added one at a time using {@link #add} followed by {@link #computeMotion()}.
+ * </p>
+ *
+ * <p>
+ * To reduce round off error all points are shifted by the first pair that was added, which keeps the sums small
+ * when the points are far from the origin.  Optionally the sums can use Kahan compensated summation, which
+ * makes the result insensitive to the order and number of points at the cost of being about 3x slower.
+ * The 3x3 system is solved by eliminating the translation, which leaves a 2x2 system in the centered
+ * second moments.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionAffinePoint2DNormal_F64 implements MotionTransformPoint<Affine2D_F64, Point2D_F64> {
+
+	// indexes of each sum.  (x,y) is the 'from' point and (u,v) the 'to' point, after being shifted
+	private static final int X = 0, Y = 1, XX = 2, XY = 3, YY = 4, U = 5, V = 6, XU = 7, XV = 8, YU = 9, YV = 10;
+	private static final int NUM_SUMS = 11;
+
+	// should compensated summation be used
+	private boolean compensated;
+
+	// number of point pairs
+	private int N;
+	// all points are shifted by the first point pair
+	private double originX, originY, originU, originV;
+
+	// sums needed to construct the normal equations
+	private double sums[] = new double[NUM_SUMS];
+	// running compensation for lost low-order bits in the sums
+	private double errors[] = new double[NUM_SUMS];
+
+	private Affine2D_F64 model = new Affine2D_F64();
+
+	/**
+	 * @param compensated If true Kahan summation is used to reduce round off error.
+	 */
+	public MotionAffinePoint2DNormal_F64( boolean compensated ) {
+		this.compensated = compensated;
+	}
+
+	/**
+	 * Uses ordinary summation.
+	 */
+	public MotionAffinePoint2DNormal_F64() {
+		this( false );
+	}
+
+	@Override
+	public Affine2D_F64 getMotion() {
+		return model;
+	}
+
+	/**
+	 *  @inheritdoc
+	 */
+	@Override
+	public boolean process( List<Point2D_F64> fromPts, List<Point2D_F64> toPts ) {
+		int N = fromPts.size();
+
+		if( N != toPts.size() ) {
+			throw new IllegalArgumentException( "From and to lists must be the same size" );
+		} else if( N < 3 ) {
+			throw new IllegalArgumentException( "Must be at least 3 points" );
+		}
+
+		reset();
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 from = fromPts.get( i );
+			Point2D_F64 to = toPts.get( i );
+
+			add( from.x, from.y, to.x, to.y );
+		}
+
+		return computeMotion();
+	}
+
+	/**
+	 * Same as {@link #process(java.util.List, java.util.List)} but the points are read directly from packed arrays.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if the computation successfully produced a solution and false if not.
+	 */
+	public boolean process( PointCloud2D_F64 fromPts, PointCloud2D_F64 toPts ) {
+		int N = fromPts.size;
+
+		if( N != toPts.size ) {
+			throw new IllegalArgumentException( "From and to lists must be the same size" );
+		} else if( N < 3 ) {
+			throw new IllegalArgumentException( "Must be at least 3 points" );
+		}
+
+		final double from[] = fromPts.data;
+		final double to[] = toPts.data;
+
+		reset();
+		for( int i = 0; i < N*2; i += 2 ) {
+			add( from[i], from[i+1], to[i], to[i+1] );
+		}
+
+		return computeMotion();
+	}
+
+	/**
+	 * Removes all the point pairs
+	 */
+	public void reset() {
+		N = 0;
+		for( int i = 0; i < NUM_SUMS; i++ ) {
+			sums[i] = errors[i] = 0;
+		}
+	}
+
+	/**
+	 * Adds a pair of associated points.
+	 *
+	 * @param from Point which is to be transformed.  Not modified.
+	 * @param to   Point it is being compared against.  Not modified.
+	 */
+	public void add( Point2D_F64 from, Point2D_F64 to ) {
+		add( from.x, from.y, to.x, to.y );
+	}
+
+	public void add( double fromX, double fromY, double toX, double toY ) {
+		if( N == 0 ) {
+			originX = fromX; originY = fromY;
+			originU = toX; originV = toY;
+		}
+		N++;
+
+		double x = fromX - originX, y = fromY - originY;
+		double u = toX - originU, v = toY - originV;
+
+		if( compensated ) {
+			sum( X, x ); sum( Y, y );
+			sum( XX, x*x ); sum( XY, x*y ); sum( YY, y*y );
+			sum( U, u ); sum( V, v );
+			sum( XU, x*u ); sum( XV, x*v ); sum( YU, y*u ); sum( YV, y*v );
+		} else {
+			final double sums[] = this.sums;
+			sums[X] += x; sums[Y] += y;
+			sums[XX] += x*x; sums[XY] += x*y; sums[YY] += y*y;
+			sums[U] += u; sums[V] += v;
+			sums[XU] += x*u; sums[XV] += x*v; sums[YU] += y*u; sums[YV] += y*v;
+		}
+	}
+
+	/**
+	 * Kahan summation
+	 */
+	private void sum( int index, double value ) {
+		double y = value - errors[index];
+		double t = sums[index] + y;
+		errors[index] = ( t - sums[index] ) - y;
+		sums[index] = t;
+	}
+
+	/**
+	 * Solves the normal equations for the point pairs which have been added.
+	 *
+	 * @return true if a solution was found.  false if there are too few points or the 'from' points are collinear.
+	 */
+	public boolean computeMotion() {
+		if( N < 3 )
+			return false;
+
+		double meanX = sums[X]/N, meanY = sums[Y]/N;
+		double meanU = sums[U]/N, meanV = sums[V]/N;
+
+		// eliminate the translation from the normal equations, leaving the centered second moments
+		double cxx = sums[XX] - sums[X]*meanX;
+		double cxy = sums[XY] - sums[X]*meanY;
+		double cyy = sums[YY] - sums[Y]*meanY;
+		double cxu = sums[XU] - sums[X]*meanU;
+		double cxv = sums[XV] - sums[X]*meanV;
+		double cyu = sums[YU] - sums[Y]*meanU;
+		double cyv = sums[YV] - sums[Y]*meanV;
+
+		double det = cxx*cyy - cxy*cxy;
+		if( !( det > Math.ulp( 1.0 )*cxx*cyy ) )
+			return false;
+
+		model.a11 = ( cxu*cyy - cyu*cxy )/det;
+		model.a12 = ( cyu*cxx - cxu*cxy )/det;
+		model.a21 = ( cxv*cyy - cyv*cxy )/det;
+		model.a22 = ( cyv*cxx - cxv*cxy )/det;
+
+		// translation in the shifted coordinates, then undo the shift
+		double tx = meanU - model.a11*meanX - model.a12*meanY;
+		double ty = meanV - model.a21*meanX - model.a22*meanY;
+
+		model.tx = tx + originU - model.a11*originX - model.a12*originY;
+		model.ty = ty + originV - model.a21*originX - model.a22*originY;
+
+		return true;
+	}
+
+	/**
+	 * Number of point pairs which have been added
+	 */
+	public int size() {
+		return N;
+	}
+
+	public boolean isCompensated() {
+		return compensated;
+	}
+
+	/**
+	 * Changes whether compensated summation is used.  Should only be called before points are added.
+	 */
+	public void setCompensated( boolean compensated ) {
+		this.compensated = compensated;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
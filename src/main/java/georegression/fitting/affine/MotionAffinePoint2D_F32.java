@@ -22,6 +22,7 @@ package georegression.fitting.affine;
 import georegression.fitting.MotionTransformPoint;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
 import org.ejml.alg.dense.linsol.LinearSolver;
 import org.ejml.alg.dense.linsol.LinearSolverFactory;
 import org.ejml.data.DenseMatrix64F;
@@ -70,16 +71,7 @@ public class MotionAffinePoint2D_F32 implements MotionTransformPoint<Affine2D_F3
 			throw new IllegalArgumentException( "Must be at least 3 points" );
 		}
 
-		if( A.data.length < N * 3 ) {
-			A.reshape( N, 3, true );
-			y.reshape( N, 2, true );
-			for( int i = 0; i < N; i++ ) {
-				A.set( i, 2, 1 );
-			}
-		} else {
-			A.reshape( N, 3, false );
-			y.reshape( N, 2, false );
-		}
+		declareMatrices( N );
 
 		// put the data into the matrices
 		for( int i = 0; i < N; i++ ) {
@@ -94,6 +86,64 @@ public class MotionAffinePoint2D_F32 implements MotionTransformPoint<Affine2D_F3
 			y.set( i, 1, pt1.y );
 		}
 
+		return solve();
+	}
+
+	/**
+	 * Same as {@link #process(java.util.List, java.util.List)} but the points are read directly from packed arrays.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if the computation successfully produced a solution and false if not.
+	 */
+	public boolean process( PointCloud2D_F32 fromPts, PointCloud2D_F32 toPts ) {
+		int N = fromPts.size;
+
+		if( N != toPts.size ) {
+			throw new IllegalArgumentException( "From and to lists must be the same size" );
+		} else if( N < 3 ) {
+			throw new IllegalArgumentException( "Must be at least 3 points" );
+		}
+
+		declareMatrices( N );
+
+		// copy the packed points directly into the row-major matrices
+		final float from[] = fromPts.data;
+		final float to[] = toPts.data;
+		final /**/double dataA[] = A.data;
+		final /**/double dataY[] = y.data;
+
+		for( int i = 0, indexA = 0, indexPt = 0; i < N; i++ , indexA += 3 , indexPt += 2 ) {
+			dataA[indexA] = from[indexPt];
+			dataA[indexA+1] = from[indexPt+1];
+
+			dataY[indexPt] = to[indexPt];
+			dataY[indexPt+1] = to[indexPt+1];
+		}
+
+		return solve();
+	}
+
+	/**
+	 * Grows or shrinks the matrix sizes.  The last column in A is always one.
+	 */
+	private void declareMatrices( int N ) {
+		if( A.data.length < N * 3 ) {
+			A.reshape( N, 3, true );
+			y.reshape( N, 2, true );
+			for( int i = 0; i < N; i++ ) {
+				A.set( i, 2, 1 );
+			}
+		} else {
+			A.reshape( N, 3, false );
+			y.reshape( N, 2, false );
+		}
+	}
+
+	/**
+	 * Solves the linear system and writes the solution into the model
+	 */
+	private boolean solve() {
 		// decompose A
 		if( !solver.setA( A ) )
 			return false;
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.curve;
+
+import georegression.struct.curve.Polynomial1D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+import org.ejml.alg.dense.linsol.LinearSolver;
+import org.ejml.alg.dense.linsol.LinearSolverFactory;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Fits a {@link Polynomial1D_F64} to a set of samples (x,y) by minimizing the sum of squared errors
+ * sum(i=1:N, w_i*(y_i - f(x_i))<sup>2</sup>).  The normal equations are accumulated in a single pass and
+ * samples can be added or removed at any time.  Since A<sup>T</sup>A only depends on the power sums
+ * sum(w*x<sup>k</sup>) for k = 0 to 2*degree, adding a sample is O(degree).
+ * </p>
+ *
+ * <p>
+ * The normal equations are solved using a Cholesky decomposition.  All matrices and the decomposition's
+ * workspace are declared once, so the same instance can be used to fit a large number of polynomials without
+ * creating new memory.  Higher degree polynomials become ill conditioned unless x is scaled to be
+ * close to the range [-1,1].
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitPolynomial1D_F64 {
+
+	// degree of the polynomial and the number of coefficients
+	private int degree;
+	private int numCoef;
+
+	// number of samples
+	private int N;
+
+	// sum of w*x^k for k = 0 to 2*degree
+	private double powers[];
+	// sum of w*y*x^k for k = 0 to degree
+	private double rhs[];
+
+	private DenseMatrix64F A;
+	private DenseMatrix64F b;
+	private DenseMatrix64F x;
+	private LinearSolver<DenseMatrix64F> solver;
+
+	/**
+	 * @param degree Degree of the polynomial which is fit.
+	 */
+	public FitPolynomial1D_F64( int degree ) {
+		if( degree < 0 )
+			throw new IllegalArgumentException( "Degree must be non-negative" );
+
+		this.degree = degree;
+		this.numCoef = degree + 1;
+
+		powers = new double[ 2*degree + 1 ];
+		rhs = new double[ numCoef ];
+
+		A = new DenseMatrix64F( numCoef, numCoef );
+		b = new DenseMatrix64F( numCoef, 1 );
+		x = new DenseMatrix64F( numCoef, 1 );
+		solver = LinearSolverFactory.symmPosDef( numCoef );
+	}
+
+	/**
+	 * Fits a polynomial to the points, where x is the independent variable.
+	 *
+	 * @param points Samples.  Not modified.
+	 * @param poly Storage for the found polynomial.  Must have the same degree as the fitter.  Modified.
+	 * @return true if successful.
+	 */
+	public boolean process( List<Point2D_F64> points, Polynomial1D_F64 poly ) {
+		reset();
+		for( int i = 0; i < points.size(); i++ ) {
+			Point2D_F64 p = points.get( i );
+			add( p.x, p.y, 1 );
+		}
+		return solve( poly );
+	}
+
+	/**
+	 * Fits a polynomial to the points, where x is the independent variable.
+	 *
+	 * @param points Samples.  Not modified.
+	 * @param poly Storage for the found polynomial.  Must have the same degree as the fitter.  Modified.
+	 * @return true if successful.
+	 */
+	public boolean process( PointCloud2D_F64 points, Polynomial1D_F64 poly ) {
+		final double data[] = points.data;
+
+		reset();
+		for( int i = 0; i < points.size*2; i += 2 ) {
+			add( data[i], data[i+1], 1 );
+		}
+		return solve( poly );
+	}
+
+	/**
+	 * Removes all the samples
+	 */
+	public void reset() {
+		N = 0;
+		for( int i = 0; i < powers.length; i++ )
+			powers[i] = 0;
+		for( int i = 0; i < rhs.length; i++ )
+			rhs[i] = 0;
+	}
+
+	public void add( double x, double y ) {
+		add( x, y, 1 );
+	}
+
+	/**
+	 * Adds a weighted sample.
+	 *
+	 * @param x Independent variable.
+	 * @param y Observed value.
+	 * @param weight Weight of the sample.  weight &ge; 0
+	 */
+	public void add( double x, double y, double weight ) {
+		N++;
+		update( weight, x, y );
+	}
+
+	public void remove( double x, double y ) {
+		remove( x, y, 1 );
+	}
+
+	/**
+	 * Removes a sample which had previously been added.  The weight must be the same as when it was added.
+	 *
+	 * @param x Independent variable.
+	 * @param y Observed value.
+	 * @param weight Weight the sample was added with.
+	 */
+	public void remove( double x, double y, double weight ) {
+		if( N <= 0 )
+			throw new IllegalArgumentException( "No samples to remove" );
+
+		if( --N == 0 ) {
+			// clear any round off error which has built up
+			reset();
+		} else {
+			update( -weight, x, y );
+		}
+	}
+
+	private void update( double weight, double x, double y ) {
+		double p = weight;
+		for( int k = 0; k <= degree; k++ ) {
+			powers[k] += p;
+			rhs[k] += p*y;
+			p *= x;
+		}
+		for( int k = degree + 1; k < powers.length; k++ ) {
+			powers[k] += p;
+			p *= x;
+		}
+	}
+
+	/**
+	 * Solves for the polynomial which best fits the current set of samples.
+	 *
+	 * @param poly Storage for the found polynomial.  Must have the same degree as the fitter.  Modified.
+	 * @return true if successful or false if there are too few samples or the system is singular.
+	 */
+	public boolean solve( Polynomial1D_F64 poly ) {
+		if( poly.getDegree() != degree )
+			throw new IllegalArgumentException( "Polynomial has the wrong degree" );
+		if( N < numCoef )
+			return false;
+
+		// A^T*A is a Hankel matrix of the power sums
+		for( int i = 0; i < numCoef; i++ ) {
+			for( int j = 0; j < numCoef; j++ ) {
+				A.data[i*numCoef + j] = powers[i + j];
+			}
+			b.data[i] = rhs[i];
+		}
+
+		if( !solver.setA( A ) )
+			return false;
+		solver.solve( b, x );
+
+		for( int i = 0; i < numCoef; i++ ) {
+			poly.c[i] = (double)x.data[i];
+		}
+
+		return true;
+	}
+
+	/**
+	 * Number of samples which have been added
+	 */
+	public int size() {
+		return N;
+	}
+
+	public int getDegree() {
+		return degree;
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.curve;
+
+import georegression.struct.curve.Polynomial2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.ejml.alg.dense.linsol.LinearSolver;
+import org.ejml.alg.dense.linsol.LinearSolverFactory;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Fits a {@link Polynomial2D_F32} surface to a set of samples (x,y,z) by minimizing the sum of squared errors
+ * sum(i=1:N, w_i*(z_i - f(x_i,y_i))<sup>2</sup>).  The normal equations are accumulated in a single pass and
+ * samples can be added or removed at any time.
+ * </p>
+ *
+ * <p>
+ * The normal equations are solved using a Cholesky decomposition.  All matrices and the decomposition's
+ * workspace are declared once, so the same instance can be used to fit a large number of polynomials without
+ * creating new memory.  Higher degree polynomials become ill conditioned unless x and y are scaled to be
+ * close to the range [-1,1].
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitPolynomial2D_F32 {
+
+	// degree of the polynomial and the number of coefficients
+	private int degree;
+	private int numCoef;
+
+	// number of samples
+	private int N;
+
+	// value of each term for the current sample
+	private float terms[];
+	// upper triangle of A^T*A, stored in a row-major square array
+	private float sumAA[];
+	// A^T*z
+	private float sumAz[];
+
+	private DenseMatrix64F A;
+	private DenseMatrix64F b;
+	private DenseMatrix64F x;
+	private LinearSolver<DenseMatrix64F> solver;
+
+	/**
+	 * @param degree Degree of the polynomial which is fit.
+	 */
+	public FitPolynomial2D_F32( int degree ) {
+		if( degree < 0 )
+			throw new IllegalArgumentException( "Degree must be non-negative" );
+
+		this.degree = degree;
+		this.numCoef = Polynomial2D_F32.numTerms( degree );
+
+		terms = new float[ numCoef ];
+		sumAA = new float[ numCoef*numCoef ];
+		sumAz = new float[ numCoef ];
+
+		A = new DenseMatrix64F( numCoef, numCoef );
+		b = new DenseMatrix64F( numCoef, 1 );
+		x = new DenseMatrix64F( numCoef, 1 );
+		solver = LinearSolverFactory.symmPosDef( numCoef );
+	}
+
+	/**
+	 * Fits a polynomial to the points, where z is a function of x and y.
+	 *
+	 * @param points Samples.  Not modified.
+	 * @param poly Storage for the found polynomial.  Must have the same degree as the fitter.  Modified.
+	 * @return true if successful.
+	 */
+	public boolean process( List<Point3D_F32> points, Polynomial2D_F32 poly ) {
+		reset();
+		for( int i = 0; i < points.size(); i++ ) {
+			Point3D_F32 p = points.get( i );
+			add( p.x, p.y, p.z, 1 );
+		}
+		return solve( poly );
+	}
+
+	/**
+	 * Fits a polynomial to the points, where z is a function of x and y.
+	 *
+	 * @param points Samples.  Not modified.
+	 * @param poly Storage for the found polynomial.  Must have the same degree as the fitter.  Modified.
+	 * @return true if successful.
+	 */
+	public boolean process( PointCloud3D_F32 points, Polynomial2D_F32 poly ) {
+		final float data[] = points.data;
+
+		reset();
+		for( int i = 0; i < points.size*3; i += 3 ) {
+			add( data[i], data[i+1], data[i+2], 1 );
+		}
+		return solve( poly );
+	}
+
+	/**
+	 * Removes all the samples
+	 */
+	public void reset() {
+		N = 0;
+		for( int i = 0; i < sumAA.length; i++ )
+			sumAA[i] = 0;
+		for( int i = 0; i < sumAz.length; i++ )
+			sumAz[i] = 0;
+	}
+
+	public void add( float x, float y, float z ) {
+		add( x, y, z, 1 );
+	}
+
+	/**
+	 * Adds a weighted sample.
+	 *
+	 * @param x First independent variable.
+	 * @param y Second independent variable.
+	 * @param z Observed value.
+	 * @param weight Weight of the sample.  weight &ge; 0
+	 */
+	public void add( float x, float y, float z, float weight ) {
+		N++;
+		update( weight, x, y, z );
+	}
+
+	public void remove( float x, float y, float z ) {
+		remove( x, y, z, 1 );
+	}
+
+	/**
+	 * Removes a sample which had previously been added.  The weight must be the same as when it was added.
+	 *
+	 * @param x First independent variable.
+	 * @param y Second independent variable.
+	 * @param z Observed value.
+	 * @param weight Weight the sample was added with.
+	 */
+	public void remove( float x, float y, float z, float weight ) {
+		if( N <= 0 )
+			throw new IllegalArgumentException( "No samples to remove" );
+
+		if( --N == 0 ) {
+			// clear any round off error which has built up
+			reset();
+		} else {
+			update( -weight, x, y, z );
+		}
+	}
+
+	private void update( float weight, float x, float y, float z ) {
+		computeTerms( x, y );
+
+		for( int i = 0; i < numCoef; i++ ) {
+			float w = weight*terms[i];
+			sumAz[i] += w*z;
+			int index = i*numCoef;
+			for( int j = i; j < numCoef; j++ ) {
+				sumAA[index + j] += w*terms[j];
+			}
+		}
+	}
+
+	/**
+	 * Computes the value of each term in the same order as the coefficients in {@link Polynomial2D_F32}.
+	 * Each term of degree d is found by multiplying a term of degree d-1 by x, except for the last one which
+	 * uses y.
+	 */
+	private void computeTerms( float x, float y ) {
+		terms[0] = 1;
+		int prev = 0;
+		int index = 1;
+		for( int d = 1; d <= degree; d++ ) {
+			for( int j = 0; j < d; j++ ) {
+				terms[index++] = terms[prev + j]*x;
+			}
+			terms[index++] = terms[prev + d - 1]*y;
+			prev += d;
+		}
+	}
+
+	/**
+	 * Solves for the polynomial which best fits the current set of samples.
+	 *
+	 * @param poly Storage for the found polynomial.  Must have the same degree as the fitter.  Modified.
+	 * @return true if successful or false if there are too few samples or the system is singular.
+	 */
+	public boolean solve( Polynomial2D_F32 poly ) {
+		if( poly.getDegree() != degree )
+			throw new IllegalArgumentException( "Polynomial has the wrong degree" );
+		if( N < numCoef )
+			return false;
+
+		for( int i = 0; i < numCoef; i++ ) {
+			for( int j = i; j < numCoef; j++ ) {
+				float value = sumAA[i*numCoef + j];
+				A.data[i*numCoef + j] = value;
+				A.data[j*numCoef + i] = value;
+			}
+			b.data[i] = sumAz[i];
+		}
+
+		if( !solver.setA( A ) )
+			return false;
+		solver.solve( b, x );
+
+		for( int i = 0; i < numCoef; i++ ) {
+			poly.c[i] = (float)x.data[i];
+		}
+
+		return true;
+	}
+
+	/**
+	 * Number of samples which have been added
+	 */
+	public int size() {
+		return N;
+	}
+
+	public int getDegree() {
+		return degree;
+	}
+}
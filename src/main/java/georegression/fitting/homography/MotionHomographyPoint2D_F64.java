@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.homography;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.struct.homo.Homography2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+import org.ejml.alg.dense.decomposition.DecompositionFactory;
+import org.ejml.alg.dense.decomposition.EigenDecomposition;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Estimates a {@link Homography2D_F64} from a set of point correspondences using the normalized Direct Linear
+ * Transform (DLT).  Both sets of points are first translated to have a mean of zero and scaled to have an RMS
+ * distance of sqrt(2) from the origin, which greatly improves the conditioning of the linear system.
+ * </p>
+ *
+ * <p>
+ * Two solvers are used depending on the number of points:
+ * <ul>
+ * <li>4 points: Closed form solution which maps each set of points onto the canonical projective basis.  No
+ * matrix decomposition is required, which makes it well suited to the inner loop of RANSAC.</li>
+ * <li>5 or more points: The 9x9 matrix A<sup>T</sup>A is accumulated in a single pass through the points,
+ * without ever building the 2N by 9 matrix A, and the solution is the eigenvector of its smallest eigenvalue.</li>
+ * </ul>
+ * The found homography is scaled to have a Frobenius norm of one.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionHomographyPoint2D_F64 implements MotionTransformPoint<Homography2D_F64, Point2D_F64> {
+
+	// tolerance for three normalized points being collinear in the minimal solution
+	private static final double COLLINEAR_TOL = Math.ulp( 1.0 )*100;
+
+	// normalization applied to the 'from' points:  x' = scale*(x - mean)
+	private double meanX1, meanY1, scale1;
+	// normalization applied to the 'to' points
+	private double meanX2, meanY2, scale2;
+
+	// A^T*A is composed of 3x3 blocks which are multiples of p*p^T, where p = (x,y,1) is the normalized 'from'
+	// point.  Each array stores the upper triangle [xx,xy,x,yy,y,1] of the sum of p*p^T weighted by:
+	// 1, x2, y2, and x2^2 + y2^2 respectively, where (x2,y2) is the normalized 'to' point.
+	private double sumP[] = new double[6];
+	private double sumPx[] = new double[6];
+	private double sumPy[] = new double[6];
+	private double sumPxy[] = new double[6];
+
+	// normalized points for the minimal solution
+	private double x1[] = new double[4], y1[] = new double[4];
+	private double x2[] = new double[4], y2[] = new double[4];
+	// rows of the adjugate matrix for each set of points in the minimal solution
+	private double adj1[] = new double[9];
+	private double adj2[] = new double[9];
+
+	// homography in normalized coordinates.  row-major
+	private double h[] = new double[9];
+
+	private DenseMatrix64F ATA = new DenseMatrix64F( 9, 9 );
+	private EigenDecomposition<DenseMatrix64F> eig = DecompositionFactory.eigSymm( 9, true );
+
+	private Homography2D_F64 model = new Homography2D_F64();
+
+	@Override
+	public Homography2D_F64 getMotion() {
+		return model;
+	}
+
+	/**
+	 *  @inheritdoc
+	 */
+	@Override
+	public boolean process( List<Point2D_F64> fromPts, List<Point2D_F64> toPts ) {
+		int N = fromPts.size();
+
+		if( N != toPts.size() ) {
+			throw new IllegalArgumentException( "From and to lists must be the same size" );
+		} else if( N < 4 ) {
+			throw new IllegalArgumentException( "Must be at least 4 points" );
+		}
+
+		double sx1 = 0, sy1 = 0, sxx1 = 0;
+		double sx2 = 0, sy2 = 0, sxx2 = 0;
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 a = fromPts.get( i );
+			Point2D_F64 b = toPts.get( i );
+
+			sx1 += a.x; sy1 += a.y; sxx1 += a.x*a.x + a.y*a.y;
+			sx2 += b.x; sy2 += b.y; sxx2 += b.x*b.x + b.y*b.y;
+		}
+		if( !computeNormalization( N, sx1, sy1, sxx1, sx2, sy2, sxx2 ) )
+			return false;
+
+		if( N == 4 ) {
+			for( int i = 0; i < 4; i++ ) {
+				Point2D_F64 a = fromPts.get( i );
+				Point2D_F64 b = toPts.get( i );
+
+				x1[i] = scale1*( a.x - meanX1 ); y1[i] = scale1*( a.y - meanY1 );
+				x2[i] = scale2*( b.x - meanX2 ); y2[i] = scale2*( b.y - meanY2 );
+			}
+			return solveMinimal();
+		}
+
+		resetSums();
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 a = fromPts.get( i );
+			Point2D_F64 b = toPts.get( i );
+
+			accumulate( scale1*( a.x - meanX1 ), scale1*( a.y - meanY1 ),
+					scale2*( b.x - meanX2 ), scale2*( b.y - meanY2 ) );
+		}
+		return solveLinear();
+	}
+
+	/**
+	 * Same as {@link #process(java.util.List, java.util.List)} but the points are read directly from packed arrays.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if the computation successfully produced a solution and false if not.
+	 */
+	public boolean process( PointCloud2D_F64 fromPts, PointCloud2D_F64 toPts ) {
+		int N = fromPts.size;
+
+		if( N != toPts.size ) {
+			throw new IllegalArgumentException( "From and to lists must be the same size" );
+		} else if( N < 4 ) {
+			throw new IllegalArgumentException( "Must be at least 4 points" );
+		}
+
+		final double from[] = fromPts.data;
+		final double to[] = toPts.data;
+
+		double sx1 = 0, sy1 = 0, sxx1 = 0;
+		double sx2 = 0, sy2 = 0, sxx2 = 0;
+		for( int i = 0; i < N*2; i += 2 ) {
+			double ax = from[i], ay = from[i+1];
+			double bx = to[i], by = to[i+1];
+
+			sx1 += ax; sy1 += ay; sxx1 += ax*ax + ay*ay;
+			sx2 += bx; sy2 += by; sxx2 += bx*bx + by*by;
+		}
+		if( !computeNormalization( N, sx1, sy1, sxx1, sx2, sy2, sxx2 ) )
+			return false;
+
+		if( N == 4 ) {
+			for( int i = 0; i < 4; i++ ) {
+				x1[i] = scale1*( from[i*2] - meanX1 ); y1[i] = scale1*( from[i*2+1] - meanY1 );
+				x2[i] = scale2*( to[i*2] - meanX2 ); y2[i] = scale2*( to[i*2+1] - meanY2 );
+			}
+			return solveMinimal();
+		}
+
+		resetSums();
+		for( int i = 0; i < N*2; i += 2 ) {
+			accumulate( scale1*( from[i] - meanX1 ), scale1*( from[i+1] - meanY1 ),
+					scale2*( to[i] - meanX2 ), scale2*( to[i+1] - meanY2 ) );
+		}
+		return solveLinear();
+	}
+
+	/**
+	 * Computes the translation and scale which normalize each set of points from their sums
+	 */
+	private boolean computeNormalization( int N,
+										  double sx1, double sy1, double sxx1,
+										  double sx2, double sy2, double sxx2 ) {
+		meanX1 = sx1/N; meanY1 = sy1/N;
+		meanX2 = sx2/N; meanY2 = sy2/N;
+
+		double var1 = sxx1/N - meanX1*meanX1 - meanY1*meanY1;
+		double var2 = sxx2/N - meanX2*meanX2 - meanY2*meanY2;
+
+		// all the points are at the same location
+		if( !( var1 > 0 && var2 > 0 ) )
+			return false;
+
+		scale1 = Math.sqrt( 2/var1 );
+		scale2 = Math.sqrt( 2/var2 );
+
+		return true;
+	}
+
+	private void resetSums() {
+		for( int i = 0; i < 6; i++ ) {
+			sumP[i] = sumPx[i] = sumPy[i] = sumPxy[i] = 0;
+		}
+	}
+
+	/**
+	 * Adds a normalized point pair to A<sup>T</sup>A.  Each pair adds the two rows [p^T, 0, -x2*p^T] and
+	 * [0, -p^T, y2*p^T] to A.
+	 */
+	private void accumulate( double x1, double y1, double x2, double y2 ) {
+		double xx = x1*x1, xy = x1*y1, yy = y1*y1;
+
+		add( sumP, 1, xx, xy, x1, yy, y1 );
+		add( sumPx, x2, xx, xy, x1, yy, y1 );
+		add( sumPy, y2, xx, xy, x1, yy, y1 );
+		add( sumPxy, x2*x2 + y2*y2, xx, xy, x1, yy, y1 );
+	}
+
+	private static void add( double sum[], double w, double xx, double xy, double x, double yy, double y ) {
+		sum[0] += w*xx;
+		sum[1] += w*xy;
+		sum[2] += w*x;
+		sum[3] += w*yy;
+		sum[4] += w*y;
+		sum[5] += w;
+	}
+
+	/**
+	 * Assembles A<sup>T</sup>A from the accumulated sums and finds its null space
+	 */
+	private boolean solveLinear() {
+		//          |  P     0   -Px  |
+		// A^T*A =  |  0     P   -Py  |
+		//          | -Px   -Py   Pxy |
+		setBlock( 0, 0, sumP, 1 );
+		setBlock( 0, 3, sumP, 0 );
+		setBlock( 0, 6, sumPx, -1 );
+		setBlock( 3, 3, sumP, 1 );
+		setBlock( 3, 6, sumPy, -1 );
+		setBlock( 6, 6, sumPxy, 1 );
+
+		if( !eig.decompose( ATA ) )
+			return false;
+
+		// the solution is the eigenvector with the smallest eigenvalue
+		int best = -1;
+		/**/double bestValue = Double.MAX_VALUE;
+		for( int i = 0; i < 9; i++ ) {
+			/**/double value = eig.getEigenvalue( i ).real;
+			if( value < bestValue ) {
+				bestValue = value;
+				best = i;
+			}
+		}
+		if( best < 0 )
+			return false;
+
+		DenseMatrix64F v = eig.getEigenVector( best );
+		for( int i = 0; i < 9; i++ ) {
+			h[i] = (double)v.data[i];
+		}
+
+		return undoNormalization();
+	}
+
+	/**
+	 * Writes the symmetric 3x3 block and its transpose into A<sup>T</sup>A
+	 */
+	private void setBlock( int row, int col, double sum[], double sign ) {
+		double xx = sign*sum[0], xy = sign*sum[1], x = sign*sum[2];
+		double yy = sign*sum[3], y = sign*sum[4], n = sign*sum[5];
+
+		setSymmetric( row, col, xx, xy, x, yy, y, n );
+		if( row != col )
+			setSymmetric( col, row, xx, xy, x, yy, y, n );
+	}
+
+	private void setSymmetric( int row, int col, double xx, double xy, double x, double yy, double y, double n ) {
+		ATA.unsafe_set( row, col, xx );
+		ATA.unsafe_set( row, col + 1, xy );
+		ATA.unsafe_set( row, col + 2, x );
+		ATA.unsafe_set( row + 1, col, xy );
+		ATA.unsafe_set( row + 1, col + 1, yy );
+		ATA.unsafe_set( row + 1, col + 2, y );
+		ATA.unsafe_set( row + 2, col, x );
+		ATA.unsafe_set( row + 2, col + 1, y );
+		ATA.unsafe_set( row + 2, col + 2, n );
+	}
+
+	/**
+	 * <p>
+	 * Minimal solution from exactly four points.  If P = [p1 p2 p3] and lambda = P<sup>-1</sup>*p4 then
+	 * P*diag(lambda) maps the canonical basis e1, e2, e3, (1,1,1) onto the four points.  The homography is
+	 * then H = Q*diag(mu)*diag(lambda)<sup>-1</sup>*P<sup>-1</sup>, where Q and mu are found the same way from the
+	 * 'to' points.
+	 * </p>
+	 *
+	 * <p>
+	 * Since the scale of H is arbitrary, adjugates are used instead of inverses and diag(lambda)<sup>-1</sup>
+	 * is replaced by the product of the other two elements of lambda, which removes all divisions.
+	 * </p>
+	 */
+	private boolean solveMinimal() {
+		if( !adjugate( x1, y1, adj1 ) || !adjugate( x2, y2, adj2 ) )
+			return false;
+
+		// lambda and mu, up to scale
+		double l1 = adj1[0]*x1[3] + adj1[1]*y1[3] + adj1[2];
+		double l2 = adj1[3]*x1[3] + adj1[4]*y1[3] + adj1[5];
+		double l3 = adj1[6]*x1[3] + adj1[7]*y1[3] + adj1[8];
+		double m1 = adj2[0]*x2[3] + adj2[1]*y2[3] + adj2[2];
+		double m2 = adj2[3]*x2[3] + adj2[4]*y2[3] + adj2[5];
+		double m3 = adj2[6]*x2[3] + adj2[7]*y2[3] + adj2[8];
+
+		// three of the points are collinear
+		if( Math.abs( l1 ) <= COLLINEAR_TOL || Math.abs( l2 ) <= COLLINEAR_TOL || Math.abs( l3 ) <= COLLINEAR_TOL ||
+				Math.abs( m1 ) <= COLLINEAR_TOL || Math.abs( m2 ) <= COLLINEAR_TOL || Math.abs( m3 ) <= COLLINEAR_TOL )
+			return false;
+
+		double d1 = m1*l2*l3;
+		double d2 = m2*l1*l3;
+		double d3 = m3*l1*l2;
+
+		// H = Q*diag(d)*adj(P), where column i of Q is (x2[i],y2[i],1)
+		for( int col = 0; col < 3; col++ ) {
+			double c1 = d1*adj1[col];
+			double c2 = d2*adj1[3 + col];
+			double c3 = d3*adj1[6 + col];
+
+			h[col]     = x2[0]*c1 + x2[1]*c2 + x2[2]*c3;
+			h[3 + col] = y2[0]*c1 + y2[1]*c2 + y2[2]*c3;
+			h[6 + col] = c1 + c2 + c3;
+		}
+
+		return undoNormalization();
+	}
+
+	/**
+	 * Computes the adjugate of the matrix whose columns are the first three points in homogeneous coordinates.
+	 * For columns a, b, c the rows of the adjugate are b&times;c, c&times;a, and a&times;b.
+	 *
+	 * @return false if the points are collinear
+	 */
+	private static boolean adjugate( double x[], double y[], double adj[] ) {
+		cross( x[1], y[1], x[2], y[2], adj, 0 );
+		cross( x[2], y[2], x[0], y[0], adj, 3 );
+		cross( x[0], y[0], x[1], y[1], adj, 6 );
+
+		double det = x[0]*adj[0] + y[0]*adj[1] + adj[2];
+
+		return Math.abs( det ) > COLLINEAR_TOL;
+	}
+
+	/**
+	 * Cross product of (ax,ay,1) and (bx,by,1)
+	 */
+	private static void cross( double ax, double ay, double bx, double by, double out[], int offset ) {
+		out[offset]     = ay - by;
+		out[offset + 1] = bx - ax;
+		out[offset + 2] = ax*by - ay*bx;
+	}
+
+	/**
+	 * Converts the homography from normalized coordinates back into the original coordinates,
+	 * H = T2<sup>-1</sup>*H'*T1, and scales it to have a Frobenius norm of one.
+	 */
+	private boolean undoNormalization() {
+		// M = H'*T1
+		double m11 = scale1*h[0], m12 = scale1*h[1], m13 = h[2] - m11*meanX1 - m12*meanY1;
+		double m21 = scale1*h[3], m22 = scale1*h[4], m23 = h[5] - m21*meanX1 - m22*meanY1;
+		double m31 = scale1*h[6], m32 = scale1*h[7], m33 = h[8] - m31*meanX1 - m32*meanY1;
+
+		// H = inv(T2)*M
+		double s = 1.0/scale2;
+		model.a11 = s*m11 + meanX2*m31;
+		model.a12 = s*m12 + meanX2*m32;
+		model.a13 = s*m13 + meanX2*m33;
+		model.a21 = s*m21 + meanY2*m31;
+		model.a22 = s*m22 + meanY2*m32;
+		model.a23 = s*m23 + meanY2*m33;
+		model.a31 = m31;
+		model.a32 = m32;
+		model.a33 = m33;
+
+		double norm = Math.sqrt( model.a11*model.a11 + model.a12*model.a12 + model.a13*model.a13 +
+				model.a21*model.a21 + model.a22*model.a22 + model.a23*model.a23 +
+				model.a31*model.a31 + model.a32*model.a32 + model.a33*model.a33 );
+
+		if( !( norm > 0 ) || Double.isInfinite( norm ) )
+			return false;
+
+		model.scale( 1 / norm );
+
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 4;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.homography;
+
+import georegression.fitting.ResidualTransformPoint;
+import georegression.struct.homo.Homography2D_F32;
+import georegression.struct.point.Point2D_F32;
+
+/**
+ * Residual error is the Euclidean distance squared between the transformed 'from' point and the 'to' point.
+ *
+ * @author Peter Abeles
+ */
+public class ResidualHomographyPointSq_F32 implements ResidualTransformPoint<Homography2D_F32, Point2D_F32> {
+
+	// local copy of the transform
+	private float a11, a12, a13;
+	private float a21, a22, a23;
+	private float a31, a32, a33;
+
+	@Override
+	public void setMotion( Homography2D_F32 motion ) {
+		a11 = motion.a11; a12 = motion.a12; a13 = motion.a13;
+		a21 = motion.a21; a22 = motion.a22; a23 = motion.a23;
+		a31 = motion.a31; a32 = motion.a32; a33 = motion.a33;
+	}
+
+	@Override
+	public /**/double computeResidual( Point2D_F32 from, Point2D_F32 to ) {
+		float z = a31 * from.x + a32 * from.y + a33;
+
+		float dx = ( a11 * from.x + a12 * from.y + a13 )/z - to.x;
+		float dy = ( a21 * from.x + a22 * from.y + a23 )/z - to.y;
+
+		return dx*dx + dy*dy;
+	}
+}
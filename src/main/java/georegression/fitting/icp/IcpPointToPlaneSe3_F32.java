@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.icp;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.metric.nn.NearestNeighbor3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.so.Rodrigues;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.alg.dense.linsol.LinearSolver;
+import org.ejml.alg.dense.linsol.LinearSolverFactory;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+
+/**
+ * <p>
+ * Point-to-plane Iterative Closest Point (ICP) for aligning a 3D point cloud to a reference cloud with
+ * surface normals.  The distance from each transformed point to the tangent plane of its closest reference
+ * point is minimized, which converges in far fewer iterations than point-to-point ICP on scenes dominated
+ * by planar surfaces.
+ * </p>
+ *
+ * <p>
+ * Each iteration the rotation is linearized using the small angle approximation, R*p &asymp; p + &omega; &times; p,
+ * giving a residual for each associated pair of
+ * <pre>
+ * r = (p - q)&middot;n + (p &times; n)&middot;&omega; + n&middot;T
+ * </pre>
+ * where p is the transformed point, q its closest reference point, and n the reference point's normal.  The
+ * 6x6 normal equations are accumulated in a single pass over the packed arrays and solved using Cholesky
+ * decomposition.  The estimated rotation vector &omega; is converted into a rotation matrix using Rodrigues
+ * before being applied, so that the motion is always a valid rigid body transform.
+ * </p>
+ *
+ * <p>
+ * All storage is declared once and reused, so after the first call to process no memory is allocated
+ * unless the moving cloud is larger than before.
+ * </p>
+ *
+ * <p>
+ * Y. Chen and G. Medioni, "Object Modeling by Registration of Multiple Range Images" Image and Vision
+ * Computing, Vol 10, No. 3, 1992
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IcpPointToPlaneSe3_F32 {
+
+	// the cloud being aligned against and its surface normals
+	private PointCloud3D_F32 reference;
+	private PointCloud3D_F32 normals;
+	// finds correspondences in the reference cloud
+	private NearestNeighbor3D_F32 nn;
+
+	// maximum number of iterations
+	private int maxIterations;
+	// stop when the RMS error changes by less than this amount
+	private float convergenceTol;
+	// points farther apart than this, squared, are not associated
+	private float maxDistanceSq;
+
+	// moving cloud after being transformed by the current estimate
+	private PointCloud3D_F32 transformed = new PointCloud3D_F32();
+
+	// normal equations A*x = -b for x = [omega,T]
+	private DenseMatrix64F A = new DenseMatrix64F( 6, 6 );
+	private DenseMatrix64F b = new DenseMatrix64F( 6, 1 );
+	private DenseMatrix64F x = new DenseMatrix64F( 6, 1 );
+	private LinearSolver<DenseMatrix64F> solver = LinearSolverFactory.symmPosDef( 6 );
+	// jacobian of a single residual
+	private float J[] = new float[6];
+
+	// transform from the original moving cloud into the reference cloud
+	private Se3_F32 motion = new Se3_F32();
+	private Se3_F32 delta = new Se3_F32();
+	private Se3_F32 work = new Se3_F32();
+	private Rodrigues rodrigues = new Rodrigues();
+	private Point3D_F32 p = new Point3D_F32();
+
+	private int iterations;
+	private int numMatches;
+	private float rms;
+
+	/**
+	 * Configures ICP.
+	 *
+	 * @param nn Nearest neighbor search used to find correspondences, e.g. {@link georegression.metric.nn.KdTree3D_F32}.
+	 * @param maxIterations Maximum number of iterations.
+	 * @param convergenceTol Stops when the RMS error changes by less than this amount.
+	 * @param maxDistance Point pairs farther apart than this are not associated.
+	 */
+	public IcpPointToPlaneSe3_F32( NearestNeighbor3D_F32 nn, int maxIterations,
+								   float convergenceTol, float maxDistance ) {
+		this.nn = nn;
+		this.maxIterations = maxIterations;
+		this.convergenceTol = convergenceTol;
+		this.maxDistanceSq = maxDistance*maxDistance;
+	}
+
+	/**
+	 * Specifies the reference cloud which the moving cloud is aligned to.  References to the clouds are
+	 * saved and they must not be modified while in use.
+	 *
+	 * @param reference The reference cloud.  Not modified.
+	 * @param normals Unit surface normal of each point in the reference cloud.  Not modified.
+	 */
+	public void setReference( PointCloud3D_F32 reference, PointCloud3D_F32 normals ) {
+		if( reference.size != normals.size )
+			throw new IllegalArgumentException( "There must be a normal for each reference point" );
+
+		this.reference = reference;
+		this.normals = normals;
+		nn.setPoints( reference );
+	}
+
+	/**
+	 * Aligns the moving cloud to the reference cloud starting from the identity transform.
+	 *
+	 * @param moving The cloud being aligned.  Not modified.
+	 * @return true if it converged and false if it failed or hit the iteration limit.
+	 */
+	public boolean process( PointCloud3D_F32 moving ) {
+		motion.reset();
+		return process( moving, motion );
+	}
+
+	/**
+	 * Aligns the moving cloud to the reference cloud.
+	 *
+	 * @param moving The cloud being aligned.  Not modified.
+	 * @param initial Initial estimate of the transform from moving to reference.  Not modified.
+	 * @return true if it converged and false if it failed or hit the iteration limit.
+	 */
+	public boolean process( PointCloud3D_F32 moving, Se3_F32 initial ) {
+		motion.set( initial );
+		transformed.resize( moving.size );
+		for( int i = 0; i < moving.size; i++ ) {
+			moving.get( i, p );
+			SePointOps_F32.transform( motion, p, p );
+			transformed.set( i, p.x, p.y, p.z );
+		}
+
+		float previousRms = Float.MAX_VALUE;
+		for( iterations = 0; iterations < maxIterations; ) {
+			if( !computeNormalEquations() )
+				return false;
+
+			if( !solver.setA( A ) )
+				return false;
+			solver.solve( b, x );
+
+			computeDelta();
+			applyInPlace( delta );
+			motion.concat( delta, work );
+			motion.set( work );
+			iterations++;
+
+			if( (float)Math.abs( previousRms - rms ) <= convergenceTol )
+				return true;
+			previousRms = rms;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Associates each transformed point with its closest reference point and accumulates the normal
+	 * equations and the RMS point-to-plane error in the same pass.
+	 *
+	 * @return true if there are enough associations to estimate the motion.
+	 */
+	private boolean computeNormalEquations() {
+		A.zero();
+		b.zero();
+		final /**/double a[] = A.data;
+		final /**/double rhs[] = b.data;
+
+		final float data[] = transformed.data;
+		final float ref[] = reference.data;
+		final float norm[] = normals.data;
+
+		float sumSq = 0;
+		numMatches = 0;
+		for( int i = 0, index = 0; i < transformed.size; i++, index += 3 ) {
+			float px = data[index], py = data[index+1], pz = data[index+2];
+
+			int match = nn.findNearest( px, py, pz, maxDistanceSq );
+			if( match < 0 )
+				continue;
+			match *= 3;
+
+			float nx = norm[match], ny = norm[match+1], nz = norm[match+2];
+			float r = ( px - ref[match] )*nx + ( py - ref[match+1] )*ny + ( pz - ref[match+2] )*nz;
+
+			// p cross n
+			J[0] = py*nz - pz*ny;
+			J[1] = pz*nx - px*nz;
+			J[2] = px*ny - py*nx;
+			J[3] = nx;
+			J[4] = ny;
+			J[5] = nz;
+
+			// only the upper triangle is accumulated
+			for( int row = 0; row < 6; row++ ) {
+				float v = J[row];
+				for( int col = row; col < 6; col++ ) {
+					a[row*6+col] += v*J[col];
+				}
+				rhs[row] -= v*r;
+			}
+
+			sumSq += r*r;
+			numMatches++;
+		}
+
+		if( numMatches < 6 )
+			return false;
+
+		for( int row = 1; row < 6; row++ ) {
+			for( int col = 0; col < row; col++ ) {
+				a[row*6+col] = a[col*6+row];
+			}
+		}
+
+		rms = (float)Math.sqrt( sumSq/numMatches );
+		return true;
+	}
+
+	/**
+	 * Converts the solution to the linear system into a rigid body transform
+	 */
+	private void computeDelta() {
+		float wx = (float)x.data[0], wy = (float)x.data[1], wz = (float)x.data[2];
+		float theta = (float)Math.sqrt( wx*wx + wy*wy + wz*wz );
+
+		if( theta == 0 ) {
+			CommonOps.setIdentity( delta.R );
+		} else {
+			rodrigues.setTheta( theta );
+			rodrigues.unitAxisRotation.set( wx/theta, wy/theta, wz/theta );
+			RotationMatrixGenerator.rodriguesToMatrix( rodrigues, delta.R );
+		}
+		delta.T.set( (float)x.data[3], (float)x.data[4], (float)x.data[5] );
+	}
+
+	/**
+	 * Applies the motion to the transformed cloud in place
+	 */
+	private void applyInPlace( Se3_F32 delta ) {
+		for( int i = 0; i < transformed.size; i++ ) {
+			transformed.get( i, p );
+			SePointOps_F32.transform( delta, p, p );
+			transformed.set( i, p.x, p.y, p.z );
+		}
+	}
+
+	/**
+	 * Transform from the moving cloud into the reference cloud
+	 */
+	public Se3_F32 getMotion() {
+		return motion;
+	}
+
+	/**
+	 * The moving cloud after it has been transformed by the found motion
+	 */
+	public PointCloud3D_F32 getTransformed() {
+		return transformed;
+	}
+
+	/**
+	 * Number of iterations in the last call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * RMS point-to-plane distance at the start of the last iteration
+	 */
+	public float getRms() {
+		return rms;
+	}
+
+	/**
+	 * Number of associated points in the last iteration
+	 */
+	public int getNumMatches() {
+		return numMatches;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public float getConvergenceTol() {
+		return convergenceTol;
+	}
+
+	public void setConvergenceTol( float convergenceTol ) {
+		this.convergenceTol = convergenceTol;
+	}
+
+	public float getMaxDistance() {
+		return (float)Math.sqrt( maxDistanceSq );
+	}
+
+	public void setMaxDistance( float maxDistance ) {
+		this.maxDistanceSq = maxDistance*maxDistance;
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.icp;
+
+import georegression.fitting.se.MotionSe2PointSVD_F32;
+import georegression.metric.nn.NearestNeighbor2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.transform.se.SePointOps_F32;
+
+/**
+ * <p>
+ * Point-to-point Iterative Closest Point (ICP) for aligning two 2D point clouds.  Each point in the moving
+ * cloud is associated with the closest point in the reference cloud, the rigid body motion which minimizes
+ * the distance between associated points is found using {@link MotionSe2PointSVD_F32}, and the moving cloud
+ * is transformed.  This is repeated until the change in RMS error is less than a tolerance or the maximum
+ * number of iterations has been reached.
+ * </p>
+ *
+ * <p>
+ * All storage is declared once and reused, so after the first call to process no memory is allocated
+ * unless the moving cloud is larger than before.
+ * </p>
+ *
+ * <p>
+ * P. J. Besl and N. D. McKay, "A Method for Registration of 3-D Shapes" IEEE PAMI, Vol 14, No. 2, 1992
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IcpPointToPointSe2_F32 {
+
+	// the cloud being aligned against
+	private PointCloud2D_F32 reference;
+	// finds correspondences in the reference cloud
+	private NearestNeighbor2D_F32 nn;
+	// computes the motion from a set of correspondences
+	private MotionSe2PointSVD_F32 fitter = new MotionSe2PointSVD_F32();
+
+	// maximum number of iterations
+	private int maxIterations;
+	// stop when the RMS error changes by less than this amount
+	private float convergenceTol;
+	// points farther apart than this, squared, are not associated
+	private float maxDistanceSq;
+
+	// moving cloud after being transformed by the current estimate
+	private PointCloud2D_F32 transformed = new PointCloud2D_F32();
+	// associated pairs from the transformed and reference clouds
+	private PointCloud2D_F32 matchedFrom = new PointCloud2D_F32();
+	private PointCloud2D_F32 matchedTo = new PointCloud2D_F32();
+
+	// transform from the original moving cloud into the reference cloud
+	private Se2_F32 motion = new Se2_F32();
+	private Se2_F32 work = new Se2_F32();
+	private Point2D_F32 p = new Point2D_F32();
+
+	private int iterations;
+	private float rms;
+
+	/**
+	 * Configures ICP.
+	 *
+	 * @param nn Nearest neighbor search used to find correspondences, e.g. {@link georegression.metric.nn.KdTree2D_F32}.
+	 * @param maxIterations Maximum number of iterations.
+	 * @param convergenceTol Stops when the RMS error changes by less than this amount.
+	 * @param maxDistance Point pairs farther apart than this are not associated.
+	 */
+	public IcpPointToPointSe2_F32( NearestNeighbor2D_F32 nn, int maxIterations,
+								   float convergenceTol, float maxDistance ) {
+		this.nn = nn;
+		this.maxIterations = maxIterations;
+		this.convergenceTol = convergenceTol;
+		this.maxDistanceSq = maxDistance*maxDistance;
+	}
+
+	/**
+	 * Specifies the reference cloud which the moving cloud is aligned to.  A reference to the cloud is
+	 * saved and it must not be modified while in use.
+	 *
+	 * @param reference The reference cloud.  Not modified.
+	 */
+	public void setReference( PointCloud2D_F32 reference ) {
+		this.reference = reference;
+		nn.setPoints( reference );
+	}
+
+	/**
+	 * Aligns the moving cloud to the reference cloud starting from the identity transform.
+	 *
+	 * @param moving The cloud being aligned.  Not modified.
+	 * @return true if it converged and false if it failed or hit the iteration limit.
+	 */
+	public boolean process( PointCloud2D_F32 moving ) {
+		motion.reset();
+		return process( moving, motion );
+	}
+
+	/**
+	 * Aligns the moving cloud to the reference cloud.
+	 *
+	 * @param moving The cloud being aligned.  Not modified.
+	 * @param initial Initial estimate of the transform from moving to reference.  Not modified.
+	 * @return true if it converged and false if it failed or hit the iteration limit.
+	 */
+	public boolean process( PointCloud2D_F32 moving, Se2_F32 initial ) {
+		motion.set( initial );
+		transformed.resize( moving.size );
+		for( int i = 0; i < moving.size; i++ ) {
+			SePointOps_F32.transform( motion, moving.getX( i ), moving.getY( i ), p );
+			transformed.set( i, p.x, p.y );
+		}
+
+		float previousRms = Float.MAX_VALUE;
+		for( iterations = 0; iterations < maxIterations; ) {
+			if( !associate() )
+				return false;
+
+			if( !fitter.process( matchedFrom, matchedTo ) )
+				return false;
+
+			Se2_F32 delta = fitter.getMotion();
+			applyInPlace( delta );
+			motion.concat( delta, work );
+			motion.set( work );
+			iterations++;
+
+			if( (float)Math.abs( previousRms - rms ) <= convergenceTol )
+				return true;
+			previousRms = rms;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Associates each transformed point with its closest point in the reference cloud and computes
+	 * the RMS error of the associations.
+	 *
+	 * @return true if there are enough associations to estimate the motion.
+	 */
+	private boolean associate() {
+		matchedFrom.reset();
+		matchedTo.reset();
+		matchedFrom.growArray( transformed.size );
+		matchedTo.growArray( transformed.size );
+
+		final float data[] = transformed.data;
+		final float ref[] = reference.data;
+		float sumSq = 0;
+		for( int i = 0, index = 0; i < transformed.size; i++, index += 2 ) {
+			float x = data[index], y = data[index+1];
+
+			int match = nn.findNearest( x, y, maxDistanceSq );
+			if( match < 0 )
+				continue;
+
+			sumSq += nn.getDistanceSq();
+			matchedFrom.add( x, y );
+			match *= 2;
+			matchedTo.add( ref[match], ref[match+1] );
+		}
+
+		if( matchedFrom.size < fitter.getMinimumPoints() )
+			return false;
+
+		rms = (float)Math.sqrt( sumSq/matchedFrom.size );
+		return true;
+	}
+
+	/**
+	 * Applies the motion to the transformed cloud in place
+	 */
+	private void applyInPlace( Se2_F32 delta ) {
+		for( int i = 0; i < transformed.size; i++ ) {
+			SePointOps_F32.transform( delta, transformed.getX( i ), transformed.getY( i ), p );
+			transformed.set( i, p.x, p.y );
+		}
+	}
+
+	/**
+	 * Transform from the moving cloud into the reference cloud
+	 */
+	public Se2_F32 getMotion() {
+		return motion;
+	}
+
+	/**
+	 * The moving cloud after it has been transformed by the found motion
+	 */
+	public PointCloud2D_F32 getTransformed() {
+		return transformed;
+	}
+
+	/**
+	 * Number of iterations in the last call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * RMS distance between associated points at the start of the last iteration
+	 */
+	public float getRms() {
+		return rms;
+	}
+
+	/**
+	 * Number of associated points in the last iteration
+	 */
+	public int getNumMatches() {
+		return matchedFrom.size;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public float getConvergenceTol() {
+		return convergenceTol;
+	}
+
+	public void setConvergenceTol( float convergenceTol ) {
+		this.convergenceTol = convergenceTol;
+	}
+
+	public float getMaxDistance() {
+		return (float)Math.sqrt( maxDistanceSq );
+	}
+
+	public void setMaxDistance( float maxDistance ) {
+		this.maxDistanceSq = maxDistance*maxDistance;
+	}
+}
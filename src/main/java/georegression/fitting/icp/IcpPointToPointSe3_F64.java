@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.icp;
+
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.metric.nn.NearestNeighbor3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+
+/**
+ * <p>
+ * Point-to-point Iterative Closest Point (ICP) for aligning two 3D point clouds.  Each point in the moving
+ * cloud is associated with the closest point in the reference cloud, the rigid body motion which minimizes
+ * the distance between associated points is found using {@link MotionSe3PointSVD_F64}, and the moving cloud
+ * is transformed.  This is repeated until the change in RMS error is less than a tolerance or the maximum
+ * number of iterations has been reached.
+ * </p>
+ *
+ * <p>
+ * All storage is declared once and reused, so after the first call to process no memory is allocated
+ * unless the moving cloud is larger than before.
+ * </p>
+ *
+ * <p>
+ * P. J. Besl and N. D. McKay, "A Method for Registration of 3-D Shapes" IEEE PAMI, Vol 14, No. 2, 1992
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IcpPointToPointSe3_F64 {
+
+	// the cloud being aligned against
+	private PointCloud3D_F64 reference;
+	// finds correspondences in the reference cloud
+	private NearestNeighbor3D_F64 nn;
+	// computes the motion from a set of correspondences
+	private MotionSe3PointSVD_F64 fitter = new MotionSe3PointSVD_F64();
+
+	// maximum number of iterations
+	private int maxIterations;
+	// stop when the RMS error changes by less than this amount
+	private double convergenceTol;
+	// points farther apart than this, squared, are not associated
+	private double maxDistanceSq;
+
+	// moving cloud after being transformed by the current estimate
+	private PointCloud3D_F64 transformed = new PointCloud3D_F64();
+	// associated pairs from the transformed and reference clouds
+	private PointCloud3D_F64 matchedFrom = new PointCloud3D_F64();
+	private PointCloud3D_F64 matchedTo = new PointCloud3D_F64();
+
+	// transform from the original moving cloud into the reference cloud
+	private Se3_F64 motion = new Se3_F64();
+	private Se3_F64 work = new Se3_F64();
+	private Point3D_F64 p = new Point3D_F64();
+
+	private int iterations;
+	private double rms;
+
+	/**
+	 * Configures ICP.
+	 *
+	 * @param nn Nearest neighbor search used to find correspondences, e.g. {@link georegression.metric.nn.KdTree3D_F64}.
+	 * @param maxIterations Maximum number of iterations.
+	 * @param convergenceTol Stops when the RMS error changes by less than this amount.
+	 * @param maxDistance Point pairs farther apart than this are not associated.
+	 */
+	public IcpPointToPointSe3_F64( NearestNeighbor3D_F64 nn, int maxIterations,
+								   double convergenceTol, double maxDistance ) {
+		this.nn = nn;
+		this.maxIterations = maxIterations;
+		this.convergenceTol = convergenceTol;
+		this.maxDistanceSq = maxDistance*maxDistance;
+	}
+
+	/**
+	 * Specifies the reference cloud which the moving cloud is aligned to.  A reference to the cloud is
+	 * saved and it must not be modified while in use.
+	 *
+	 * @param reference The reference cloud.  Not modified.
+	 */
+	public void setReference( PointCloud3D_F64 reference ) {
+		this.reference = reference;
+		nn.setPoints( reference );
+	}
+
+	/**
+	 * Aligns the moving cloud to the reference cloud starting from the identity transform.
+	 *
+	 * @param moving The cloud being aligned.  Not modified.
+	 * @return true if it converged and false if it failed or hit the iteration limit.
+	 */
+	public boolean process( PointCloud3D_F64 moving ) {
+		motion.reset();
+		return process( moving, motion );
+	}
+
+	/**
+	 * Aligns the moving cloud to the reference cloud.
+	 *
+	 * @param moving The cloud being aligned.  Not modified.
+	 * @param initial Initial estimate of the transform from moving to reference.  Not modified.
+	 * @return true if it converged and false if it failed or hit the iteration limit.
+	 */
+	public boolean process( PointCloud3D_F64 moving, Se3_F64 initial ) {
+		motion.set( initial );
+		transformed.resize( moving.size );
+		for( int i = 0; i < moving.size; i++ ) {
+			moving.get( i, p );
+			SePointOps_F64.transform( motion, p, p );
+			transformed.set( i, p.x, p.y, p.z );
+		}
+
+		double previousRms = Double.MAX_VALUE;
+		for( iterations = 0; iterations < maxIterations; ) {
+			if( !associate() )
+				return false;
+
+			if( !fitter.process( matchedFrom, matchedTo ) )
+				return false;
+
+			Se3_F64 delta = fitter.getMotion();
+			applyInPlace( delta );
+			motion.concat( delta, work );
+			motion.set( work );
+			iterations++;
+
+			if( Math.abs( previousRms - rms ) <= convergenceTol )
+				return true;
+			previousRms = rms;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Associates each transformed point with its closest point in the reference cloud and computes
+	 * the RMS error of the associations.
+	 *
+	 * @return true if there are enough associations to estimate the motion.
+	 */
+	private boolean associate() {
+		matchedFrom.reset();
+		matchedTo.reset();
+		matchedFrom.growArray( transformed.size );
+		matchedTo.growArray( transformed.size );
+
+		final double data[] = transformed.data;
+		final double ref[] = reference.data;
+		double sumSq = 0;
+		for( int i = 0, index = 0; i < transformed.size; i++, index += 3 ) {
+			double x = data[index], y = data[index+1], z = data[index+2];
+
+			int match = nn.findNearest( x, y, z, maxDistanceSq );
+			if( match < 0 )
+				continue;
+
+			sumSq += nn.getDistanceSq();
+			matchedFrom.add( x, y, z );
+			match *= 3;
+			matchedTo.add( ref[match], ref[match+1], ref[match+2] );
+		}
+
+		if( matchedFrom.size < fitter.getMinimumPoints() )
+			return false;
+
+		rms = Math.sqrt( sumSq/matchedFrom.size );
+		return true;
+	}
+
+	/**
+	 * Applies the motion to the transformed cloud in place
+	 */
+	private void applyInPlace( Se3_F64 delta ) {
+		for( int i = 0; i < transformed.size; i++ ) {
+			transformed.get( i, p );
+			SePointOps_F64.transform( delta, p, p );
+			transformed.set( i, p.x, p.y, p.z );
+		}
+	}
+
+	/**
+	 * Transform from the moving cloud into the reference cloud
+	 */
+	public Se3_F64 getMotion() {
+		return motion;
+	}
+
+	/**
+	 * The moving cloud after it has been transformed by the found motion
+	 */
+	public PointCloud3D_F64 getTransformed() {
+		return transformed;
+	}
+
+	/**
+	 * Number of iterations in the last call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * RMS distance between associated points at the start of the last iteration
+	 */
+	public double getRms() {
+		return rms;
+	}
+
+	/**
+	 * Number of associated points in the last iteration
+	 */
+	public int getNumMatches() {
+		return matchedFrom.size;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getConvergenceTol() {
+		return convergenceTol;
+	}
+
+	public void setConvergenceTol( double convergenceTol ) {
+		this.convergenceTol = convergenceTol;
+	}
+
+	public double getMaxDistance() {
+		return Math.sqrt( maxDistanceSq );
+	}
+
+	public void setMaxDistance( double maxDistance ) {
+		this.maxDistanceSq = maxDistance*maxDistance;
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.struct.line.LinePolar2D_F64;
+import georegression.struct.line.LineSegment2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Base class for algorithms which extract multiple lines from an ordered sequence of 2D points, such as a
+ * laser range scan.  Each line is fit to a contiguous range of points using {@link FitLine_F64}, so the points
+ * are never copied into sub-lists.  For each line its range of indexes, the best fit {@link LinePolar2D_F64}, and
+ * a {@link LineSegment2D_F64} found by projecting the first and last point in the range onto the line are
+ * provided.
+ * </p>
+ *
+ * <p>
+ * All output is stored internally and recycled between calls to process, so a single instance can be used on
+ * a stream of scans without creating new memory once the storage has grown large enough.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class ExtractLines2D_F64 {
+
+	// the points being processed
+	protected PointCloud2D_F64 points;
+	// local copy of the points when a list is passed in
+	private PointCloud2D_F64 copy = new PointCloud2D_F64();
+
+	// storage for the found lines.  Only the first 'numLines' elements are valid
+	private List<LinePolar2D_F64> lines = new ArrayList<LinePolar2D_F64>();
+	private List<LineSegment2D_F64> segments = new ArrayList<LineSegment2D_F64>();
+	private int first[] = new int[ 10 ];
+	private int last[] = new int[ 10 ];
+	private int numLines;
+
+	/**
+	 * Extracts lines from the ordered list of points.  The points are copied into an internal point cloud.
+	 *
+	 * @param points Ordered sequence of points.  Not modified.
+	 */
+	public void process( List<Point2D_F64> points ) {
+		copy.set( points );
+		process( copy );
+	}
+
+	/**
+	 * Extracts lines from the ordered sequence of points.
+	 *
+	 * @param points Ordered sequence of points.  Not modified.
+	 */
+	public void process( PointCloud2D_F64 points ) {
+		this.points = points;
+		numLines = 0;
+
+		extract();
+
+		this.points = null;
+	}
+
+	/**
+	 * Finds the lines in {@link #points} and adds them with {@link #addLine(int, int)}
+	 */
+	protected abstract void extract();
+
+	/**
+	 * Fits a line to the range of points and adds it to the output.
+	 *
+	 * @param first Index of the first point.
+	 * @param last Index of the last point, exclusive.
+	 */
+	protected void addLine( int first, int last ) {
+		if( numLines == this.first.length ) {
+			this.first = grow( this.first );
+			this.last = grow( this.last );
+		}
+		if( numLines == lines.size() ) {
+			lines.add( new LinePolar2D_F64() );
+			segments.add( new LineSegment2D_F64() );
+		}
+
+		this.first[numLines] = first;
+		this.last[numLines] = last;
+
+		LinePolar2D_F64 line = lines.get( numLines );
+		FitLine_F64.polar( points, first, last, line );
+
+		LineSegment2D_F64 segment = segments.get( numLines );
+		project( line, points.getX( first ), points.getY( first ), segment.a );
+		project( line, points.getX( last - 1 ), points.getY( last - 1 ), segment.b );
+
+		numLines++;
+	}
+
+	/**
+	 * Projects a point onto the closest point on the line
+	 */
+	private static void project( LinePolar2D_F64 line, double x, double y, Point2D_F64 result ) {
+		double c = Math.cos( line.angle );
+		double s = Math.sin( line.angle );
+		double d = x*c + y*s - line.distance;
+
+		result.set( x - d*c, y - d*s );
+	}
+
+	/**
+	 * Returns a copy of the array with twice the length
+	 */
+	protected static int[] grow( int array[] ) {
+		int tmp[] = new int[ array.length*2 ];
+		System.arraycopy( array, 0, tmp, 0, array.length );
+		return tmp;
+	}
+
+	/**
+	 * Number of lines which were found
+	 */
+	public int size() {
+		return numLines;
+	}
+
+	/**
+	 * Best fit lines.  Valid until the next call to process.
+	 */
+	public List<LinePolar2D_F64> getLines() {
+		return lines.subList( 0, numLines );
+	}
+
+	/**
+	 * Line segments between the projection of the first and last point onto each line.  Valid until the next
+	 * call to process.
+	 */
+	public List<LineSegment2D_F64> getSegments() {
+		return segments.subList( 0, numLines );
+	}
+
+	/**
+	 * Index of the first point which belongs to the line
+	 */
+	public int getFirstIndex( int line ) {
+		return first[line];
+	}
+
+	/**
+	 * Index of the last point which belongs to the line, exclusive
+	 */
+	public int getLastIndex( int line ) {
+		return last[line];
+	}
+}
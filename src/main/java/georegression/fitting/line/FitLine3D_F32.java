@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.geometry.EigenSymm3x3_F32;
+import georegression.geometry.ScatterMatrix3D_F32;
+import georegression.struct.line.LineParametric3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the 3D line which minimizes the sum of Euclidean distances squared to a set of points.  The line passes
+ * through the mean of the points and its slope is the eigenvector of the scatter matrix with the largest
+ * eigenvalue.  The slope has a length of one.
+ * </p>
+ *
+ * <p>
+ * The scatter matrix is computed in a single pass and decomposed with a specialized 3x3 eigen solver, so
+ * no memory is declared.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitLine3D_F32 {
+
+	private ScatterMatrix3D_F32 scatter = new ScatterMatrix3D_F32();
+	private EigenSymm3x3_F32 eig = new EigenSymm3x3_F32();
+
+	/**
+	 * Fits a line to the list of points.
+	 *
+	 * @param points Set of points on the line.  Not modified.
+	 * @param line Storage for the found line.  Modified.
+	 * @return true if successful or false if there are fewer than two distinct points.
+	 */
+	public boolean fit( List<Point3D_F32> points, LineParametric3D_F32 line ) {
+		scatter.process( points );
+		return solve( line );
+	}
+
+	/**
+	 * Fits a line to all the points in the cloud.
+	 *
+	 * @param cloud Set of points on the line.  Not modified.
+	 * @param line Storage for the found line.  Modified.
+	 * @return true if successful or false if there are fewer than two distinct points.
+	 */
+	public boolean fit( PointCloud3D_F32 cloud, LineParametric3D_F32 line ) {
+		scatter.process( cloud );
+		return solve( line );
+	}
+
+	/**
+	 * Fits a line to a subset of the points in the cloud.
+	 *
+	 * @param cloud Point cloud.  Not modified.
+	 * @param indexes Indexes of points in the cloud which are on the line.  Not modified.
+	 * @param count Number of elements in indexes which are used.
+	 * @param line Storage for the found line.  Modified.
+	 * @return true if successful or false if there are fewer than two distinct points.
+	 */
+	public boolean fit( PointCloud3D_F32 cloud, int indexes[], int count, LineParametric3D_F32 line ) {
+		scatter.process( cloud, indexes, count );
+		return solve( line );
+	}
+
+	private boolean solve( LineParametric3D_F32 line ) {
+		if( scatter.N < 2 )
+			return false;
+
+		eig.decompose( scatter.s11, scatter.s12, scatter.s13, scatter.s22, scatter.s23, scatter.s33 );
+
+		// all the points are at the same location
+		if( !( eig.e1 > 0 ) )
+			return false;
+
+		line.p.set( scatter.meanX, scatter.meanY, scatter.meanZ );
+		line.slope.set( eig.v11, eig.v21, eig.v31 );
+
+		return true;
+	}
+
+	/**
+	 * Eigen decomposition of the scatter matrix from the most recent fit.  The eigenvalues are the sum of
+	 * squared distances along each principal axis and can be used to judge how line-like the points are.
+	 */
+	public EigenSymm3x3_F32 getEigen() {
+		return eig;
+	}
+}
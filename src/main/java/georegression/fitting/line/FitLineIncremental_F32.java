@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.struct.line.LinePolar2D_F32;
+import georegression.struct.point.Point2D_F32;
+
+/**
+ * <p>
+ * Incrementally computes the best fit line to a set of points, producing the same solution as
+ * {@link FitLine_F32#polar}.  Instead of processing every point each time a line is requested, the weighted
+ * first and second moments of the points are maintained.  Points can be added and removed in constant time,
+ * making it well suited to fitting lines across a sliding window of points.
+ * </p>
+ *
+ * <p>
+ * The moments are computed relative to the first point which was added, which avoids most of the
+ * round off error when the points are far from the origin.  Once all the points have been removed the
+ * sums are cleared, but after a very long sequence of add and removes without that happening error
+ * can build up.  Calling {@link #reset()} and adding the current set of points again will remove that error.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitLineIncremental_F32 {
+
+	// number of points
+	private int N;
+
+	// all points are shifted by the first point that was added
+	private float originX, originY;
+
+	// sum of the weights
+	private float sumW;
+	// weighted first moments
+	private float sumX, sumY;
+	// weighted second moments
+	private float sumXX, sumXY, sumYY;
+
+	/**
+	 * Removes all the points
+	 */
+	public void reset() {
+		N = 0;
+		sumW = 0;
+		sumX = sumY = 0;
+		sumXX = sumXY = sumYY = 0;
+	}
+
+	/**
+	 * Adds a point with a weight of one.
+	 *
+	 * @param p The point.  Not modified.
+	 */
+	public void add( Point2D_F32 p ) {
+		add( p.x, p.y, 1 );
+	}
+
+	public void add( float x, float y ) {
+		add( x, y, 1 );
+	}
+
+	/**
+	 * Adds a weighted point.
+	 *
+	 * @param x point x-coordinate
+	 * @param y point y-coordinate
+	 * @param weight Weight of the point.  weight >= 0
+	 */
+	public void add( float x, float y, float weight ) {
+		if( N == 0 ) {
+			originX = x;
+			originY = y;
+		}
+		N++;
+		update( weight, x, y );
+	}
+
+	/**
+	 * Removes a point with a weight of one which had previously been added.
+	 *
+	 * @param p The point.  Not modified.
+	 */
+	public void remove( Point2D_F32 p ) {
+		remove( p.x, p.y, 1 );
+	}
+
+	public void remove( float x, float y ) {
+		remove( x, y, 1 );
+	}
+
+	/**
+	 * Removes a weighted point which had previously been added.  The weight must be the same as when it was added.
+	 *
+	 * @param x point x-coordinate
+	 * @param y point y-coordinate
+	 * @param weight Weight the point was added with.
+	 */
+	public void remove( float x, float y, float weight ) {
+		if( N <= 0 )
+			throw new IllegalArgumentException( "No points to remove" );
+
+		if( --N == 0 ) {
+			// clear any round off error which has built up
+			reset();
+		} else {
+			update( -weight, x, y );
+		}
+	}
+
+	/**
+	 * Adds the point to the sums after scaling it by 'weight', which is negative when removing.
+	 */
+	private void update( float weight, float x, float y ) {
+		x -= originX;
+		y -= originY;
+
+		float wx = weight*x;
+		float wy = weight*y;
+
+		sumW += weight;
+		sumX += wx;
+		sumY += wy;
+		sumXX += wx*x;
+		sumXY += wx*y;
+		sumYY += wy*y;
+	}
+
+	/**
+	 * Computes the best fit line to the current set of points.  At least two points with a non-zero weight
+	 * are required.
+	 *
+	 * @param ret Storage for the line.  If null a new line will be declared.
+	 * @return Best fit line.
+	 */
+	public LinePolar2D_F32 polar( LinePolar2D_F32 ret ) {
+		if( ret == null )
+			ret = new LinePolar2D_F32();
+
+		float meanX = sumX/sumW;
+		float meanY = sumY/sumW;
+
+		// centered second moments. The normalization by the total weight doesn't change the angle
+		float top = sumXY - sumX*meanY;
+		float bottom = ( sumYY - sumY*meanY ) - ( sumXX - sumX*meanX );
+
+		meanX += originX;
+		meanY += originY;
+
+		ret.angle = (float)Math.atan2(-2.0f*top , bottom)/2.0f;
+		ret.distance = (float)( meanX*Math.cos(ret.angle) + meanY*Math.sin(ret.angle));
+
+		return ret;
+	}
+
+	/**
+	 * Number of points which have been added
+	 */
+	public int size() {
+		return N;
+	}
+
+	/**
+	 * Sum of the weights of all the points which have been added
+	 */
+	public float getTotalWeight() {
+		return sumW;
+	}
+}
@@ -22,6 +22,7 @@ package georegression.fitting.line;
 
 import georegression.struct.line.LinePolar2D_F32;
 import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
 
 import java.util.List;
 
@@ -141,4 +142,50 @@ public class FitLine_F32 {
 
 		return ret;
 	}
+
+	/**
+	 * <p>
+	 * Computes the unweighted best fit line to a range of points inside a point cloud.  Same as
+	 * {@link #polar(java.util.List, LinePolar2D_F32)} but without needing to copy the points into a list.
+	 * </p>
+	 *
+	 * @param points Point cloud.  Not modified.
+	 * @param first Index of the first point in the range.
+	 * @param last Index of the last point in the range, exclusive.
+	 * @param ret Storage for the line.  If null a new line will be declared.
+	 * @return Best fit line.
+	 */
+	public static LinePolar2D_F32 polar( PointCloud2D_F32 points , int first , int last , LinePolar2D_F32 ret ) {
+		if( ret == null )
+			ret = new LinePolar2D_F32();
+
+		final float data[] = points.data;
+
+		float meanX = 0;
+		float meanY = 0;
+
+		final int N = last - first;
+		for( int i = first*2; i < last*2; i += 2 ) {
+			meanX += data[i];
+			meanY += data[i+1];
+		}
+		meanX /= N;
+		meanY /= N;
+
+		float top = 0;
+		float bottom = 0;
+
+		for( int i = first*2; i < last*2; i += 2 ) {
+			float dx = meanX - data[i];
+			float dy = meanY - data[i+1];
+
+			top += dx*dy;
+			bottom += dy*dy - dx*dx;
+		}
+
+		ret.angle = (float)Math.atan2(-2.0f*top , bottom)/2.0f;
+		ret.distance = (float)( meanX*Math.cos(ret.angle) + meanY*Math.sin(ret.angle));
+
+		return ret;
+	}
 }
@@ -22,6 +22,7 @@ package georegression.fitting.line;
 
 import georegression.struct.line.LinePolar2D_F64;
 import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
 
 import java.util.List;
 
@@ -141,4 +142,50 @@ public class FitLine_F64 {
 
 		return ret;
 	}
+
+	/**
+	 * <p>
+	 * Computes the unweighted best fit line to a range of points inside a point cloud.  Same as
+	 * {@link #polar(java.util.List, LinePolar2D_F64)} but without needing to copy the points into a list.
+	 * </p>
+	 *
+	 * @param points Point cloud.  Not modified.
+	 * @param first Index of the first point in the range.
+	 * @param last Index of the last point in the range, exclusive.
+	 * @param ret Storage for the line.  If null a new line will be declared.
+	 * @return Best fit line.
+	 */
+	public static LinePolar2D_F64 polar( PointCloud2D_F64 points , int first , int last , LinePolar2D_F64 ret ) {
+		if( ret == null )
+			ret = new LinePolar2D_F64();
+
+		final double data[] = points.data;
+
+		double meanX = 0;
+		double meanY = 0;
+
+		final int N = last - first;
+		for( int i = first*2; i < last*2; i += 2 ) {
+			meanX += data[i];
+			meanY += data[i+1];
+		}
+		meanX /= N;
+		meanY /= N;
+
+		double top = 0;
+		double bottom = 0;
+
+		for( int i = first*2; i < last*2; i += 2 ) {
+			double dx = meanX - data[i];
+			double dy = meanY - data[i+1];
+
+			top += dx*dy;
+			bottom += dy*dy - dx*dx;
+		}
+
+		ret.angle = Math.atan2(-2.0*top , bottom)/2.0;
+		ret.distance = (double)( meanX*Math.cos(ret.angle) + meanY*Math.sin(ret.angle));
+
+		return ret;
+	}
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Extracts lines from an ordered sequence of points, such as a laser range scan, using sequential RANSAC.
+ * RANSAC finds the line with the most inliers among the points which have not been assigned to a line yet.  Each
+ * run of consecutive inliers with at least 'minPoints' points, and no gap larger than 'maxGap' between
+ * neighbors, becomes a line.  All the inliers are then removed and the process repeats until no line with enough
+ * inliers can be found.  Lines are found in order of decreasing support, not in the order of the sequence.
+ * </p>
+ *
+ * <p>
+ * Since the points are ordered, the second point in each sample is chosen 'minPoints'-1 positions away from the
+ * first one among the remaining points.  This makes it likely that both points belong to the same line while
+ * still being far enough apart to define its angle accurately.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SequentialRansacLines2D_F32 extends ExtractLines2D_F32 {
+
+	private Random rand;
+	// number of RANSAC iterations used to find each line
+	private int maxIterations;
+	// maximum distance of an inlier from the line
+	private float inlierTol;
+	// minimum number of points in a line
+	private int minPoints;
+	// maximum distance between two consecutive points on a line
+	private float maxGap;
+	// maximum number of lines which are found
+	private int maxLines;
+
+	// indexes of points which have not been assigned to a line, in increasing order
+	private int remaining[] = new int[ 0 ];
+	private int numRemaining;
+
+	/**
+	 * @param randSeed Seed for the random number generator.
+	 * @param maxIterations Number of RANSAC iterations used to find each line.
+	 * @param inlierTol Maximum distance of an inlier from the line.
+	 * @param minPoints Minimum number of points in a line.  Must be at least 2.
+	 * @param maxGap Maximum distance between two consecutive points on the same line.
+	 * @param maxLines Maximum number of lines which are found.
+	 */
+	public SequentialRansacLines2D_F32( long randSeed, int maxIterations, float inlierTol,
+										int minPoints, float maxGap, int maxLines ) {
+		if( minPoints < 2 )
+			throw new IllegalArgumentException( "A line needs at least two points" );
+
+		this.rand = new Random( randSeed );
+		this.maxIterations = maxIterations;
+		this.inlierTol = inlierTol;
+		this.minPoints = minPoints;
+		this.maxGap = maxGap;
+		this.maxLines = maxLines;
+	}
+
+	@Override
+	protected void extract() {
+		final int N = points.size;
+		final float data[] = points.data;
+
+		if( remaining.length < N )
+			remaining = new int[ N ];
+		for( int i = 0; i < N; i++ )
+			remaining[i] = i;
+		numRemaining = N;
+
+		final int spacing = minPoints - 1;
+
+		while( size() < maxLines && numRemaining >= minPoints ) {
+			// line a*x + b*y + c = 0 with the most inliers
+			int bestCount = 0;
+			float bestA = 0, bestB = 0, bestC = 0;
+
+			for( int iter = 0; iter < maxIterations; iter++ ) {
+				int k0 = rand.nextInt( numRemaining - spacing );
+				int i0 = remaining[k0]*2;
+				int i1 = remaining[k0 + spacing]*2;
+
+				float a = data[i0+1] - data[i1+1];
+				float b = data[i1] - data[i0];
+				float norm = (float)Math.sqrt( a*a + b*b );
+				if( norm == 0 )
+					continue;
+				a /= norm;
+				b /= norm;
+				float c = -( a*data[i0] + b*data[i0+1] );
+
+				int count = 0;
+				for( int k = 0; k < numRemaining; k++ ) {
+					int i = remaining[k]*2;
+					if( (float)Math.abs( a*data[i] + b*data[i+1] + c ) <= inlierTol )
+						count++;
+				}
+
+				if( count > bestCount ) {
+					bestCount = count;
+					bestA = a; bestB = b; bestC = c;
+				}
+			}
+
+			if( bestCount < minPoints )
+				break;
+
+			removeInliers( bestA, bestB, bestC );
+		}
+	}
+
+	/**
+	 * Adds each sufficiently long run of inliers as a line and removes all inliers from the remaining points
+	 */
+	private void removeInliers( float a, float b, float c ) {
+		final float data[] = points.data;
+		final float maxGapSq = maxGap*maxGap;
+
+		int count = 0;
+		int runFirst = -1, runLast = -1;
+
+		for( int k = 0; k < numRemaining; k++ ) {
+			int index = remaining[k];
+			int i = index*2;
+
+			if( (float)Math.abs( a*data[i] + b*data[i+1] + c ) > inlierTol ) {
+				remaining[count++] = index;
+				continue;
+			}
+
+			// see if this inlier continues the current run
+			if( runFirst >= 0 && index == runLast ) {
+				float dx = data[i] - data[i-2];
+				float dy = data[i+1] - data[i-1];
+				if( dx*dx + dy*dy <= maxGapSq ) {
+					runLast++;
+					continue;
+				}
+			}
+
+			addRun( runFirst, runLast );
+			runFirst = index;
+			runLast = index + 1;
+		}
+		addRun( runFirst, runLast );
+
+		numRemaining = count;
+	}
+
+	private void addRun( int first, int last ) {
+		if( first >= 0 && last - first >= minPoints && size() < maxLines )
+			addLine( first, last );
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public float getInlierTol() {
+		return inlierTol;
+	}
+
+	public void setInlierTol( float inlierTol ) {
+		this.inlierTol = inlierTol;
+	}
+
+	public int getMinPoints() {
+		return minPoints;
+	}
+
+	public void setMinPoints( int minPoints ) {
+		this.minPoints = minPoints;
+	}
+
+	public float getMaxGap() {
+		return maxGap;
+	}
+
+	public void setMaxGap( float maxGap ) {
+		this.maxGap = maxGap;
+	}
+
+	public int getMaxLines() {
+		return maxLines;
+	}
+
+	public void setMaxLines( int maxLines ) {
+		this.maxLines = maxLines;
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.struct.line.LinePolar2D_F64;
+
+/**
+ * <p>
+ * Extracts lines from an ordered sequence of points, such as a laser range scan, using split-and-merge.
+ * </p>
+ *
+ * <ol>
+ * <li>The sequence is broken wherever two consecutive points are more than 'maxGap' apart.</li>
+ * <li>Split: The line through the first and last point in a range is found.  If the point farthest from it is
+ * more than 'splitTol' away the range is split at that point, which is shared by both halves, and each half is
+ * processed again.</li>
+ * <li>Merge: Neighboring ranges are merged if all their points are within 'mergeTol' of the best fit line to
+ * both ranges.</li>
+ * <li>Ranges with fewer than 'minPoints' points are discarded and a least squares line is fit to the rest.</li>
+ * </ol>
+ *
+ * <p>
+ * All the work is done on index ranges with an explicit stack, so no memory is created after the internal
+ * storage has grown to the required size.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SplitMergeLines2D_F64 extends ExtractLines2D_F64 {
+
+	// maximum distance of a point from the line before it's split
+	private double splitTol;
+	// maximum distance of a point from the line when merging two lines
+	private double mergeTol;
+	// minimum number of points in a line
+	private int minPoints;
+	// maximum distance between two consecutive points on a line
+	private double maxGap;
+
+	// stack of ranges which need to be split
+	private int stackFirst[] = new int[ 10 ];
+	private int stackLast[] = new int[ 10 ];
+	private int stackSize;
+
+	// ranges which have been split
+	private int rangeFirst[] = new int[ 10 ];
+	private int rangeLast[] = new int[ 10 ];
+	private int numRanges;
+
+	// storage for a candidate merged line
+	private LinePolar2D_F64 merged = new LinePolar2D_F64();
+
+	/**
+	 * @param splitTol Maximum distance of a point from the line before a range is split.
+	 * @param mergeTol Maximum distance of a point from the line when merging two ranges.
+	 * @param minPoints Minimum number of points in a line.  Must be at least 2.
+	 * @param maxGap Maximum distance between two consecutive points on the same line.
+	 */
+	public SplitMergeLines2D_F64( double splitTol, double mergeTol, int minPoints, double maxGap ) {
+		if( minPoints < 2 )
+			throw new IllegalArgumentException( "A line needs at least two points" );
+
+		this.splitTol = splitTol;
+		this.mergeTol = mergeTol;
+		this.minPoints = minPoints;
+		this.maxGap = maxGap;
+	}
+
+	@Override
+	protected void extract() {
+		final int N = points.size;
+		final double data[] = points.data;
+		final double maxGapSq = maxGap*maxGap;
+
+		numRanges = 0;
+		stackSize = 0;
+
+		// break the sequence at gaps, then split each piece
+		int start = 0;
+		for( int i = 1; i <= N; i++ ) {
+			if( i < N ) {
+				double dx = data[i*2] - data[i*2-2];
+				double dy = data[i*2+1] - data[i*2-1];
+				if( dx*dx + dy*dy <= maxGapSq )
+					continue;
+			}
+			push( start, i );
+			split();
+			start = i;
+		}
+
+		merge();
+
+		for( int i = 0; i < numRanges; i++ ) {
+			if( rangeLast[i] - rangeFirst[i] >= minPoints )
+				addLine( rangeFirst[i], rangeLast[i] );
+		}
+	}
+
+	/**
+	 * Splits the ranges on the stack until each one is within tolerance of the line through its end points
+	 */
+	private void split() {
+		final double data[] = points.data;
+
+		while( stackSize > 0 ) {
+			stackSize--;
+			int first = stackFirst[stackSize];
+			int last = stackLast[stackSize];
+
+			if( last - first < minPoints )
+				continue;
+
+			// line through the end points:  a*x + b*y + c = 0
+			double x0 = data[first*2], y0 = data[first*2+1];
+			double x1 = data[last*2-2], y1 = data[last*2-1];
+			double a = y0 - y1;
+			double b = x1 - x0;
+			double c = x0*y1 - x1*y0;
+			double norm = a*a + b*b;
+
+			int worst = -1;
+			double worstDist = 0;
+			for( int i = first + 1; i < last - 1; i++ ) {
+				double d = Math.abs( a*data[i*2] + b*data[i*2+1] + c );
+				if( d > worstDist ) {
+					worstDist = d;
+					worst = i;
+				}
+			}
+
+			// compare squared distances to avoid a square root
+			if( worst >= 0 && worstDist*worstDist > splitTol*splitTol*norm ) {
+				// push the second half first so that ranges are finished in order
+				push( worst, last );
+				push( first, worst + 1 );
+			} else {
+				addRange( first, last );
+			}
+		}
+	}
+
+	/**
+	 * Merges neighboring ranges which share a point if the combined line is within tolerance
+	 */
+	private void merge() {
+		int count = 0;
+		for( int i = 0; i < numRanges; i++ ) {
+			if( count > 0 && rangeLast[count - 1] - 1 == rangeFirst[i] &&
+					isLine( rangeFirst[count - 1], rangeLast[i] ) ) {
+				rangeLast[count - 1] = rangeLast[i];
+			} else {
+				rangeFirst[count] = rangeFirst[i];
+				rangeLast[count] = rangeLast[i];
+				count++;
+			}
+		}
+		numRanges = count;
+	}
+
+	/**
+	 * Checks to see if all the points in the range are within tolerance of their best fit line
+	 */
+	private boolean isLine( int first, int last ) {
+		final double data[] = points.data;
+
+		FitLine_F64.polar( points, first, last, merged );
+
+		double c = Math.cos( merged.angle );
+		double s = Math.sin( merged.angle );
+
+		for( int i = first; i < last; i++ ) {
+			double d = data[i*2]*c + data[i*2+1]*s - merged.distance;
+			if( Math.abs( d ) > mergeTol )
+				return false;
+		}
+		return true;
+	}
+
+	private void push( int first, int last ) {
+		if( stackSize == stackFirst.length ) {
+			stackFirst = grow( stackFirst );
+			stackLast = grow( stackLast );
+		}
+		stackFirst[stackSize] = first;
+		stackLast[stackSize] = last;
+		stackSize++;
+	}
+
+	private void addRange( int first, int last ) {
+		if( numRanges == rangeFirst.length ) {
+			rangeFirst = grow( rangeFirst );
+			rangeLast = grow( rangeLast );
+		}
+		rangeFirst[numRanges] = first;
+		rangeLast[numRanges] = last;
+		numRanges++;
+	}
+
+	public double getSplitTol() {
+		return splitTol;
+	}
+
+	public void setSplitTol( double splitTol ) {
+		this.splitTol = splitTol;
+	}
+
+	public double getMergeTol() {
+		return mergeTol;
+	}
+
+	public void setMergeTol( double mergeTol ) {
+		this.mergeTol = mergeTol;
+	}
+
+	public int getMinPoints() {
+		return minPoints;
+	}
+
+	public void setMinPoints( int minPoints ) {
+		this.minPoints = minPoints;
+	}
+
+	public double getMaxGap() {
+		return maxGap;
+	}
+
+	public void setMaxGap( double maxGap ) {
+		this.maxGap = maxGap;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.plane;
+
+import georegression.geometry.EigenSymm3x3_F64;
+import georegression.geometry.ScatterMatrix3D_F64;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the 3D plane which minimizes the sum of Euclidean distances squared to a set of points.  The plane passes
+ * through the mean of the points and its normal is the eigenvector of the scatter matrix with the smallest
+ * eigenvalue.  The normal has a length of one, but its sign is arbitrary.
+ * </p>
+ *
+ * <p>
+ * The scatter matrix is computed in a single pass and decomposed with a specialized 3x3 eigen solver, so
+ * no memory is declared.  This makes it suitable for estimating surface normals, where a plane is fit to the
+ * neighborhood of every point in a cloud.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitPlane3D_F64 {
+
+	// tolerance for the points being collinear, relative to the largest eigenvalue
+	private static final double COLLINEAR_TOL = Math.ulp( 1.0 )*100;
+
+	private ScatterMatrix3D_F64 scatter = new ScatterMatrix3D_F64();
+	private EigenSymm3x3_F64 eig = new EigenSymm3x3_F64();
+
+	/**
+	 * Fits a plane to the list of points.
+	 *
+	 * @param points Set of points on the plane.  Not modified.
+	 * @param plane Storage for the found plane.  Modified.
+	 * @return true if successful or false if there are fewer than three points or they are collinear.
+	 */
+	public boolean fit( List<Point3D_F64> points, PlaneNormal3D_F64 plane ) {
+		scatter.process( points );
+		return solve( plane );
+	}
+
+	/**
+	 * Fits a plane to all the points in the cloud.
+	 *
+	 * @param cloud Set of points on the plane.  Not modified.
+	 * @param plane Storage for the found plane.  Modified.
+	 * @return true if successful or false if there are fewer than three points or they are collinear.
+	 */
+	public boolean fit( PointCloud3D_F64 cloud, PlaneNormal3D_F64 plane ) {
+		scatter.process( cloud );
+		return solve( plane );
+	}
+
+	/**
+	 * Fits a plane to a subset of the points in the cloud.
+	 *
+	 * @param cloud Point cloud.  Not modified.
+	 * @param indexes Indexes of points in the cloud which are on the plane.  Not modified.
+	 * @param count Number of elements in indexes which are used.
+	 * @param plane Storage for the found plane.  Modified.
+	 * @return true if successful or false if there are fewer than three points or they are collinear.
+	 */
+	public boolean fit( PointCloud3D_F64 cloud, int indexes[], int count, PlaneNormal3D_F64 plane ) {
+		scatter.process( cloud, indexes, count );
+		return solve( plane );
+	}
+
+	private boolean solve( PlaneNormal3D_F64 plane ) {
+		if( scatter.N < 3 )
+			return false;
+
+		eig.decompose( scatter.s11, scatter.s12, scatter.s13, scatter.s22, scatter.s23, scatter.s33 );
+
+		// the points lie along a line or are all at the same location
+		if( !( eig.e2 > eig.e1*COLLINEAR_TOL ) )
+			return false;
+
+		plane.p.set( scatter.meanX, scatter.meanY, scatter.meanZ );
+		plane.n.set( eig.v13, eig.v23, eig.v33 );
+
+		return true;
+	}
+
+	/**
+	 * Eigen decomposition of the scatter matrix from the most recent fit.  The smallest eigenvalue is the sum of
+	 * squared distances of the points from the plane.  e3/(e1+e2+e3) is often used as a measure of the
+	 * surface curvature.
+	 */
+	public EigenSymm3x3_F64 getEigen() {
+		return eig;
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.robust;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.ResidualTransformPoint;
+import georegression.struct.GeoTuple;
+import georegression.struct.InvertibleTransform;
+
+import java.util.List;
+
+/**
+ * <p>
+ * PROSAC (PROgressive SAmple Consensus) is a variant of RANSAC which takes advantage of a quality score
+ * associated with each point pair.  Samples are initially drawn from a small set of the highest quality
+ * point pairs and the set is progressively expanded until it contains all the points, at which point it
+ * behaves the same as RANSAC.  When the quality score is correlated with a point pair being an inlier
+ * this can require far fewer hypotheses than RANSAC.  If {@link #process(java.util.List, java.util.List)} is
+ * called without scores then the point pairs are assumed to already be sorted from highest to lowest quality.
+ * </p>
+ *
+ * <p>
+ * Sampling stops when the maximality criterion has been met for some subset of the highest quality points,
+ * i.e. it is unlikely that a better hypothesis would be found by sampling from the subset, and the
+ * subset's inliers are unlikely to have occurred by chance (non-randomness criterion).  The non-randomness
+ * test uses the normal approximation to the binomial distribution.
+ * </p>
+ *
+ * <p>
+ * O. Chum and J. Matas, "Matching with PROSAC - Progressive Sample Consensus" CVPR 2005
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Prosac<T extends InvertibleTransform, P extends GeoTuple> extends Ransac<T, P> {
+
+	// quantile of the chi-square distribution for a significance level of 0.05
+	private static final double CHI_SQUARE = 2.706;
+
+	// probability that an outlier is consistent with an incorrect hypothesis
+	protected double beta = 0.05;
+
+	// quality score of each point pair.  Only referenced while processing
+	private double scores[];
+
+	// indexes of point pairs sorted from highest to lowest quality
+	protected int order[] = new int[0];
+	// marks which point pairs are inliers in the best hypothesis
+	private boolean isInlier[] = new boolean[0];
+
+	// size of the set which samples are drawn from
+	protected int subsetSize;
+	// expected number of samples drawn from the current subset, T_n in the paper
+	private double expectedSamples;
+	// iteration at which the subset grows, T'_n in the paper
+	private double growthIteration;
+
+	/**
+	 * Configures PROSAC.  See {@link Ransac#Ransac} for a description of the parameters.  maxIterations
+	 * is also used as the number of samples after which PROSAC degenerates into RANSAC.
+	 */
+	public Prosac( long randSeed,
+				   MotionTransformPoint<T, P> fitter,
+				   ResidualTransformPoint<T, P> residual,
+				   int maxIterations, double thresholdFit ) {
+		super( randSeed, fitter, residual, maxIterations, thresholdFit );
+	}
+
+	/**
+	 * Finds the hypothesis with the most inliers.  Point pairs with a higher score are assumed to be
+	 * more likely to be inliers.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @param scores  Quality score for each point pair.  Higher is better.  Not modified.
+	 * @return true if a hypothesis was found and false if not.
+	 */
+	public boolean process( List<P> fromPts, List<P> toPts, double scores[] ) {
+		if( scores.length < fromPts.size() )
+			throw new IllegalArgumentException( "There must be a score for each point pair" );
+
+		this.scores = scores;
+		try {
+			return process( fromPts, toPts );
+		} finally {
+			this.scores = null;
+		}
+	}
+
+	@Override
+	protected void initialize( int N ) {
+		super.initialize( N );
+
+		if( order.length < N ) {
+			order = new int[ N ];
+			isInlier = new boolean[ N ];
+		}
+
+		for( int i = 0; i < N; i++ )
+			order[i] = i;
+		if( scores != null )
+			sortByScore( order, scores, 0, N - 1 );
+
+		// T_m = T_N * prod_{i=0}^{m-1} (m-i)/(N-i)
+		subsetSize = sampleSize;
+		expectedSamples = maxIterations;
+		for( int i = 0; i < sampleSize; i++ ) {
+			expectedSamples *= (double)( sampleSize - i ) / ( N - i );
+		}
+		growthIteration = 1;
+	}
+
+	/**
+	 * Selects a sample from the current subset of high quality point pairs, growing the subset according
+	 * to the PROSAC schedule.  The subset's newest member is always included until the schedule says
+	 * the subset has been sufficiently sampled.
+	 */
+	@Override
+	protected void selectSample( List<P> fromPts, List<P> toPts ) {
+		final int N = fromPts.size();
+		final int t = iterations + 1;
+
+		if( t > growthIteration && subsetSize < N ) {
+			double next = expectedSamples*( subsetSize + 1 )/( subsetSize + 1 - sampleSize );
+			growthIteration += Math.ceil( next - expectedSamples );
+			expectedSamples = next;
+			subsetSize++;
+		}
+
+		sampleFrom.clear();
+		sampleTo.clear();
+
+		// shuffling only takes place inside the subset, so the first subsetSize elements of shuffled
+		// are always the positions of the subset's members
+		int numRandom, poolSize;
+		if( growthIteration < t ) {
+			numRandom = sampleSize;
+			poolSize = subsetSize;
+		} else {
+			numRandom = sampleSize - 1;
+			poolSize = subsetSize - 1;
+			addSample( fromPts, toPts, subsetSize - 1 );
+		}
+
+		for( int i = 0; i < numRandom; i++ ) {
+			int j = i + rand.nextInt( poolSize - i );
+			int position = shuffled[j];
+			shuffled[j] = shuffled[i];
+			shuffled[i] = position;
+
+			addSample( fromPts, toPts, position );
+		}
+	}
+
+	private void addSample( List<P> fromPts, List<P> toPts, int position ) {
+		int index = order[position];
+		sampleFrom.add( fromPts.get( index ) );
+		sampleTo.add( toPts.get( index ) );
+	}
+
+	/**
+	 * Selects the iteration limit using the subset of highest quality points which requires the fewest
+	 * iterations and passes the non-randomness test.  The full set is always a valid choice.
+	 */
+	@Override
+	protected void foundBetterHypothesis( int N ) {
+		for( int i = 0; i < N; i++ )
+			isInlier[i] = false;
+		for( int i = 0; i < numBestInliers; i++ )
+			isInlier[bestInliers[i]] = true;
+
+		long best = adaptiveIterations( confidence, numBestInliers, N, sampleSize );
+
+		int inliersInSubset = 0;
+		for( int n = 1; n < N; n++ ) {
+			if( isInlier[order[n - 1]] )
+				inliersInSubset++;
+
+			if( n < sampleSize || inliersInSubset < minimumInliers( n ) )
+				continue;
+
+			best = Math.min( best, adaptiveIterations( confidence, inliersInSubset, n, sampleSize ) );
+		}
+
+		iterationLimit = (int)Math.min( maxIterations, iterations + 1L + best );
+	}
+
+	/**
+	 * Minimum number of inliers in a subset of size n for it to be unlikely to have occurred by chance
+	 */
+	private double minimumInliers( int n ) {
+		int m = n - sampleSize;
+		return sampleSize + beta*m + Math.sqrt( beta*( 1 - beta )*m*CHI_SQUARE );
+	}
+
+	/**
+	 * Sorts the indexes into descending order by their score using quick sort.
+	 */
+	private static void sortByScore( int indexes[], double scores[], int lo, int hi ) {
+		while( lo < hi ) {
+			double pivot = scores[indexes[( lo + hi ) >>> 1]];
+			int i = lo, j = hi;
+			while( i <= j ) {
+				while( scores[indexes[i]] > pivot ) i++;
+				while( scores[indexes[j]] < pivot ) j--;
+				if( i <= j ) {
+					int tmp = indexes[i];
+					indexes[i++] = indexes[j];
+					indexes[j--] = tmp;
+				}
+			}
+			// recurse on the smaller partition to bound the stack depth
+			if( j - lo < hi - i ) {
+				sortByScore( indexes, scores, lo, j );
+				lo = i;
+			} else {
+				sortByScore( indexes, scores, i, hi );
+				hi = j;
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of point pairs sorted from highest to lowest quality in the last call to process
+	 */
+	public int[] getOrder() {
+		return order;
+	}
+
+	public double getBeta() {
+		return beta;
+	}
+
+	/**
+	 * Probability that an outlier is consistent with an incorrect hypothesis.  Used by the
+	 * non-randomness test.
+	 */
+	public void setBeta( double beta ) {
+		this.beta = beta;
+	}
+}
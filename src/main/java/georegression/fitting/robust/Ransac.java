@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.robust;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.ResidualTransformPoint;
+import georegression.struct.GeoTuple;
+import georegression.struct.InvertibleTransform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * RANSAC (RANdom SAmple Consensus) robustly estimates a transform from a set of associated points which
+ * contains outliers.  Each iteration a minimal set of point pairs is randomly sampled, a hypothesis is found
+ * using {@link MotionTransformPoint}, and it is scored by counting the number of pairs which have a residual
+ * error, as computed by {@link ResidualTransformPoint}, less than or equal to the threshold.  The hypothesis
+ * with the most inliers is selected.
+ * </p>
+ *
+ * <p>
+ * The number of iterations is adaptively reduced each time a better hypothesis is found.  It is set to the
+ * number of iterations needed to sample a set of only inliers with the specified level of confidence, assuming
+ * the fraction of inliers is the same as in the best hypothesis so far.  All internal storage is declared
+ * once and reused, so after the first call no memory is allocated by RANSAC itself.
+ * </p>
+ *
+ * <p>
+ * Optionally, each new best hypothesis can be refined by fitting it to all of its inliers, as is done in
+ * LO-RANSAC.  See {@link #setLocalIterations(int)}.
+ * </p>
+ *
+ * <p>
+ * M. A. Fischler and R. C. Bolles, "Random Sample Consensus: A Paradigm for Model Fitting with Applications to
+ * Image Analysis and Automated Cartography" Communications of the ACM, Vol 24, No. 6, 1981<br>
+ * O. Chum, J. Matas, J. Kittler, "Locally Optimized RANSAC" DAGM 2003
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Ransac<T extends InvertibleTransform, P extends GeoTuple> {
+
+	// used to randomly select points
+	protected Random rand;
+
+	// computes a hypothesis from a sample set
+	protected MotionTransformPoint<T, P> fitter;
+	// computes the residual error of each point pair
+	protected ResidualTransformPoint<T, P> residual;
+
+	// the maximum number of iterations it will perform
+	protected int maxIterations;
+	// a point pair with a residual less than or equal to this value is an inlier
+	protected double thresholdFit;
+	// probability of having sampled a set of only inliers before it stops
+	protected double confidence = 0.99;
+
+	// number of points in each sample
+	protected int sampleSize;
+
+	// storage for the sample set
+	protected List<P> sampleFrom = new ArrayList<P>();
+	protected List<P> sampleTo = new ArrayList<P>();
+
+	// number of times local refinement is applied to a new best hypothesis.  0 = disabled
+	protected int localIterations = 0;
+	// storage for inliers used in local refinement
+	protected List<P> inlierFrom = new ArrayList<P>();
+	protected List<P> inlierTo = new ArrayList<P>();
+
+	// list of point indexes which is shuffled to select samples
+	protected int shuffled[] = new int[0];
+
+	// index of inliers in the best hypothesis
+	protected int bestInliers[] = new int[0];
+	protected int numBestInliers;
+	// index of inliers in the current hypothesis
+	protected int candidateInliers[] = new int[0];
+
+	// the best hypothesis found
+	protected T bestMotion;
+
+	// number of hypotheses generated in the last call to process
+	protected int iterations;
+	// number of iterations it will run for, adjusted as better hypotheses are found
+	protected int iterationLimit;
+
+	/**
+	 * Configures RANSAC
+	 *
+	 * @param randSeed      Seed for the random number generator.
+	 * @param fitter        Computes a hypothesis from a set of points.
+	 * @param residual      Computes the residual error for a point pair.
+	 * @param maxIterations The maximum number of iterations.
+	 * @param thresholdFit  Point pairs with a residual less than or equal to this value are inliers.
+	 */
+	public Ransac( long randSeed,
+				   MotionTransformPoint<T, P> fitter,
+				   ResidualTransformPoint<T, P> residual,
+				   int maxIterations, double thresholdFit ) {
+		this.rand = new Random( randSeed );
+		this.fitter = fitter;
+		this.residual = residual;
+		this.maxIterations = maxIterations;
+		this.thresholdFit = thresholdFit;
+
+		this.sampleSize = fitter.getMinimumPoints();
+		this.bestMotion = (T)fitter.getMotion().createInstance();
+	}
+
+	/**
+	 * Finds the hypothesis with the most inliers.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if a hypothesis was found and false if not.
+	 */
+	public boolean process( List<P> fromPts, List<P> toPts ) {
+		final int N = fromPts.size();
+		if( N != toPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		numBestInliers = 0;
+		iterations = 0;
+
+		if( N < sampleSize )
+			return false;
+
+		initialize( N );
+
+		iterationLimit = maxIterations;
+		for( ; !isFinished(); iterations++ ) {
+			selectSample( fromPts, toPts );
+
+			if( !fitter.process( sampleFrom, sampleTo ) )
+				continue;
+
+			int toBeat = scoreToBeat();
+			int numInliers = scoreHypothesis( fromPts, toPts, toBeat, candidateInliers );
+
+			if( numInliers > toBeat ) {
+				int tmp[] = bestInliers;
+				bestInliers = candidateInliers;
+				candidateInliers = tmp;
+				numBestInliers = numInliers;
+				bestMotion.set( fitter.getMotion() );
+
+				if( localIterations > 0 )
+					localRefinement( fromPts, toPts );
+
+				foundBetterHypothesis( N );
+			}
+		}
+
+		return numBestInliers >= sampleSize;
+	}
+
+	/**
+	 * LO-RANSAC style local optimization.  The best hypothesis is refined by fitting it to all of its inliers
+	 * and it is kept if the number of inliers increases.  This is repeated until there is no improvement or
+	 * the maximum number of local iterations has been reached.
+	 */
+	protected void localRefinement( List<P> fromPts, List<P> toPts ) {
+		for( int iter = 0; iter < localIterations; iter++ ) {
+			inlierFrom.clear();
+			inlierTo.clear();
+			for( int i = 0; i < numBestInliers; i++ ) {
+				inlierFrom.add( fromPts.get( bestInliers[i] ) );
+				inlierTo.add( toPts.get( bestInliers[i] ) );
+			}
+
+			if( !fitter.process( inlierFrom, inlierTo ) )
+				return;
+
+			int numInliers = scoreHypothesis( fromPts, toPts, numBestInliers, candidateInliers );
+			if( numInliers <= numBestInliers )
+				return;
+
+			int tmp[] = bestInliers;
+			bestInliers = candidateInliers;
+			candidateInliers = tmp;
+			numBestInliers = numInliers;
+			bestMotion.set( fitter.getMotion() );
+		}
+	}
+
+	/**
+	 * Returns true when no more hypotheses should be generated.  Called once before each iteration.
+	 */
+	protected boolean isFinished() {
+		return iterations >= iterationLimit;
+	}
+
+	/**
+	 * The number of inliers a hypothesis must exceed to be selected as the new best.
+	 */
+	protected int scoreToBeat() {
+		return numBestInliers;
+	}
+
+	/**
+	 * Called after a new best hypothesis has been found.  Reduces the number of iterations to what is needed
+	 * to reach the desired confidence.
+	 *
+	 * @param N Total number of points
+	 */
+	protected void foundBetterHypothesis( int N ) {
+		long adaptive = iterations + 1L + adaptiveIterations( confidence, numBestInliers, N, sampleSize );
+		iterationLimit = (int)Math.min( maxIterations, adaptive );
+	}
+
+	/**
+	 * Declares storage for the data set and resets the shuffled index list
+	 */
+	protected void initialize( int N ) {
+		if( shuffled.length < N ) {
+			shuffled = new int[ N ];
+			bestInliers = new int[ N ];
+			candidateInliers = new int[ N ];
+		}
+
+		for( int i = 0; i < N; i++ )
+			shuffled[i] = i;
+
+		sampleFrom.clear();
+		sampleTo.clear();
+	}
+
+	/**
+	 * Randomly selects a sample set without replacement by performing a partial Fisher-Yates shuffle
+	 * on the index list.
+	 */
+	protected void selectSample( List<P> fromPts, List<P> toPts ) {
+		final int N = fromPts.size();
+
+		sampleFrom.clear();
+		sampleTo.clear();
+
+		for( int i = 0; i < sampleSize; i++ ) {
+			int j = i + rand.nextInt( N - i );
+			int index = shuffled[j];
+			shuffled[j] = shuffled[i];
+			shuffled[i] = index;
+
+			sampleFrom.add( fromPts.get( index ) );
+			sampleTo.add( toPts.get( index ) );
+		}
+	}
+
+	/**
+	 * Counts the number of inliers for the hypothesis currently in the fitter.  Scoring stops early once it
+	 * is no longer possible to have more inliers than the best hypothesis.
+	 *
+	 * @param bestScore Number of inliers in the best hypothesis so far.
+	 * @param inliers Storage for the index of each inlier.  Modified.
+	 * @return Number of inliers.  If scoring stopped early the returned value is too small.
+	 */
+	protected int scoreHypothesis( List<P> fromPts, List<P> toPts, int bestScore, int inliers[] ) {
+		residual.setMotion( fitter.getMotion() );
+
+		final int N = fromPts.size();
+		// once this many outliers have been found the hypothesis can't be better
+		final int maxOutliers = N - bestScore;
+
+		int numInliers = 0;
+		for( int i = 0; i < N; i++ ) {
+			if( residual.computeResidual( fromPts.get( i ), toPts.get( i ) ) <= thresholdFit ) {
+				inliers[numInliers++] = i;
+			} else if( i + 1 - numInliers >= maxOutliers ) {
+				return numInliers;
+			}
+		}
+
+		return numInliers;
+	}
+
+	/**
+	 * Computes the number of iterations needed to select a sample composed of only inliers with the
+	 * specified level of confidence.
+	 *
+	 * @param confidence Probability that a set of inliers will be sampled.  0 &lt; confidence &lt; 1
+	 * @param numInliers Number of inliers in the data set.
+	 * @param N          Total number of points in the data set.
+	 * @param sampleSize Number of points in each sample.
+	 * @return Number of iterations.  Integer.MAX_VALUE if it is impossible to compute.
+	 */
+	public static int adaptiveIterations( double confidence, int numInliers, int N, int sampleSize ) {
+		double inlierFrac = numInliers/(double)N;
+		double probGood = Math.pow( inlierFrac, sampleSize );
+
+		if( probGood >= 1.0 )
+			return 0;
+		if( probGood <= 0.0 )
+			return Integer.MAX_VALUE;
+
+		double iter = Math.log( 1.0 - confidence )/Math.log( 1.0 - probGood );
+
+		if( Double.isNaN( iter ) || iter >= Integer.MAX_VALUE )
+			return Integer.MAX_VALUE;
+
+		return (int)Math.ceil( iter );
+	}
+
+	/**
+	 * The best hypothesis found
+	 */
+	public T getMotion() {
+		return bestMotion;
+	}
+
+	/**
+	 * Index of each inlier in the best hypothesis.  Only the first {@link #getNumInliers()} elements are valid.
+	 */
+	public int[] getInliers() {
+		return bestInliers;
+	}
+
+	public int getNumInliers() {
+		return numBestInliers;
+	}
+
+	/**
+	 * Number of hypotheses generated during the last call to {@link #process}.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getThresholdFit() {
+		return thresholdFit;
+	}
+
+	public void setThresholdFit( double thresholdFit ) {
+		this.thresholdFit = thresholdFit;
+	}
+
+	public int getLocalIterations() {
+		return localIterations;
+	}
+
+	/**
+	 * Specifies how many times local refinement is applied when a new best hypothesis is found.  If zero,
+	 * which is the default, local refinement is disabled.
+	 */
+	public void setLocalIterations( int localIterations ) {
+		this.localIterations = localIterations;
+	}
+
+	public double getConfidence() {
+		return confidence;
+	}
+
+	public void setConfidence( double confidence ) {
+		this.confidence = confidence;
+	}
+}
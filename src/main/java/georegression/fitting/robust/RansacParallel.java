@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.robust;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.ResidualTransformPoint;
+import georegression.struct.GeoTuple;
+import georegression.struct.InvertibleTransform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Parallel version of {@link Ransac}.  Hypothesis generation and scoring are split between several workers
+ * which run concurrently on an {@link ExecutorService}.  Each worker has its own instance of
+ * {@link MotionTransformPoint} and {@link ResidualTransformPoint} since those are not thread safe, and its
+ * own random number generator which is seeded with randSeed + workerIndex.
+ * </p>
+ *
+ * <p>
+ * Two modes are supported:
+ * <ul>
+ * <li><b>Deterministic</b>: Workers do not communicate.  Each worker is given its share of the maximum number
+ * of iterations and stops early once its own best hypothesis indicates that all the workers combined have
+ * reached the desired confidence.  Random number generators are reseeded on each call, so for a fixed number
+ * of workers the results are always the same.</li>
+ * <li><b>Shared</b>: Workers share the best score and a single iteration budget.  Hypotheses are rejected
+ * sooner and all workers stop as soon as any of them reaches the desired confidence, but which hypothesis
+ * is selected depends on thread scheduling.</li>
+ * </ul>
+ * In both modes the hypothesis with the most inliers is selected, with ties going to the lowest worker index.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RansacParallel<T extends InvertibleTransform, P extends GeoTuple> {
+
+	// executes the workers
+	private ExecutorService executor;
+
+	// seed for the first worker's random number generator
+	private long randSeed;
+
+	// RANSAC for each thread
+	private List<Worker> workers = new ArrayList<Worker>();
+	// tasks which are submitted to the executor
+	private List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+
+	// the maximum number of iterations performed by all workers combined
+	private int maxIterations;
+	// probability of having sampled a set of only inliers before it stops
+	private double confidence = 0.99;
+
+	// if true the workers do not share information and the results are repeatable
+	private boolean deterministic = true;
+	// number of local refinement iterations
+	private int localIterations = 0;
+
+	// state shared between workers when not in deterministic mode
+	private AtomicInteger sharedBestScore = new AtomicInteger();
+	private AtomicInteger sharedIterations = new AtomicInteger();
+	private AtomicInteger sharedLimit = new AtomicInteger();
+
+	// the worker with the best hypothesis
+	private Worker best;
+
+	// input points
+	private List<P> fromPts;
+	private List<P> toPts;
+
+	/**
+	 * Configures parallel RANSAC.  One worker is created for each fitter.
+	 *
+	 * @param randSeed      Seed for the random number generator.  Worker 'i' uses randSeed + i.
+	 * @param fitters       Computes a hypothesis from a set of points.  One for each worker.
+	 * @param residuals     Computes the residual error for a point pair.  One for each worker.
+	 * @param maxIterations The maximum number of iterations for all workers combined.
+	 * @param thresholdFit  Point pairs with a residual less than or equal to this value are inliers.
+	 * @param executor      Executes the workers.  The caller is responsible for shutting it down.
+	 */
+	public RansacParallel( long randSeed,
+						   List<MotionTransformPoint<T, P>> fitters,
+						   List<ResidualTransformPoint<T, P>> residuals,
+						   int maxIterations, double thresholdFit,
+						   ExecutorService executor ) {
+		if( fitters.size() != residuals.size() )
+			throw new IllegalArgumentException( "Must have the same number of fitters and residuals" );
+		if( fitters.size() == 0 )
+			throw new IllegalArgumentException( "Must have at least one worker" );
+
+		this.randSeed = randSeed;
+		this.maxIterations = maxIterations;
+		this.executor = executor;
+
+		for( int i = 0; i < fitters.size(); i++ ) {
+			final Worker w = new Worker( randSeed + i, fitters.get( i ), residuals.get( i ), thresholdFit );
+			workers.add( w );
+			tasks.add( new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return w.process( fromPts, toPts );
+				}
+			} );
+		}
+	}
+
+	/**
+	 * Finds the hypothesis with the most inliers.  Blocks until all the workers have finished.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if a hypothesis was found and false if not.
+	 */
+	public boolean process( List<P> fromPts, List<P> toPts ) {
+		if( fromPts.size() != toPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		this.fromPts = fromPts;
+		this.toPts = toPts;
+
+		// split the iterations between the workers
+		int numWorkers = workers.size();
+		for( int i = 0; i < numWorkers; i++ ) {
+			Worker w = workers.get( i );
+			w.setMaxIterations( maxIterations/numWorkers + (i < maxIterations % numWorkers ? 1 : 0) );
+			w.setConfidence( confidence );
+			w.setLocalIterations( localIterations );
+			if( deterministic )
+				w.rand.setSeed( randSeed + i );
+		}
+
+		sharedBestScore.set( 0 );
+		sharedIterations.set( 0 );
+		sharedLimit.set( maxIterations );
+
+		try {
+			List<Future<Boolean>> results = executor.invokeAll( tasks );
+			for( Future<Boolean> f : results ) {
+				f.get();
+			}
+		} catch( InterruptedException e ) {
+			throw new RuntimeException( e );
+		} catch( ExecutionException e ) {
+			throw new RuntimeException( e.getCause() );
+		}
+
+		this.fromPts = null;
+		this.toPts = null;
+
+		// select the best hypothesis
+		best = workers.get( 0 );
+		for( int i = 1; i < numWorkers; i++ ) {
+			Worker w = workers.get( i );
+			if( w.getNumInliers() > best.getNumInliers() )
+				best = w;
+		}
+
+		return best.getNumInliers() >= best.sampleSize;
+	}
+
+	/**
+	 * The best hypothesis found
+	 */
+	public T getMotion() {
+		return best.getMotion();
+	}
+
+	/**
+	 * Index of each inlier in the best hypothesis.  Only the first {@link #getNumInliers()} elements are valid.
+	 */
+	public int[] getInliers() {
+		return best.getInliers();
+	}
+
+	public int getNumInliers() {
+		return best.getNumInliers();
+	}
+
+	/**
+	 * Total number of hypotheses generated by all the workers during the last call to {@link #process}.
+	 */
+	public int getIterations() {
+		int total = 0;
+		for( Worker w : workers )
+			total += w.getIterations();
+		return total;
+	}
+
+	public int getNumWorkers() {
+		return workers.size();
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getConfidence() {
+		return confidence;
+	}
+
+	public void setConfidence( double confidence ) {
+		this.confidence = confidence;
+	}
+
+	public int getLocalIterations() {
+		return localIterations;
+	}
+
+	/**
+	 * See {@link Ransac#setLocalIterations(int)}
+	 */
+	public void setLocalIterations( int localIterations ) {
+		this.localIterations = localIterations;
+	}
+
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	/**
+	 * If true the workers will not share information and the results will be repeatable.
+	 */
+	public void setDeterministic( boolean deterministic ) {
+		this.deterministic = deterministic;
+	}
+
+	/**
+	 * RANSAC for a single thread.  Termination and scoring are modified to take in account the other workers.
+	 */
+	private class Worker extends Ransac<T, P> {
+
+		public Worker( long randSeed, MotionTransformPoint<T, P> fitter,
+					   ResidualTransformPoint<T, P> residual, double thresholdFit ) {
+			super( randSeed, fitter, residual, 0, thresholdFit );
+		}
+
+		@Override
+		protected boolean isFinished() {
+			if( deterministic )
+				return super.isFinished();
+
+			// claim the next iteration from the shared budget
+			return sharedIterations.incrementAndGet() > sharedLimit.get();
+		}
+
+		@Override
+		protected int scoreToBeat() {
+			if( deterministic )
+				return numBestInliers;
+
+			return Math.max( numBestInliers, sharedBestScore.get() );
+		}
+
+		@Override
+		protected void foundBetterHypothesis( int N ) {
+			int adaptive = adaptiveIterations( confidence, numBestInliers, N, sampleSize );
+
+			if( deterministic ) {
+				// the other workers are also sampling, so only its share of the iterations is needed
+				long needed = iterations + 1L + ( adaptive/(long)workers.size() + 1 );
+				iterationLimit = (int)Math.min( maxIterations, needed );
+			} else {
+				int prev;
+				do {
+					prev = sharedBestScore.get();
+					if( prev >= numBestInliers )
+						return;
+				} while( !sharedBestScore.compareAndSet( prev, numBestInliers ) );
+
+				long needed = sharedIterations.get() + (long)adaptive;
+				int limit;
+				do {
+					limit = sharedLimit.get();
+					if( limit <= needed )
+						return;
+				} while( !sharedLimit.compareAndSet( limit, (int)needed ) );
+			}
+		}
+	}
+}
@@ -23,16 +23,16 @@ import georegression.fitting.MotionTransformPoint;
 import georegression.geometry.GeometryMath_F32;
 import georegression.geometry.UtilPoint2D_F32;
 import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
 import georegression.struct.se.Se2_F32;
-import org.ejml.simple.SimpleMatrix;
-import org.ejml.simple.SimpleSVD;
 
 import java.util.List;
 
 /**
  * <p>
  * Finds the rigid body motion which minimizes the different between the two sets of associated points in 3D.  The
- * rotation is computed from the SVD of a cross correlation matrix.
+ * rotation is computed from the SVD of a cross correlation matrix, which for a 2x2 matrix reduces to a closed
+ * form solution.
  * </p>
  * <p/>
  * <p>
@@ -53,6 +53,10 @@ public class MotionSe2PointSVD_F32 implements MotionTransformPoint<Se2_F32, Poin
 
 	Se2_F32 motion = new Se2_F32();
 
+	// mean of each set of points
+	private Point2D_F32 meanFrom = new Point2D_F32();
+	private Point2D_F32 meanTo = new Point2D_F32();
+
 	@Override
 	public Se2_F32 getMotion() {
 		return motion;
@@ -94,39 +98,70 @@ public class MotionSe2PointSVD_F32 implements MotionTransformPoint<Se2_F32, Poin
 		s21 = s21 / N - m21;
 		s22 = s22 / N - m22;
 
-		SimpleMatrix Sigma = new SimpleMatrix( 2, 2, true, s11, s12, s21, s22 );
+		computeMotion( meanFrom, meanTo, s11, s12, s21, s22 );
 
-		// Compute the SVD of the cross correlation matrix
-		// The rotation matrix is R = V*U^T
+		return true;
+	}
 
-		SimpleSVD evd = Sigma.svd( false );
-		SimpleMatrix U = evd.getU();
-		SimpleMatrix V = evd.getV();
+	/**
+	 * Same as {@link #process(java.util.List, java.util.List)} but the points are read directly from packed arrays.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if the computation successfully produced a solution and false if not.
+	 */
+	public boolean process( PointCloud2D_F32 fromPts, PointCloud2D_F32 toPts ) {
+		if( fromPts.size != toPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
 
-		SimpleMatrix R = V.mult( U.transpose() );
+		// find the mean of both sets of points
+		UtilPoint2D_F32.mean( fromPts, meanFrom );
+		UtilPoint2D_F32.mean( toPts, meanTo );
+
+		final int N = fromPts.size;
+		final float from[] = fromPts.data;
+		final float to[] = toPts.data;
+		final int end = N*2;
+
+		float s11 = 0, s12 = 0;
+		float s21 = 0, s22 = 0;
 
-		// There are situations where R might not have a determinant of one and is instead
-		// a reflection is returned
-		if( R.determinant() < 0 ) {
-			for( int i = 0; i < 2; i++ )
-				V.set( i, 1, -V.get( i, 1 ) );
-			R = V.mult( U.transpose() );
-			float det = (float) R.determinant();
-			if( det < 0 ) {
-				System.out.println( "Crap" );
-			}
+		for( int i = 0; i < end; i += 2 ) {
+			float fx = from[i], fy = from[i+1];
+			float tx = to[i], ty = to[i+1];
+
+			s11 += fx * tx;
+			s12 += fx * ty;
+			s21 += fy * tx;
+			s22 += fy * ty;
 		}
 
-		// extract the yaw from the rotation matrix
-		float yaw = (float)Math.atan2( R.get( 1, 0 ), R.get( 0, 0 ) );
+		s11 = s11 / N - meanFrom.x * meanTo.x;
+		s12 = s12 / N - meanFrom.x * meanTo.y;
+		s21 = s21 / N - meanFrom.y * meanTo.x;
+		s22 = s22 / N - meanFrom.y * meanTo.y;
+
+		computeMotion( meanFrom, meanTo, s11, s12, s21, s22 );
+
+		return true;
+	}
+
+	/**
+	 * Computes the motion from the cross-covariance matrix and the mean of each set of points.
+	 * The contents of meanFrom are modified.
+	 */
+	private void computeMotion( Point2D_F32 meanFrom, Point2D_F32 meanTo,
+								float s11, float s12, float s21, float s22 ) {
+		// The rotation is R = V*U^T, where Sigma = U*S*V^T, with the sign of V's last column flipped if R is
+		// a reflection.  For a 2x2 matrix this is the rotation which maximizes trace(R*Sigma), which has a
+		// closed form solution.  No decomposition is needed.
+		float yaw = (float)Math.atan2( s12 - s21, s11 + s22 );
 
 		// save the results
 		GeometryMath_F32.rotate( yaw, meanFrom, meanFrom );
 		motion.getTranslation().x = meanTo.x - meanFrom.x;
 		motion.getTranslation().y = meanTo.y - meanFrom.y;
 		motion.setYaw( yaw );
-
-		return true;
 	}
 
 	@Override
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.se;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+
+/**
+ * <p>
+ * Incrementally estimates the rigid body motion between two sets of associated 3D points.  Instead of
+ * processing all the points each time, the sums needed to compute the mean of each set and their
+ * cross-covariance are maintained.  Point pairs can be added, removed, or accumulators merged in constant
+ * time.  The motion is then found on request using the same SVD approach as {@link MotionSe3PointSVD_F32}.
+ * </p>
+ *
+ * <p>
+ * The cross-covariance is computed from sums:<br>
+ * Sigma = sum(i=1:N,[x_i*p_i^T]) - N*mu_x*mu_p^T<br>
+ * where x is the set of 'to' points and p is the set of 'from' points.  To avoid catastrophic cancellation
+ * when the points are far from the origin relative to their spread, all the sums are computed relative to
+ * the first pair of points added after {@link #reset()}.  After a very long sequence of add and removes round
+ * off error can still build up.  Calling {@link #reset()} and adding the current set of points again will
+ * remove that error.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointAccumulator_F32 {
+
+	// number of point pairs
+	private int N;
+
+	// all the sums are relative to this pair of points.  Set by the first point added after a reset
+	private boolean hasOrigin;
+	private float originFx, originFy, originFz;
+	private float originTx, originTy, originTz;
+
+	// sum of the 'from' and 'to' points
+	private float sumFx, sumFy, sumFz;
+	private float sumTx, sumTy, sumTz;
+
+	// sum of outer products to*from^T
+	private float s11, s12, s13;
+	private float s21, s22, s23;
+	private float s31, s32, s33;
+
+	// used to extract the motion from the cross-covariance
+	private MotionSe3PointSVD_F32 alg = new MotionSe3PointSVD_F32();
+
+	// storage for the mean of each set of points
+	private Point3D_F32 meanFrom = new Point3D_F32();
+	private Point3D_F32 meanTo = new Point3D_F32();
+
+	/**
+	 * Removes all the points
+	 */
+	public void reset() {
+		N = 0;
+		hasOrigin = false;
+		sumFx = sumFy = sumFz = 0;
+		sumTx = sumTy = sumTz = 0;
+		s11 = s12 = s13 = 0;
+		s21 = s22 = s23 = 0;
+		s31 = s32 = s33 = 0;
+	}
+
+	/**
+	 * Adds a pair of associated points.
+	 *
+	 * @param from Point which is to be transformed.  Not modified.
+	 * @param to   Point it is being compared against.  Not modified.
+	 */
+	public void add( Point3D_F32 from, Point3D_F32 to ) {
+		add( from.x, from.y, from.z, to.x, to.y, to.z );
+	}
+
+	public void add( float fx, float fy, float fz, float tx, float ty, float tz ) {
+		if( !hasOrigin ) {
+			hasOrigin = true;
+			originFx = fx; originFy = fy; originFz = fz;
+			originTx = tx; originTy = ty; originTz = tz;
+		}
+		N++;
+		update( 1, fx, fy, fz, tx, ty, tz );
+	}
+
+	/**
+	 * Removes a pair of associated points which had previously been added.
+	 *
+	 * @param from Point which is to be transformed.  Not modified.
+	 * @param to   Point it is being compared against.  Not modified.
+	 */
+	public void remove( Point3D_F32 from, Point3D_F32 to ) {
+		remove( from.x, from.y, from.z, to.x, to.y, to.z );
+	}
+
+	public void remove( float fx, float fy, float fz, float tx, float ty, float tz ) {
+		if( N <= 0 )
+			throw new IllegalArgumentException( "No points to remove" );
+
+		N--;
+		update( -1, fx, fy, fz, tx, ty, tz );
+	}
+
+	/**
+	 * Adds the point pair to the sums after scaling it by 'sign', which is +1 to add or -1 to remove.
+	 */
+	private void update( float sign, float fx, float fy, float fz, float tx, float ty, float tz ) {
+		fx -= originFx; fy -= originFy; fz -= originFz;
+		tx -= originTx; ty -= originTy; tz -= originTz;
+
+		sumFx += sign*fx;
+		sumFy += sign*fy;
+		sumFz += sign*fz;
+		sumTx += sign*tx;
+		sumTy += sign*ty;
+		sumTz += sign*tz;
+
+		fx *= sign;
+		fy *= sign;
+		fz *= sign;
+
+		s11 += tx*fx;
+		s12 += tx*fy;
+		s13 += tx*fz;
+		s21 += ty*fx;
+		s22 += ty*fy;
+		s23 += ty*fz;
+		s31 += tz*fx;
+		s32 += tz*fy;
+		s33 += tz*fz;
+	}
+
+	/**
+	 * Adds all the point pairs contained in another accumulator into this one.
+	 *
+	 * @param other The accumulator which is to be merged into this one.  Not modified.
+	 */
+	public void merge( MotionSe3PointAccumulator_F32 other ) {
+		if( !other.hasOrigin )
+			return;
+		if( !hasOrigin ) {
+			hasOrigin = true;
+			originFx = other.originFx; originFy = other.originFy; originFz = other.originFz;
+			originTx = other.originTx; originTy = other.originTy; originTz = other.originTz;
+		}
+
+		// offset of the other origin from this origin
+		float dFx = other.originFx - originFx, dFy = other.originFy - originFy, dFz = other.originFz - originFz;
+		float dTx = other.originTx - originTx, dTy = other.originTy - originTy, dTz = other.originTz - originTz;
+
+		// shift the other sums into this origin
+		// sum((t+dT)*(f+dF)^T) = sum(t*f^T) + sum(t)*dF^T + dT*sum(f)^T + N*dT*dF^T
+		int n = other.N;
+		float oFx = other.sumFx, oFy = other.sumFy, oFz = other.sumFz;
+		float oTx = other.sumTx, oTy = other.sumTy, oTz = other.sumTz;
+
+		s11 += other.s11 + oTx*dFx + dTx*oFx + n*dTx*dFx;
+		s12 += other.s12 + oTx*dFy + dTx*oFy + n*dTx*dFy;
+		s13 += other.s13 + oTx*dFz + dTx*oFz + n*dTx*dFz;
+		s21 += other.s21 + oTy*dFx + dTy*oFx + n*dTy*dFx;
+		s22 += other.s22 + oTy*dFy + dTy*oFy + n*dTy*dFy;
+		s23 += other.s23 + oTy*dFz + dTy*oFz + n*dTy*dFz;
+		s31 += other.s31 + oTz*dFx + dTz*oFx + n*dTz*dFx;
+		s32 += other.s32 + oTz*dFy + dTz*oFy + n*dTz*dFy;
+		s33 += other.s33 + oTz*dFz + dTz*oFz + n*dTz*dFz;
+
+		sumFx += oFx + n*dFx; sumFy += oFy + n*dFy; sumFz += oFz + n*dFz;
+		sumTx += oTx + n*dTx; sumTy += oTy + n*dTy; sumTz += oTz + n*dTz;
+		N += n;
+	}
+
+	/**
+	 * Computes the motion from the point pairs which have been added.
+	 *
+	 * @return true if a solution was found or false if there are too few points.
+	 */
+	public boolean process() {
+		if( N < alg.getMinimumPoints() )
+			return false;
+
+		// means relative to the origin
+		float mFx = sumFx / N, mFy = sumFy / N, mFz = sumFz / N;
+
+		meanFrom.set( originFx + mFx, originFy + mFy, originFz + mFz );
+		meanTo.set( originTx + sumTx / N, originTy + sumTy / N, originTz + sumTz / N );
+
+		// Sigma = sum(x*p^T) - N*mu_x*mu_p^T, which doesn't change when the points are shifted
+		alg.computeMotion( meanFrom, meanTo,
+				s11 - sumTx*mFx, s12 - sumTx*mFy, s13 - sumTx*mFz,
+				s21 - sumTy*mFx, s22 - sumTy*mFy, s23 - sumTy*mFz,
+				s31 - sumTz*mFx, s32 - sumTz*mFy, s33 - sumTz*mFz );
+
+		return true;
+	}
+
+	/**
+	 * Returns the motion found by the last call to {@link #process()}
+	 *
+	 * @return motion
+	 */
+	public Se3_F32 getMotion() {
+		return alg.getMotion();
+	}
+
+	/**
+	 * Number of point pairs in the accumulator
+	 */
+	public int size() {
+		return N;
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.se;
+
+import georegression.geometry.Svd3x3_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Fits a rigid body motion to each of a large number of small, independent sets of associated points.  Computes
+ * the same solution as {@link MotionSe3PointSVD_F64}, but avoids the per-call overhead of creating point lists and
+ * copying out motion objects.  All point pairs are stored in a single packed buffer and problem 'i' is composed of
+ * the pairs from offsets[i] to offsets[i+1]-1.  The results are written into a packed array of poses.
+ * </p>
+ *
+ * <p>
+ * Each pose is stored as 12 elements: the rotation matrix in row-major order followed by the translation.
+ * See {@link #getPose(double[], int, Se3_F64)}.
+ * </p>
+ *
+ * <p>
+ * If an executor is provided the problems are split into contiguous blocks which are solved in parallel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointBatch_F64 {
+
+	/** Number of elements used to store each pose */
+	public static final int POSE_LENGTH = 12;
+
+	// used to solve problems in parallel.  If null everything is done in the calling thread
+	private ExecutorService executor;
+	// one worker for each block of problems
+	private List<Worker> workers = new ArrayList<Worker>();
+
+	/**
+	 * Creates a batch fitter which solves every problem in the calling thread.
+	 */
+	public MotionSe3PointBatch_F64() {
+		workers.add( new Worker() );
+	}
+
+	/**
+	 * Creates a batch fitter which solves the problems in parallel.
+	 *
+	 * @param executor Executes blocks of problems.
+	 * @param numBlocks Number of blocks the problems are split into.  Typically the number of threads.
+	 */
+	public MotionSe3PointBatch_F64( ExecutorService executor, int numBlocks ) {
+		if( numBlocks < 1 )
+			throw new IllegalArgumentException( "There must be at least one block" );
+		this.executor = executor;
+		for( int i = 0; i < numBlocks; i++ )
+			workers.add( new Worker() );
+	}
+
+	/**
+	 * Fits a motion to each problem.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts The points that are being compared against. Not modified.
+	 * @param offsets Index of the first point pair in each problem.  Must have numProblems+1 elements, with the last
+	 *                one being the end of the last problem.  Not modified.
+	 * @param numProblems Number of problems.
+	 * @param poses Storage for the found poses.  Must have at least numProblems*12 elements.  Modified.
+	 * @param success Storage for whether each problem has a solution.  Problems with fewer than 3 point pairs
+	 *                do not.  Must have at least numProblems elements.  Modified.
+	 * @return Number of problems with a solution.
+	 */
+	public int process( PointCloud3D_F64 fromPts, PointCloud3D_F64 toPts,
+						int offsets[], int numProblems,
+						double poses[], boolean success[] ) {
+		if( fromPts.size != toPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+		if( offsets.length < numProblems + 1 )
+			throw new IllegalArgumentException( "offsets must have numProblems+1 elements" );
+		if( numProblems > 0 && offsets[numProblems] > fromPts.size )
+			throw new IllegalArgumentException( "offsets reference points outside the buffer" );
+		if( poses.length < numProblems*POSE_LENGTH || success.length < numProblems )
+			throw new IllegalArgumentException( "Output arrays are too small" );
+
+		if( numProblems == 0 )
+			return 0;
+
+		int numBlocks = executor == null ? 1 : workers.size();
+		if( numBlocks > numProblems )
+			numBlocks = numProblems;
+		for( int i = 0; i < numBlocks; i++ ) {
+			Worker w = workers.get( i );
+			w.from = fromPts.data;
+			w.to = toPts.data;
+			w.offsets = offsets;
+			w.poses = poses;
+			w.success = success;
+			w.start = (int)( (long)numProblems*i/numBlocks );
+			w.end = (int)( (long)numProblems*( i + 1 )/numBlocks );
+		}
+
+		int total = 0;
+		if( numBlocks <= 1 ) {
+			total = workers.get( 0 ).call();
+		} else {
+			try {
+				for( Future<Integer> f : executor.invokeAll( workers.subList( 0, numBlocks ) ) )
+					total += f.get();
+			} catch( InterruptedException e ) {
+				throw new RuntimeException( e );
+			} catch( ExecutionException e ) {
+				throw new RuntimeException( e.getCause() );
+			}
+		}
+
+		// don't hold onto references to the caller's data
+		for( Worker w : workers ) {
+			w.from = w.to = w.poses = null;
+			w.offsets = null;
+			w.success = null;
+		}
+
+		return total;
+	}
+
+	/**
+	 * Copies a pose out of the packed array of poses.
+	 *
+	 * @param poses Packed array of poses.  Not modified.
+	 * @param index Index of the pose.
+	 * @param storage Storage for the pose.  If null a new instance is declared.
+	 * @return The pose.
+	 */
+	public static Se3_F64 getPose( double poses[], int index, Se3_F64 storage ) {
+		if( storage == null )
+			storage = new Se3_F64();
+
+		int offset = index*POSE_LENGTH;
+		for( int i = 0; i < 9; i++ )
+			storage.R.data[i] = poses[offset+i];
+		storage.T.set( poses[offset+9], poses[offset+10], poses[offset+11] );
+
+		return storage;
+	}
+
+	/**
+	 * Solves a contiguous block of problems.
+	 */
+	private static class Worker implements Callable<Integer> {
+		Svd3x3_F64 svd = new Svd3x3_F64();
+
+		double from[], to[], poses[];
+		int offsets[];
+		boolean success[];
+		int start, end;
+
+		@Override
+		public Integer call() {
+			int total = 0;
+			for( int i = start; i < end; i++ ) {
+				success[i] = solve( offsets[i], offsets[i+1], i*POSE_LENGTH );
+				if( success[i] )
+					total++;
+			}
+			return total;
+		}
+
+		/**
+		 * Fits the motion to the point pairs [first,last) and writes the pose starting at 'output'
+		 */
+		private boolean solve( int first, int last, int output ) {
+			final int N = last - first;
+			if( N < 3 )
+				return false;
+
+			double mfx = 0, mfy = 0, mfz = 0;
+			double mtx = 0, mty = 0, mtz = 0;
+			for( int i = first*3; i < last*3; i += 3 ) {
+				mfx += from[i]; mfy += from[i+1]; mfz += from[i+2];
+				mtx += to[i]; mty += to[i+1]; mtz += to[i+2];
+			}
+			mfx /= N; mfy /= N; mfz /= N;
+			mtx /= N; mty /= N; mtz /= N;
+
+			double s11 = 0, s12 = 0, s13 = 0;
+			double s21 = 0, s22 = 0, s23 = 0;
+			double s31 = 0, s32 = 0, s33 = 0;
+
+			for( int i = first*3; i < last*3; i += 3 ) {
+				double dfx = from[i] - mfx, dfy = from[i+1] - mfy, dfz = from[i+2] - mfz;
+				double dtx = to[i] - mtx, dty = to[i+1] - mty, dtz = to[i+2] - mtz;
+
+				s11 += dtx*dfx; s12 += dtx*dfy; s13 += dtx*dfz;
+				s21 += dty*dfx; s22 += dty*dfy; s23 += dty*dfz;
+				s31 += dtz*dfx; s32 += dtz*dfy; s33 += dtz*dfz;
+			}
+
+			svd.decompose( s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+			svd.rotationUVt( poses, output );
+
+			// T = meanTo - R*meanFrom
+			poses[output+9]  = mtx - ( poses[output  ]*mfx + poses[output+1]*mfy + poses[output+2]*mfz );
+			poses[output+10] = mty - ( poses[output+3]*mfx + poses[output+4]*mfy + poses[output+5]*mfz );
+			poses[output+11] = mtz - ( poses[output+6]*mfx + poses[output+7]*mfy + poses[output+8]*mfz );
+
+			return true;
+		}
+	}
+}
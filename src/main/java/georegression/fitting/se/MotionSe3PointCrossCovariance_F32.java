@@ -24,18 +24,23 @@ import georegression.geometry.GeometryMath_F32;
 import georegression.geometry.RotationMatrixGenerator;
 import georegression.geometry.UtilPoint3D_F32;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import georegression.struct.point.Vector3D_F32;
 import georegression.struct.se.Se3_F32;
 import georegression.struct.so.Quaternion;
-import org.ejml.simple.SimpleEVD;
-import org.ejml.simple.SimpleMatrix;
+import org.ejml.alg.dense.decomposition.DecompositionFactory;
+import org.ejml.alg.dense.decomposition.EigenDecomposition;
+import org.ejml.data.DenseMatrix64F;
 
 import java.util.List;
 
 /**
  * <p>
  * Finds the rigid body motion which minimizes the different between the two sets of associated points in 3D.  Computes
- * the quaternions directly in closed form.
+ * the quaternions directly in closed form.  The dominant eigenvector of the 4x4 quaternion matrix is found by applying
+ * Newton's method to its characteristic polynomial.  If the largest eigenvalue is repeated, which happens with
+ * symmetric or planar sets of points, a symmetric eigenvalue decomposition is used instead.  After construction
+ * no memory is declared.
  * </p>
 
  * <p>
@@ -63,6 +68,18 @@ public class MotionSe3PointCrossCovariance_F32 implements MotionTransformPoint<S
 	// temporarily stores the quaternion
 	private Quaternion quat = new Quaternion();
 
+	// the 4x4 matrix whose dominant eigenvector is the rotation, and Q - lambda*I
+	private /**/double Q[] = new /**/double[16];
+	private /**/double M[] = new /**/double[16];
+
+	// used when the largest eigenvalue of Q is not distinct
+	private DenseMatrix64F matrixQ = new DenseMatrix64F( 4, 4 );
+	private EigenDecomposition<DenseMatrix64F> eig = DecompositionFactory.eigSymm( 4, true );
+
+	// mean of each set of points
+	private Point3D_F32 meanFrom = new Point3D_F32();
+	private Point3D_F32 meanTo = new Point3D_F32();
+
 	public float[] getParam() {
 		return param;
 	}
@@ -120,23 +137,89 @@ public class MotionSe3PointCrossCovariance_F32 implements MotionTransformPoint<S
 		s32 = s32 / N - m32;
 		s33 = s33 / N - m33;
 
-		SimpleMatrix Sigma = new SimpleMatrix( 3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+		return computeMotion( meanFrom, meanTo, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+	}
 
-//        Sigma.print();
+	/**
+	 * Same as {@link #process(java.util.List, java.util.List)} but the points are read directly from packed arrays.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if the computation successfully produced a solution and false if not.
+	 */
+	public boolean process( PointCloud3D_F32 fromPts, PointCloud3D_F32 toPts ) {
+		if( fromPts.size != toPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		// find the mean of both sets of points
+		UtilPoint3D_F32.mean( fromPts, meanFrom );
+		UtilPoint3D_F32.mean( toPts, meanTo );
 
-		SimpleMatrix Delta = new SimpleMatrix( 3, 1, true, s23 - s32, s31 - s13, s12 - s21 );
+		final int N = fromPts.size;
+		final float from[] = fromPts.data;
+		final float to[] = toPts.data;
+		final int end = N*3;
+
+		float s11 = 0, s12 = 0, s13 = 0;
+		float s21 = 0, s22 = 0, s23 = 0;
+		float s31 = 0, s32 = 0, s33 = 0;
 
-		SimpleMatrix Q = new SimpleMatrix( 4, 4 );
-		SimpleMatrix BR = Sigma.plus( Sigma.transpose() ).minus( SimpleMatrix.identity( 3 ).scale( Sigma.trace() ) );
+		for( int i = 0; i < end; i += 3 ) {
+			float fx = from[i], fy = from[i+1], fz = from[i+2];
+			float tx = to[i], ty = to[i+1], tz = to[i+2];
+
+			s11 += fx * tx;
+			s12 += fx * ty;
+			s13 += fx * tz;
+			s21 += fy * tx;
+			s22 += fy * ty;
+			s23 += fy * tz;
+			s31 += fz * tx;
+			s32 += fz * ty;
+			s33 += fz * tz;
+		}
 
-		Q.set( 0, 0, Sigma.trace() );
-		Q.insertIntoThis( 0, 1, Delta.transpose() );
-		Q.insertIntoThis( 1, 0, Delta );
-		Q.insertIntoThis( 1, 1, BR );
+		s11 = s11 / N - meanFrom.x * meanTo.x;
+		s12 = s12 / N - meanFrom.x * meanTo.y;
+		s13 = s13 / N - meanFrom.x * meanTo.z;
+		s21 = s21 / N - meanFrom.y * meanTo.x;
+		s22 = s22 / N - meanFrom.y * meanTo.y;
+		s23 = s23 / N - meanFrom.y * meanTo.z;
+		s31 = s31 / N - meanFrom.z * meanTo.x;
+		s32 = s32 / N - meanFrom.z * meanTo.y;
+		s33 = s33 / N - meanFrom.z * meanTo.z;
+
+		return computeMotion( meanFrom, meanTo, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+	}
 
-//        Q.print();
+	/**
+	 * Computes the motion from the cross-covariance matrix and the mean of each set of points.
+	 * The contents of meanFrom are modified.
+	 *
+	 * @return false if the eigenvalue decomposition failed
+	 */
+	private boolean computeMotion( Point3D_F32 meanFrom, Point3D_F32 meanTo,
+								float s11, float s12, float s13,
+								float s21, float s22, float s23,
+								float s31, float s32, float s33 ) {
+		// Q = [ trace(Sigma) , Delta^T ; Delta , Sigma + Sigma^T - trace(Sigma)*I ]
+		/**/double trace = s11 + s22 + s33;
+		/**/double d0 = s23 - s32, d1 = s31 - s13, d2 = s12 - s21;
+
+		Q[0] = trace; Q[1] = d0; Q[2] = d1; Q[3] = d2;
+		Q[4] = d0; Q[5] = 2*s11 - trace; Q[6] = s12 + s21; Q[7] = s13 + s31;
+		Q[8] = d1; Q[9] = s12 + s21; Q[10] = 2*s22 - trace; Q[11] = s23 + s32;
+		Q[12] = d2; Q[13] = s13 + s31; Q[14] = s23 + s32; Q[15] = 2*s33 - trace;
+
+		if( !extractQuaternionFromQ() ) {
+			if( !extractQuaternionFromEig() )
+				return false;
+		}
 
-		extractQuaternionFromQ( Q );
+		param[0] = (float) quat.q1;
+		param[1] = (float) quat.q2;
+		param[2] = (float) quat.q3;
+		param[3] = (float) quat.q4;
 
 		// translation = meanTo - R*meanFrom
 		GeometryMath_F32.mult( motion.getR(), meanFrom, meanFrom );
@@ -148,23 +231,128 @@ public class MotionSe3PointCrossCovariance_F32 implements MotionTransformPoint<S
 		return true;
 	}
 
+	/**
+	 * <p>
+	 * Finds the eigenvector of Q with the largest eigenvalue without declaring any memory.  Q is symmetric and
+	 * traceless, so its characteristic polynomial is
+	 * p(&lambda;) = &lambda;<sup>4</sup> + c<sub>2</sub>&lambda;<sup>2</sup> + c<sub>1</sub>&lambda; + c<sub>0</sub>.
+	 * All its roots are real, so Newton's method started from an upper bound on the eigenvalues, the Frobenius norm
+	 * of Q, converges monotonically to the largest one.  The eigenvector is then a non-zero column of the
+	 * adjugate of (Q - &lambda;I), since that matrix has rank 3.
+	 * </p>
+	 *
+	 * @return true if successful or false if the largest eigenvalue is not distinct
+	 */
+	private boolean extractQuaternionFromQ() {
+		/**/double normSq = 0;
+		for( int i = 0; i < 16; i++ )
+			normSq += Q[i]*Q[i];
+
+		/**/double c2 = -0.5f*normSq;
+		/**/double c1 = 0, c0 = 0;
+		for( int i = 0; i < 4; i++ ) {
+			c1 -= cofactor( Q, i, i );
+			c0 += Q[i]*cofactor( Q, 0, i );
+		}
+
+		/**/double lambda = (/**/double)Math.sqrt( normSq );
+		for( int iter = 0; iter < 50; iter++ ) {
+			/**/double lambda2 = lambda*lambda;
+			/**/double p = ( lambda2 + c2 )*lambda2 + c1*lambda + c0;
+			/**/double dp = ( 4*lambda2 + 2*c2 )*lambda + c1;
+			if( dp == 0 )
+				break;
+			/**/double step = p/dp;
+			lambda -= step;
+			if( (float)Math.abs( step ) <= 1e-15*Math.abs( lambda ) )
+				break;
+		}
+
+		for( int i = 0; i < 16; i++ )
+			M[i] = Q[i];
+		for( int i = 0; i < 4; i++ )
+			M[i*5] -= lambda;
+
+		// select the column of the adjugate with the largest magnitude for numerical stability
+		/**/double bestNormSq = 0;
+		int bestCol = -1;
+		for( int col = 0; col < 4; col++ ) {
+			/**/double n = 0;
+			for( int row = 0; row < 4; row++ ) {
+				/**/double c = cofactor( M, col, row );
+				n += c*c;
+			}
+			if( n > bestNormSq ) {
+				bestNormSq = n;
+				bestCol = col;
+			}
+		}
+
+		// the column will be close to zero if the eigenvalue is repeated
+		if( bestCol < 0 || bestNormSq <= 1e-20*normSq*normSq*normSq )
+			return false;
+
+		quat.q1 = cofactor( M, bestCol, 0 );
+		quat.q2 = cofactor( M, bestCol, 1 );
+		quat.q3 = cofactor( M, bestCol, 2 );
+		quat.q4 = cofactor( M, bestCol, 3 );
+		quat.normalize();
+
+		RotationMatrixGenerator.quaternionToMatrix( quat, motion.getR() );
+
+		return true;
+	}
+
+	/**
+	 * Computes the cofactor of element (row,col) in a 4x4 row-major matrix
+	 */
+	private static /**/double cofactor( /**/double A[], int row, int col ) {
+		int r0 = row == 0 ? 4 : 0, r1 = row <= 1 ? 8 : 4, r2 = row <= 2 ? 12 : 8;
+		int c0 = col == 0 ? 1 : 0, c1 = col <= 1 ? 2 : 1, c2 = col <= 2 ? 3 : 2;
+
+		/**/double det = A[r0+c0]*( A[r1+c1]*A[r2+c2] - A[r1+c2]*A[r2+c1] )
+				- A[r0+c1]*( A[r1+c0]*A[r2+c2] - A[r1+c2]*A[r2+c0] )
+				+ A[r0+c2]*( A[r1+c0]*A[r2+c1] - A[r1+c1]*A[r2+c0] );
+
+		return ( ( row + col ) & 1 ) == 0 ? det : -det;
+	}
+
 	/**
 	 * The unit eigenvector corresponding to the maximum eigenvalue of Q is the rotation
-	 * parameterized as a quaternion.
+	 * parameterized as a quaternion.  Used when the largest eigenvalue is not distinct.
+	 *
+	 * @return true if successful or false if the decomposition failed
 	 */
-	private void extractQuaternionFromQ( SimpleMatrix q ) {
-		SimpleEVD evd = q.eig();
-		int indexMax = evd.getIndexMax();
+	private boolean extractQuaternionFromEig() {
+		for( int i = 0; i < 16; i++ )
+			matrixQ.data[i] = Q[i];
+
+		if( !eig.decompose( matrixQ ) )
+			return false;
+
+		int indexMax = -1;
+		/**/double bestValue = -Float.MAX_VALUE;
+		for( int i = 0; i < 4; i++ ) {
+			/**/double value = eig.getEigenvalue( i ).real;
+			if( value > bestValue ) {
+				bestValue = value;
+				indexMax = i;
+			}
+		}
+		if( indexMax < 0 )
+			return false;
 
-		SimpleMatrix v_max = evd.getEigenVector( indexMax );
+		DenseMatrix64F v = eig.getEigenVector( indexMax );
 
-		quat.q1 = v_max.get( 0 );
-		quat.q2 = v_max.get( 1 );
-		quat.q3 = v_max.get( 2 );
-		quat.q4 = v_max.get( 3 );
+		quat.q1 = v.data[0];
+		quat.q2 = v.data[1];
+		quat.q3 = v.data[2];
+		quat.q4 = v.data[3];
 		quat.normalize();
 
 		RotationMatrixGenerator.quaternionToMatrix( quat, motion.getR() );
+
+		return true;
 	}
 
 	@Override
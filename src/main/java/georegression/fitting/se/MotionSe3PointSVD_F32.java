@@ -20,27 +20,34 @@
 package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.CrossCovariance3DParallel_F32;
+import georegression.geometry.CrossCovariance3D_F32;
 import georegression.geometry.GeometryMath_F32;
+import georegression.geometry.Svd3x3_F32;
 import georegression.geometry.UtilPoint3D_F32;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import georegression.struct.se.Se3_F32;
-import org.ejml.alg.dense.decomposition.DecompositionFactory;
-import org.ejml.alg.dense.decomposition.SingularValueDecomposition;
-import org.ejml.data.DenseMatrix64F;
-import org.ejml.ops.CommonOps;
-import org.ejml.ops.SingularOps;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * <p>
  * Finds the rigid body motion which minimizes the different between the two sets of associated points in 3D.
  * Computes the SVD of the covariance and extracts the motion from the mean of the two
- * sets of points and the U and V components of SVD.
+ * sets of points and the U and V components of SVD.  The SVD is computed using {@link Svd3x3_F32}, which is
+ * much faster than a general purpose SVD for a 3x3 matrix.
  * </p>
  * <p>
  * No paper to cite.  If anyone has one let me know.
  * </p>
+ * <p>
+ * For very large sets of points an executor can be provided, see
+ * {@link #MotionSe3PointSVD_F32(ExecutorService, int)}.  Sets with more points than the chunk size are then
+ * reduced in parallel by {@link CrossCovariance3DParallel_F32}.  The result matches the sequential solution to
+ * within round off error and is deterministic for a fixed chunk size.
+ * </p>
  *
  * @author Peter Abeles
  */
@@ -49,7 +56,36 @@ public class MotionSe3PointSVD_F32 implements MotionTransformPoint<Se3_F32, Poin
 	// rigid body motion
 	private Se3_F32 motion = new Se3_F32();
 
-	SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd(3,3);
+	// SVD specialized for 3x3 matrices
+	private Svd3x3_F32 svd = new Svd3x3_F32();
+
+	// mean of each set of points
+	private Point3D_F32 meanFrom = new Point3D_F32();
+	private Point3D_F32 meanTo = new Point3D_F32();
+
+	// work space for computing the translation
+	private Point3D_F32 temp = new Point3D_F32();
+
+	// computes the cross-covariance in parallel.  null if in sequential mode
+	private CrossCovariance3DParallel_F32 parallel;
+	private CrossCovariance3D_F32 covariance;
+
+	/**
+	 * Computes the motion in the calling thread.
+	 */
+	public MotionSe3PointSVD_F32() {
+	}
+
+	/**
+	 * Computes the cross-covariance in parallel when there are more points than the chunk size.
+	 *
+	 * @param executor Executes chunks of points.
+	 * @param chunkSize Number of points in each chunk.  Try 65536
+	 */
+	public MotionSe3PointSVD_F32( ExecutorService executor, int chunkSize ) {
+		parallel = new CrossCovariance3DParallel_F32( executor, chunkSize );
+		covariance = new CrossCovariance3D_F32();
+	}
 
 	@Override
 	public Se3_F32 getMotion() {
@@ -61,6 +97,12 @@ public class MotionSe3PointSVD_F32 implements MotionTransformPoint<Se3_F32, Poin
 		if( fromPts.size() != toPts.size() )
 			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
 
+		if( parallel != null && fromPts.size() > parallel.getChunkSize() ) {
+			parallel.process( fromPts, toPts, covariance );
+			computeMotion( covariance );
+			return true;
+		}
+
 		// find the mean of both sets of points
 		Point3D_F32 meanFrom = UtilPoint3D_F32.mean( fromPts );
 		Point3D_F32 meanTo = UtilPoint3D_F32.mean( toPts );
@@ -97,34 +139,93 @@ public class MotionSe3PointSVD_F32 implements MotionTransformPoint<Se3_F32, Poin
 			s33 += dtz*dfz;
 		}
 
-		DenseMatrix64F Sigma = new DenseMatrix64F( 3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+		computeMotion( meanFrom, meanTo, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
 
-		if( !svd.decompose(Sigma) )
-			throw new RuntimeException("SVD failed!?");
+		return true;
+	}
 
-		DenseMatrix64F U = svd.getU(false);
-		DenseMatrix64F V = svd.getV(false);
+	/**
+	 * Same as {@link #process(java.util.List, java.util.List)} but the points are read directly from packed arrays.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if the computation successfully produced a solution and false if not.
+	 */
+	public boolean process( PointCloud3D_F32 fromPts, PointCloud3D_F32 toPts ) {
+		if( fromPts.size != toPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
 
-		SingularOps.descendingOrder(U,false,svd.getSingularValues(),3,V,false);
-		
-		if( CommonOps.det(U) < 0 ^ CommonOps.det(V) < 0 ) {
-			// swap sign of the column 2
-			// this only needs to happen if data is planar
-			V.data[2] = -V.data[2];
-			V.data[5] = -V.data[5];
-			V.data[8] = -V.data[8];
+		if( parallel != null && fromPts.size > parallel.getChunkSize() ) {
+			parallel.process( fromPts, toPts, covariance );
+			computeMotion( covariance );
+			return true;
 		}
 
-		CommonOps.multTransB(U, V, motion.getR());
+		// find the mean of both sets of points
+		UtilPoint3D_F32.mean( fromPts, meanFrom );
+		UtilPoint3D_F32.mean( toPts, meanTo );
 
-		Point3D_F32 temp = new Point3D_F32();
-		GeometryMath_F32.mult(motion.getR(),meanFrom,temp);
+		final float from[] = fromPts.data;
+		final float to[] = toPts.data;
+		final int end = fromPts.size*3;
 
-		motion.getT().set(meanTo.x - temp.x,meanTo.y - temp.y,meanTo.z - temp.z);
+		final float mfx = meanFrom.x, mfy = meanFrom.y, mfz = meanFrom.z;
+		final float mtx = meanTo.x, mty = meanTo.y, mtz = meanTo.z;
+
+		float s11 = 0, s12 = 0, s13 = 0;
+		float s21 = 0, s22 = 0, s23 = 0;
+		float s31 = 0, s32 = 0, s33 = 0;
+
+		for( int i = 0; i < end; i += 3 ) {
+			float dfx = from[i] - mfx;
+			float dfy = from[i+1] - mfy;
+			float dfz = from[i+2] - mfz;
+
+			float dtx = to[i] - mtx;
+			float dty = to[i+1] - mty;
+			float dtz = to[i+2] - mtz;
+
+			s11 += dtx*dfx;
+			s12 += dtx*dfy;
+			s13 += dtx*dfz;
+			s21 += dty*dfx;
+			s22 += dty*dfy;
+			s23 += dty*dfz;
+			s31 += dtz*dfx;
+			s32 += dtz*dfy;
+			s33 += dtz*dfz;
+		}
+
+		computeMotion( meanFrom, meanTo, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
 
 		return true;
 	}
 
+	/**
+	 * Extracts the motion from statistics which were computed in parallel
+	 */
+	private void computeMotion( CrossCovariance3D_F32 c ) {
+		meanFrom.set( c.meanFromX, c.meanFromY, c.meanFromZ );
+		meanTo.set( c.meanToX, c.meanToY, c.meanToZ );
+		computeMotion( meanFrom, meanTo, c.s11, c.s12, c.s13, c.s21, c.s22, c.s23, c.s31, c.s32, c.s33 );
+	}
+
+	/**
+	 * Extracts the motion from the SVD of the cross-covariance matrix and the mean of each set of points.
+	 * The cross-covariance only needs to be known up to a positive scale factor.
+	 */
+	void computeMotion( Point3D_F32 meanFrom, Point3D_F32 meanTo,
+						float s11, float s12, float s13,
+						float s21, float s22, float s23,
+						float s31, float s32, float s33 ) {
+		// U and V are rotations, so U*V^T is always a rotation even if the data is planar
+		svd.decompose( s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+		svd.rotationUVt( motion.getR() );
+
+		GeometryMath_F32.mult(motion.getR(),meanFrom,temp);
+
+		motion.getT().set(meanTo.x - temp.x,meanTo.y - temp.y,meanTo.z - temp.z);
+	}
 
 	@Override
 	public int getMinimumPoints() {
@@ -0,0 +1,457 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.se;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.so.Rodrigues;
+import org.ejml.alg.dense.linsol.LinearSolver;
+import org.ejml.alg.dense.linsol.LinearSolverFactory;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Refines an estimate of the rigid body motion between two sets of associated 3D points using Levenberg-Marquardt
+ * and an optional robust loss function.  Typically the initial estimate comes from a closed form solution, such as
+ * {@link MotionSe3PointSVD_F32}, which is optimal for the algebraic error but is sensitive to outliers.
+ * </p>
+ *
+ * <p>
+ * The cost being minimized is sum<sub>i</sub> &rho;(|R*p<sub>i</sub> + T - q<sub>i</sub>|<sup>2</sup>), where &rho;
+ * is the loss function.  Each iteration the current estimate is updated by a small motion on the left,
+ * y' = e<sup>[&omega;]</sup>*y + t, where y = R*p + T and &omega; is a Rodrigues rotation vector.  The Jacobian of a
+ * residual at &omega;=0 is [-[y]<sub>&times;</sub> , I], which is simple enough that the 6x6 normal equations
+ * are accumulated directly from 16 running sums in a single pass over the points.  A dense N by 6 Jacobian is
+ * never created, so memory does not grow with the number of points.  The robust loss is handled using
+ * iteratively reweighted least squares.
+ * </p>
+ *
+ * <p>
+ * Loss functions, where s is the squared residual and k the loss parameter:
+ * <ul>
+ * <li>{@link Loss#SQUARED}: &rho;(s) = s</li>
+ * <li>{@link Loss#HUBER}: &rho;(s) = s if sqrt(s) &le; k, otherwise 2*k*sqrt(s) - k<sup>2</sup></li>
+ * <li>{@link Loss#CAUCHY}: &rho;(s) = k<sup>2</sup>*log(1 + s/k<sup>2</sup>)</li>
+ * </ul>
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RefineSe3PointLM_F32 {
+
+	/**
+	 * Loss function applied to the squared distance of each point
+	 */
+	public static enum Loss {
+		SQUARED,
+		HUBER,
+		CAUCHY
+	}
+
+	// maximum number of iterations, each of which evaluates the cost once
+	private int maxIterations;
+	// stops when the cost is reduced by less than this fraction
+	private float ftol;
+	// type of loss function and its parameter
+	private Loss loss;
+	private float lossParam;
+
+	// points being refined against
+	private PointCloud3D_F32 from;
+	private PointCloud3D_F32 to;
+	// storage used when the input is a list
+	private PointCloud3D_F32 listFrom = new PointCloud3D_F32();
+	private PointCloud3D_F32 listTo = new PointCloud3D_F32();
+
+	// normal equations and gradient at the current estimate and at the candidate
+	private DenseMatrix64F A = new DenseMatrix64F( 6, 6 );
+	private DenseMatrix64F g = new DenseMatrix64F( 6, 1 );
+	private DenseMatrix64F candidateA = new DenseMatrix64F( 6, 6 );
+	private DenseMatrix64F candidateG = new DenseMatrix64F( 6, 1 );
+	// damped normal equations and the step
+	private DenseMatrix64F damped = new DenseMatrix64F( 6, 6 );
+	private DenseMatrix64F step = new DenseMatrix64F( 6, 1 );
+	private LinearSolver<DenseMatrix64F> solver = LinearSolverFactory.symmPosDef( 6 );
+
+	// current estimate and the candidate being considered
+	private Se3_F32 motion = new Se3_F32();
+	private Se3_F32 candidate = new Se3_F32();
+	private Se3_F32 delta = new Se3_F32();
+	private Rodrigues rodrigues = new Rodrigues();
+
+	private int iterations;
+	private float initialCost;
+	private float cost;
+
+	/**
+	 * Configures the refiner.
+	 *
+	 * @param maxIterations Maximum number of times the cost function is evaluated.
+	 * @param ftol Stops when the cost is reduced by less than this fraction.  Try 1e-12.
+	 * @param loss The loss function.
+	 * @param lossParam Distance at which the robust loss function starts to discount points.  Ignored for
+	 * {@link Loss#SQUARED}.
+	 */
+	public RefineSe3PointLM_F32( int maxIterations, float ftol, Loss loss, float lossParam ) {
+		this.maxIterations = maxIterations;
+		this.ftol = ftol;
+		setLoss( loss, lossParam );
+	}
+
+	/**
+	 * Least squares refinement with reasonable defaults.
+	 */
+	public RefineSe3PointLM_F32() {
+		this( 100, (float)Math.ulp( 1.0f )*100, Loss.SQUARED, 1 );
+	}
+
+	/**
+	 * Same as {@link #process(PointCloud3D_F32, PointCloud3D_F32, Se3_F32)} but the points are copied
+	 * out of lists first.
+	 */
+	public boolean process( List<Point3D_F32> fromPts, List<Point3D_F32> toPts, Se3_F32 initial ) {
+		if( fromPts.size() != toPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		listFrom.reset();
+		listTo.reset();
+		for( int i = 0; i < fromPts.size(); i++ ) {
+			listFrom.add( fromPts.get( i ) );
+			listTo.add( toPts.get( i ) );
+		}
+		return process( listFrom, listTo, initial );
+	}
+
+	/**
+	 * Refines the transform from 'fromPts' to 'toPts'.  References to the clouds are not saved.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts The points that are being compared against. Not modified.
+	 * @param initial Initial estimate of the motion.  Not modified.
+	 * @return true if it converged and false if it hit the iteration limit or there are too few points.
+	 */
+	public boolean process( PointCloud3D_F32 fromPts, PointCloud3D_F32 toPts, Se3_F32 initial ) {
+		if( fromPts.size != toPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		this.from = fromPts;
+		this.to = toPts;
+		motion.set( initial );
+		iterations = 0;
+
+		try {
+			if( fromPts.size < 3 ) {
+				initialCost = cost = fromPts.size == 0 ? 0 : accumulate( motion, A, g );
+				return false;
+			}
+
+			initialCost = cost = accumulate( motion, A, g );
+			iterations++;
+
+			/**/double lambda = 0.001f;
+			while( iterations < maxIterations ) {
+				if( cost == 0 )
+					return true;
+
+				if( !computeStep( lambda ) ) {
+					// a failed solve counts as an iteration so that it can't loop forever
+					iterations++;
+					if( lambda > 1e12 )
+						return false;
+					lambda *= 10;
+					continue;
+				}
+
+				computeCandidate();
+				float candidateCost = accumulate( candidate, candidateA, candidateG );
+				iterations++;
+
+				if( candidateCost < cost ) {
+					boolean converged = cost - candidateCost <= ftol*cost;
+
+					swapCandidate();
+					cost = candidateCost;
+					lambda = (float)Math.max( lambda/10, 1e-12 );
+
+					if( converged )
+						return true;
+				} else {
+					// no improvement is possible when the step has shrunk into the numerical noise
+					if( lambda > 1e12 )
+						return true;
+					lambda *= 10;
+				}
+			}
+			return false;
+		} finally {
+			this.from = null;
+			this.to = null;
+		}
+	}
+
+	/**
+	 * Computes the cost of a motion, the weighted normal equations A = J<sup>T</sup>*W*J, and the weighted
+	 * gradient g = J<sup>T</sup>*W*r.  All point dependent quantities are found from running sums, which are
+	 * then expanded into the 6x6 system.
+	 *
+	 * @return sum of the loss over all the points
+	 */
+	private float accumulate( Se3_F32 motion, DenseMatrix64F A, DenseMatrix64F g ) {
+		final /**/double R[] = motion.R.data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+		final float tx = motion.T.x, ty = motion.T.y, tz = motion.T.z;
+
+		final float f[] = from.data;
+		final float t[] = to.data;
+		final int end = from.size*3;
+
+		float sw = 0, swx = 0, swy = 0, swz = 0;
+		float swxx = 0, swyy = 0, swzz = 0, swxy = 0, swxz = 0, swyz = 0;
+		float grx = 0, gry = 0, grz = 0, gcx = 0, gcy = 0, gcz = 0;
+		float sumLoss = 0;
+
+		for( int i = 0; i < end; i += 3 ) {
+			float px = f[i], py = f[i+1], pz = f[i+2];
+
+			float x = r11*px + r12*py + r13*pz + tx;
+			float y = r21*px + r22*py + r23*pz + ty;
+			float z = r31*px + r32*py + r33*pz + tz;
+
+			float ex = x - t[i];
+			float ey = y - t[i+1];
+			float ez = z - t[i+2];
+
+			float s = ex*ex + ey*ey + ez*ez;
+
+			// loss and its derivative with respect to s, which is the IRLS weight
+			float w;
+			switch( loss ) {
+				case HUBER:
+					float e = (float)Math.sqrt( s );
+					if( e <= lossParam ) {
+						w = 1;
+						sumLoss += s;
+					} else {
+						w = lossParam/e;
+						sumLoss += lossParam*( 2*e - lossParam );
+					}
+					break;
+
+				case CAUCHY:
+					float u = s/( lossParam*lossParam );
+					w = 1/( 1 + u );
+					sumLoss += lossParam*lossParam*Math.log( 1 + u );
+					break;
+
+				default:
+					w = 1;
+					sumLoss += s;
+			}
+
+			float wx = w*x, wy = w*y, wz = w*z;
+
+			sw += w;
+			swx += wx;
+			swy += wy;
+			swz += wz;
+			swxx += wx*x;
+			swyy += wy*y;
+			swzz += wz*z;
+			swxy += wx*y;
+			swxz += wx*z;
+			swyz += wy*z;
+
+			// rotation part of the gradient is y cross r
+			grx += wy*ez - wz*ey;
+			gry += wz*ex - wx*ez;
+			grz += wx*ey - wy*ex;
+			gcx += w*ex;
+			gcy += w*ey;
+			gcz += w*ez;
+		}
+
+		final /**/double a[] = A.data;
+
+		// rotation block: sum w*([y]x)^T*[y]x = sum w*(|y|^2*I - y*y^T)
+		a[0]  = swyy + swzz;  a[1]  = -swxy;        a[2]  = -swxz;
+		a[6]  = -swxy;        a[7]  = swxx + swzz;  a[8]  = -swyz;
+		a[12] = -swxz;        a[13] = -swyz;        a[14] = swxx + swyy;
+
+		// cross block: sum w*[y]x
+		a[3]  = 0;    a[4]  = -swz; a[5]  = swy;
+		a[9]  = swz;  a[10] = 0;    a[11] = -swx;
+		a[15] = -swy; a[16] = swx;  a[17] = 0;
+		for( int row = 0; row < 3; row++ ) {
+			for( int col = 0; col < 3; col++ ) {
+				a[( col + 3 )*6 + row] = a[row*6 + col + 3];
+			}
+		}
+
+		// translation block: sum w*I
+		for( int row = 3; row < 6; row++ ) {
+			for( int col = 3; col < 6; col++ ) {
+				a[row*6 + col] = row == col ? sw : 0;
+			}
+		}
+
+		final /**/double b[] = g.data;
+		b[0] = grx; b[1] = gry; b[2] = grz;
+		b[3] = gcx; b[4] = gcy; b[5] = gcz;
+
+		return sumLoss;
+	}
+
+	/**
+	 * Solves (A + &lambda;*D)*step = -g, where D is diag(A) with each element no smaller than a fraction of the
+	 * largest.  The lower limit ensures that directions which the points do not constrain, e.g. rotation around
+	 * the line that collinear points lie on, are still damped.
+	 *
+	 * @return true if the damped system could be solved and the step is finite
+	 */
+	private boolean computeStep( /**/double lambda ) {
+		damped.set( A );
+
+		/**/double maxDiag = 0;
+		for( int i = 0; i < 6; i++ ) {
+			maxDiag = (float)Math.max( maxDiag, A.data[i*7] );
+		}
+		/**/double minDiag = maxDiag*1e-6;
+
+		for( int i = 0; i < 6; i++ ) {
+			/**/double d = damped.data[i*7];
+			damped.data[i*7] = d + lambda*Math.max( d, minDiag );
+		}
+		if( !solver.setA( damped ) )
+			return false;
+		solver.solve( g, step );
+		CommonOps.changeSign( step );
+
+		for( int i = 0; i < 6; i++ ) {
+			float v = (float)step.data[i];
+			if( Float.isNaN( v ) || Float.isInfinite( v ) )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Applies the step to the current estimate on the left
+	 */
+	private void computeCandidate() {
+		float wx = (float)step.data[0], wy = (float)step.data[1], wz = (float)step.data[2];
+		float theta = (float)Math.sqrt( wx*wx + wy*wy + wz*wz );
+
+		if( theta == 0 ) {
+			CommonOps.setIdentity( delta.R );
+		} else {
+			rodrigues.setTheta( theta );
+			rodrigues.unitAxisRotation.set( wx/theta, wy/theta, wz/theta );
+			RotationMatrixGenerator.rodriguesToMatrix( rodrigues, delta.R );
+		}
+		delta.T.set( (float)step.data[3], (float)step.data[4], (float)step.data[5] );
+
+		motion.concat( delta, candidate );
+	}
+
+	private void swapCandidate() {
+		Se3_F32 tmpMotion = motion;
+		motion = candidate;
+		candidate = tmpMotion;
+
+		DenseMatrix64F tmp = A;
+		A = candidateA;
+		candidateA = tmp;
+
+		tmp = g;
+		g = candidateG;
+		candidateG = tmp;
+	}
+
+	/**
+	 * The refined motion
+	 */
+	public Se3_F32 getMotion() {
+		return motion;
+	}
+
+	/**
+	 * Number of times the cost function was evaluated in the last call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Cost of the initial estimate
+	 */
+	public float getInitialCost() {
+		return initialCost;
+	}
+
+	/**
+	 * Cost of the refined estimate
+	 */
+	public float getCost() {
+		return cost;
+	}
+
+	public Loss getLoss() {
+		return loss;
+	}
+
+	public float getLossParam() {
+		return lossParam;
+	}
+
+	/**
+	 * Specifies the loss function.
+	 *
+	 * @param loss The loss function.
+	 * @param lossParam Distance at which the robust loss starts to discount points.  Must be positive.
+	 */
+	public void setLoss( Loss loss, float lossParam ) {
+		if( loss != Loss.SQUARED && lossParam <= 0 )
+			throw new IllegalArgumentException( "The loss parameter must be positive" );
+		this.loss = loss;
+		this.lossParam = lossParam;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public float getFtol() {
+		return ftol;
+	}
+
+	public void setFtol( float ftol ) {
+		this.ftol = ftol;
+	}
+}
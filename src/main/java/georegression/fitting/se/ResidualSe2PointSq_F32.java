@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.ResidualTransformPoint;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.se.Se2_F32;
+
+/**
+ * Residual error is the Euclidean distance squared between the transformed 'from' point and the 'to' point.
+ *
+ * @author Peter Abeles
+ */
+public class ResidualSe2PointSq_F32 implements ResidualTransformPoint<Se2_F32, Point2D_F32> {
+
+	// local copy of the transform
+	private float c, s;
+	private float tx, ty;
+
+	@Override
+	public void setMotion( Se2_F32 motion ) {
+		c = motion.getCosineYaw();
+		s = motion.getSineYaw();
+		tx = motion.getX();
+		ty = motion.getY();
+	}
+
+	@Override
+	public /**/double computeResidual( Point2D_F32 from, Point2D_F32 to ) {
+		float dx = tx + from.x * c - from.y * s - to.x;
+		float dy = ty + from.x * s + from.y * c - to.y;
+
+		return dx*dx + dy*dy;
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.ResidualTransformPoint;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se3_F32;
+
+/**
+ * Residual error is the Euclidean distance squared between the transformed 'from' point and the 'to' point.
+ *
+ * @author Peter Abeles
+ */
+public class ResidualSe3PointSq_F32 implements ResidualTransformPoint<Se3_F32, Point3D_F32> {
+
+	// local copy of the transform
+	private float r11, r12, r13, r21, r22, r23, r31, r32, r33;
+	private float tx, ty, tz;
+
+	@Override
+	public void setMotion( Se3_F32 motion ) {
+		/**/double R[] = motion.getR().data;
+
+		r11 = (float) R[0]; r12 = (float) R[1]; r13 = (float) R[2];
+		r21 = (float) R[3]; r22 = (float) R[4]; r23 = (float) R[5];
+		r31 = (float) R[6]; r32 = (float) R[7]; r33 = (float) R[8];
+
+		tx = motion.getT().x;
+		ty = motion.getT().y;
+		tz = motion.getT().z;
+	}
+
+	@Override
+	public /**/double computeResidual( Point3D_F32 from, Point3D_F32 to ) {
+		float dx = r11*from.x + r12*from.y + r13*from.z + tx - to.x;
+		float dy = r21*from.x + r22*from.y + r23*from.z + ty - to.y;
+		float dz = r31*from.x + r32*from.y + r33*from.z + tz - to.z;
+
+		return dx*dx + dy*dy + dz*dz;
+	}
+}
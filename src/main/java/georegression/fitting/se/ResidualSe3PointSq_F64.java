@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.ResidualTransformPoint;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+
+/**
+ * Residual error is the Euclidean distance squared between the transformed 'from' point and the 'to' point.
+ *
+ * @author Peter Abeles
+ */
+public class ResidualSe3PointSq_F64 implements ResidualTransformPoint<Se3_F64, Point3D_F64> {
+
+	// local copy of the transform
+	private double r11, r12, r13, r21, r22, r23, r31, r32, r33;
+	private double tx, ty, tz;
+
+	@Override
+	public void setMotion( Se3_F64 motion ) {
+		/**/double R[] = motion.getR().data;
+
+		r11 = (double) R[0]; r12 = (double) R[1]; r13 = (double) R[2];
+		r21 = (double) R[3]; r22 = (double) R[4]; r23 = (double) R[5];
+		r31 = (double) R[6]; r32 = (double) R[7]; r33 = (double) R[8];
+
+		tx = motion.getT().x;
+		ty = motion.getT().y;
+		tz = motion.getT().z;
+	}
+
+	@Override
+	public /**/double computeResidual( Point3D_F64 from, Point3D_F64 to ) {
+		double dx = r11*from.x + r12*from.y + r13*from.z + tx - to.x;
+		double dy = r21*from.x + r22*from.y + r23*from.z + ty - to.y;
+		double dz = r31*from.x + r32*from.y + r33*from.z + tz - to.z;
+
+		return dx*dx + dy*dy + dz*dz;
+	}
+}
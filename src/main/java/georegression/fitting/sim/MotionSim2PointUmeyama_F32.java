@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.sim;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import georegression.struct.sim.Sim2_F32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the similarity transform (scale, rotation, and translation) which minimizes the difference between two
+ * sets of associated points in 2D.  This is the 2D version of {@link MotionSim3PointUmeyama_F32}.  For a 2x2
+ * cross-covariance matrix &Sigma; the SVD reduces to a closed form solution:
+ * <pre>
+ * yaw = atan2( &Sigma;<sub>21</sub> - &Sigma;<sub>12</sub> , &Sigma;<sub>11</sub> + &Sigma;<sub>22</sub> )
+ * scale = sqrt( (&Sigma;<sub>11</sub> + &Sigma;<sub>22</sub>)<sup>2</sup> + (&Sigma;<sub>21</sub> - &Sigma;<sub>12</sub>)<sup>2</sup> )/&sigma;<sup>2</sup>
+ * </pre>
+ * where &sigma;<sup>2</sup> is the variance of the 'from' points.  All sums are found in a single pass and no
+ * memory is declared after construction.
+ * </p>
+ *
+ * <p>
+ * S. Umeyama, "Least-Squares Estimation of Transformation Parameters Between Two Point Patterns" IEEE Transactions
+ * on Pattern Analysis and Machine Intelligence, Vol 13, No. 4, 1991
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSim2PointUmeyama_F32 implements MotionTransformPoint<Sim2_F32, Point2D_F32> {
+
+	// the found motion
+	private Sim2_F32 motion = new Sim2_F32();
+
+	// the first pair of points, which all the other points are shifted by
+	private float fx0, fy0, tx0, ty0;
+	// sum of the shifted points
+	private float sfx, sfy, stx, sty;
+	// sum of the outer product of the shifted points, to*from^T
+	private float s11, s12, s21, s22;
+	// sum of the squared norm of the shifted 'from' points
+	private float sff;
+
+	@Override
+	public Sim2_F32 getMotion() {
+		return motion;
+	}
+
+	@Override
+	public boolean process( List<Point2D_F32> fromPts, List<Point2D_F32> toPts ) {
+		if( fromPts.size() != toPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		final int N = fromPts.size();
+		if( N == 0 )
+			return false;
+
+		Point2D_F32 f = fromPts.get( 0 );
+		Point2D_F32 t = toPts.get( 0 );
+		resetSums( f.x, f.y, t.x, t.y );
+
+		for( int i = 1; i < N; i++ ) {
+			f = fromPts.get( i );
+			t = toPts.get( i );
+			add( f.x - fx0, f.y - fy0, t.x - tx0, t.y - ty0 );
+		}
+
+		return computeMotion( N );
+	}
+
+	/**
+	 * Same as {@link #process(java.util.List, java.util.List)} but the points are read directly from packed arrays.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if the computation successfully produced a solution and false if not.
+	 */
+	public boolean process( PointCloud2D_F32 fromPts, PointCloud2D_F32 toPts ) {
+		if( fromPts.size != toPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		final int N = fromPts.size;
+		if( N == 0 )
+			return false;
+
+		final float from[] = fromPts.data;
+		final float to[] = toPts.data;
+		final int end = N*2;
+
+		resetSums( from[0], from[1], to[0], to[1] );
+
+		for( int i = 2; i < end; i += 2 ) {
+			add( from[i] - fx0, from[i+1] - fy0, to[i] - tx0, to[i+1] - ty0 );
+		}
+
+		return computeMotion( N );
+	}
+
+	private void resetSums( float fx, float fy, float tx, float ty ) {
+		fx0 = fx; fy0 = fy;
+		tx0 = tx; ty0 = ty;
+
+		sfx = sfy = 0;
+		stx = sty = 0;
+		s11 = s12 = s21 = s22 = 0;
+		sff = 0;
+	}
+
+	private void add( float fx, float fy, float tx, float ty ) {
+		sfx += fx; sfy += fy;
+		stx += tx; sty += ty;
+
+		s11 += tx*fx; s12 += tx*fy;
+		s21 += ty*fx; s22 += ty*fy;
+
+		sff += fx*fx + fy*fy;
+	}
+
+	/**
+	 * Computes the motion from the sums of the shifted points
+	 *
+	 * @return false if the 'from' points are all identical
+	 */
+	private boolean computeMotion( int N ) {
+		float mfx = sfx/N, mfy = sfy/N;
+		float mtx = stx/N, mty = sty/N;
+
+		float variance = sff/N - ( mfx*mfx + mfy*mfy );
+		if( variance <= 0 )
+			return false;
+
+		float a = ( s11 + s22 )/N - ( mtx*mfx + mty*mfy );
+		float b = ( s21 - s12 )/N - ( mty*mfx - mtx*mfy );
+		float r = (float)Math.sqrt( a*a + b*b );
+		if( r == 0 )
+			return false;
+
+		float c = a/r, s = b/r;
+		float scale = r/variance;
+
+		// T = mu_to - scale*R*mu_from, using the unshifted means
+		float fx = mfx + fx0, fy = mfy + fy0;
+		motion.set( scale, mtx + tx0 - scale*( c*fx - s*fy ), mty + ty0 - scale*( s*fx + c*fy ), c, s );
+
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 2;
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.sim;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.Svd3x3_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.sim.Sim3_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the similarity transform (scale, rotation, and translation) which minimizes the difference between two
+ * sets of associated points in 3D.
+ * </p>
+ *
+ * <p>
+ * The cross-covariance &Sigma; of the two sets and the variance of the 'from' points, &sigma;<sup>2</sup>, are
+ * found in a single pass.  Points are shifted by the first pair before being summed, which avoids most of the
+ * cancellation a single pass normally suffers from when the points are far from the origin.  Using the
+ * sign corrected SVD from {@link Svd3x3_F64}, &Sigma; = U*W*V<sup>T</sup>, the solution is:
+ * <pre>
+ * R = U*V<sup>T</sup>
+ * scale = (w1 + w2 + w3)/&sigma;<sup>2</sup>
+ * T = &mu;<sub>to</sub> - scale*R*&mu;<sub>from</sub>
+ * </pre>
+ * which is the same rotation found by {@link georegression.fitting.se.MotionSe3PointSVD_F64}.  No memory is
+ * declared after construction, so it is suitable for use inside of RANSAC.
+ * </p>
+ *
+ * <p>
+ * S. Umeyama, "Least-Squares Estimation of Transformation Parameters Between Two Point Patterns" IEEE Transactions
+ * on Pattern Analysis and Machine Intelligence, Vol 13, No. 4, 1991
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSim3PointUmeyama_F64 implements MotionTransformPoint<Sim3_F64, Point3D_F64> {
+
+	// the found motion
+	private Sim3_F64 motion = new Sim3_F64();
+
+	// SVD specialized for 3x3 matrices
+	private Svd3x3_F64 svd = new Svd3x3_F64();
+
+	// the first pair of points, which all the other points are shifted by
+	private double fx0, fy0, fz0, tx0, ty0, tz0;
+	// sum of the shifted points
+	private double sfx, sfy, sfz, stx, sty, stz;
+	// sum of the outer product of the shifted points, to*from^T
+	private double s11, s12, s13, s21, s22, s23, s31, s32, s33;
+	// sum of the squared norm of the shifted 'from' points
+	private double sff;
+
+	@Override
+	public Sim3_F64 getMotion() {
+		return motion;
+	}
+
+	@Override
+	public boolean process( List<Point3D_F64> fromPts, List<Point3D_F64> toPts ) {
+		if( fromPts.size() != toPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		final int N = fromPts.size();
+		if( N == 0 )
+			return false;
+
+		Point3D_F64 f = fromPts.get( 0 );
+		Point3D_F64 t = toPts.get( 0 );
+		resetSums( f.x, f.y, f.z, t.x, t.y, t.z );
+
+		for( int i = 1; i < N; i++ ) {
+			f = fromPts.get( i );
+			t = toPts.get( i );
+			add( f.x - fx0, f.y - fy0, f.z - fz0, t.x - tx0, t.y - ty0, t.z - tz0 );
+		}
+
+		return computeMotion( N );
+	}
+
+	/**
+	 * Same as {@link #process(java.util.List, java.util.List)} but the points are read directly from packed arrays.
+	 *
+	 * @param fromPts The points which are to be transformed.  Not modified.
+	 * @param toPts   The points that are being compared against. Not modified.
+	 * @return true if the computation successfully produced a solution and false if not.
+	 */
+	public boolean process( PointCloud3D_F64 fromPts, PointCloud3D_F64 toPts ) {
+		if( fromPts.size != toPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		final int N = fromPts.size;
+		if( N == 0 )
+			return false;
+
+		final double from[] = fromPts.data;
+		final double to[] = toPts.data;
+		final int end = N*3;
+
+		resetSums( from[0], from[1], from[2], to[0], to[1], to[2] );
+
+		for( int i = 3; i < end; i += 3 ) {
+			add( from[i] - fx0, from[i+1] - fy0, from[i+2] - fz0, to[i] - tx0, to[i+1] - ty0, to[i+2] - tz0 );
+		}
+
+		return computeMotion( N );
+	}
+
+	private void resetSums( double fx, double fy, double fz, double tx, double ty, double tz ) {
+		fx0 = fx; fy0 = fy; fz0 = fz;
+		tx0 = tx; ty0 = ty; tz0 = tz;
+
+		sfx = sfy = sfz = 0;
+		stx = sty = stz = 0;
+		s11 = s12 = s13 = 0;
+		s21 = s22 = s23 = 0;
+		s31 = s32 = s33 = 0;
+		sff = 0;
+	}
+
+	private void add( double fx, double fy, double fz, double tx, double ty, double tz ) {
+		sfx += fx; sfy += fy; sfz += fz;
+		stx += tx; sty += ty; stz += tz;
+
+		s11 += tx*fx; s12 += tx*fy; s13 += tx*fz;
+		s21 += ty*fx; s22 += ty*fy; s23 += ty*fz;
+		s31 += tz*fx; s32 += tz*fy; s33 += tz*fz;
+
+		sff += fx*fx + fy*fy + fz*fz;
+	}
+
+	/**
+	 * Computes the motion from the sums of the shifted points
+	 *
+	 * @return false if the 'from' points are all identical
+	 */
+	private boolean computeMotion( int N ) {
+		// means of the shifted points
+		double mfx = sfx/N, mfy = sfy/N, mfz = sfz/N;
+		double mtx = stx/N, mty = sty/N, mtz = stz/N;
+
+		double variance = sff/N - ( mfx*mfx + mfy*mfy + mfz*mfz );
+		if( variance <= 0 )
+			return false;
+
+		svd.decompose(
+				s11/N - mtx*mfx, s12/N - mtx*mfy, s13/N - mtx*mfz,
+				s21/N - mty*mfx, s22/N - mty*mfy, s23/N - mty*mfz,
+				s31/N - mtz*mfx, s32/N - mtz*mfy, s33/N - mtz*mfz );
+
+		double scale = ( svd.w1 + svd.w2 + svd.w3 )/variance;
+		if( !( scale > 0 ) )
+			return false;
+
+		svd.rotationUVt( motion.R );
+		motion.scale = scale;
+
+		// T = mu_to - scale*R*mu_from, using the unshifted means
+		final /**/double R[] = motion.R.data;
+		double fx = mfx + fx0, fy = mfy + fy0, fz = mfz + fz0;
+		motion.T.x = mtx + tx0 - scale*(double)( R[0]*fx + R[1]*fy + R[2]*fz );
+		motion.T.y = mty + ty0 - scale*(double)( R[3]*fx + R[4]*fy + R[5]*fz );
+		motion.T.z = mtz + tz0 - scale*(double)( R[6]*fx + R[7]*fy + R[8]*fz );
+
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
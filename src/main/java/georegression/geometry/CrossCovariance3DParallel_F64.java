@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Computes the same statistics as {@link CrossCovariance3D_F64} but splits the point pairs into chunks which
+ * are processed in parallel.  The partial results are then merged pairwise, in a fixed tree order, using
+ * {@link CrossCovariance3D_F64#combine}.
+ * </p>
+ *
+ * <p>
+ * Chunk boundaries only depend on the chunk size, and the merge order only on the number of chunks, so the result
+ * is identical for a fixed chunk size no matter how many threads are used or how they are scheduled.  Pairwise
+ * merging also keeps the round off error from growing with the number of chunks the way a running sum would.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CrossCovariance3DParallel_F64 {
+
+	// executes the chunks
+	private ExecutorService executor;
+	// number of point pairs in each chunk
+	private int chunkSize;
+
+	// one task for each chunk.  Grows as needed.
+	private List<Chunk> chunks = new ArrayList<Chunk>();
+
+	/**
+	 * Configures the reduction.
+	 *
+	 * @param executor Executes the chunks.
+	 * @param chunkSize Number of point pairs in each chunk.  Try 65536
+	 */
+	public CrossCovariance3DParallel_F64( ExecutorService executor, int chunkSize ) {
+		if( chunkSize < 1 )
+			throw new IllegalArgumentException( "Chunk size must be at least one" );
+		this.executor = executor;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Computes the statistics of all the point pairs in the lists.  The lists should support fast random access.
+	 *
+	 * @param fromPts The 'from' points.  Not modified.
+	 * @param toPts The 'to' points.  Not modified.
+	 * @param result Storage for the result.  Modified.
+	 */
+	public void process( List<Point3D_F64> fromPts, List<Point3D_F64> toPts, CrossCovariance3D_F64 result ) {
+		if( fromPts.size() != toPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		int numChunks = declareChunks( fromPts.size() );
+		for( int i = 0; i < numChunks; i++ ) {
+			chunks.get( i ).fromList = fromPts;
+			chunks.get( i ).toList = toPts;
+		}
+		reduce( numChunks, result );
+	}
+
+	/**
+	 * Computes the statistics of all the point pairs in the clouds.
+	 *
+	 * @param fromPts The 'from' points.  Not modified.
+	 * @param toPts The 'to' points.  Not modified.
+	 * @param result Storage for the result.  Modified.
+	 */
+	public void process( PointCloud3D_F64 fromPts, PointCloud3D_F64 toPts, CrossCovariance3D_F64 result ) {
+		if( fromPts.size != toPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		int numChunks = declareChunks( fromPts.size );
+		for( int i = 0; i < numChunks; i++ ) {
+			chunks.get( i ).fromCloud = fromPts;
+			chunks.get( i ).toCloud = toPts;
+		}
+		reduce( numChunks, result );
+	}
+
+	/**
+	 * Makes sure there is a task for each chunk and assigns its range of points
+	 *
+	 * @return number of chunks
+	 */
+	private int declareChunks( int N ) {
+		int numChunks = ( N + chunkSize - 1 )/chunkSize;
+		if( numChunks == 0 )
+			numChunks = 1;
+
+		while( chunks.size() < numChunks )
+			chunks.add( new Chunk() );
+
+		for( int i = 0; i < numChunks; i++ ) {
+			Chunk c = chunks.get( i );
+			c.first = i*chunkSize;
+			c.last = i == numChunks - 1 ? N : c.first + chunkSize;
+		}
+		return numChunks;
+	}
+
+	/**
+	 * Processes each chunk then merges the results pairwise
+	 */
+	private void reduce( int numChunks, CrossCovariance3D_F64 result ) {
+		try {
+			if( numChunks == 1 ) {
+				chunks.get( 0 ).call();
+			} else {
+				for( Future<Object> f : executor.invokeAll( chunks.subList( 0, numChunks ) ) )
+					f.get();
+			}
+		} catch( InterruptedException e ) {
+			throw new RuntimeException( e );
+		} catch( ExecutionException e ) {
+			throw new RuntimeException( e.getCause() );
+		} finally {
+			// don't hold onto references to the caller's data
+			for( Chunk c : chunks ) {
+				c.fromList = c.toList = null;
+				c.fromCloud = c.toCloud = null;
+			}
+		}
+
+		for( int step = 1; step < numChunks; step *= 2 ) {
+			for( int i = 0; i + step < numChunks; i += 2*step ) {
+				CrossCovariance3D_F64 a = chunks.get( i ).stats;
+				a.combine( a, chunks.get( i + step ).stats );
+			}
+		}
+		result.set( chunks.get( 0 ).stats );
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public void setChunkSize( int chunkSize ) {
+		if( chunkSize < 1 )
+			throw new IllegalArgumentException( "Chunk size must be at least one" );
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Computes the statistics of a contiguous range of point pairs
+	 */
+	private static class Chunk implements Callable<Object> {
+		CrossCovariance3D_F64 stats = new CrossCovariance3D_F64();
+
+		List<Point3D_F64> fromList, toList;
+		PointCloud3D_F64 fromCloud, toCloud;
+		int first, last;
+
+		@Override
+		public Object call() {
+			if( fromCloud != null )
+				stats.process( fromCloud, toCloud, first, last );
+			else
+				stats.process( fromList, toList, first, last );
+			return null;
+		}
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the mean of two sets of associated 3D points and their cross-covariance, without normalization:<br>
+ * S = sum(i=1:N,(t_i - mu_t)*(f_i - mu_f)^T)<br>
+ * where 'f' are the 'from' points and 't' the 'to' points.  This is the input to SVD based motion estimation,
+ * see {@link georegression.fitting.se.MotionSe3PointSVD_F32}.
+ * </p>
+ *
+ * <p>
+ * Like {@link ScatterMatrix3D_F32}, sums are computed in a single pass relative to the first pair of points.  The
+ * statistics of two disjoint sets can be combined using {@link #combine}, which allows very large sets to be split
+ * into chunks that are processed independently.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CrossCovariance3D_F32 {
+
+	/** Number of point pairs */
+	public int N;
+	/** Mean of the 'from' points */
+	public float meanFromX, meanFromY, meanFromZ;
+	/** Mean of the 'to' points */
+	public float meanToX, meanToY, meanToZ;
+	/** Cross-covariance.  S = [s11 s12 s13 ; s21 s22 s23 ; s31 s32 s33] */
+	public float s11, s12, s13, s21, s22, s23, s31, s32, s33;
+
+	// all points are shifted by the first pair
+	private float fx0, fy0, fz0, tx0, ty0, tz0;
+	// sums of the shifted points
+	private float sfx, sfy, sfz, stx, sty, stz;
+
+	/**
+	 * Computes the statistics of all the point pairs in the lists
+	 */
+	public void process( List<Point3D_F32> fromPts, List<Point3D_F32> toPts ) {
+		process( fromPts, toPts, 0, fromPts.size() );
+	}
+
+	/**
+	 * Computes the statistics of the point pairs from index 'first' to 'last'-1 in the lists
+	 */
+	public void process( List<Point3D_F32> fromPts, List<Point3D_F32> toPts, int first, int last ) {
+		if( first >= last ) {
+			reset( 0, 0, 0, 0, 0, 0 );
+		} else {
+			Point3D_F32 f = fromPts.get( first );
+			Point3D_F32 t = toPts.get( first );
+			reset( f.x, f.y, f.z, t.x, t.y, t.z );
+			for( int i = first; i < last; i++ ) {
+				f = fromPts.get( i );
+				t = toPts.get( i );
+				add( f.x, f.y, f.z, t.x, t.y, t.z );
+			}
+		}
+		finish();
+	}
+
+	/**
+	 * Computes the statistics of all the point pairs in the clouds
+	 */
+	public void process( PointCloud3D_F32 fromPts, PointCloud3D_F32 toPts ) {
+		process( fromPts, toPts, 0, fromPts.size );
+	}
+
+	/**
+	 * Computes the statistics of the point pairs from index 'first' to 'last'-1 in the clouds
+	 */
+	public void process( PointCloud3D_F32 fromPts, PointCloud3D_F32 toPts, int first, int last ) {
+		final float from[] = fromPts.data;
+		final float to[] = toPts.data;
+
+		if( first >= last ) {
+			reset( 0, 0, 0, 0, 0, 0 );
+		} else {
+			int i = first*3;
+			reset( from[i], from[i+1], from[i+2], to[i], to[i+1], to[i+2] );
+
+			final int end = last*3;
+			for( ; i < end; i += 3 ) {
+				add( from[i], from[i+1], from[i+2], to[i], to[i+1], to[i+2] );
+			}
+		}
+		finish();
+	}
+
+	/**
+	 * <p>
+	 * Sets 'this' to the statistics of the union of two disjoint sets of point pairs.  'this' can be the same
+	 * instance as 'a' or 'b'.
+	 * </p>
+	 *
+	 * <p>
+	 * The difference between the two means is used to correct the sum of the two cross-covariances, which
+	 * is numerically stable even when the means are far from the origin.<br>
+	 * S = S_a + S_b + (N_a*N_b/N)*(mu_t,b - mu_t,a)*(mu_f,b - mu_f,a)^T
+	 * </p>
+	 *
+	 * <p>
+	 * Chan, Golub, and LeVeque, "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances"
+	 * Technical Report STAN-CS-79-773, Stanford University, 1979
+	 * </p>
+	 */
+	public void combine( CrossCovariance3D_F32 a, CrossCovariance3D_F32 b ) {
+		final int N = a.N + b.N;
+		if( b.N == 0 ) {
+			set( a );
+			return;
+		} else if( a.N == 0 ) {
+			set( b );
+			return;
+		}
+
+		float dfx = b.meanFromX - a.meanFromX, dfy = b.meanFromY - a.meanFromY, dfz = b.meanFromZ - a.meanFromZ;
+		float dtx = b.meanToX - a.meanToX, dty = b.meanToY - a.meanToY, dtz = b.meanToZ - a.meanToZ;
+
+		float wb = (float)b.N/N;
+		float w = (float)a.N*wb;
+
+		s11 = a.s11 + b.s11 + w*dtx*dfx;
+		s12 = a.s12 + b.s12 + w*dtx*dfy;
+		s13 = a.s13 + b.s13 + w*dtx*dfz;
+		s21 = a.s21 + b.s21 + w*dty*dfx;
+		s22 = a.s22 + b.s22 + w*dty*dfy;
+		s23 = a.s23 + b.s23 + w*dty*dfz;
+		s31 = a.s31 + b.s31 + w*dtz*dfx;
+		s32 = a.s32 + b.s32 + w*dtz*dfy;
+		s33 = a.s33 + b.s33 + w*dtz*dfz;
+
+		meanFromX = a.meanFromX + wb*dfx;
+		meanFromY = a.meanFromY + wb*dfy;
+		meanFromZ = a.meanFromZ + wb*dfz;
+		meanToX = a.meanToX + wb*dtx;
+		meanToY = a.meanToY + wb*dty;
+		meanToZ = a.meanToZ + wb*dtz;
+
+		this.N = N;
+	}
+
+	/**
+	 * Copies the statistics from 'src'
+	 */
+	public void set( CrossCovariance3D_F32 src ) {
+		N = src.N;
+		meanFromX = src.meanFromX; meanFromY = src.meanFromY; meanFromZ = src.meanFromZ;
+		meanToX = src.meanToX; meanToY = src.meanToY; meanToZ = src.meanToZ;
+		s11 = src.s11; s12 = src.s12; s13 = src.s13;
+		s21 = src.s21; s22 = src.s22; s23 = src.s23;
+		s31 = src.s31; s32 = src.s32; s33 = src.s33;
+	}
+
+	private void reset( float fx, float fy, float fz, float tx, float ty, float tz ) {
+		fx0 = fx; fy0 = fy; fz0 = fz;
+		tx0 = tx; ty0 = ty; tz0 = tz;
+
+		N = 0;
+		sfx = sfy = sfz = 0;
+		stx = sty = stz = 0;
+		s11 = s12 = s13 = 0;
+		s21 = s22 = s23 = 0;
+		s31 = s32 = s33 = 0;
+	}
+
+	private void add( float fx, float fy, float fz, float tx, float ty, float tz ) {
+		fx -= fx0; fy -= fy0; fz -= fz0;
+		tx -= tx0; ty -= ty0; tz -= tz0;
+
+		N++;
+		sfx += fx; sfy += fy; sfz += fz;
+		stx += tx; sty += ty; stz += tz;
+
+		s11 += tx*fx; s12 += tx*fy; s13 += tx*fz;
+		s21 += ty*fx; s22 += ty*fy; s23 += ty*fz;
+		s31 += tz*fx; s32 += tz*fy; s33 += tz*fz;
+	}
+
+	/**
+	 * Converts the raw sums into the means and centered cross-covariance
+	 */
+	private void finish() {
+		if( N == 0 ) {
+			meanFromX = meanFromY = meanFromZ = 0;
+			meanToX = meanToY = meanToZ = 0;
+			return;
+		}
+
+		float mfx = sfx/N, mfy = sfy/N, mfz = sfz/N;
+
+		// S = sum(t*f^T) - N*mu_t*mu_f^T
+		s11 -= stx*mfx; s12 -= stx*mfy; s13 -= stx*mfz;
+		s21 -= sty*mfx; s22 -= sty*mfy; s23 -= sty*mfz;
+		s31 -= stz*mfx; s32 -= stz*mfy; s33 -= stz*mfz;
+
+		meanFromX = mfx + fx0;
+		meanFromY = mfy + fy0;
+		meanFromZ = mfz + fz0;
+		meanToX = stx/N + tx0;
+		meanToY = sty/N + ty0;
+		meanToZ = stz/N + tz0;
+	}
+}
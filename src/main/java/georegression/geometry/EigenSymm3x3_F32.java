@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+/**
+ * <p>
+ * Eigen decomposition of a symmetric 3x3 matrix, S = V*diag(e1,e2,e3)*V<sup>T</sup>, specialized for speed.
+ * Like {@link Svd3x3_F32} all state is stored in scalar fields so no memory is declared.  Intended for
+ * scatter and covariance matrices which are decomposed many times, such as when fitting lines and planes
+ * to small neighborhoods of points.
+ * </p>
+ *
+ * <p>
+ * The matrix is diagonalized using cyclic Jacobi rotations, which are accurate even for eigenvalues that
+ * are much smaller than the largest one.  The eigenvalues are sorted so that e1 &ge; e2 &ge; e3 and the
+ * columns of V are the corresponding eigenvectors.  V is always a rotation matrix.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EigenSymm3x3_F32 {
+
+	// maximum number of Jacobi sweeps
+	private static final int MAX_SWEEPS = 20;
+
+	/** Eigenvectors, stored in the columns.  V = [v11 v12 v13 ; v21 v22 v23 ; v31 v32 v33] */
+	public float v11, v12, v13, v21, v22, v23, v31, v32, v33;
+	/** Eigenvalues, sorted from largest to smallest */
+	public float e1, e2, e3;
+
+	// symmetric matrix which is diagonalized by the Jacobi rotations
+	private float s11, s12, s13, s22, s23, s33;
+
+	/**
+	 * Decomposes the symmetric matrix S = [s11 s12 s13 ; s12 s22 s23 ; s13 s23 s33]
+	 */
+	public void decompose( float s11, float s12, float s13,
+						   float s22, float s23, float s33 ) {
+		this.s11 = s11; this.s12 = s12; this.s13 = s13;
+		this.s22 = s22; this.s23 = s23; this.s33 = s33;
+
+		v11 = 1; v12 = 0; v13 = 0;
+		v21 = 0; v22 = 1; v23 = 0;
+		v31 = 0; v32 = 0; v33 = 1;
+
+		diagonalize();
+
+		e1 = this.s11;
+		e2 = this.s22;
+		e3 = this.s33;
+
+		sort();
+	}
+
+	/**
+	 * Applies cyclic Jacobi rotations to S until the off diagonal elements are insignificant.  The rotations
+	 * are accumulated in V.
+	 */
+	private void diagonalize() {
+		for( int sweep = 0; sweep < MAX_SWEEPS; sweep++ ) {
+			float off = s12*s12 + s13*s13 + s23*s23;
+			float diag = s11*s11 + s22*s22 + s33*s33;
+			if( off <= 1e-30*diag )
+				return;
+
+			rotate12();
+			rotate13();
+			rotate23();
+		}
+	}
+
+	/**
+	 * Jacobi rotation which zeros s12
+	 */
+	private void rotate12() {
+		if( s12 == 0 )
+			return;
+		float theta = ( s22 - s11 )/( 2*s12 );
+		float t = ( theta >= 0 ? 1 : -1 )/( (float)Math.abs( theta ) + (float)Math.sqrt( theta*theta + 1 ) );
+		float c = 1 / (float)Math.sqrt( t*t + 1 );
+		float s = t*c;
+
+		s11 -= t*s12;
+		s22 += t*s12;
+		s12 = 0;
+		float tmp = s13;
+		s13 = c*tmp - s*s23;
+		s23 = s*tmp + c*s23;
+
+		tmp = v11; v11 = c*tmp - s*v12; v12 = s*tmp + c*v12;
+		tmp = v21; v21 = c*tmp - s*v22; v22 = s*tmp + c*v22;
+		tmp = v31; v31 = c*tmp - s*v32; v32 = s*tmp + c*v32;
+	}
+
+	/**
+	 * Jacobi rotation which zeros s13
+	 */
+	private void rotate13() {
+		if( s13 == 0 )
+			return;
+		float theta = ( s33 - s11 )/( 2*s13 );
+		float t = ( theta >= 0 ? 1 : -1 )/( (float)Math.abs( theta ) + (float)Math.sqrt( theta*theta + 1 ) );
+		float c = 1 / (float)Math.sqrt( t*t + 1 );
+		float s = t*c;
+
+		s11 -= t*s13;
+		s33 += t*s13;
+		s13 = 0;
+		float tmp = s12;
+		s12 = c*tmp - s*s23;
+		s23 = s*tmp + c*s23;
+
+		tmp = v11; v11 = c*tmp - s*v13; v13 = s*tmp + c*v13;
+		tmp = v21; v21 = c*tmp - s*v23; v23 = s*tmp + c*v23;
+		tmp = v31; v31 = c*tmp - s*v33; v33 = s*tmp + c*v33;
+	}
+
+	/**
+	 * Jacobi rotation which zeros s23
+	 */
+	private void rotate23() {
+		if( s23 == 0 )
+			return;
+		float theta = ( s33 - s22 )/( 2*s23 );
+		float t = ( theta >= 0 ? 1 : -1 )/( (float)Math.abs( theta ) + (float)Math.sqrt( theta*theta + 1 ) );
+		float c = 1 / (float)Math.sqrt( t*t + 1 );
+		float s = t*c;
+
+		s22 -= t*s23;
+		s33 += t*s23;
+		s23 = 0;
+		float tmp = s12;
+		s12 = c*tmp - s*s13;
+		s13 = s*tmp + c*s13;
+
+		tmp = v12; v12 = c*tmp - s*v13; v13 = s*tmp + c*v13;
+		tmp = v22; v22 = c*tmp - s*v23; v23 = s*tmp + c*v23;
+		tmp = v32; v32 = c*tmp - s*v33; v33 = s*tmp + c*v33;
+	}
+
+	/**
+	 * Sorts the eigenvalues into descending order.  When two columns of V are swapped one of them is negated
+	 * so that V remains a rotation.
+	 */
+	private void sort() {
+		float tmp;
+
+		if( e1 < e2 ) {
+			tmp = e1; e1 = e2; e2 = tmp;
+			tmp = v11; v11 = v12; v12 = -tmp;
+			tmp = v21; v21 = v22; v22 = -tmp;
+			tmp = v31; v31 = v32; v32 = -tmp;
+		}
+		if( e1 < e3 ) {
+			tmp = e1; e1 = e3; e3 = tmp;
+			tmp = v11; v11 = v13; v13 = -tmp;
+			tmp = v21; v21 = v23; v23 = -tmp;
+			tmp = v31; v31 = v33; v33 = -tmp;
+		}
+		if( e2 < e3 ) {
+			tmp = e2; e2 = e3; e3 = tmp;
+			tmp = v12; v12 = v13; v13 = -tmp;
+			tmp = v22; v22 = v23; v23 = -tmp;
+			tmp = v32; v32 = v33; v33 = -tmp;
+		}
+	}
+}
@@ -114,18 +114,52 @@ public class RotationMatrixGenerator {
 	}
 
 	/**
-	 * Extracts quaternions from the provided rotation matrix.
+	 * Extracts quaternions from the provided rotation matrix.  The largest element of the quaternion is solved
+	 * for first (Shepperd's method), which is numerically stable for all rotations, including ones which are
+	 * the identity plus round off error.
 	 *
 	 * @param R	rotation matrix
 	 * @param quat storage for quaternion.  If null a new class will be declared.
 	 * @return quaternion representation of the rotation matrix.
 	 */
 	public static Quaternion matrixToQuaternion( DenseMatrix64F R, Quaternion quat ) {
-		// first get rodrigues
-		Rodrigues r = matrixToRodrigues( R, null );
+		if( quat == null )
+			quat = new Quaternion();
+
+		double r11 = R.get( 0, 0 ), r12 = R.get( 0, 1 ), r13 = R.get( 0, 2 );
+		double r21 = R.get( 1, 0 ), r22 = R.get( 1, 1 ), r23 = R.get( 1, 2 );
+		double r31 = R.get( 2, 0 ), r32 = R.get( 2, 1 ), r33 = R.get( 2, 2 );
+
+		double trace = r11 + r22 + r33;
+
+		if( trace > 0 ) {
+			double s = 2.0*Math.sqrt( 1.0 + trace );
+			quat.q1 = 0.25*s;
+			quat.q2 = ( r32 - r23 )/s;
+			quat.q3 = ( r13 - r31 )/s;
+			quat.q4 = ( r21 - r12 )/s;
+		} else if( r11 > r22 && r11 > r33 ) {
+			double s = 2.0*Math.sqrt( 1.0 + r11 - r22 - r33 );
+			quat.q1 = ( r32 - r23 )/s;
+			quat.q2 = 0.25*s;
+			quat.q3 = ( r12 + r21 )/s;
+			quat.q4 = ( r13 + r31 )/s;
+		} else if( r22 > r33 ) {
+			double s = 2.0*Math.sqrt( 1.0 + r22 - r11 - r33 );
+			quat.q1 = ( r13 - r31 )/s;
+			quat.q2 = ( r12 + r21 )/s;
+			quat.q3 = 0.25*s;
+			quat.q4 = ( r23 + r32 )/s;
+		} else {
+			double s = 2.0*Math.sqrt( 1.0 + r33 - r11 - r22 );
+			quat.q1 = ( r21 - r12 )/s;
+			quat.q2 = ( r13 + r31 )/s;
+			quat.q3 = ( r23 + r32 )/s;
+			quat.q4 = 0.25*s;
+		}
+		quat.normalize();
 
-		// then convert to quaternions
-		return rodriguesToQuaternion( r, quat );
+		return quat;
 	}
 
 	/**
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the mean and the 3x3 scatter matrix of a set of 3D points in a single pass:<br>
+ * S = sum(i=1:N,(p_i - mu)*(p_i - mu)^T)<br>
+ * The eigenvectors of the scatter matrix are used to fit lines and planes to the points.
+ * </p>
+ *
+ * <p>
+ * The sums are computed relative to the first point, which avoids most of the round off error when the points
+ * are far from the origin relative to their spread.  No memory is declared, making it suitable for processing
+ * a very large number of small sets of points.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ScatterMatrix3D_F64 {
+
+	/** Number of points */
+	public int N;
+	/** Mean of the points */
+	public double meanX, meanY, meanZ;
+	/** Scatter matrix.  S = [s11 s12 s13 ; s12 s22 s23 ; s13 s23 s33] */
+	public double s11, s12, s13, s22, s23, s33;
+
+	// all points are shifted by the first point
+	private double originX, originY, originZ;
+	// sums of the shifted points
+	private double sumX, sumY, sumZ;
+
+	/**
+	 * Computes the mean and scatter of all the points in the list
+	 */
+	public void process( List<Point3D_F64> points ) {
+		final int N = points.size();
+		if( N == 0 ) {
+			reset( 0, 0, 0 );
+		} else {
+			Point3D_F64 p = points.get( 0 );
+			reset( p.x, p.y, p.z );
+			for( int i = 0; i < N; i++ ) {
+				p = points.get( i );
+				add( p.x, p.y, p.z );
+			}
+		}
+		finish();
+	}
+
+	/**
+	 * Computes the mean and scatter of all the points in the cloud
+	 */
+	public void process( PointCloud3D_F64 cloud ) {
+		final double data[] = cloud.data;
+		final int end = cloud.size*3;
+
+		if( end == 0 ) {
+			reset( 0, 0, 0 );
+		} else {
+			reset( data[0], data[1], data[2] );
+			for( int i = 0; i < end; i += 3 ) {
+				add( data[i], data[i+1], data[i+2] );
+			}
+		}
+		finish();
+	}
+
+	/**
+	 * Computes the mean and scatter of a subset of the points in the cloud, such as the neighbors of a point
+	 * found using a nearest-neighbor search.
+	 *
+	 * @param cloud Point cloud.  Not modified.
+	 * @param indexes Indexes of points in the cloud.  Not modified.
+	 * @param count Number of elements in indexes which are used.
+	 */
+	public void process( PointCloud3D_F64 cloud, int indexes[], int count ) {
+		final double data[] = cloud.data;
+
+		if( count == 0 ) {
+			reset( 0, 0, 0 );
+		} else {
+			int index = indexes[0]*3;
+			reset( data[index], data[index+1], data[index+2] );
+			for( int i = 0; i < count; i++ ) {
+				index = indexes[i]*3;
+				add( data[index], data[index+1], data[index+2] );
+			}
+		}
+		finish();
+	}
+
+	private void reset( double originX, double originY, double originZ ) {
+		this.originX = originX;
+		this.originY = originY;
+		this.originZ = originZ;
+
+		N = 0;
+		sumX = sumY = sumZ = 0;
+		s11 = s12 = s13 = s22 = s23 = s33 = 0;
+	}
+
+	private void add( double x, double y, double z ) {
+		x -= originX;
+		y -= originY;
+		z -= originZ;
+
+		N++;
+		sumX += x; sumY += y; sumZ += z;
+		s11 += x*x; s12 += x*y; s13 += x*z;
+		s22 += y*y; s23 += y*z;
+		s33 += z*z;
+	}
+
+	/**
+	 * Converts the raw sums into the mean and centered scatter matrix
+	 */
+	private void finish() {
+		if( N == 0 ) {
+			meanX = meanY = meanZ = 0;
+			return;
+		}
+
+		double mx = sumX/N, my = sumY/N, mz = sumZ/N;
+
+		// S = sum(p*p^T) - N*mu*mu^T
+		s11 -= sumX*mx; s12 -= sumX*my; s13 -= sumX*mz;
+		s22 -= sumY*my; s23 -= sumY*mz;
+		s33 -= sumZ*mz;
+
+		meanX = mx + originX;
+		meanY = my + originY;
+		meanZ = mz + originZ;
+	}
+}
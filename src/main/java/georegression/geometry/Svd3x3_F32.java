@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import org.ejml.data.DenseMatrix64F;
+
+/**
+ * <p>
+ * Singular value decomposition of a 3x3 matrix, A = U*W*V<sup>T</sup>, specialized for speed.  All state is
+ * stored in scalar fields, so no memory is declared and there is no indexing.  Intended for small problems which
+ * are solved many times, such as fitting a rigid body motion to a minimal set of points inside of RANSAC.
+ * </p>
+ *
+ * <p>
+ * V is found from the eigenvectors of A<sup>T</sup>A, see {@link EigenSymm3x3_F32}.  The columns of B = A*V are
+ * sorted by magnitude and then U and W are found from the QR decomposition of B using Givens rotations.
+ * </p>
+ *
+ * <p>
+ * Unlike a standard SVD, U and V are always rotation matrices, i.e. their determinant is +1.  To make that possible
+ * the smallest singular value, w3, is negative when det(A) &lt; 0.  This is exactly what's needed when extracting a
+ * rotation from a cross-covariance matrix, since U*V<sup>T</sup> is then always a rotation.  The other singular
+ * values are non-negative and w1 &ge; w2 &ge; |w3|.
+ * </p>
+ *
+ * <p>
+ * Since A<sup>T</sup>A is used, singular values which are much smaller than the largest one have reduced relative
+ * accuracy.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Svd3x3_F32 {
+
+	/** Left singular vectors.  U = [u11 u12 u13 ; u21 u22 u23 ; u31 u32 u33] */
+	public float u11, u12, u13, u21, u22, u23, u31, u32, u33;
+	/** Right singular vectors.  V = [v11 v12 v13 ; v21 v22 v23 ; v31 v32 v33] */
+	public float v11, v12, v13, v21, v22, v23, v31, v32, v33;
+	/** Singular values, sorted by magnitude.  w3 can be negative. */
+	public float w1, w2, w3;
+
+	// eigen decomposition of A^T*A
+	private EigenSymm3x3_F32 eig = new EigenSymm3x3_F32();
+	// B = A*V
+	private float b11, b12, b13, b21, b22, b23, b31, b32, b33;
+
+	/**
+	 * Decomposes the matrix A = [a11 a12 a13 ; a21 a22 a23 ; a31 a32 a33]
+	 */
+	public void decompose( float a11, float a12, float a13,
+						   float a21, float a22, float a23,
+						   float a31, float a32, float a33 ) {
+		// V = eigenvectors of A^T*A
+		eig.decompose( a11*a11 + a21*a21 + a31*a31,
+				a11*a12 + a21*a22 + a31*a32,
+				a11*a13 + a21*a23 + a31*a33,
+				a12*a12 + a22*a22 + a32*a32,
+				a12*a13 + a22*a23 + a32*a33,
+				a13*a13 + a23*a23 + a33*a33 );
+
+		v11 = eig.v11; v12 = eig.v12; v13 = eig.v13;
+		v21 = eig.v21; v22 = eig.v22; v23 = eig.v23;
+		v31 = eig.v31; v32 = eig.v32; v33 = eig.v33;
+
+		// B = A*V
+		b11 = a11*v11 + a12*v21 + a13*v31;
+		b12 = a11*v12 + a12*v22 + a13*v32;
+		b13 = a11*v13 + a12*v23 + a13*v33;
+		b21 = a21*v11 + a22*v21 + a23*v31;
+		b22 = a21*v12 + a22*v22 + a23*v32;
+		b23 = a21*v13 + a22*v23 + a23*v33;
+		b31 = a31*v11 + a32*v21 + a33*v31;
+		b32 = a31*v12 + a32*v22 + a33*v32;
+		b33 = a31*v13 + a32*v23 + a33*v33;
+
+		sortColumns();
+		factorQR();
+	}
+
+	/**
+	 * Sorts the columns of B into descending order by magnitude.  When two columns are swapped one of them is
+	 * negated, in both B and V, so that V remains a rotation.
+	 */
+	private void sortColumns() {
+		float n1 = b11*b11 + b21*b21 + b31*b31;
+		float n2 = b12*b12 + b22*b22 + b32*b32;
+		float n3 = b13*b13 + b23*b23 + b33*b33;
+		float tmp;
+
+		if( n1 < n2 ) {
+			tmp = b11; b11 = b12; b12 = -tmp;
+			tmp = b21; b21 = b22; b22 = -tmp;
+			tmp = b31; b31 = b32; b32 = -tmp;
+			tmp = v11; v11 = v12; v12 = -tmp;
+			tmp = v21; v21 = v22; v22 = -tmp;
+			tmp = v31; v31 = v32; v32 = -tmp;
+			tmp = n1; n1 = n2; n2 = tmp;
+		}
+		if( n1 < n3 ) {
+			tmp = b11; b11 = b13; b13 = -tmp;
+			tmp = b21; b21 = b23; b23 = -tmp;
+			tmp = b31; b31 = b33; b33 = -tmp;
+			tmp = v11; v11 = v13; v13 = -tmp;
+			tmp = v21; v21 = v23; v23 = -tmp;
+			tmp = v31; v31 = v33; v33 = -tmp;
+			tmp = n1; n1 = n3; n3 = tmp;
+		}
+		if( n2 < n3 ) {
+			tmp = b12; b12 = b13; b13 = -tmp;
+			tmp = b22; b22 = b23; b23 = -tmp;
+			tmp = b32; b32 = b33; b33 = -tmp;
+			tmp = v12; v12 = v13; v13 = -tmp;
+			tmp = v22; v22 = v23; v23 = -tmp;
+			tmp = v32; v32 = v33; v33 = -tmp;
+		}
+	}
+
+	/**
+	 * Computes B = U*R using Givens rotations.  Since the columns of B are orthogonal, R is diagonal and
+	 * contains the singular values.
+	 */
+	private void factorQR() {
+		float c, s, r, tmp;
+
+		// zero b21 using rows 1 and 2
+		r = (float)Math.sqrt( b11*b11 + b21*b21 );
+		if( r == 0 ) { c = 1; s = 0; } else { c = b11/r; s = b21/r; }
+		b11 = r;
+		tmp = b12; b12 = c*tmp + s*b22; b22 = c*b22 - s*tmp;
+		tmp = b13; b13 = c*tmp + s*b23; b23 = c*b23 - s*tmp;
+		u11 = c; u12 = -s; u13 = 0;
+		u21 = s; u22 = c;  u23 = 0;
+		u31 = 0; u32 = 0;  u33 = 1;
+
+		// zero b31 using rows 1 and 3
+		r = (float)Math.sqrt( b11*b11 + b31*b31 );
+		if( r == 0 ) { c = 1; s = 0; } else { c = b11/r; s = b31/r; }
+		b11 = r;
+		tmp = b12; b12 = c*tmp + s*b32; b32 = c*b32 - s*tmp;
+		tmp = b13; b13 = c*tmp + s*b33; b33 = c*b33 - s*tmp;
+		tmp = u11; u11 = c*tmp + s*u13; u13 = c*u13 - s*tmp;
+		tmp = u21; u21 = c*tmp + s*u23; u23 = c*u23 - s*tmp;
+		tmp = u31; u31 = c*tmp + s*u33; u33 = c*u33 - s*tmp;
+
+		// zero b32 using rows 2 and 3
+		r = (float)Math.sqrt( b22*b22 + b32*b32 );
+		if( r == 0 ) { c = 1; s = 0; } else { c = b22/r; s = b32/r; }
+		b22 = r;
+		tmp = b23; b23 = c*tmp + s*b33; b33 = c*b33 - s*tmp;
+		tmp = u12; u12 = c*tmp + s*u13; u13 = c*u13 - s*tmp;
+		tmp = u22; u22 = c*tmp + s*u23; u23 = c*u23 - s*tmp;
+		tmp = u32; u32 = c*tmp + s*u33; u33 = c*u33 - s*tmp;
+
+		w1 = b11;
+		w2 = b22;
+		w3 = b33;
+	}
+
+	/**
+	 * Computes U*V<sup>T</sup>, which is a rotation matrix.
+	 *
+	 * @param R Storage for the 3x3 result.  Modified.
+	 */
+	public void rotationUVt( DenseMatrix64F R ) {
+		final /**/double d[] = R.data;
+		d[0] = u11*v11 + u12*v12 + u13*v13;
+		d[1] = u11*v21 + u12*v22 + u13*v23;
+		d[2] = u11*v31 + u12*v32 + u13*v33;
+		d[3] = u21*v11 + u22*v12 + u23*v13;
+		d[4] = u21*v21 + u22*v22 + u23*v23;
+		d[5] = u21*v31 + u22*v32 + u23*v33;
+		d[6] = u31*v11 + u32*v12 + u33*v13;
+		d[7] = u31*v21 + u32*v22 + u33*v23;
+		d[8] = u31*v31 + u32*v32 + u33*v33;
+	}
+
+	/**
+	 * Computes U*V<sup>T</sup>, which is a rotation matrix, and writes it into an array in row-major order.
+	 *
+	 * @param R Storage for the result.  Modified.
+	 * @param offset Index of the first element in R that is written to.
+	 */
+	public void rotationUVt( float R[], int offset ) {
+		R[offset  ] = u11*v11 + u12*v12 + u13*v13;
+		R[offset+1] = u11*v21 + u12*v22 + u13*v23;
+		R[offset+2] = u11*v31 + u12*v32 + u13*v33;
+		R[offset+3] = u21*v11 + u22*v12 + u23*v13;
+		R[offset+4] = u21*v21 + u22*v22 + u23*v23;
+		R[offset+5] = u21*v31 + u22*v32 + u23*v33;
+		R[offset+6] = u31*v11 + u32*v12 + u33*v13;
+		R[offset+7] = u31*v21 + u32*v22 + u33*v23;
+		R[offset+8] = u31*v31 + u32*v32 + u33*v33;
+	}
+}
@@ -21,6 +21,7 @@ package georegression.geometry;
 
 import georegression.struct.GeoTuple2D_F32;
 import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -71,6 +72,32 @@ public class UtilPoint2D_F32 {
 		return new Point2D_F32( x, y );
 	}
 
+	/**
+	 * Computes the mean of all the points in the cloud.
+	 *
+	 * @param cloud Set of points.  Not modified.
+	 * @param mean Storage for the mean.  If null a new instance is declared.  Modified.
+	 * @return The mean.
+	 */
+	public static Point2D_F32 mean( PointCloud2D_F32 cloud , Point2D_F32 mean ) {
+		if( mean == null )
+			mean = new Point2D_F32();
+
+		float x = 0, y = 0;
+
+		final float data[] = cloud.data;
+		final int end = cloud.size*2;
+		for( int i = 0; i < end; i += 2 ) {
+			x += data[i];
+			y += data[i+1];
+		}
+
+		mean.x = x / cloud.size;
+		mean.y = y / cloud.size;
+
+		return mean;
+	}
+
 	public static List<Point2D_F32> random( float min, float max, int num, Random rand ) {
 		List<Point2D_F32> ret = new ArrayList<Point2D_F32>();
 
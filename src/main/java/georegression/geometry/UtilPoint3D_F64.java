@@ -20,6 +20,7 @@
 package georegression.geometry;
 
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -107,4 +108,32 @@ public class UtilPoint3D_F64 {
 
 		return mean;
 	}
+
+	/**
+	 * Computes the mean of all the points in the cloud.
+	 *
+	 * @param cloud Set of points.  Not modified.
+	 * @param mean Storage for the mean.  If null a new instance is declared.  Modified.
+	 * @return The mean.
+	 */
+	public static Point3D_F64 mean( PointCloud3D_F64 cloud , Point3D_F64 mean ) {
+		if( mean == null )
+			mean = new Point3D_F64();
+
+		double x = 0, y = 0, z = 0;
+
+		final double data[] = cloud.data;
+		final int end = cloud.size*3;
+		for( int i = 0; i < end; i += 3 ) {
+			x += data[i];
+			y += data[i+1];
+			z += data[i+2];
+		}
+
+		mean.x = x / cloud.size;
+		mean.y = y / cloud.size;
+		mean.z = z / cloud.size;
+
+		return mean;
+	}
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.metric.nn;
+
+import georegression.struct.point.PointCloud2D_F64;
+
+/**
+ * Finds the nearest neighbor by computing the distance to every point.  Requires no preprocessing, but
+ * each query is O(N).  Intended for small point sets or as a reference implementation.
+ *
+ * @author Peter Abeles
+ */
+public class ExhaustiveNeighbor2D_F64 implements NearestNeighbor2D_F64 {
+
+	private PointCloud2D_F64 points;
+	private double distanceSq;
+
+	@Override
+	public void setPoints( PointCloud2D_F64 points ) {
+		this.points = points;
+	}
+
+	@Override
+	public int findNearest( double x, double y, double maxDistanceSq ) {
+		final double data[] = points.data;
+		final int N = points.size;
+
+		int best = -1;
+		distanceSq = maxDistanceSq;
+		for( int i = 0, index = 0; i < N; i++ ) {
+			double dx = data[index++] - x;
+			double dy = data[index++] - y;
+			double d = dx*dx + dy*dy;
+
+			if( d <= distanceSq ) {
+				distanceSq = d;
+				best = i;
+			}
+		}
+
+		return best;
+	}
+
+	@Override
+	public double getDistanceSq() {
+		return distanceSq;
+	}
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.metric.nn;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * k-d tree for finding the nearest neighbors of 3D points.  Supports nearest, k-nearest, and radius
+ * queries.  Query results are written into storage provided by the caller, so no memory is declared
+ * while searching.
+ * </p>
+ *
+ * <p>
+ * The tree is balanced and stored implicitly.  Points are copied into an internal array and reordered so
+ * that the node for the range [lo,hi) is the median element at (lo+hi)/2, with its left and right subtrees
+ * in the ranges below and above it.  The median is found using quick select along the axis with the
+ * largest spread, making construction O(N log N).  Construction of large trees can optionally be split
+ * across threads.
+ * </p>
+ *
+ * <p>
+ * The index returned by each query refers to the point's position in the original cloud or list.  Queries
+ * save their state internally, so a single instance must not be searched by multiple threads at once.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdTree3D_F64 implements NearestNeighbor3D_F64 {
+
+	// subtrees smaller than this are not built in their own thread
+	private static final int MIN_PARALLEL_SIZE = 10000;
+
+	// coordinates of each point stored in tree order
+	private double tree[] = new double[0];
+	// index of each point in the original data
+	private int indexes[] = new int[0];
+	// axis each node is split along
+	private byte split[] = new byte[0];
+	// number of points in the tree
+	private int size;
+
+	// number of levels at the top of the tree which are split between threads
+	private int parallelDepth = 4;
+
+	// the query point
+	private double qx, qy, qz;
+	// nearest neighbor search state
+	private int bestNode;
+	private double bestDistanceSq;
+
+	// k-nearest and radius search state
+	private int found;
+	private int resultIndex[];
+	private double resultDistanceSq[];
+
+	/**
+	 * Builds the tree from a packed point cloud.  The coordinates are copied, so the cloud can be
+	 * modified afterwards.
+	 *
+	 * @param points The points being searched.  Not modified.
+	 */
+	@Override
+	public void setPoints( PointCloud3D_F64 points ) {
+		copy( points );
+		build( 0, size );
+	}
+
+	/**
+	 * Builds the tree from a list of points.  The coordinates are copied, so the list can be modified
+	 * afterwards.
+	 *
+	 * @param points The points being searched.  Not modified.
+	 */
+	public void setPoints( List<Point3D_F64> points ) {
+		declare( points.size() );
+		for( int i = 0; i < size; i++ ) {
+			Point3D_F64 p = points.get( i );
+			tree[i*3] = p.x;
+			tree[i*3+1] = p.y;
+			tree[i*3+2] = p.z;
+		}
+		build( 0, size );
+	}
+
+	/**
+	 * Builds the tree from a packed point cloud using the provided executor to construct subtrees in
+	 * parallel.  The results are identical to {@link #setPoints(PointCloud3D_F64)}.
+	 *
+	 * @param points The points being searched.  Not modified.
+	 * @param executor Used to build subtrees in parallel.
+	 */
+	public void setPoints( PointCloud3D_F64 points, ExecutorService executor ) {
+		copy( points );
+
+		List<Future<Object>> tasks = new ArrayList<Future<Object>>();
+		buildParallel( 0, size, 0, executor, tasks );
+
+		try {
+			for( Future<Object> f : tasks )
+				f.get();
+		} catch( InterruptedException e ) {
+			throw new RuntimeException( e );
+		} catch( ExecutionException e ) {
+			throw new RuntimeException( e.getCause() );
+		}
+	}
+
+	private void copy( PointCloud3D_F64 points ) {
+		declare( points.size );
+		System.arraycopy( points.data, 0, tree, 0, size*3 );
+	}
+
+	private void declare( int N ) {
+		if( indexes.length < N ) {
+			tree = new double[ N*3 ];
+			indexes = new int[ N ];
+			split = new byte[ N ];
+		}
+		size = N;
+		for( int i = 0; i < N; i++ ) {
+			indexes[i] = i;
+			split[i] = 0;
+		}
+	}
+
+	/**
+	 * Recursively builds the tree for the range [lo,hi)
+	 */
+	private void build( int lo, int hi ) {
+		while( hi - lo > 1 ) {
+			int mid = splitNode( lo, hi );
+			build( lo, mid );
+			lo = mid + 1;
+		}
+	}
+
+	/**
+	 * Splits the top levels of the tree in the calling thread and submits the subtrees below them
+	 */
+	private void buildParallel( final int lo, final int hi, int depth,
+								ExecutorService executor, List<Future<Object>> tasks ) {
+		if( hi - lo <= 1 )
+			return;
+
+		if( depth >= parallelDepth || hi - lo < MIN_PARALLEL_SIZE ) {
+			tasks.add( executor.submit( new Callable<Object>() {
+				@Override
+				public Object call() throws Exception {
+					build( lo, hi );
+					return null;
+				}
+			} ) );
+		} else {
+			int mid = splitNode( lo, hi );
+			buildParallel( lo, mid, depth + 1, executor, tasks );
+			buildParallel( mid + 1, hi, depth + 1, executor, tasks );
+		}
+	}
+
+	/**
+	 * Selects the split axis for the range [lo,hi) and moves the median element into the center.
+	 *
+	 * @return Index of the node
+	 */
+	private int splitNode( int lo, int hi ) {
+		// split along the axis with the largest spread
+		double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE, z0 = Double.MAX_VALUE;
+		double x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE, z1 = -Double.MAX_VALUE;
+		for( int i = lo*3; i < hi*3; i += 3 ) {
+			double x = tree[i], y = tree[i+1], z = tree[i+2];
+			if( x < x0 ) x0 = x;
+			if( x > x1 ) x1 = x;
+			if( y < y0 ) y0 = y;
+			if( y > y1 ) y1 = y;
+			if( z < z0 ) z0 = z;
+			if( z > z1 ) z1 = z;
+		}
+
+		int axis;
+		double dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+		if( dx >= dy && dx >= dz )
+			axis = 0;
+		else if( dy >= dz )
+			axis = 1;
+		else
+			axis = 2;
+
+		int mid = ( lo + hi ) >>> 1;
+		select( lo, hi - 1, mid, axis );
+		split[mid] = (byte)axis;
+		return mid;
+	}
+
+	/**
+	 * Partially sorts the inclusive range [lo,hi] so that element k has every element at or before it less
+	 * than or equal to it along the axis, and every element after it greater than or equal to it.  Uses Wirth's
+	 * variant of quick select, which performs well when there are many duplicate values.
+	 */
+	private void select( int lo, int hi, int k, int axis ) {
+		while( lo < hi ) {
+			double pivot = tree[k*3+axis];
+			int i = lo, j = hi;
+			do {
+				while( tree[i*3+axis] < pivot ) i++;
+				while( pivot < tree[j*3+axis] ) j--;
+				if( i <= j ) {
+					swap( i++, j-- );
+				}
+			} while( i <= j );
+			if( j < k ) lo = i;
+			if( k < i ) hi = j;
+		}
+	}
+
+	private void swap( int a, int b ) {
+		int ia = a*3, ib = b*3;
+		for( int i = 0; i < 3; i++ ) {
+			double tmp = tree[ia+i];
+			tree[ia+i] = tree[ib+i];
+			tree[ib+i] = tmp;
+		}
+		int tmp = indexes[a];
+		indexes[a] = indexes[b];
+		indexes[b] = tmp;
+	}
+
+	private double distanceSq( int node ) {
+		int i = node*3;
+		double dx = tree[i] - qx;
+		double dy = tree[i+1] - qy;
+		double dz = tree[i+2] - qz;
+		return dx*dx + dy*dy + dz*dz;
+	}
+
+	/**
+	 * Signed distance of the query point from the node's splitting plane
+	 */
+	private double splitDistance( int node ) {
+		int axis = split[node];
+		double q = axis == 0 ? qx : ( axis == 1 ? qy : qz );
+		return q - tree[node*3+axis];
+	}
+
+	@Override
+	public int findNearest( double x, double y, double z, double maxDistanceSq ) {
+		qx = x; qy = y; qz = z;
+		bestNode = -1;
+		bestDistanceSq = maxDistanceSq;
+
+		searchNearest( 0, size );
+
+		return bestNode < 0 ? -1 : indexes[bestNode];
+	}
+
+	private void searchNearest( int lo, int hi ) {
+		while( lo < hi ) {
+			int mid = ( lo + hi ) >>> 1;
+
+			double d = distanceSq( mid );
+			if( d <= bestDistanceSq ) {
+				bestDistanceSq = d;
+				bestNode = mid;
+			}
+
+			double diff = splitDistance( mid );
+			if( diff < 0 ) {
+				searchNearest( lo, mid );
+				lo = mid + 1;
+			} else {
+				searchNearest( mid + 1, hi );
+				hi = mid;
+			}
+
+			// the other side can only contain a closer point if the splitting plane is closer
+			if( diff*diff > bestDistanceSq )
+				return;
+		}
+	}
+
+	@Override
+	public double getDistanceSq() {
+		return bestDistanceSq;
+	}
+
+	/**
+	 * Finds the k nearest points to the query point which are within the specified distance.  Results
+	 * are sorted from closest to farthest.
+	 *
+	 * @param x Query point x-coordinate.
+	 * @param y Query point y-coordinate.
+	 * @param z Query point z-coordinate.
+	 * @param maxDistanceSq Maximum Euclidean distance squared a point can be from the query point.
+	 * @param k Maximum number of neighbors.  Must be &le; the length of the output arrays.
+	 * @param outIndex Storage for the index of each neighbor.  Modified.
+	 * @param outDistanceSq Storage for the distance squared of each neighbor.  Modified.
+	 * @return Number of neighbors found.
+	 */
+	public int findNearest( double x, double y, double z, double maxDistanceSq,
+							int k, int outIndex[], double outDistanceSq[] ) {
+		if( k > outIndex.length || k > outDistanceSq.length )
+			throw new IllegalArgumentException( "Output arrays are smaller than k" );
+		if( k <= 0 )
+			return 0;
+
+		qx = x; qy = y; qz = z;
+		found = 0;
+		resultIndex = outIndex;
+		resultDistanceSq = outDistanceSq;
+		bestDistanceSq = maxDistanceSq;
+
+		searchNearestK( 0, size, k );
+
+		// heap sort the max heap so the closest point is first
+		for( int end = found - 1; end > 0; end-- ) {
+			swapResults( 0, end );
+			siftDown( 0, end );
+		}
+
+		for( int i = 0; i < found; i++ )
+			outIndex[i] = indexes[outIndex[i]];
+
+		resultIndex = null;
+		resultDistanceSq = null;
+		return found;
+	}
+
+	/**
+	 * The results are stored in a max heap so the farthest neighbor can be replaced.  bestDistanceSq is the
+	 * distance a point must beat to be added.
+	 */
+	private void searchNearestK( int lo, int hi, int k ) {
+		while( lo < hi ) {
+			int mid = ( lo + hi ) >>> 1;
+
+			double d = distanceSq( mid );
+			if( d <= bestDistanceSq ) {
+				if( found < k ) {
+					int i = found++;
+					resultIndex[i] = mid;
+					resultDistanceSq[i] = d;
+					siftUp( i );
+				} else {
+					resultIndex[0] = mid;
+					resultDistanceSq[0] = d;
+					siftDown( 0, found );
+				}
+				if( found == k )
+					bestDistanceSq = resultDistanceSq[0];
+			}
+
+			double diff = splitDistance( mid );
+			if( diff < 0 ) {
+				searchNearestK( lo, mid, k );
+				lo = mid + 1;
+			} else {
+				searchNearestK( mid + 1, hi, k );
+				hi = mid;
+			}
+
+			if( diff*diff > bestDistanceSq )
+				return;
+		}
+	}
+
+	private void siftUp( int i ) {
+		while( i > 0 ) {
+			int parent = ( i - 1 )/2;
+			if( resultDistanceSq[parent] >= resultDistanceSq[i] )
+				return;
+			swapResults( i, parent );
+			i = parent;
+		}
+	}
+
+	private void siftDown( int i, int length ) {
+		while( true ) {
+			int largest = i;
+			int left = 2*i + 1, right = left + 1;
+			if( left < length && resultDistanceSq[left] > resultDistanceSq[largest] )
+				largest = left;
+			if( right < length && resultDistanceSq[right] > resultDistanceSq[largest] )
+				largest = right;
+			if( largest == i )
+				return;
+			swapResults( i, largest );
+			i = largest;
+		}
+	}
+
+	private void swapResults( int a, int b ) {
+		int ti = resultIndex[a];
+		resultIndex[a] = resultIndex[b];
+		resultIndex[b] = ti;
+		double td = resultDistanceSq[a];
+		resultDistanceSq[a] = resultDistanceSq[b];
+		resultDistanceSq[b] = td;
+	}
+
+	/**
+	 * Finds all the points within the specified radius of the query point.  Results are not sorted.  If
+	 * more points are found than can be stored in the output arrays then only the first ones found are
+	 * saved, but all of them are counted.
+	 *
+	 * @param x Query point x-coordinate.
+	 * @param y Query point y-coordinate.
+	 * @param z Query point z-coordinate.
+	 * @param radius Maximum Euclidean distance a point can be from the query point.
+	 * @param outIndex Storage for the index of each neighbor.  Modified.
+	 * @param outDistanceSq Storage for the distance squared of each neighbor.  Modified.
+	 * @return Number of points within the radius.  Can be more than the number stored.
+	 */
+	public int findRadius( double x, double y, double z, double radius,
+						   int outIndex[], double outDistanceSq[] ) {
+		qx = x; qy = y; qz = z;
+		found = 0;
+		resultIndex = outIndex;
+		resultDistanceSq = outDistanceSq;
+		bestDistanceSq = radius*radius;
+
+		int capacity = outIndex.length < outDistanceSq.length ? outIndex.length : outDistanceSq.length;
+		searchRadius( 0, size, capacity );
+
+		resultIndex = null;
+		resultDistanceSq = null;
+		return found;
+	}
+
+	private void searchRadius( int lo, int hi, int capacity ) {
+		while( lo < hi ) {
+			int mid = ( lo + hi ) >>> 1;
+
+			double d = distanceSq( mid );
+			if( d <= bestDistanceSq ) {
+				if( found < capacity ) {
+					resultIndex[found] = indexes[mid];
+					resultDistanceSq[found] = d;
+				}
+				found++;
+			}
+
+			double diff = splitDistance( mid );
+			if( diff < 0 ) {
+				searchRadius( lo, mid, capacity );
+				lo = mid + 1;
+			} else {
+				searchRadius( mid + 1, hi, capacity );
+				hi = mid;
+			}
+
+			if( diff*diff > bestDistanceSq )
+				return;
+		}
+	}
+
+	/**
+	 * Number of points in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getParallelDepth() {
+		return parallelDepth;
+	}
+
+	/**
+	 * Number of levels at the top of the tree which are split before the subtrees are handed off to
+	 * the executor.  Up to 2^depth subtrees are built in parallel.
+	 */
+	public void setParallelDepth( int parallelDepth ) {
+		this.parallelDepth = parallelDepth;
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.metric.nn;
+
+import georegression.struct.point.PointCloud2D_F64;
+
+/**
+ * Finds the point in a set which is closest to a query point using Euclidean distance.
+ *
+ * @author Peter Abeles
+ */
+public interface NearestNeighbor2D_F64 {
+
+	/**
+	 * Specifies the set of points which are searched.  A reference to the cloud is saved internally
+	 * and it must not be modified until a new set of points is specified.
+	 *
+	 * @param points The points being searched.  Not modified.
+	 */
+	public void setPoints( PointCloud2D_F64 points );
+
+	/**
+	 * Finds the closest point to the query point which is within the specified distance.
+	 *
+	 * @param x Query point x-coordinate.
+	 * @param y Query point y-coordinate.
+	 * @param maxDistanceSq Maximum Euclidean distance squared a point can be from the query point.
+	 * @return Index of the closest point or -1 if there is none within the distance.
+	 */
+	public int findNearest( double x, double y, double maxDistanceSq );
+
+	/**
+	 * Euclidean distance squared of the point found in the most recent call to findNearest.
+	 */
+	public double getDistanceSq();
+}
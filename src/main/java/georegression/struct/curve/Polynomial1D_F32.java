@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.curve;
+
+/**
+ * <p>
+ * Polynomial in one variable:<br>
+ * y = c[0] + c[1]*x + c[2]*x<sup>2</sup> + ... + c[N]*x<sup>N</sup><br>
+ * where N is the polynomial's degree.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Polynomial1D_F32 {
+	/**
+	 * Coefficients, ordered from the constant term to the highest power.
+	 */
+	public float c[];
+
+	/**
+	 * Creates a polynomial with all zero coefficients.
+	 *
+	 * @param degree Degree of the polynomial.
+	 */
+	public Polynomial1D_F32( int degree ) {
+		if( degree < 0 )
+			throw new IllegalArgumentException( "Degree must be non-negative" );
+		c = new float[ degree + 1 ];
+	}
+
+	/**
+	 * Creates a polynomial with the specified coefficients.
+	 *
+	 * @param c Coefficients, ordered from the constant term to the highest power.
+	 */
+	public Polynomial1D_F32( float... c ) {
+		this.c = c.clone();
+	}
+
+	public int getDegree() {
+		return c.length - 1;
+	}
+
+	/**
+	 * Evaluates the polynomial using Horner's method.
+	 *
+	 * @param x Value of the variable.
+	 * @return Value of the polynomial.
+	 */
+	public float evaluate( float x ) {
+		float ret = c[c.length - 1];
+		for( int i = c.length - 2; i >= 0; i-- ) {
+			ret = ret*x + c[i];
+		}
+		return ret;
+	}
+
+	public void set( Polynomial1D_F32 original ) {
+		if( original.c.length != c.length )
+			throw new IllegalArgumentException( "Polynomials must have the same degree" );
+		System.arraycopy( original.c, 0, c, 0, c.length );
+	}
+
+	public Polynomial1D_F32 copy() {
+		return new Polynomial1D_F32( c );
+	}
+}
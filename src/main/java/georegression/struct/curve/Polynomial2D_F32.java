@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.curve;
+
+/**
+ * <p>
+ * Polynomial in two variables, with all terms x<sup>i</sup>*y<sup>j</sup> where i + j &le; N and N is the
+ * polynomial's degree.  The coefficients are ordered by the total degree of each term, and within the same total
+ * degree by the power of y:<br>
+ * z = c[0] + c[1]*x + c[2]*y + c[3]*x<sup>2</sup> + c[4]*x*y + c[5]*y<sup>2</sup> + c[6]*x<sup>3</sup> + ...<br>
+ * The coefficient of x<sup>i</sup>*y<sup>j</sup> is at index (i+j)*(i+j+1)/2 + j.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Polynomial2D_F32 {
+	/**
+	 * Coefficients.  See class description for their order.
+	 */
+	public float c[];
+
+	// degree of the polynomial
+	private int degree;
+
+	/**
+	 * Creates a polynomial with all zero coefficients.
+	 *
+	 * @param degree Degree of the polynomial.
+	 */
+	public Polynomial2D_F32( int degree ) {
+		if( degree < 0 )
+			throw new IllegalArgumentException( "Degree must be non-negative" );
+		this.degree = degree;
+		c = new float[ numTerms( degree ) ];
+	}
+
+	/**
+	 * Number of coefficients in a polynomial of the specified degree
+	 */
+	public static int numTerms( int degree ) {
+		return ( degree + 1 )*( degree + 2 )/2;
+	}
+
+	/**
+	 * Index of the coefficient for the term x<sup>i</sup>*y<sup>j</sup>
+	 */
+	public static int index( int i, int j ) {
+		int d = i + j;
+		return d*( d + 1 )/2 + j;
+	}
+
+	public int getDegree() {
+		return degree;
+	}
+
+	/**
+	 * Returns the coefficient for the term x<sup>i</sup>*y<sup>j</sup>
+	 */
+	public float get( int i, int j ) {
+		return c[index( i, j )];
+	}
+
+	/**
+	 * Sets the coefficient for the term x<sup>i</sup>*y<sup>j</sup>
+	 */
+	public void set( int i, int j, float value ) {
+		c[index( i, j )] = value;
+	}
+
+	/**
+	 * Evaluates the polynomial.  For each power of y the polynomial in x is evaluated using Horner's method,
+	 * then Horner's method is applied again to the results in y.
+	 *
+	 * @param x Value of the first variable.
+	 * @param y Value of the second variable.
+	 * @return Value of the polynomial.
+	 */
+	public float evaluate( float x, float y ) {
+		float ret = 0;
+		for( int j = degree; j >= 0; j-- ) {
+			// polynomial in x which is multiplied by y^j
+			float px = c[index( degree - j, j )];
+			for( int i = degree - j - 1; i >= 0; i-- ) {
+				px = px*x + c[index( i, j )];
+			}
+			ret = ret*y + px;
+		}
+		return ret;
+	}
+
+	public void set( Polynomial2D_F32 original ) {
+		if( original.degree != degree )
+			throw new IllegalArgumentException( "Polynomials must have the same degree" );
+		System.arraycopy( original.c, 0, c, 0, c.length );
+	}
+
+	public Polynomial2D_F32 copy() {
+		Polynomial2D_F32 ret = new Polynomial2D_F32( degree );
+		ret.set( this );
+		return ret;
+	}
+}
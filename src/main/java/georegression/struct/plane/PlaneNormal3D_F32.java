@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.plane;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+
+/**
+ * <p>
+ * 3D plane defined by a point on the plane and the plane's normal vector:<br>
+ * n??([x, y, z] - [x_0, y_0, z_0]) = 0<br>
+ * where (x_0,y_0,z_0) is an arbitrary point on the plane and n = (n_x,n_y,n_z) is the normal.  The normal
+ * does not need to have a length of one.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PlaneNormal3D_F32 {
+	/**
+	 * A point on the plane
+	 */
+	public Point3D_F32 p = new Point3D_F32();
+	/**
+	 * The plane's normal
+	 */
+	public Vector3D_F32 n = new Vector3D_F32();
+
+	public PlaneNormal3D_F32( float x_0, float y_0, float z_0,
+							  float nx, float ny, float nz ) {
+		p.set( x_0, y_0, z_0 );
+		n.set( nx, ny, nz );
+	}
+
+	public PlaneNormal3D_F32( Point3D_F32 p, Vector3D_F32 n ) {
+		setPoint( p );
+		setNormal( n );
+	}
+
+	public PlaneNormal3D_F32() {
+	}
+
+	public void set( PlaneNormal3D_F32 plane ) {
+		p.set( plane.p );
+		n.set( plane.n );
+	}
+
+	public void setPoint( Point3D_F32 pt ) {
+		this.p.set( pt );
+	}
+
+	public void setPoint( float x, float y, float z ) {
+		this.p.set( x, y, z );
+	}
+
+	public void setNormal( Vector3D_F32 n ) {
+		this.n.set( n );
+	}
+
+	public void setNormal( float nx, float ny, float nz ) {
+		this.n.set( nx, ny, nz );
+	}
+
+	public Point3D_F32 getPoint() {
+		return p;
+	}
+
+	public Vector3D_F32 getNormal() {
+		return n;
+	}
+
+	public PlaneNormal3D_F32 copy() {
+		return new PlaneNormal3D_F32( p, n );
+	}
+}
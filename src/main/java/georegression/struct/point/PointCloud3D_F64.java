@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.struct.point;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Packed storage for a set of 3D points.  The coordinates are stored interleaved inside a single array,
+ * with point 'i' at data[i*3], data[i*3+1], and data[i*3+2].  Large point clouds can be stored and processed
+ * without declaring an object for each point.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PointCloud3D_F64 {
+	// interleaved (x,y,z) coordinates of each point
+	public double data[];
+	// number of points in the cloud
+	public int size;
+
+	/**
+	 * Declares storage for the specified number of points.  The cloud is initially empty.
+	 *
+	 * @param maxSize Initial number of points it can store before growing.
+	 */
+	public PointCloud3D_F64( int maxSize ) {
+		data = new double[ maxSize*3 ];
+	}
+
+	public PointCloud3D_F64() {
+		this( 10 );
+	}
+
+	/**
+	 * Creates a cloud which is a copy of the provided list of points.
+	 *
+	 * @param points Points which are copied into the cloud.  Not modified.
+	 */
+	public PointCloud3D_F64( List<Point3D_F64> points ) {
+		this( points.size() );
+		set( points );
+	}
+
+	/**
+	 * Removes all the points from the cloud without changing the size of the internal array.
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/**
+	 * Changes the number of points in the cloud.  If the internal array is too small it is grown
+	 * and the existing points are preserved.
+	 *
+	 * @param size The new number of points.
+	 */
+	public void resize( int size ) {
+		growArray( size );
+		this.size = size;
+	}
+
+	/**
+	 * Ensures the internal array can store at least the specified number of points.  Existing points
+	 * are preserved.
+	 *
+	 * @param maxSize Number of points which can be stored.
+	 */
+	public void growArray( int maxSize ) {
+		if( data.length >= maxSize*3 )
+			return;
+
+		double tmp[] = new double[ maxSize*3 ];
+		System.arraycopy( data, 0, tmp, 0, size*3 );
+		data = tmp;
+	}
+
+	public void add( double x, double y, double z ) {
+		if( data.length < (size+1)*3 )
+			growArray( (size+1)*2 );
+
+		int index = size*3;
+		data[index] = x;
+		data[index+1] = y;
+		data[index+2] = z;
+		size++;
+	}
+
+	public void add( Point3D_F64 p ) {
+		add( p.x, p.y, p.z );
+	}
+
+	public void set( int index, double x, double y, double z ) {
+		index *= 3;
+		data[index] = x;
+		data[index+1] = y;
+		data[index+2] = z;
+	}
+
+	/**
+	 * Copies the list of points into the cloud.  The cloud will have the same size as the list.
+	 *
+	 * @param points Points which are copied into the cloud.  Not modified.
+	 */
+	public void set( List<Point3D_F64> points ) {
+		resize( points.size() );
+
+		int index = 0;
+		for( int i = 0; i < size; i++ ) {
+			Point3D_F64 p = points.get( i );
+			data[index++] = p.x;
+			data[index++] = p.y;
+			data[index++] = p.z;
+		}
+	}
+
+	public void set( PointCloud3D_F64 orig ) {
+		resize( orig.size );
+		System.arraycopy( orig.data, 0, data, 0, size*3 );
+	}
+
+	/**
+	 * Copies the specified point into the provided storage.
+	 *
+	 * @param index Index of the point.
+	 * @param storage Where the point is written to.  If null a new instance is declared.  Modified.
+	 * @return The point.
+	 */
+	public Point3D_F64 get( int index, Point3D_F64 storage ) {
+		if( storage == null )
+			storage = new Point3D_F64();
+
+		index *= 3;
+		storage.x = data[index];
+		storage.y = data[index+1];
+		storage.z = data[index+2];
+
+		return storage;
+	}
+
+	public double getX( int index ) {
+		return data[index*3];
+	}
+
+	public double getY( int index ) {
+		return data[index*3+1];
+	}
+
+	public double getZ( int index ) {
+		return data[index*3+2];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public PointCloud3D_F64 copy() {
+		PointCloud3D_F64 ret = new PointCloud3D_F64( size );
+		ret.set( this );
+		return ret;
+	}
+}
@@ -90,6 +90,15 @@ public class InvertibleTransformSequence {
 		result.set(tmp0);
 	}
 
+	/**
+	 * Creates a prepared form of this sequence which can be evaluated many times without creating new objects.
+	 *
+	 * @see PreparedTransformSequence
+	 */
+	public <T extends InvertibleTransform<T>> PreparedTransformSequence<T> prepare() {
+		return new PreparedTransformSequence<T>( this );
+	}
+
 	public List<Node> getPath() {
 		return path;
 	}
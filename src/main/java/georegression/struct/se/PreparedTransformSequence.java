@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.se;
+
+import georegression.struct.InvertibleTransform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Prepared form of {@link InvertibleTransformSequence} for when the same sequence is evaluated many times.  All the
+ * work space is declared once and the inverse of each transform which is applied in the reverse direction is
+ * cached, so {@link #computeTransform} does not create any new objects.
+ * </p>
+ *
+ * <p>
+ * The transforms in the sequence are referenced, not copied.  When one which is applied in the reverse direction
+ * is modified {@link #markDirty(int)} must be called, otherwise its old inverse will be used.  Changes to the
+ * structure of the original sequence after it has been prepared are not seen.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PreparedTransformSequence<T extends InvertibleTransform<T>> {
+
+	// transforms in the sequence
+	private List<T> trans = new ArrayList<T>();
+	// if the transform is applied in the forward or reverse direction
+	private boolean forward[];
+	// cached inverse for reverse transforms, null for forward transforms
+	private List<T> inverses = new ArrayList<T>();
+	// true if the cached inverse needs to be recomputed
+	private boolean dirty[];
+
+	// work space
+	private T tmp0, tmp1;
+
+	/**
+	 * Prepares the sequence for evaluation.
+	 *
+	 * @param sequence The sequence.  All transforms must be of type T.  Not modified.
+	 */
+	@SuppressWarnings({"unchecked"})
+	public PreparedTransformSequence( InvertibleTransformSequence sequence ) {
+		List<InvertibleTransformSequence.Node> path = sequence.getPath();
+
+		forward = new boolean[path.size()];
+		dirty = new boolean[path.size()];
+
+		for( int i = 0; i < path.size(); i++ ) {
+			InvertibleTransformSequence.Node n = path.get( i );
+			T tran = (T)n.tran;
+
+			trans.add( tran );
+			forward[i] = n.forward;
+			inverses.add( n.forward ? null : tran.createInstance() );
+			dirty[i] = true;
+		}
+
+		if( path.size() > 0 ) {
+			tmp0 = trans.get( 0 ).createInstance();
+			tmp1 = trans.get( 0 ).createInstance();
+		}
+	}
+
+	/**
+	 * Specifies that the transform at the specified index has been modified.
+	 *
+	 * @param index Index of the transform in the sequence.
+	 */
+	public void markDirty( int index ) {
+		dirty[index] = true;
+	}
+
+	/**
+	 * Specifies that all the transforms have been modified.
+	 */
+	public void markAllDirty() {
+		for( int i = 0; i < dirty.length; i++ )
+			dirty[i] = true;
+	}
+
+	/**
+	 * Computes the single transform which is equivalent to the sequence.  If the sequence is empty then
+	 * the result is not modified.
+	 *
+	 * @param result Storage for the transform.  Modified.
+	 */
+	public void computeTransform( T result ) {
+		if( trans.size() == 0 )
+			return;
+
+		if( trans.size() == 1 ) {
+			result.set( lookup( 0 ) );
+			return;
+		}
+
+		T a = tmp0;
+		T b = tmp1;
+
+		lookup( 0 ).concat( lookup( 1 ), a );
+
+		for( int i = 2; i < trans.size(); i++ ) {
+			a.concat( lookup( i ), b );
+			T swap = a;
+			a = b;
+			b = swap;
+		}
+		result.set( a );
+	}
+
+	/**
+	 * Returns the transform at the specified index in the direction it is applied
+	 */
+	private T lookup( int index ) {
+		if( forward[index] )
+			return trans.get( index );
+
+		T inv = inverses.get( index );
+		if( dirty[index] ) {
+			trans.get( index ).invert( inv );
+			dirty[index] = false;
+		}
+		return inv;
+	}
+
+	/**
+	 * Number of transforms in the sequence
+	 */
+	public int size() {
+		return trans.size();
+	}
+}
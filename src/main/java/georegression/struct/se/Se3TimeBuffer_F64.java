@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.se;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.so.Quaternion;
+import georegression.struct.so.SpecialOrthogonalOps;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Ring buffer of {@link Se3_F64} poses indexed by time.  The pose at any time between the oldest and newest
+ * pose in the buffer can be looked up.  Between two poses the translation is linearly interpolated and the
+ * rotation is interpolated with SLERP.  All memory is declared up front.  Once the buffer is full the oldest
+ * pose is overwritten.
+ * </p>
+ *
+ * <p>
+ * Poses must be added by a single thread, while any number of other threads can look up poses without ever
+ * blocking the writer.  Each thread which performs look ups needs its own {@link Reader}.  A reader which sees
+ * a pose being overwritten while it is read tries again.  Rotations are stored as quaternions, which are found
+ * when the pose is added.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Se3TimeBuffer_F64 {
+
+	// number of elements used to store each pose: time, translation, and quaternion
+	private static final int STRIDE = 8;
+
+	// maximum number of poses
+	private int capacity;
+
+	// poses, each double is stored as its bits
+	private AtomicLongArray data;
+	// index of the pose stored in each slot, or -1 if it is being written
+	private AtomicLongArray stamps;
+
+	// index of the first pose since the last reset and one past the last pose which has been written
+	private volatile long start;
+	private volatile long count;
+
+	// time of the last pose added.  Only accessed by the writer
+	private double newestTime;
+
+	// work space for the writer
+	private Quaternion quat = new Quaternion();
+
+	// used by lookup()
+	private Reader reader;
+
+	/**
+	 * Creates a buffer with the specified capacity.
+	 *
+	 * @param capacity Maximum number of poses which are saved.
+	 */
+	public Se3TimeBuffer_F64( int capacity ) {
+		if( capacity < 2 )
+			throw new IllegalArgumentException( "Capacity must be at least 2" );
+
+		this.capacity = capacity;
+		data = new AtomicLongArray( capacity*STRIDE );
+		stamps = new AtomicLongArray( capacity );
+		for( int i = 0; i < capacity; i++ )
+			stamps.set( i, -1 );
+
+		reader = createReader();
+	}
+
+	/**
+	 * Adds a new pose to the buffer.  Must only be called by a single thread.
+	 *
+	 * @param time Time of the pose.  Must be more than the time of the previously added pose.
+	 * @param pose The pose.  Not modified.
+	 */
+	public void add( double time, Se3_F64 pose ) {
+		long index = count;
+		if( index > start && time <= newestTime )
+			throw new IllegalArgumentException( "Time must be increasing" );
+
+		RotationMatrixGenerator.matrixToQuaternion( pose.getR(), quat );
+
+		int slot = (int)( index % capacity );
+		int offset = slot*STRIDE;
+
+		// let readers know the slot is being modified
+		stamps.set( slot, -1 );
+
+		data.set( offset, Double.doubleToRawLongBits( time ) );
+		data.set( offset + 1, Double.doubleToRawLongBits( pose.getT().x ) );
+		data.set( offset + 2, Double.doubleToRawLongBits( pose.getT().y ) );
+		data.set( offset + 3, Double.doubleToRawLongBits( pose.getT().z ) );
+		data.set( offset + 4, Double.doubleToRawLongBits( quat.q1 ) );
+		data.set( offset + 5, Double.doubleToRawLongBits( quat.q2 ) );
+		data.set( offset + 6, Double.doubleToRawLongBits( quat.q3 ) );
+		data.set( offset + 7, Double.doubleToRawLongBits( quat.q4 ) );
+
+		stamps.set( slot, index );
+		newestTime = time;
+		count = index + 1;
+	}
+
+	/**
+	 * Removes all the poses.  Must only be called by the thread which adds poses.
+	 */
+	public void reset() {
+		start = count;
+	}
+
+	/**
+	 * Looks up the pose at the specified time using an internal {@link Reader}.  Can only be called by the
+	 * thread which adds poses, other threads must use their own reader.
+	 *
+	 * @see Reader#lookup
+	 */
+	public boolean lookup( double time, Se3_F64 result ) {
+		return reader.lookup( time, result );
+	}
+
+	/**
+	 * Creates a new reader.  Each thread which looks up poses needs its own reader.
+	 */
+	public Reader createReader() {
+		return new Reader();
+	}
+
+	/**
+	 * Number of poses in the buffer
+	 */
+	public int size() {
+		long end = count;
+		return (int)( end - Math.max( start, end - capacity ) );
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Looks up poses in the buffer.  Each instance can only be used by one thread at a time.
+	 */
+	public class Reader {
+		// pose before and after the requested time
+		private double before[] = new double[STRIDE];
+		private double after[] = new double[STRIDE];
+
+		// work space for interpolating the rotation
+		private Quaternion q0 = new Quaternion();
+		private Quaternion q1 = new Quaternion();
+
+		/**
+		 * Looks up the pose at the specified time.  If the time is between two poses then it is interpolated.
+		 *
+		 * @param time Time of the pose.
+		 * @param result Storage for the pose.  Modified.
+		 * @return true if the time is inside the buffer and false if not.
+		 */
+		public boolean lookup( double time, Se3_F64 result ) {
+			retry:
+			while( true ) {
+				long end = count;
+				long lo = Math.max( start, end - capacity );
+				long hi = end - 1;
+				if( lo > hi )
+					return false;
+
+				double timeLo = readTime( lo );
+				double timeHi = readTime( hi );
+				if( Double.isNaN( timeLo ) || Double.isNaN( timeHi ) )
+					continue;
+				if( time < timeLo || time > timeHi )
+					return false;
+
+				// find the last pose at or before the requested time
+				while( lo < hi ) {
+					long mid = ( lo + hi + 1 ) >>> 1;
+					double timeMid = readTime( mid );
+					if( Double.isNaN( timeMid ) )
+						continue retry;
+					if( timeMid <= time )
+						lo = mid;
+					else
+						hi = mid - 1;
+				}
+
+				if( !read( lo, before ) )
+					continue;
+
+				if( before[0] == time ) {
+					result.getT().set( before[1], before[2], before[3] );
+					q0.q1 = before[4];
+					q0.q2 = before[5];
+					q0.q3 = before[6];
+					q0.q4 = before[7];
+					RotationMatrixGenerator.quaternionToMatrix( q0, result.getR() );
+					return true;
+				}
+
+				if( !read( lo + 1, after ) )
+					continue;
+
+				interpolate( ( time - before[0] )/( after[0] - before[0] ), result );
+				return true;
+			}
+		}
+
+		private void interpolate( double alpha, Se3_F64 result ) {
+			double x = before[1] + alpha*( after[1] - before[1] );
+			double y = before[2] + alpha*( after[2] - before[2] );
+			double z = before[3] + alpha*( after[3] - before[3] );
+			result.getT().set( x, y, z );
+
+			q0.q1 = before[4];
+			q0.q2 = before[5];
+			q0.q3 = before[6];
+			q0.q4 = before[7];
+			q1.q1 = after[4];
+			q1.q2 = after[5];
+			q1.q3 = after[6];
+			q1.q4 = after[7];
+
+			SpecialOrthogonalOps.slerp( q0, q1, alpha, q0 );
+			RotationMatrixGenerator.quaternionToMatrix( q0, result.getR() );
+		}
+
+		/**
+		 * Reads the time of the pose with the specified index, or NaN if it was overwritten.
+		 */
+		private double readTime( long index ) {
+			int slot = (int)( index % capacity );
+			if( stamps.get( slot ) != index )
+				return Double.NaN;
+			double time = Double.longBitsToDouble( data.get( slot*STRIDE ) );
+			if( stamps.get( slot ) != index )
+				return Double.NaN;
+			return time;
+		}
+
+		/**
+		 * Reads the pose with the specified index.  Returns false if it was overwritten.
+		 */
+		private boolean read( long index, double pose[] ) {
+			int slot = (int)( index % capacity );
+			if( stamps.get( slot ) != index )
+				return false;
+			int offset = slot*STRIDE;
+			for( int i = 0; i < STRIDE; i++ )
+				pose[i] = Double.longBitsToDouble( data.get( offset + i ) );
+			return stamps.get( slot ) == index;
+		}
+	}
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.se;
+
+import georegression.struct.InvertibleTransform;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Graph of named coordinate frames connected by transforms, e.g. sensors mounted on the links of a robot which is
+ * located in the world.  The transform between any two connected frames can be looked up, without needing to know
+ * the sequence of transforms between them like {@link InvertibleTransformSequence} does.
+ * </p>
+ *
+ * <p>
+ * The path between two frames is found with a breadth first search, so it has the fewest transforms, and is
+ * composed using {@link InvertibleTransform#concat} and {@link InvertibleTransform#invert}.  The composed
+ * transform is cached.  Each transform in the graph knows which cached results depend on it, and when it is
+ * changed with {@link #setTransform} only those are marked as invalid.  Looking up an unchanged pair of frames a
+ * second time is a hash lookup and a copy.  Adding a transform can change the shortest paths, so it clears the
+ * whole cache.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TransformGraph<T extends InvertibleTransform<T>> {
+
+	// all the frames, indexed by name
+	private Map<String, Frame<T>> frames = new HashMap<String, Frame<T>>();
+	// all the transforms
+	private List<Edge<T>> edges = new ArrayList<Edge<T>>();
+
+	// work space for the breadth first search
+	private List<Frame<T>> queue = new ArrayList<Frame<T>>();
+	private int searchID;
+
+	// work space for composing transforms
+	private T work, inverse;
+
+	/**
+	 * Adds a new frame with no transforms.  Frames are also added automatically by {@link #addTransform}.
+	 *
+	 * @param name Unique name of the frame.
+	 */
+	public void addFrame( String name ) {
+		if( frames.containsKey( name ) )
+			throw new IllegalArgumentException( "Frame already exists: " + name );
+		frames.put( name, new Frame<T>( name ) );
+	}
+
+	/**
+	 * Returns true if a frame with the specified name exists.
+	 */
+	public boolean hasFrame( String name ) {
+		return frames.containsKey( name );
+	}
+
+	/**
+	 * Number of frames in the graph
+	 */
+	public int getNumFrames() {
+		return frames.size();
+	}
+
+	/**
+	 * Adds a transform between two frames, creating the frames if needed.  A copy of the transform is saved.
+	 *
+	 * @param src Name of the source frame.
+	 * @param dst Name of the destination frame.
+	 * @param tran Transform from points in 'src' to points in 'dst'.  Not modified.
+	 */
+	public void addTransform( String src, String dst, T tran ) {
+		if( src.equals( dst ) )
+			throw new IllegalArgumentException( "A transform must be between two different frames" );
+
+		if( !frames.containsKey( src ) )
+			addFrame( src );
+		if( !frames.containsKey( dst ) )
+			addFrame( dst );
+
+		Frame<T> a = frames.get( src );
+		Frame<T> b = frames.get( dst );
+		if( findEdge( a, b ) != null )
+			throw new IllegalArgumentException( "There already is a transform between " + src + " and " + dst );
+
+		T copy = tran.createInstance();
+		copy.set( tran );
+
+		Edge<T> e = new Edge<T>( a, b, copy );
+		a.edges.add( e );
+		b.edges.add( e );
+		edges.add( e );
+
+		if( work == null ) {
+			work = tran.createInstance();
+			inverse = tran.createInstance();
+		}
+
+		// shortest paths might have changed
+		for( Frame<T> f : frames.values() )
+			f.cache.clear();
+		for( Edge<T> edge : edges )
+			edge.dependents.clear();
+	}
+
+	/**
+	 * Changes the value of an existing transform.  Only cached results which depend on this transform are
+	 * invalidated.
+	 *
+	 * @param src Name of the source frame.
+	 * @param dst Name of the destination frame.
+	 * @param tran Transform from points in 'src' to points in 'dst'.  Not modified.
+	 */
+	public void setTransform( String src, String dst, T tran ) {
+		Frame<T> a = lookupFrame( src );
+		Frame<T> b = lookupFrame( dst );
+
+		Edge<T> e = findEdge( a, b );
+		if( e == null )
+			throw new IllegalArgumentException( "There is no transform between " + src + " and " + dst );
+
+		// the transform might have been added in the other direction
+		if( e.src == a )
+			e.tran.set( tran );
+		else
+			tran.invert( e.tran );
+
+		for( int i = 0; i < e.dependents.size(); i++ )
+			e.dependents.get( i ).valid = false;
+	}
+
+	/**
+	 * Finds the transform from one frame to another.
+	 *
+	 * @param from Name of the frame that points are transformed from.
+	 * @param to Name of the frame that points are transformed to.
+	 * @param result Storage for the transform.  Modified.
+	 * @return true if the frames are connected and false if there is no path between them.
+	 */
+	public boolean lookupTransform( String from, String to, T result ) {
+		Frame<T> a = lookupFrame( from );
+		Frame<T> b = lookupFrame( to );
+
+		if( a == b ) {
+			result.reset();
+			return true;
+		}
+
+		Composed<T> c = a.cache.get( b );
+		if( c == null ) {
+			c = findPath( a, b );
+			if( c == null )
+				return false;
+			a.cache.put( b, c );
+		}
+
+		if( !c.valid ) {
+			compose( c );
+			c.valid = true;
+		}
+		result.set( c.tran );
+		return true;
+	}
+
+	/**
+	 * Returns true if the transform between the two frames is cached and up to date
+	 */
+	boolean isCached( String from, String to ) {
+		Composed<T> c = lookupFrame( from ).cache.get( lookupFrame( to ) );
+		return c != null && c.valid;
+	}
+
+	private Frame<T> lookupFrame( String name ) {
+		Frame<T> f = frames.get( name );
+		if( f == null )
+			throw new IllegalArgumentException( "Unknown frame: " + name );
+		return f;
+	}
+
+	private Edge<T> findEdge( Frame<T> a, Frame<T> b ) {
+		for( int i = 0; i < a.edges.size(); i++ ) {
+			Edge<T> e = a.edges.get( i );
+			if( e.other( a ) == b )
+				return e;
+		}
+		return null;
+	}
+
+	/**
+	 * Breadth first search from 'a' to 'b'.  Creates an invalid composed transform which depends on all the
+	 * transforms in the path, or returns null if they are not connected.
+	 */
+	private Composed<T> findPath( Frame<T> a, Frame<T> b ) {
+		searchID++;
+		queue.clear();
+		queue.add( a );
+		a.searchID = searchID;
+		a.via = null;
+
+		boolean found = false;
+		for( int i = 0; i < queue.size() && !found; i++ ) {
+			Frame<T> f = queue.get( i );
+			for( int j = 0; j < f.edges.size(); j++ ) {
+				Edge<T> e = f.edges.get( j );
+				Frame<T> next = e.other( f );
+				if( next.searchID == searchID )
+					continue;
+				next.searchID = searchID;
+				next.via = e;
+				if( next == b ) {
+					found = true;
+					break;
+				}
+				queue.add( next );
+			}
+		}
+		queue.clear();
+		if( !found )
+			return null;
+
+		// walk backwards from the destination
+		Composed<T> c = new Composed<T>( work.createInstance() );
+		for( Frame<T> f = b; f != a; ) {
+			Edge<T> e = f.via;
+			c.path.add( 0, e );
+			c.forward.add( 0, e.dst == f );
+			e.dependents.add( c );
+			f = e.other( f );
+		}
+		return c;
+	}
+
+	/**
+	 * Computes the transform along the path.
+	 */
+	private void compose( Composed<T> c ) {
+		T tran = c.tran;
+
+		Edge<T> e = c.path.get( 0 );
+		if( c.forward.get( 0 ) )
+			tran.set( e.tran );
+		else
+			e.tran.invert( tran );
+
+		for( int i = 1; i < c.path.size(); i++ ) {
+			e = c.path.get( i );
+			if( c.forward.get( i ) ) {
+				tran.concat( e.tran, work );
+			} else {
+				e.tran.invert( inverse );
+				tran.concat( inverse, work );
+			}
+			tran.set( work );
+		}
+	}
+
+	private static class Frame<T> {
+		String name;
+		// transforms connected to this frame
+		List<Edge<T>> edges = new ArrayList<Edge<T>>();
+		// composed transforms from this frame to other frames
+		Map<Frame<T>, Composed<T>> cache = new HashMap<Frame<T>, Composed<T>>();
+
+		// breadth first search book keeping
+		int searchID;
+		Edge<T> via;
+
+		Frame( String name ) {
+			this.name = name;
+		}
+	}
+
+	private static class Edge<T> {
+		// transform from src to dst
+		Frame<T> src, dst;
+		T tran;
+		// composed transforms which use this transform
+		List<Composed<T>> dependents = new ArrayList<Composed<T>>();
+
+		Edge( Frame<T> src, Frame<T> dst, T tran ) {
+			this.src = src;
+			this.dst = dst;
+			this.tran = tran;
+		}
+
+		Frame<T> other( Frame<T> f ) {
+			return f == src ? dst : src;
+		}
+	}
+
+	private static class Composed<T> {
+		// transforms along the path and the direction each one is applied in
+		List<Edge<T>> path = new ArrayList<Edge<T>>();
+		List<Boolean> forward = new ArrayList<Boolean>();
+		// the composed transform and if it is up to date
+		T tran;
+		boolean valid;
+
+		Composed( T tran ) {
+			this.tran = tran;
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.sim;
+
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Vector2D_F32;
+import georegression.struct.se.Se2_F32;
+
+/**
+ * <p>
+ * A 2D similarity transform composed of a scale, rotation (yaw), and translation.  First the point is rotated and
+ * scaled, then translated:<br>
+ * <br>
+ * p' = scale*R(yaw)*p + tran
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Sim2_F32 implements InvertibleTransform<Sim2_F32> {
+
+	// the translational component
+	public Vector2D_F32 tran = new Vector2D_F32();
+
+	// scale factor.  Must be positive.
+	public float scale = 1;
+
+	// rotational component parameterized for speed
+	public float c = 1; // cos(yaw)
+	public float s; // sin(yaw)
+
+	public Sim2_F32( float scale, float x, float y, float yaw ) {
+		set( scale, x, y, yaw );
+	}
+
+	public Sim2_F32() {
+	}
+
+	public void set( float scale, float x, float y, float yaw ) {
+		this.scale = scale;
+		this.tran.set( x, y );
+		this.c = (float)Math.cos( yaw );
+		this.s = (float)Math.sin( yaw );
+	}
+
+	public void set( float scale, float x, float y, float cosYaw, float sinYaw ) {
+		this.scale = scale;
+		this.tran.set( x, y );
+		this.c = cosYaw;
+		this.s = sinYaw;
+	}
+
+	@Override
+	public void set( Sim2_F32 target ) {
+		this.scale = target.scale;
+		this.tran.set( target.tran );
+		this.c = target.c;
+		this.s = target.s;
+	}
+
+	/**
+	 * Assigns 'this' to a rigid body transform with a scale of one.
+	 */
+	public void set( Se2_F32 se ) {
+		set( 1, se.tran.x, se.tran.y, se.c, se.s );
+	}
+
+	public float getScale() {
+		return scale;
+	}
+
+	public void setScale( float scale ) {
+		this.scale = scale;
+	}
+
+	public float getX() {
+		return tran.x;
+	}
+
+	public float getY() {
+		return tran.y;
+	}
+
+	public Vector2D_F32 getTranslation() {
+		return tran;
+	}
+
+	public void setTranslation( float x, float y ) {
+		this.tran.set( x, y );
+	}
+
+	public float getYaw() {
+		return (float)Math.atan2( s, c );
+	}
+
+	public void setYaw( float yaw ) {
+		this.c = (float)Math.cos( yaw );
+		this.s = (float)Math.sin( yaw );
+	}
+
+	public float getCosineYaw() {
+		return c;
+	}
+
+	public float getSineYaw() {
+		return s;
+	}
+
+	@Override
+	public int getDimension() {
+		return 2;
+	}
+
+	@Override
+	public Sim2_F32 createInstance() {
+		return new Sim2_F32();
+	}
+
+	@Override
+	public Sim2_F32 concat( Sim2_F32 second, Sim2_F32 result ) {
+		if( result == null )
+			result = new Sim2_F32();
+
+		float x = tran.x, y = tran.y;
+		float c1 = c, s1 = s;
+		float ss = second.scale;
+
+		result.scale = ss*scale;
+		result.c = second.c*c1 - second.s*s1;
+		result.s = second.s*c1 + second.c*s1;
+		result.tran.x = second.tran.x + ss*( second.c*x - second.s*y );
+		result.tran.y = second.tran.y + ss*( second.s*x + second.c*y );
+
+		return result;
+	}
+
+	@Override
+	public Sim2_F32 invert( Sim2_F32 inverse ) {
+		if( inverse == null )
+			inverse = new Sim2_F32();
+
+		float x = -tran.x/scale;
+		float y = -tran.y/scale;
+		float c = this.c, s = this.s;
+
+		inverse.scale = 1.0f/scale;
+		inverse.s = -s;
+		inverse.c = c;
+		inverse.tran.x = c*x + s*y;
+		inverse.tran.y = -s*x + c*y;
+
+		return inverse;
+	}
+
+	@Override
+	public void reset() {
+		scale = 1;
+		c = 1;
+		s = 0;
+		tran.set( 0, 0 );
+	}
+
+	public Sim2_F32 copy() {
+		Sim2_F32 ret = new Sim2_F32();
+		ret.set( this );
+		return ret;
+	}
+
+	public String toString() {
+		return "Sim2( scale = " + scale + " x = " + tran.x + " y = " + tran.y + " yaw = " + getYaw() + " )";
+	}
+}
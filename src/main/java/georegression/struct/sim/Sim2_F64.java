@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.sim;
+
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Vector2D_F64;
+import georegression.struct.se.Se2_F64;
+
+/**
+ * <p>
+ * A 2D similarity transform composed of a scale, rotation (yaw), and translation.  First the point is rotated and
+ * scaled, then translated:<br>
+ * <br>
+ * p' = scale*R(yaw)*p + tran
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Sim2_F64 implements InvertibleTransform<Sim2_F64> {
+
+	// the translational component
+	public Vector2D_F64 tran = new Vector2D_F64();
+
+	// scale factor.  Must be positive.
+	public double scale = 1;
+
+	// rotational component parameterized for speed
+	public double c = 1; // cos(yaw)
+	public double s; // sin(yaw)
+
+	public Sim2_F64( double scale, double x, double y, double yaw ) {
+		set( scale, x, y, yaw );
+	}
+
+	public Sim2_F64() {
+	}
+
+	public void set( double scale, double x, double y, double yaw ) {
+		this.scale = scale;
+		this.tran.set( x, y );
+		this.c = Math.cos( yaw );
+		this.s = Math.sin( yaw );
+	}
+
+	public void set( double scale, double x, double y, double cosYaw, double sinYaw ) {
+		this.scale = scale;
+		this.tran.set( x, y );
+		this.c = cosYaw;
+		this.s = sinYaw;
+	}
+
+	@Override
+	public void set( Sim2_F64 target ) {
+		this.scale = target.scale;
+		this.tran.set( target.tran );
+		this.c = target.c;
+		this.s = target.s;
+	}
+
+	/**
+	 * Assigns 'this' to a rigid body transform with a scale of one.
+	 */
+	public void set( Se2_F64 se ) {
+		set( 1, se.tran.x, se.tran.y, se.c, se.s );
+	}
+
+	public double getScale() {
+		return scale;
+	}
+
+	public void setScale( double scale ) {
+		this.scale = scale;
+	}
+
+	public double getX() {
+		return tran.x;
+	}
+
+	public double getY() {
+		return tran.y;
+	}
+
+	public Vector2D_F64 getTranslation() {
+		return tran;
+	}
+
+	public void setTranslation( double x, double y ) {
+		this.tran.set( x, y );
+	}
+
+	public double getYaw() {
+		return Math.atan2( s, c );
+	}
+
+	public void setYaw( double yaw ) {
+		this.c = Math.cos( yaw );
+		this.s = Math.sin( yaw );
+	}
+
+	public double getCosineYaw() {
+		return c;
+	}
+
+	public double getSineYaw() {
+		return s;
+	}
+
+	@Override
+	public int getDimension() {
+		return 2;
+	}
+
+	@Override
+	public Sim2_F64 createInstance() {
+		return new Sim2_F64();
+	}
+
+	@Override
+	public Sim2_F64 concat( Sim2_F64 second, Sim2_F64 result ) {
+		if( result == null )
+			result = new Sim2_F64();
+
+		double x = tran.x, y = tran.y;
+		double c1 = c, s1 = s;
+		double ss = second.scale;
+
+		result.scale = ss*scale;
+		result.c = second.c*c1 - second.s*s1;
+		result.s = second.s*c1 + second.c*s1;
+		result.tran.x = second.tran.x + ss*( second.c*x - second.s*y );
+		result.tran.y = second.tran.y + ss*( second.s*x + second.c*y );
+
+		return result;
+	}
+
+	@Override
+	public Sim2_F64 invert( Sim2_F64 inverse ) {
+		if( inverse == null )
+			inverse = new Sim2_F64();
+
+		double x = -tran.x/scale;
+		double y = -tran.y/scale;
+		double c = this.c, s = this.s;
+
+		inverse.scale = 1.0/scale;
+		inverse.s = -s;
+		inverse.c = c;
+		inverse.tran.x = c*x + s*y;
+		inverse.tran.y = -s*x + c*y;
+
+		return inverse;
+	}
+
+	@Override
+	public void reset() {
+		scale = 1;
+		c = 1;
+		s = 0;
+		tran.set( 0, 0 );
+	}
+
+	public Sim2_F64 copy() {
+		Sim2_F64 ret = new Sim2_F64();
+		ret.set( this );
+		return ret;
+	}
+
+	public String toString() {
+		return "Sim2( scale = " + scale + " x = " + tran.x + " y = " + tran.y + " yaw = " + getYaw() + " )";
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.sim;
+
+import georegression.geometry.GeometryMath_F64;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+
+
+/**
+ * <p>
+ * A 3D similarity transform composed of a scale, rotation, and translation.  First the point is rotated and
+ * scaled, then translated:<br>
+ * <br>
+ * p' = scale*R*p + T
+ * </p>
+ *
+ * <p>
+ * Commonly used to align trajectories or maps whose scale is unknown, such as those produced by monocular SLAM.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Sim3_F64 implements InvertibleTransform<Sim3_F64> {
+	// scale factor.  Must be positive.
+	public double scale;
+	// rotation matrix
+	public DenseMatrix64F R;
+	// translation vector
+	public Vector3D_F64 T;
+
+	/**
+	 * Creates a new transform that does nothing.
+	 */
+	public Sim3_F64() {
+		scale = 1;
+		R = CommonOps.identity( 3 );
+		T = new Vector3D_F64();
+	}
+
+	/**
+	 * Initializes the transform with a copy of the provided rotation and translation.
+	 *
+	 * @param scale Scale factor.
+	 * @param R Rotation matrix.
+	 * @param T Translation.
+	 */
+	public Sim3_F64( double scale, DenseMatrix64F R, Vector3D_F64 T ) {
+		this.scale = scale;
+		this.R = R.copy();
+		this.T = T.copy();
+	}
+
+	/**
+	 * Set's 'this' to be identical to the provided transform.
+	 *
+	 * @param sim The transform that is being copied.
+	 */
+	@Override
+	public void set( Sim3_F64 sim ) {
+		scale = sim.scale;
+		R.set( sim.R );
+		T.set( sim.T );
+	}
+
+	/**
+	 * Assigns 'this' to a rigid body transform with a scale of one.
+	 *
+	 * @param se The transform that is being copied.
+	 */
+	public void set( Se3_F64 se ) {
+		scale = 1;
+		R.set( se.R );
+		T.set( se.T );
+	}
+
+	public double getScale() {
+		return scale;
+	}
+
+	public void setScale( double scale ) {
+		this.scale = scale;
+	}
+
+	public DenseMatrix64F getR() {
+		return R;
+	}
+
+	public void setRotation( DenseMatrix64F R ) {
+		this.R.set( R );
+	}
+
+	public Vector3D_F64 getT() {
+		return T;
+	}
+
+	public void setTranslation( double x, double y, double z ) {
+		this.T.set( x, y, z );
+	}
+
+	@Override
+	public int getDimension() {
+		return 3;
+	}
+
+	@Override
+	public Sim3_F64 createInstance() {
+		return new Sim3_F64();
+	}
+
+	@Override
+	public Sim3_F64 concat( Sim3_F64 second, Sim3_F64 result ) {
+		if( result == null )
+			result = new Sim3_F64();
+
+		// s2*R2*(s1*R1*p + T1) + T2
+		result.scale = second.scale*scale;
+		CommonOps.mult( second.R, R, result.R );
+		GeometryMath_F64.mult( second.R, T, result.T );
+		GeometryMath_F64.scale( result.T, second.scale );
+		GeometryMath_F64.add( second.T, result.T, result.T );
+
+		return result;
+	}
+
+	@Override
+	public Sim3_F64 invert( Sim3_F64 inverse ) {
+		if( inverse == null )
+			inverse = new Sim3_F64();
+
+		// p = (1/s)*R^T*p' - (1/s)*R^T*T
+		inverse.scale = 1.0/scale;
+		GeometryMath_F64.multTran( R, T, inverse.T );
+		GeometryMath_F64.scale( inverse.T, -inverse.scale );
+		CommonOps.transpose( R, inverse.R );
+
+		return inverse;
+	}
+
+	@Override
+	public void reset() {
+		scale = 1;
+		CommonOps.setIdentity( R );
+		T.set( 0, 0, 0 );
+	}
+
+	public Sim3_F64 copy() {
+		Sim3_F64 ret = new Sim3_F64();
+		ret.set( this );
+
+		return ret;
+	}
+
+	public String toString() {
+		return "Sim3( scale = " + scale + " T = " + T + " )";
+	}
+}
@@ -23,4 +23,57 @@ package georegression.struct.so;
  * @author Peter Abeles
  */
 public class SpecialOrthogonalOps {
+
+	/**
+	 * <p>
+	 * Spherical linear interpolation (SLERP) between two unit quaternions.  The interpolation follows the
+	 * shortest arc between the two rotations at a constant angular rate.
+	 * </p>
+	 *
+	 * @param a Rotation at t = 0.  Not modified.
+	 * @param b Rotation at t = 1.  Not modified.
+	 * @param t Interpolation parameter, from 0 to 1.
+	 * @param result Storage for the interpolated rotation.  Can be the same instance as 'a' or 'b'.
+	 *               If null a new instance is declared.  Modified.
+	 * @return The interpolated rotation.
+	 */
+	public static Quaternion slerp( Quaternion a, Quaternion b, double t, Quaternion result ) {
+		if( result == null )
+			result = new Quaternion();
+
+		double dot = a.q1*b.q1 + a.q2*b.q2 + a.q3*b.q3 + a.q4*b.q4;
+
+		// q and -q are the same rotation, pick the one which is closest
+		double sign = 1;
+		if( dot < 0 ) {
+			dot = -dot;
+			sign = -1;
+		}
+
+		double wa, wb;
+		if( dot > 0.9995 ) {
+			// nearly the same rotation, linear interpolation is more stable
+			wa = 1.0 - t;
+			wb = t;
+		} else {
+			double theta = Math.acos( dot );
+			double sinTheta = Math.sin( theta );
+			wa = Math.sin( ( 1.0 - t )*theta )/sinTheta;
+			wb = Math.sin( t*theta )/sinTheta;
+		}
+		wb *= sign;
+
+		double q1 = wa*a.q1 + wb*b.q1;
+		double q2 = wa*a.q2 + wb*b.q2;
+		double q3 = wa*a.q3 + wb*b.q3;
+		double q4 = wa*a.q4 + wb*b.q4;
+
+		result.q1 = q1;
+		result.q2 = q2;
+		result.q3 = q3;
+		result.q4 = q4;
+		result.normalize();
+
+		return result;
+	}
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.transform;
+
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.homo.Homography2D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.transform.affine.AffinePointOps;
+import georegression.transform.homo.HomographyPointOps;
+import georegression.transform.se.SePointOps_F32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Applies a transform to a large buffer of interleaved points in parallel.  The buffer is split into chunks
+ * of a fixed number of points, which are transformed using the bulk functions in {@link SePointOps_F32},
+ * {@link AffinePointOps}, and {@link HomographyPointOps}.  Chunks should be small enough for the input and output
+ * of a chunk to fit inside the cache.  Buffers with fewer points than the sequential threshold are transformed in
+ * the calling thread, where the overhead of scheduling chunks would dominate.
+ * </p>
+ *
+ * <p>
+ * The throughput of the last call is available from {@link #getPointsPerSecond()}.  Each chunk
+ * is an independent task that is reused between calls.  Submitting the chunks to the executor still declares a
+ * small amount of memory for bookkeeping each call, which is insignificant compared to the work done.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TransformPointsParallel_F32 {
+
+	// executes chunks of points
+	private ExecutorService executor;
+	// number of points in each chunk
+	private int chunkSize;
+	// buffers with fewer points than this are processed in the calling thread
+	private int sequentialThreshold;
+
+	// one task for each chunk.  Grows as needed.
+	private List<Chunk> chunks = new ArrayList<Chunk>();
+
+	// statistics from the last call
+	private int lastCount;
+	private long lastElapsedNano;
+
+	/**
+	 * Configures the executor.
+	 *
+	 * @param executor Executes chunks of points.  If null everything is done in the calling thread.
+	 * @param chunkSize Number of points in each chunk.  Try 16384
+	 * @param sequentialThreshold Buffers with fewer points than this are processed in the calling thread.
+	 */
+	public TransformPointsParallel_F32( ExecutorService executor, int chunkSize, int sequentialThreshold ) {
+		this.executor = executor;
+		setChunkSize( chunkSize );
+		this.sequentialThreshold = sequentialThreshold;
+	}
+
+	/**
+	 * Uses a chunk size of 16384 points and the same sequential threshold.
+	 */
+	public TransformPointsParallel_F32( ExecutorService executor ) {
+		this( executor, 16384, 16384 );
+	}
+
+	/**
+	 * Applies a 3D rigid body transform to interleaved points.  See
+	 * {@link SePointOps_F32#transform(Se3_F32, float[], int, int, float[], int, int, int)} for a description of
+	 * the parameters.
+	 */
+	public void transform( Se3_F32 se, float src[], int srcOffset, int srcStride,
+						   float dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 3 || dstStride < 3 )
+			throw new IllegalArgumentException( "Stride must be at least 3" );
+
+		int numChunks = declareChunks( src, srcOffset, srcStride, dst, dstOffset, dstStride, count );
+		for( int i = 0; i < numChunks; i++ ) {
+			chunks.get( i ).se = se;
+		}
+		execute( numChunks, count );
+	}
+
+	/**
+	 * Applies a 2D affine transform to interleaved points.  See
+	 * {@link AffinePointOps#transform(Affine2D_F32, float[], int, int, float[], int, int, int)} for a description
+	 * of the parameters.
+	 */
+	public void transform( Affine2D_F32 affine, float src[], int srcOffset, int srcStride,
+						   float dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 2 || dstStride < 2 )
+			throw new IllegalArgumentException( "Stride must be at least 2" );
+
+		int numChunks = declareChunks( src, srcOffset, srcStride, dst, dstOffset, dstStride, count );
+		for( int i = 0; i < numChunks; i++ ) {
+			chunks.get( i ).affine = affine;
+		}
+		execute( numChunks, count );
+	}
+
+	/**
+	 * Applies a 2D homography to interleaved points.  See
+	 * {@link HomographyPointOps#transform(Homography2D_F32, float[], int, int, float[], int, int, int)} for a
+	 * description of the parameters.
+	 */
+	public void transform( Homography2D_F32 homography, float src[], int srcOffset, int srcStride,
+						   float dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 2 || dstStride < 2 )
+			throw new IllegalArgumentException( "Stride must be at least 2" );
+
+		int numChunks = declareChunks( src, srcOffset, srcStride, dst, dstOffset, dstStride, count );
+		for( int i = 0; i < numChunks; i++ ) {
+			chunks.get( i ).homography = homography;
+		}
+		execute( numChunks, count );
+	}
+
+	/**
+	 * Splits the buffer into chunks.  When processed sequentially there is a single chunk.
+	 *
+	 * @return number of chunks
+	 */
+	private int declareChunks( float src[], int srcOffset, int srcStride,
+							   float dst[], int dstOffset, int dstStride, int count ) {
+		int numChunks;
+		int size;
+		if( executor == null || count < sequentialThreshold || count <= chunkSize ) {
+			numChunks = 1;
+			size = count;
+		} else {
+			numChunks = ( count + chunkSize - 1 )/chunkSize;
+			size = chunkSize;
+		}
+
+		while( chunks.size() < numChunks )
+			chunks.add( new Chunk() );
+
+		for( int i = 0; i < numChunks; i++ ) {
+			Chunk c = chunks.get( i );
+			int first = i*size;
+			c.src = src;
+			c.dst = dst;
+			c.srcOffset = srcOffset + first*srcStride;
+			c.dstOffset = dstOffset + first*dstStride;
+			c.srcStride = srcStride;
+			c.dstStride = dstStride;
+			c.count = i == numChunks - 1 ? count - first : size;
+		}
+		return numChunks;
+	}
+
+	/**
+	 * Transforms all the chunks and records how long it took
+	 */
+	private void execute( int numChunks, int count ) {
+		long before = System.nanoTime();
+		try {
+			if( numChunks == 1 ) {
+				chunks.get( 0 ).call();
+			} else {
+				for( Future<Object> f : executor.invokeAll( chunks.subList( 0, numChunks ) ) )
+					f.get();
+			}
+		} catch( InterruptedException e ) {
+			throw new RuntimeException( e );
+		} catch( ExecutionException e ) {
+			throw new RuntimeException( e.getCause() );
+		} finally {
+			// don't hold onto references to the caller's data
+			for( int i = 0; i < chunks.size(); i++ ) {
+				Chunk c = chunks.get( i );
+				c.src = c.dst = null;
+				c.se = null;
+				c.affine = null;
+				c.homography = null;
+			}
+		}
+		lastElapsedNano = System.nanoTime() - before;
+		lastCount = count;
+	}
+
+	/**
+	 * Number of points transformed per second in the last call.
+	 */
+	public /**/double getPointsPerSecond() {
+		if( lastElapsedNano <= 0 )
+			return 0;
+		return lastCount*1e9/lastElapsedNano;
+	}
+
+	/**
+	 * How long the last call took in nanoseconds
+	 */
+	public long getElapsedNano() {
+		return lastElapsedNano;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public void setChunkSize( int chunkSize ) {
+		if( chunkSize < 1 )
+			throw new IllegalArgumentException( "Chunk size must be at least one" );
+		this.chunkSize = chunkSize;
+	}
+
+	public int getSequentialThreshold() {
+		return sequentialThreshold;
+	}
+
+	public void setSequentialThreshold( int sequentialThreshold ) {
+		this.sequentialThreshold = sequentialThreshold;
+	}
+
+	/**
+	 * Transforms a contiguous range of points using whichever transform has been set
+	 */
+	private static class Chunk implements Callable<Object> {
+		Se3_F32 se;
+		Affine2D_F32 affine;
+		Homography2D_F32 homography;
+
+		float src[], dst[];
+		int srcOffset, srcStride, dstOffset, dstStride, count;
+
+		@Override
+		public Object call() {
+			if( se != null )
+				SePointOps_F32.transform( se, src, srcOffset, srcStride, dst, dstOffset, dstStride, count );
+			else if( affine != null )
+				AffinePointOps.transform( affine, src, srcOffset, srcStride, dst, dstOffset, dstStride, count );
+			else
+				HomographyPointOps.transform( homography, src, srcOffset, srcStride, dst, dstOffset, dstStride, count );
+			return null;
+		}
+	}
+}
@@ -154,4 +154,134 @@ public class AffinePointOps {
 
 		return result;
 	}
+
+	/**
+	 * <p>
+	 * Applies a 2D affine transform to points which are stored in an interleaved array, e.g. (x0,y0,x1,y1,...).
+	 * Point 'i' is read from src[srcOffset + i*srcStride] and written to dst[dstOffset + i*dstStride].  The
+	 * transform is copied into local variables before the loop.
+	 * </p>
+	 *
+	 * <p>
+	 * The transform can be done in-place by passing in the same array, offset, and stride for the input and
+	 * output.  Otherwise the input and output regions must not overlap.
+	 * </p>
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param src Array containing the original points.  Not modified unless it's also dst.
+	 * @param srcOffset Index of the first point's x-coordinate in src.
+	 * @param srcStride Number of elements between consecutive points in src.  Must be at least 2.
+	 * @param dst Array which the transformed points are written into.  Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst.
+	 * @param dstStride Number of elements between consecutive points in dst.  Must be at least 2.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Affine2D_F32 se, float src[], int srcOffset, int srcStride,
+								  float dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 2 || dstStride < 2 )
+			throw new IllegalArgumentException( "Stride must be at least 2" );
+
+		final float a11 = se.a11, a12 = se.a12, a21 = se.a21, a22 = se.a22;
+		final float tx = se.tx, ty = se.ty;
+
+		for( int i = 0, si = srcOffset, di = dstOffset; i < count; i++, si += srcStride, di += dstStride ) {
+			float x = src[si];
+			float y = src[si+1];
+
+			dst[di]   = tx + a11*x + a12*y;
+			dst[di+1] = ty + a21*x + a22*y;
+		}
+	}
+
+	/**
+	 * Applies a 2D affine transform to points which are stored in separate arrays for each coordinate.  The
+	 * transform can be done in-place by passing in the same arrays and offset for the input and output.
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param srcX x-coordinates of the original points.  Not modified unless it's also dstX.
+	 * @param srcY y-coordinates of the original points.  Not modified unless it's also dstY.
+	 * @param srcOffset Index of the first point in the input arrays.
+	 * @param dstX Array which the transformed x-coordinates are written into.  Modified.
+	 * @param dstY Array which the transformed y-coordinates are written into.  Modified.
+	 * @param dstOffset Index of the first point in the output arrays.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Affine2D_F32 se, float srcX[], float srcY[], int srcOffset,
+								  float dstX[], float dstY[], int dstOffset, int count ) {
+		final float a11 = se.a11, a12 = se.a12, a21 = se.a21, a22 = se.a22;
+		final float tx = se.tx, ty = se.ty;
+
+		for( int i = 0; i < count; i++ ) {
+			float x = srcX[srcOffset + i];
+			float y = srcY[srcOffset + i];
+
+			dstX[dstOffset + i] = tx + a11*x + a12*y;
+			dstY[dstOffset + i] = ty + a21*x + a22*y;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D affine transform to points which are stored in an interleaved array, e.g. (x0,y0,x1,y1,...).
+	 * Point 'i' is read from src[srcOffset + i*srcStride] and written to dst[dstOffset + i*dstStride].  The
+	 * transform is copied into local variables before the loop.
+	 * </p>
+	 *
+	 * <p>
+	 * The transform can be done in-place by passing in the same array, offset, and stride for the input and
+	 * output.  Otherwise the input and output regions must not overlap.
+	 * </p>
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param src Array containing the original points.  Not modified unless it's also dst.
+	 * @param srcOffset Index of the first point's x-coordinate in src.
+	 * @param srcStride Number of elements between consecutive points in src.  Must be at least 2.
+	 * @param dst Array which the transformed points are written into.  Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst.
+	 * @param dstStride Number of elements between consecutive points in dst.  Must be at least 2.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Affine2D_F64 se, double src[], int srcOffset, int srcStride,
+								  double dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 2 || dstStride < 2 )
+			throw new IllegalArgumentException( "Stride must be at least 2" );
+
+		final double a11 = se.a11, a12 = se.a12, a21 = se.a21, a22 = se.a22;
+		final double tx = se.tx, ty = se.ty;
+
+		for( int i = 0, si = srcOffset, di = dstOffset; i < count; i++, si += srcStride, di += dstStride ) {
+			double x = src[si];
+			double y = src[si+1];
+
+			dst[di]   = tx + a11*x + a12*y;
+			dst[di+1] = ty + a21*x + a22*y;
+		}
+	}
+
+	/**
+	 * Applies a 2D affine transform to points which are stored in separate arrays for each coordinate.  The
+	 * transform can be done in-place by passing in the same arrays and offset for the input and output.
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param srcX x-coordinates of the original points.  Not modified unless it's also dstX.
+	 * @param srcY y-coordinates of the original points.  Not modified unless it's also dstY.
+	 * @param srcOffset Index of the first point in the input arrays.
+	 * @param dstX Array which the transformed x-coordinates are written into.  Modified.
+	 * @param dstY Array which the transformed y-coordinates are written into.  Modified.
+	 * @param dstOffset Index of the first point in the output arrays.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Affine2D_F64 se, double srcX[], double srcY[], int srcOffset,
+								  double dstX[], double dstY[], int dstOffset, int count ) {
+		final double a11 = se.a11, a12 = se.a12, a21 = se.a21, a22 = se.a22;
+		final double tx = se.tx, ty = se.ty;
+
+		for( int i = 0; i < count; i++ ) {
+			double x = srcX[srcOffset + i];
+			double y = srcY[srcOffset + i];
+
+			dstX[dstOffset + i] = tx + a11*x + a12*y;
+			dstY[dstOffset + i] = ty + a21*x + a22*y;
+		}
+	}
 }
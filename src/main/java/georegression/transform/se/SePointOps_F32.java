@@ -203,4 +203,149 @@ public class SePointOps_F32 {
 
 		return tranPt;
 	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform to points which are stored in an interleaved array, e.g.
+	 * (x0,y0,x1,y1,...).  Point 'i' is read from src[srcOffset + i*srcStride] and written to
+	 * dst[dstOffset + i*dstStride].  The transform is copied into local variables before the loop.
+	 * </p>
+	 *
+	 * <p>
+	 * The transform can be done in-place by passing in the same array, offset, and stride for the input and
+	 * output.  Otherwise the input and output regions must not overlap.
+	 * </p>
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param src Array containing the original points.  Not modified unless it's also dst.
+	 * @param srcOffset Index of the first point's x-coordinate in src.
+	 * @param srcStride Number of elements between consecutive points in src.  Must be at least 2.
+	 * @param dst Array which the transformed points are written into.  Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst.
+	 * @param dstStride Number of elements between consecutive points in dst.  Must be at least 2.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Se2_F32 se, float src[], int srcOffset, int srcStride,
+								  float dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 2 || dstStride < 2 )
+			throw new IllegalArgumentException( "Stride must be at least 2" );
+
+		final float tx = se.tran.x, ty = se.tran.y;
+		final float c = se.c, s = se.s;
+
+		for( int i = 0, si = srcOffset, di = dstOffset; i < count; i++, si += srcStride, di += dstStride ) {
+			float x = src[si];
+			float y = src[si+1];
+
+			dst[di]   = tx + x*c - y*s;
+			dst[di+1] = ty + x*s + y*c;
+		}
+	}
+
+	/**
+	 * Applies a 2D special euclidean transform to points which are stored in separate arrays for each
+	 * coordinate.  The transform can be done in-place by passing in the same arrays and offset for the input
+	 * and output.
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param srcX x-coordinates of the original points.  Not modified unless it's also dstX.
+	 * @param srcY y-coordinates of the original points.  Not modified unless it's also dstY.
+	 * @param srcOffset Index of the first point in the input arrays.
+	 * @param dstX Array which the transformed x-coordinates are written into.  Modified.
+	 * @param dstY Array which the transformed y-coordinates are written into.  Modified.
+	 * @param dstOffset Index of the first point in the output arrays.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Se2_F32 se, float srcX[], float srcY[], int srcOffset,
+								  float dstX[], float dstY[], int dstOffset, int count ) {
+		final float tx = se.tran.x, ty = se.tran.y;
+		final float c = se.c, s = se.s;
+
+		for( int i = 0; i < count; i++ ) {
+			float x = srcX[srcOffset + i];
+			float y = srcY[srcOffset + i];
+
+			dstX[dstOffset + i] = tx + x*c - y*s;
+			dstY[dstOffset + i] = ty + x*s + y*c;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform to points which are stored in an interleaved array, e.g.
+	 * (x0,y0,z0,x1,y1,z1,...).  Point 'i' is read from src[srcOffset + i*srcStride] and written to
+	 * dst[dstOffset + i*dstStride].  The rotation matrix and translation are copied into local variables before
+	 * the loop, instead of being read from the matrix for every point.
+	 * </p>
+	 *
+	 * <p>
+	 * The transform can be done in-place by passing in the same array, offset, and stride for the input and
+	 * output.  Otherwise the input and output regions must not overlap.
+	 * </p>
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param src Array containing the original points.  Not modified unless it's also dst.
+	 * @param srcOffset Index of the first point's x-coordinate in src.
+	 * @param srcStride Number of elements between consecutive points in src.  Must be at least 3.
+	 * @param dst Array which the transformed points are written into.  Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst.
+	 * @param dstStride Number of elements between consecutive points in dst.  Must be at least 3.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Se3_F32 se, float src[], int srcOffset, int srcStride,
+								  float dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 3 || dstStride < 3 )
+			throw new IllegalArgumentException( "Stride must be at least 3" );
+
+		final /**/double R[] = se.R.data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+		final float tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		for( int i = 0, si = srcOffset, di = dstOffset; i < count; i++, si += srcStride, di += dstStride ) {
+			float x = src[si];
+			float y = src[si+1];
+			float z = src[si+2];
+
+			dst[di]   = r11*x + r12*y + r13*z + tx;
+			dst[di+1] = r21*x + r22*y + r23*z + ty;
+			dst[di+2] = r31*x + r32*y + r33*z + tz;
+		}
+	}
+
+	/**
+	 * Applies a 3D special euclidean transform to points which are stored in separate arrays for each
+	 * coordinate.  The transform can be done in-place by passing in the same arrays and offset for the input
+	 * and output.
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param srcX x-coordinates of the original points.  Not modified unless it's also dstX.
+	 * @param srcY y-coordinates of the original points.  Not modified unless it's also dstY.
+	 * @param srcZ z-coordinates of the original points.  Not modified unless it's also dstZ.
+	 * @param srcOffset Index of the first point in the input arrays.
+	 * @param dstX Array which the transformed x-coordinates are written into.  Modified.
+	 * @param dstY Array which the transformed y-coordinates are written into.  Modified.
+	 * @param dstZ Array which the transformed z-coordinates are written into.  Modified.
+	 * @param dstOffset Index of the first point in the output arrays.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Se3_F32 se, float srcX[], float srcY[], float srcZ[], int srcOffset,
+								  float dstX[], float dstY[], float dstZ[], int dstOffset, int count ) {
+		final /**/double R[] = se.R.data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+		final float tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		for( int i = 0; i < count; i++ ) {
+			float x = srcX[srcOffset + i];
+			float y = srcY[srcOffset + i];
+			float z = srcZ[srcOffset + i];
+
+			dstX[dstOffset + i] = r11*x + r12*y + r13*z + tx;
+			dstY[dstOffset + i] = r21*x + r22*y + r23*z + ty;
+			dstZ[dstOffset + i] = r31*x + r32*y + r33*z + tz;
+		}
+	}
 }
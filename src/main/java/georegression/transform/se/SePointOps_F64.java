@@ -203,4 +203,149 @@ public class SePointOps_F64 {
 
 		return tranPt;
 	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform to points which are stored in an interleaved array, e.g.
+	 * (x0,y0,x1,y1,...).  Point 'i' is read from src[srcOffset + i*srcStride] and written to
+	 * dst[dstOffset + i*dstStride].  The transform is copied into local variables before the loop.
+	 * </p>
+	 *
+	 * <p>
+	 * The transform can be done in-place by passing in the same array, offset, and stride for the input and
+	 * output.  Otherwise the input and output regions must not overlap.
+	 * </p>
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param src Array containing the original points.  Not modified unless it's also dst.
+	 * @param srcOffset Index of the first point's x-coordinate in src.
+	 * @param srcStride Number of elements between consecutive points in src.  Must be at least 2.
+	 * @param dst Array which the transformed points are written into.  Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst.
+	 * @param dstStride Number of elements between consecutive points in dst.  Must be at least 2.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Se2_F64 se, double src[], int srcOffset, int srcStride,
+								  double dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 2 || dstStride < 2 )
+			throw new IllegalArgumentException( "Stride must be at least 2" );
+
+		final double tx = se.tran.x, ty = se.tran.y;
+		final double c = se.c, s = se.s;
+
+		for( int i = 0, si = srcOffset, di = dstOffset; i < count; i++, si += srcStride, di += dstStride ) {
+			double x = src[si];
+			double y = src[si+1];
+
+			dst[di]   = tx + x*c - y*s;
+			dst[di+1] = ty + x*s + y*c;
+		}
+	}
+
+	/**
+	 * Applies a 2D special euclidean transform to points which are stored in separate arrays for each
+	 * coordinate.  The transform can be done in-place by passing in the same arrays and offset for the input
+	 * and output.
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param srcX x-coordinates of the original points.  Not modified unless it's also dstX.
+	 * @param srcY y-coordinates of the original points.  Not modified unless it's also dstY.
+	 * @param srcOffset Index of the first point in the input arrays.
+	 * @param dstX Array which the transformed x-coordinates are written into.  Modified.
+	 * @param dstY Array which the transformed y-coordinates are written into.  Modified.
+	 * @param dstOffset Index of the first point in the output arrays.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Se2_F64 se, double srcX[], double srcY[], int srcOffset,
+								  double dstX[], double dstY[], int dstOffset, int count ) {
+		final double tx = se.tran.x, ty = se.tran.y;
+		final double c = se.c, s = se.s;
+
+		for( int i = 0; i < count; i++ ) {
+			double x = srcX[srcOffset + i];
+			double y = srcY[srcOffset + i];
+
+			dstX[dstOffset + i] = tx + x*c - y*s;
+			dstY[dstOffset + i] = ty + x*s + y*c;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform to points which are stored in an interleaved array, e.g.
+	 * (x0,y0,z0,x1,y1,z1,...).  Point 'i' is read from src[srcOffset + i*srcStride] and written to
+	 * dst[dstOffset + i*dstStride].  The rotation matrix and translation are copied into local variables before
+	 * the loop, instead of being read from the matrix for every point.
+	 * </p>
+	 *
+	 * <p>
+	 * The transform can be done in-place by passing in the same array, offset, and stride for the input and
+	 * output.  Otherwise the input and output regions must not overlap.
+	 * </p>
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param src Array containing the original points.  Not modified unless it's also dst.
+	 * @param srcOffset Index of the first point's x-coordinate in src.
+	 * @param srcStride Number of elements between consecutive points in src.  Must be at least 3.
+	 * @param dst Array which the transformed points are written into.  Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst.
+	 * @param dstStride Number of elements between consecutive points in dst.  Must be at least 3.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Se3_F64 se, double src[], int srcOffset, int srcStride,
+								  double dst[], int dstOffset, int dstStride, int count ) {
+		if( srcStride < 3 || dstStride < 3 )
+			throw new IllegalArgumentException( "Stride must be at least 3" );
+
+		final /**/double R[] = se.R.data;
+		final double r11 = (double)R[0], r12 = (double)R[1], r13 = (double)R[2];
+		final double r21 = (double)R[3], r22 = (double)R[4], r23 = (double)R[5];
+		final double r31 = (double)R[6], r32 = (double)R[7], r33 = (double)R[8];
+		final double tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		for( int i = 0, si = srcOffset, di = dstOffset; i < count; i++, si += srcStride, di += dstStride ) {
+			double x = src[si];
+			double y = src[si+1];
+			double z = src[si+2];
+
+			dst[di]   = r11*x + r12*y + r13*z + tx;
+			dst[di+1] = r21*x + r22*y + r23*z + ty;
+			dst[di+2] = r31*x + r32*y + r33*z + tz;
+		}
+	}
+
+	/**
+	 * Applies a 3D special euclidean transform to points which are stored in separate arrays for each
+	 * coordinate.  The transform can be done in-place by passing in the same arrays and offset for the input
+	 * and output.
+	 *
+	 * @param se The transform.  Not modified.
+	 * @param srcX x-coordinates of the original points.  Not modified unless it's also dstX.
+	 * @param srcY y-coordinates of the original points.  Not modified unless it's also dstY.
+	 * @param srcZ z-coordinates of the original points.  Not modified unless it's also dstZ.
+	 * @param srcOffset Index of the first point in the input arrays.
+	 * @param dstX Array which the transformed x-coordinates are written into.  Modified.
+	 * @param dstY Array which the transformed y-coordinates are written into.  Modified.
+	 * @param dstZ Array which the transformed z-coordinates are written into.  Modified.
+	 * @param dstOffset Index of the first point in the output arrays.
+	 * @param count Number of points which are transformed.
+	 */
+	public static void transform( Se3_F64 se, double srcX[], double srcY[], double srcZ[], int srcOffset,
+								  double dstX[], double dstY[], double dstZ[], int dstOffset, int count ) {
+		final /**/double R[] = se.R.data;
+		final double r11 = (double)R[0], r12 = (double)R[1], r13 = (double)R[2];
+		final double r21 = (double)R[3], r22 = (double)R[4], r23 = (double)R[5];
+		final double r31 = (double)R[6], r32 = (double)R[7], r33 = (double)R[8];
+		final double tx = se.T.x, ty = se.T.y, tz = se.T.z;
+
+		for( int i = 0; i < count; i++ ) {
+			double x = srcX[srcOffset + i];
+			double y = srcY[srcOffset + i];
+			double z = srcZ[srcOffset + i];
+
+			dstX[dstOffset + i] = r11*x + r12*y + r13*z + tx;
+			dstY[dstOffset + i] = r21*x + r22*y + r23*z + ty;
+			dstZ[dstOffset + i] = r31*x + r32*y + r33*z + tz;
+		}
+	}
 }
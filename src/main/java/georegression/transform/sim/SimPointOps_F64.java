@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.transform.sim;
+
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.sim.Sim2_F64;
+import georegression.struct.sim.Sim3_F64;
+
+/**
+ * Functions for applying similarity transforms to points.
+ *
+ * @author Peter Abeles
+ */
+public class SimPointOps_F64 {
+
+	/**
+	 * Applies a 2D similarity transform to the point.  p' = scale*R*p + T
+	 *
+	 * @param sim The transform.  Not modified.
+	 * @param orig Original point being transformed. Not modified.
+	 * @param result Where the results are stored.  Can be the same as orig. If null a new
+	 *               instance is created. Modified.
+	 * @return Transformed point.
+	 */
+	public static Point2D_F64 transform( Sim2_F64 sim, Point2D_F64 orig, Point2D_F64 result ) {
+		if( result == null ) {
+			result = new Point2D_F64();
+		}
+
+		final double c = sim.scale*sim.c;
+		final double s = sim.scale*sim.s;
+
+		// copy the values so that no errors happen if orig and result are the same instance
+		double x = orig.x;
+		double y = orig.y;
+
+		result.x = sim.tran.x + x*c - y*s;
+		result.y = sim.tran.y + x*s + y*c;
+
+		return result;
+	}
+
+	/**
+	 * Applies the inverse of a 2D similarity transform to the point.  p = (1/scale)*R<sup>T</sup>*(p' - T)
+	 *
+	 * @param sim The transform.  Not modified.
+	 * @param orig Transformed point. Not modified.
+	 * @param result Where the results are stored.  Can be the same as orig. If null a new
+	 *               instance is created. Modified.
+	 * @return Original point.
+	 */
+	public static Point2D_F64 transformReverse( Sim2_F64 sim, Point2D_F64 orig, Point2D_F64 result ) {
+		if( result == null ) {
+			result = new Point2D_F64();
+		}
+
+		final double c = sim.c/sim.scale;
+		final double s = sim.s/sim.scale;
+
+		double x = orig.x - sim.tran.x;
+		double y = orig.y - sim.tran.y;
+
+		result.x = x*c + y*s;
+		result.y = -x*s + y*c;
+
+		return result;
+	}
+
+	/**
+	 * Applies a 3D similarity transform to the point.  p' = scale*R*p + T
+	 *
+	 * @param sim The transform.  Not modified.
+	 * @param orig Original point being transformed. Not modified.
+	 * @param result Where the results are stored.  Can be the same as orig. If null a new
+	 *               instance is created. Modified.
+	 * @return Transformed point.
+	 */
+	public static Point3D_F64 transform( Sim3_F64 sim, Point3D_F64 orig, Point3D_F64 result ) {
+		if( result == null ) {
+			result = new Point3D_F64();
+		}
+
+		final /**/double R[] = sim.R.data;
+		final double scale = sim.scale;
+
+		double x = orig.x, y = orig.y, z = orig.z;
+
+		result.x = (double)( scale*( R[0]*x + R[1]*y + R[2]*z ) ) + sim.T.x;
+		result.y = (double)( scale*( R[3]*x + R[4]*y + R[5]*z ) ) + sim.T.y;
+		result.z = (double)( scale*( R[6]*x + R[7]*y + R[8]*z ) ) + sim.T.z;
+
+		return result;
+	}
+
+	/**
+	 * Applies the inverse of a 3D similarity transform to the point.  p = (1/scale)*R<sup>T</sup>*(p' - T)
+	 *
+	 * @param sim The transform.  Not modified.
+	 * @param orig Transformed point. Not modified.
+	 * @param result Where the results are stored.  Can be the same as orig. If null a new
+	 *               instance is created. Modified.
+	 * @return Original point.
+	 */
+	public static Point3D_F64 transformReverse( Sim3_F64 sim, Point3D_F64 orig, Point3D_F64 result ) {
+		if( result == null ) {
+			result = new Point3D_F64();
+		}
+
+		final /**/double R[] = sim.R.data;
+		final double scale = sim.scale;
+
+		double x = orig.x - sim.T.x, y = orig.y - sim.T.y, z = orig.z - sim.T.z;
+
+		result.x = (double)( R[0]*x + R[3]*y + R[6]*z )/scale;
+		result.y = (double)( R[1]*x + R[4]*y + R[7]*z )/scale;
+		result.z = (double)( R[2]*x + R[5]*y + R[8]*z )/scale;
+
+		return result;
+	}
+}
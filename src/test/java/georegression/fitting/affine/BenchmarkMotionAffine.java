@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.affine;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.transform.affine.AffinePointOps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the time it takes to fit an affine transform to a large number of point pairs.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkMotionAffine {
+
+	static int NUM_POINTS = 200000;
+	static int NUM_FITS = 20;
+	static int NUM_TRIALS = 5;
+
+	public static void benchmark( String name, MotionTransformPoint<Affine2D_F64, Point2D_F64> alg,
+								  List<Point2D_F64> from, List<Point2D_F64> to ) {
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long before = System.nanoTime();
+			for( int i = 0; i < NUM_FITS; i++ ) {
+				alg.process( from, to );
+			}
+			long after = System.nanoTime();
+
+			System.out.printf( "%-22s %7.2f ms/fit\n", name, ( after - before )/( 1e6*NUM_FITS ) );
+		}
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+
+		Affine2D_F64 tran = new Affine2D_F64( 1.1, -0.1, 0.05, 0.95, 30, -12 );
+
+		List<Point2D_F64> from = UtilPoint2D_F64.random( 0, 2000, NUM_POINTS, rand );
+		List<Point2D_F64> to = new ArrayList<Point2D_F64>();
+		for( Point2D_F64 p : from ) {
+			Point2D_F64 q = AffinePointOps.transform( tran, p, null );
+			q.x += rand.nextGaussian();
+			q.y += rand.nextGaussian();
+			to.add( q );
+		}
+
+		benchmark( "Least Squares", new MotionAffinePoint2D_F64(), from, to );
+		benchmark( "Normal", new MotionAffinePoint2DNormal_F64( false ), from, to );
+		benchmark( "Normal Compensated", new MotionAffinePoint2DNormal_F64( true ), from, to );
+	}
+}
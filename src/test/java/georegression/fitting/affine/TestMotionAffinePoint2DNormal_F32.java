@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.affine;
+
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import georegression.transform.affine.AffinePointOps;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionAffinePoint2DNormal_F32 {
+
+	Random rand = new Random( 434324 );
+
+	Affine2D_F32 tran = new Affine2D_F32( 2, -4, 0.3f, 1.1f, 0.93f, -3 );
+
+	private List<Point2D_F32> transform( List<Point2D_F32> from ) {
+		List<Point2D_F32> to = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : from ) {
+			to.add( AffinePointOps.transform( tran, p, null ) );
+		}
+		return to;
+	}
+
+	@Test
+	public void noiseless() {
+		List<Point2D_F32> from = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> to = transform( from );
+
+		for( boolean compensated : new boolean[]{false, true} ) {
+			MotionAffinePoint2DNormal_F32 alg = new MotionAffinePoint2DNormal_F32( compensated );
+
+			assertTrue( alg.process( from, to ) );
+			TestMotionAffinePoint2D_F32.checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+
+			assertTrue( alg.process( new PointCloud2D_F32( from ), new PointCloud2D_F32( to ) ) );
+			TestMotionAffinePoint2D_F32.checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	/**
+	 * With noise the solution should be the same as the one found by solving the full linear system
+	 */
+	@Test
+	public void noisy_compareToLeastSquares() {
+		List<Point2D_F32> from = UtilPoint2D_F32.random( -10, 10, 100, rand );
+		List<Point2D_F32> to = transform( from );
+		for( Point2D_F32 p : to ) {
+			p.x += (float)rand.nextGaussian()*0.5f;
+			p.y += (float)rand.nextGaussian()*0.5f;
+		}
+
+		MotionAffinePoint2D_F32 expected = new MotionAffinePoint2D_F32();
+		assertTrue( expected.process( from, to ) );
+
+		for( boolean compensated : new boolean[]{false, true} ) {
+			MotionAffinePoint2DNormal_F32 alg = new MotionAffinePoint2DNormal_F32( compensated );
+			assertTrue( alg.process( from, to ) );
+
+			checkSame( expected.getMotion(), alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * Points far from the origin relative to their spread
+	 */
+	@Test
+	public void largeOffset() {
+		List<Point2D_F32> from = UtilPoint2D_F32.random( -10, 10, 100, rand );
+		for( Point2D_F32 p : from ) {
+			p.x += 5000;
+			p.y -= 8000;
+		}
+		List<Point2D_F32> to = transform( from );
+
+		for( boolean compensated : new boolean[]{false, true} ) {
+			MotionAffinePoint2DNormal_F32 alg = new MotionAffinePoint2DNormal_F32( compensated );
+			assertTrue( alg.process( from, to ) );
+
+			checkSame( tran, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * Adding points one at a time should produce the same solution as process
+	 */
+	@Test
+	public void add_computeMotion() {
+		List<Point2D_F32> from = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> to = transform( from );
+
+		MotionAffinePoint2DNormal_F32 alg = new MotionAffinePoint2DNormal_F32();
+		// call it first to make sure reset clears everything
+		assertTrue( alg.process( to, from ) );
+
+		alg.reset();
+		assertFalse( alg.computeMotion() );
+		for( int i = 0; i < from.size(); i++ ) {
+			alg.add( from.get( i ), to.get( i ) );
+		}
+		assertEquals( from.size(), alg.size() );
+		assertTrue( alg.computeMotion() );
+
+		checkSame( tran, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	/**
+	 * If all the 'from' points lie along a line there is no unique solution
+	 */
+	@Test
+	public void collinear() {
+		List<Point2D_F32> from = new ArrayList<Point2D_F32>();
+		for( int i = 0; i < 10; i++ ) {
+			from.add( new Point2D_F32( i, 2*i + 1 ) );
+		}
+		List<Point2D_F32> to = transform( from );
+
+		MotionAffinePoint2DNormal_F32 alg = new MotionAffinePoint2DNormal_F32();
+		assertFalse( alg.process( from, to ) );
+	}
+
+	private static void checkSame( Affine2D_F32 expected, Affine2D_F32 found, float tol ) {
+		assertEquals( expected.a11, found.a11, tol );
+		assertEquals( expected.a12, found.a12, tol );
+		assertEquals( expected.a21, found.a21, tol );
+		assertEquals( expected.a22, found.a22, tol );
+		assertEquals( expected.tx, found.tx, tol*100 );
+		assertEquals( expected.ty, found.ty, tol*100 );
+	}
+}
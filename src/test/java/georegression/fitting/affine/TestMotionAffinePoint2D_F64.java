@@ -24,6 +24,7 @@ import georegression.misc.GrlConstants;
 import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.affine.Affine2D_F64;
 import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
 import georegression.transform.affine.AffinePointOps;
 import org.junit.Test;
 
@@ -60,6 +61,27 @@ public class TestMotionAffinePoint2D_F64 {
 		checkTransform( from, to, tranFound, GrlConstants.DOUBLE_TEST_TOL );
 	}
 
+	@Test
+	public void noiseless_cloud() {
+		Affine2D_F64 tran = new Affine2D_F64( 2, -4, 0.3, 1.1, 0.93, -3 );
+
+		List<Point2D_F64> from = UtilPoint2D_F64.random( -10, 10, 30, rand );
+		List<Point2D_F64> to = new ArrayList<Point2D_F64>();
+		for( Point2D_F64 p : from ) {
+			to.add( AffinePointOps.transform( tran, p, null ) );
+		}
+
+		MotionAffinePoint2D_F64 alg = new MotionAffinePoint2D_F64();
+
+		// process a larger set first to make sure the matrices are correctly resized
+		List<Point2D_F64> larger = UtilPoint2D_F64.random( -10, 10, 50, rand );
+		assertTrue( alg.process( new PointCloud2D_F64( larger ), new PointCloud2D_F64( larger ) ) );
+
+		assertTrue( alg.process( new PointCloud2D_F64( from ), new PointCloud2D_F64( to ) ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
 	public static void checkTransform( List<Point2D_F64> from, List<Point2D_F64> to, Affine2D_F64 tranFound, double tol ) {
 		Point2D_F64 foundPt = new Point2D_F64();
 		for( int i = 0; i < from.size(); i++ ) {
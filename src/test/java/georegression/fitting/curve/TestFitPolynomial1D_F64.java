@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.curve;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.curve.Polynomial1D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitPolynomial1D_F64 {
+
+	Random rand = new Random( 234 );
+
+	Polynomial1D_F64 truth = new Polynomial1D_F64( 0.5, -1, 2, 0.3 );
+
+	private List<Point2D_F64> createPoints( int N ) {
+		List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+		for( int i = 0; i < N; i++ ) {
+			double x = rand.nextDouble()*2 - 1;
+			points.add( new Point2D_F64( x, truth.evaluate( x ) ) );
+		}
+		return points;
+	}
+
+	@Test
+	public void noiseless() {
+		List<Point2D_F64> points = createPoints( 20 );
+
+		FitPolynomial1D_F64 alg = new FitPolynomial1D_F64( 3 );
+		Polynomial1D_F64 found = new Polynomial1D_F64( 3 );
+
+		assertTrue( alg.process( points, found ) );
+		checkSame( truth, found, GrlConstants.DOUBLE_TEST_TOL*100 );
+
+		assertTrue( alg.process( new PointCloud2D_F64( points ), found ) );
+		checkSame( truth, found, GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
+
+	/**
+	 * Samples with zero weight should have no influence
+	 */
+	@Test
+	public void weighted() {
+		List<Point2D_F64> points = createPoints( 20 );
+
+		FitPolynomial1D_F64 alg = new FitPolynomial1D_F64( 3 );
+		for( Point2D_F64 p : points )
+			alg.add( p.x, p.y, rand.nextDouble() + 0.1 );
+		alg.add( 0.2, 100, 0 );
+
+		Polynomial1D_F64 found = new Polynomial1D_F64( 3 );
+		assertTrue( alg.solve( found ) );
+		checkSame( truth, found, GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
+
+	/**
+	 * Add outliers then remove them
+	 */
+	@Test
+	public void remove() {
+		List<Point2D_F64> points = createPoints( 20 );
+
+		FitPolynomial1D_F64 alg = new FitPolynomial1D_F64( 3 );
+		for( Point2D_F64 p : points )
+			alg.add( p.x, p.y );
+		alg.add( 0.2, 100 );
+		alg.add( -0.7, -30, 2 );
+		assertEquals( 22, alg.size() );
+
+		alg.remove( 0.2, 100 );
+		alg.remove( -0.7, -30, 2 );
+
+		Polynomial1D_F64 found = new Polynomial1D_F64( 3 );
+		assertTrue( alg.solve( found ) );
+		checkSame( truth, found, GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
+
+	/**
+	 * Fit the same instance multiple times with different data and degree of polynomial
+	 */
+	@Test
+	public void multipleCalls() {
+		FitPolynomial1D_F64 alg = new FitPolynomial1D_F64( 3 );
+		Polynomial1D_F64 found = new Polynomial1D_F64( 3 );
+
+		for( int trial = 0; trial < 5; trial++ ) {
+			for( int i = 0; i < truth.c.length; i++ )
+				truth.c[i] = rand.nextGaussian();
+
+			assertTrue( alg.process( createPoints( 10 ), found ) );
+			checkSame( truth, found, GrlConstants.DOUBLE_TEST_TOL*100 );
+		}
+	}
+
+	@Test
+	public void tooFewPoints() {
+		FitPolynomial1D_F64 alg = new FitPolynomial1D_F64( 3 );
+		assertFalse( alg.process( createPoints( 3 ), new Polynomial1D_F64( 3 ) ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongDegree() {
+		FitPolynomial1D_F64 alg = new FitPolynomial1D_F64( 3 );
+		alg.process( createPoints( 10 ), new Polynomial1D_F64( 2 ) );
+	}
+
+	private static void checkSame( Polynomial1D_F64 expected, Polynomial1D_F64 found, double tol ) {
+		for( int i = 0; i < expected.c.length; i++ ) {
+			assertEquals( expected.c[i], found.c[i], tol );
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.curve;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.curve.Polynomial2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitPolynomial2D_F32 {
+
+	Random rand = new Random( 234 );
+
+	private Polynomial2D_F32 createPolynomial( int degree ) {
+		Polynomial2D_F32 poly = new Polynomial2D_F32( degree );
+		for( int i = 0; i < poly.c.length; i++ )
+			poly.c[i] = (float)rand.nextGaussian();
+		return poly;
+	}
+
+	private List<Point3D_F32> createPoints( Polynomial2D_F32 poly, int N ) {
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < N; i++ ) {
+			float x = rand.nextFloat()*2 - 1;
+			float y = rand.nextFloat()*2 - 1;
+			points.add( new Point3D_F32( x, y, poly.evaluate( x, y ) ) );
+		}
+		return points;
+	}
+
+	@Test
+	public void noiseless() {
+		for( int degree = 0; degree <= 3; degree++ ) {
+			Polynomial2D_F32 truth = createPolynomial( degree );
+			List<Point3D_F32> points = createPoints( truth, 30 );
+
+			FitPolynomial2D_F32 alg = new FitPolynomial2D_F32( degree );
+			Polynomial2D_F32 found = new Polynomial2D_F32( degree );
+
+			assertTrue( alg.process( points, found ) );
+			checkSame( truth, found, GrlConstants.FLOAT_TEST_TOL*100 );
+
+			assertTrue( alg.process( new PointCloud3D_F32( points ), found ) );
+			checkSame( truth, found, GrlConstants.FLOAT_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * Add weighted outliers then remove them
+	 */
+	@Test
+	public void remove() {
+		Polynomial2D_F32 truth = createPolynomial( 2 );
+		List<Point3D_F32> points = createPoints( truth, 30 );
+
+		FitPolynomial2D_F32 alg = new FitPolynomial2D_F32( 2 );
+		for( Point3D_F32 p : points )
+			alg.add( p.x, p.y, p.z, 0.5f );
+		alg.add( 0.2f, 0.1f, 100 );
+		alg.add( -0.7f, 0.3f, -30, 2 );
+		assertEquals( 32, alg.size() );
+
+		alg.remove( 0.2f, 0.1f, 100 );
+		alg.remove( -0.7f, 0.3f, -30, 2 );
+
+		Polynomial2D_F32 found = new Polynomial2D_F32( 2 );
+		assertTrue( alg.solve( found ) );
+		checkSame( truth, found, GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	@Test
+	public void tooFewPoints() {
+		Polynomial2D_F32 truth = createPolynomial( 2 );
+		FitPolynomial2D_F32 alg = new FitPolynomial2D_F32( 2 );
+		assertFalse( alg.process( createPoints( truth, 5 ), new Polynomial2D_F32( 2 ) ) );
+	}
+
+	private static void checkSame( Polynomial2D_F32 expected, Polynomial2D_F32 found, float tol ) {
+		for( int i = 0; i < expected.c.length; i++ ) {
+			assertEquals( expected.c[i], found.c[i], tol );
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.homography;
+
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.struct.homo.Homography2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.transform.homo.HomographyPointOps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the time it takes to fit a homography to the minimal set of points, as is done inside of RANSAC,
+ * and to larger sets of points.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkMotionHomography {
+
+	static int NUM_FITS = 200000;
+	static int NUM_TRIALS = 5;
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+
+		Homography2D_F64 tran = new Homography2D_F64( 1.5, 0.2, 300, -0.1, 0.9, -20, 0.001, -0.002, 1 );
+		MotionHomographyPoint2D_F64 alg = new MotionHomographyPoint2D_F64();
+
+		for( int N : new int[]{4, 5, 30} ) {
+			List<Point2D_F64> from = UtilPoint2D_F64.random( 0, 640, N, rand );
+			List<Point2D_F64> to = new ArrayList<Point2D_F64>();
+			for( Point2D_F64 p : from ) {
+				to.add( HomographyPointOps.transform( tran, p, null ) );
+			}
+
+			for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+				long before = System.nanoTime();
+				for( int i = 0; i < NUM_FITS; i++ ) {
+					alg.process( from, to );
+				}
+				long after = System.nanoTime();
+
+				System.out.printf( "%3d points: %8.1f ns/fit\n", N, ( after - before )/(double)NUM_FITS );
+			}
+		}
+	}
+}
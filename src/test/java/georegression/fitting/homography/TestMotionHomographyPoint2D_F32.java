@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.homography;
+
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.homo.Homography2D_F32;
+import georegression.struct.homo.UtilHomography;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import georegression.transform.homo.HomographyPointOps;
+import org.ejml.alg.dense.decomposition.DecompositionFactory;
+import org.ejml.alg.dense.decomposition.SingularValueDecomposition;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.ejml.ops.MatrixFeatures;
+import org.ejml.ops.NormOps;
+import org.ejml.ops.SingularOps;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionHomographyPoint2D_F32 {
+
+	Random rand = new Random( 234 );
+
+	Homography2D_F32 tran = new Homography2D_F32( 1.5f, 0.2f, 300, -0.1f, 0.9f, -20, 0.001f, -0.002f, 1 );
+
+	private List<Point2D_F32> transform( List<Point2D_F32> from ) {
+		List<Point2D_F32> to = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : from ) {
+			to.add( HomographyPointOps.transform( tran, p, null ) );
+		}
+		return to;
+	}
+
+	/**
+	 * Minimal set of points, which uses the closed form solution
+	 */
+	@Test
+	public void noiseless_minimal() {
+		List<Point2D_F32> from = UtilPoint2D_F32.random( 0, 200, 4, rand );
+		List<Point2D_F32> to = transform( from );
+
+		MotionHomographyPoint2D_F32 alg = new MotionHomographyPoint2D_F32();
+		assertTrue( alg.process( from, to ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+		checkSameHomography( tran, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+
+		assertTrue( alg.process( new PointCloud2D_F32( from ), new PointCloud2D_F32( to ) ) );
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	@Test
+	public void noiseless_overdetermined() {
+		List<Point2D_F32> from = UtilPoint2D_F32.random( 0, 200, 30, rand );
+		List<Point2D_F32> to = transform( from );
+
+		MotionHomographyPoint2D_F32 alg = new MotionHomographyPoint2D_F32();
+		assertTrue( alg.process( from, to ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+		checkSameHomography( tran, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+
+		assertTrue( alg.process( new PointCloud2D_F32( from ), new PointCloud2D_F32( to ) ) );
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	/**
+	 * Compare the streaming solution against explicitly constructing the normalized 2N by 9 matrix and
+	 * computing its SVD
+	 */
+	@Test
+	public void noisy_compareToSvd() {
+		List<Point2D_F32> from = UtilPoint2D_F32.random( 0, 200, 30, rand );
+		List<Point2D_F32> to = transform( from );
+		for( Point2D_F32 p : to ) {
+			p.x += (float)rand.nextGaussian()*0.5f;
+			p.y += (float)rand.nextGaussian()*0.5f;
+		}
+
+		MotionHomographyPoint2D_F32 alg = new MotionHomographyPoint2D_F32();
+		assertTrue( alg.process( from, to ) );
+
+		checkSameHomography( computeWithSvd( from, to ), alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	/**
+	 * Three of the points in the minimal set lie along a line
+	 */
+	@Test
+	public void minimal_collinear() {
+		List<Point2D_F32> from = new ArrayList<Point2D_F32>();
+		from.add( new Point2D_F32( 0, 0 ) );
+		from.add( new Point2D_F32( 10, 10 ) );
+		from.add( new Point2D_F32( 20, 20 ) );
+		from.add( new Point2D_F32( 5, 30 ) );
+		List<Point2D_F32> to = transform( from );
+
+		MotionHomographyPoint2D_F32 alg = new MotionHomographyPoint2D_F32();
+		assertFalse( alg.process( from, to ) );
+	}
+
+	@Test
+	public void identicalPoints() {
+		List<Point2D_F32> from = new ArrayList<Point2D_F32>();
+		for( int i = 0; i < 6; i++ )
+			from.add( new Point2D_F32( 3, 4 ) );
+		List<Point2D_F32> to = transform( from );
+
+		MotionHomographyPoint2D_F32 alg = new MotionHomographyPoint2D_F32();
+		assertFalse( alg.process( from, to ) );
+	}
+
+	/**
+	 * Normalized DLT computed by transforming the points and finding the null space of the 2N by 9 matrix with SVD
+	 */
+	private Homography2D_F32 computeWithSvd( List<Point2D_F32> from, List<Point2D_F32> to ) {
+		Homography2D_F32 T1 = normalization( from );
+		Homography2D_F32 T2 = normalization( to );
+
+		int N = from.size();
+		DenseMatrix64F A = new DenseMatrix64F( 2*N, 9 );
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F32 a = HomographyPointOps.transform( T1, from.get( i ), null );
+			Point2D_F32 b = HomographyPointOps.transform( T2, to.get( i ), null );
+
+			A.set( i*2, 0, a.x ); A.set( i*2, 1, a.y ); A.set( i*2, 2, 1 );
+			A.set( i*2, 6, -b.x*a.x ); A.set( i*2, 7, -b.x*a.y ); A.set( i*2, 8, -b.x );
+			A.set( i*2+1, 3, -a.x ); A.set( i*2+1, 4, -a.y ); A.set( i*2+1, 5, -1 );
+			A.set( i*2+1, 6, b.y*a.x ); A.set( i*2+1, 7, b.y*a.y ); A.set( i*2+1, 8, b.y );
+		}
+
+		SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd( 2*N, 9, false, true, false );
+		assertTrue( svd.decompose( A ) );
+		DenseMatrix64F nullspace = SingularOps.nullSpace( svd, null );
+
+		Homography2D_F32 H = UtilHomography.convert( new DenseMatrix64F( 3, 3, true, nullspace.data ), (Homography2D_F32)null );
+
+		// inv(T2)*H*T1
+		return T1.concat( H, null ).concat( T2.invert( null ), null );
+	}
+
+	/**
+	 * Translates the points to have zero mean and scales them to have an RMS distance of sqrt(2)
+	 */
+	private Homography2D_F32 normalization( List<Point2D_F32> points ) {
+		float meanX = 0, meanY = 0;
+		for( Point2D_F32 p : points ) {
+			meanX += p.x;
+			meanY += p.y;
+		}
+		meanX /= points.size();
+		meanY /= points.size();
+
+		float var = 0;
+		for( Point2D_F32 p : points ) {
+			var += ( p.x - meanX )*( p.x - meanX ) + ( p.y - meanY )*( p.y - meanY );
+		}
+		float s = (float)Math.sqrt( 2*points.size()/var );
+
+		return new Homography2D_F32( s, 0, -s*meanX, 0, s, -s*meanY, 0, 0, 1 );
+	}
+
+	public static void checkTransform( List<Point2D_F32> from, List<Point2D_F32> to, Homography2D_F32 tranFound, float tol ) {
+		Point2D_F32 foundPt = new Point2D_F32();
+		for( int i = 0; i < from.size(); i++ ) {
+			HomographyPointOps.transform( tranFound, from.get( i ), foundPt );
+
+			GeometryUnitTest.assertEquals( to.get( i ), foundPt, tol );
+		}
+	}
+
+	/**
+	 * Checks to see if two homographies are the same up to a scale factor
+	 */
+	public static void checkSameHomography( Homography2D_F32 expected, Homography2D_F32 found, float tol ) {
+		DenseMatrix64F a = new DenseMatrix64F( 3, 3, true, expected.a11, expected.a12, expected.a13,
+				expected.a21, expected.a22, expected.a23, expected.a31, expected.a32, expected.a33 );
+		DenseMatrix64F b = new DenseMatrix64F( 3, 3, true, found.a11, found.a12, found.a13,
+				found.a21, found.a22, found.a23, found.a31, found.a32, found.a33 );
+
+		CommonOps.divide( NormOps.normF( a ), a );
+		CommonOps.divide( NormOps.normF( b ), b );
+		if( a.get( 0, 0 )*b.get( 0, 0 ) < 0 )
+			CommonOps.scale( -1, b );
+
+		assertTrue( MatrixFeatures.isIdentical( a, b, tol ) );
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.icp;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.metric.nn.KdTree3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIcpPointToPlaneSe3_F64 {
+
+	Random rand = new Random( 234 );
+
+	PointCloud3D_F64 reference = new PointCloud3D_F64();
+	PointCloud3D_F64 normals = new PointCloud3D_F64();
+	PointCloud3D_F64 moving = new PointCloud3D_F64();
+
+	/**
+	 * Creates a reference cloud from randomly sampled points on three orthogonal planes, like the corner of
+	 * a room.  The moving cloud is sampled independently from the interior of the same planes and transformed
+	 * by the inverse of the motion, so there are no exact point correspondences.
+	 */
+	private void createClouds( Se3_F64 motion ) {
+		Se3_F64 inverse = motion.invert( null );
+		Point3D_F64 p = new Point3D_F64();
+		for( int i = 0; i < 1500; i++ ) {
+			addPlanePoint( i % 3, 0, 4, p );
+			reference.add( p );
+			normals.add( i % 3 == 0 ? 1 : 0, i % 3 == 1 ? 1 : 0, i % 3 == 2 ? 1 : 0 );
+
+			addPlanePoint( i % 3, 0.5, 3.5, p );
+			SePointOps_F64.transform( inverse, p, p );
+			moving.add( p );
+		}
+	}
+
+	private void addPlanePoint( int plane, double min, double max, Point3D_F64 p ) {
+		double a = min + rand.nextDouble()*( max - min );
+		double b = min + rand.nextDouble()*( max - min );
+		if( plane == 0 )
+			p.set( 0, a, b );
+		else if( plane == 1 )
+			p.set( a, 0, b );
+		else
+			p.set( a, b, 0 );
+	}
+
+	@Test
+	public void noiseless() {
+		Se3_F64 motion = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.05, -0.03, 0.08, null ),
+				new Vector3D_F64( 0.1, -0.15, 0.05 ) );
+		createClouds( motion );
+
+		IcpPointToPlaneSe3_F64 alg = new IcpPointToPlaneSe3_F64( new KdTree3D_F64(), 100,
+				GrlConstants.DOUBLE_TEST_TOL, 1 );
+		alg.setReference( reference, normals );
+		assertTrue( alg.process( moving ) );
+
+		assertEquals( 0, alg.getRms(), GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertTrue( alg.getMotion().getT().isIdentical( motion.getT(), GrlConstants.DOUBLE_TEST_TOL*100 ) );
+
+		Se3_F64 found = alg.getMotion();
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( motion.getR().data[i], found.getR().data[i], GrlConstants.DOUBLE_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * On planar scenes point-to-plane should converge in fewer iterations than point-to-point
+	 */
+	@Test
+	public void fasterThanPointToPoint() {
+		Se3_F64 motion = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.05, -0.03, 0.08, null ),
+				new Vector3D_F64( 0.1, -0.15, 0.05 ) );
+		createClouds( motion );
+
+		IcpPointToPlaneSe3_F64 plane = new IcpPointToPlaneSe3_F64( new KdTree3D_F64(), 200,
+				GrlConstants.DOUBLE_TEST_TOL, 1 );
+		IcpPointToPointSe3_F64 point = new IcpPointToPointSe3_F64( new KdTree3D_F64(), 200,
+				GrlConstants.DOUBLE_TEST_TOL, 1 );
+		plane.setReference( reference, normals );
+		point.setReference( reference );
+
+		assertTrue( plane.process( moving ) );
+		point.process( moving );
+
+		assertTrue( plane.getIterations()*2 < point.getIterations() );
+	}
+
+	@Test
+	public void maxIterations() {
+		createClouds( new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.05, -0.03, 0.08, null ),
+				new Vector3D_F64( 0.1, -0.15, 0.05 ) ) );
+
+		IcpPointToPlaneSe3_F64 alg = new IcpPointToPlaneSe3_F64( new KdTree3D_F64(), 1,
+				GrlConstants.DOUBLE_TEST_TOL, 1 );
+		alg.setReference( reference, normals );
+		assertFalse( alg.process( moving ) );
+		assertEquals( 1, alg.getIterations() );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setReference_badNormals() {
+		reference.add( 1, 2, 3 );
+		IcpPointToPlaneSe3_F64 alg = new IcpPointToPlaneSe3_F64( new KdTree3D_F64(), 1,
+				GrlConstants.DOUBLE_TEST_TOL, 1 );
+		alg.setReference( reference, normals );
+	}
+}
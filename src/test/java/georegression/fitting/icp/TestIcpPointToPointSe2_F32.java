@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.icp;
+
+import georegression.metric.nn.ExhaustiveNeighbor2D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIcpPointToPointSe2_F32 {
+
+	Random rand = new Random( 234 );
+
+	PointCloud2D_F32 reference = new PointCloud2D_F32();
+	PointCloud2D_F32 moving = new PointCloud2D_F32();
+
+	/**
+	 * Creates a reference cloud on a coarse grid and a moving cloud which is the reference cloud transformed by
+	 * the inverse of the motion
+	 */
+	private void createClouds( Se2_F32 motion ) {
+		Se2_F32 inverse = motion.invert( null );
+		Point2D_F32 p = new Point2D_F32();
+		for( int i = 0; i < 10; i++ ) {
+			for( int j = 0; j < 10; j++ ) {
+				reference.add( i + (float)rand.nextGaussian()*0.05f, j*1.5f + (float)rand.nextGaussian()*0.05f );
+				SePointOps_F32.transform( inverse, reference.getX( reference.size - 1 ),
+						reference.getY( reference.size - 1 ), p );
+				moving.add( p.x, p.y );
+			}
+		}
+	}
+
+	@Test
+	public void noiseless() {
+		Se2_F32 motion = new Se2_F32( 0.1f, -0.15f, 0.06f );
+		createClouds( motion );
+
+		IcpPointToPointSe2_F32 alg = new IcpPointToPointSe2_F32( new ExhaustiveNeighbor2D_F32(), 100, GrlConstants.FLOAT_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertTrue( alg.process( moving ) );
+
+		Se2_F32 found = alg.getMotion();
+		assertEquals( 0, alg.getRms(), GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( reference.size, alg.getNumMatches() );
+		assertEquals( motion.getX(), found.getX(), GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( motion.getY(), found.getY(), GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( motion.getYaw(), found.getYaw(), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	@Test
+	public void initialEstimate() {
+		Se2_F32 motion = new Se2_F32( 2, -1.5f, 0.8f );
+		createClouds( motion );
+
+		Se2_F32 initial = new Se2_F32( 2.05f, -1.45f, 0.78f );
+
+		IcpPointToPointSe2_F32 alg = new IcpPointToPointSe2_F32( new ExhaustiveNeighbor2D_F32(), 100, GrlConstants.FLOAT_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertTrue( alg.process( moving, initial ) );
+
+		assertEquals( motion.getX(), alg.getMotion().getX(), GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( motion.getYaw(), alg.getMotion().getYaw(), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	@Test
+	public void maxIterations() {
+		createClouds( new Se2_F32( 0.1f, -0.15f, 0.06f ) );
+
+		IcpPointToPointSe2_F32 alg = new IcpPointToPointSe2_F32( new ExhaustiveNeighbor2D_F32(), 1, GrlConstants.FLOAT_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertFalse( alg.process( moving ) );
+		assertEquals( 1, alg.getIterations() );
+	}
+}
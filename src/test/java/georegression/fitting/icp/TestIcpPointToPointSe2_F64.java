@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.icp;
+
+import georegression.metric.nn.ExhaustiveNeighbor2D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIcpPointToPointSe2_F64 {
+
+	Random rand = new Random( 234 );
+
+	PointCloud2D_F64 reference = new PointCloud2D_F64();
+	PointCloud2D_F64 moving = new PointCloud2D_F64();
+
+	/**
+	 * Creates a reference cloud on a coarse grid and a moving cloud which is the reference cloud transformed by
+	 * the inverse of the motion
+	 */
+	private void createClouds( Se2_F64 motion ) {
+		Se2_F64 inverse = motion.invert( null );
+		Point2D_F64 p = new Point2D_F64();
+		for( int i = 0; i < 10; i++ ) {
+			for( int j = 0; j < 10; j++ ) {
+				reference.add( i + rand.nextGaussian()*0.05, j*1.5 + rand.nextGaussian()*0.05 );
+				SePointOps_F64.transform( inverse, reference.getX( reference.size - 1 ),
+						reference.getY( reference.size - 1 ), p );
+				moving.add( p.x, p.y );
+			}
+		}
+	}
+
+	@Test
+	public void noiseless() {
+		Se2_F64 motion = new Se2_F64( 0.1, -0.15, 0.06 );
+		createClouds( motion );
+
+		IcpPointToPointSe2_F64 alg = new IcpPointToPointSe2_F64( new ExhaustiveNeighbor2D_F64(), 100, GrlConstants.DOUBLE_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertTrue( alg.process( moving ) );
+
+		Se2_F64 found = alg.getMotion();
+		assertEquals( 0, alg.getRms(), GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertEquals( reference.size, alg.getNumMatches() );
+		assertEquals( motion.getX(), found.getX(), GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertEquals( motion.getY(), found.getY(), GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertEquals( motion.getYaw(), found.getYaw(), GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
+
+	@Test
+	public void initialEstimate() {
+		Se2_F64 motion = new Se2_F64( 2, -1.5, 0.8 );
+		createClouds( motion );
+
+		Se2_F64 initial = new Se2_F64( 2.05, -1.45, 0.78 );
+
+		IcpPointToPointSe2_F64 alg = new IcpPointToPointSe2_F64( new ExhaustiveNeighbor2D_F64(), 100, GrlConstants.DOUBLE_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertTrue( alg.process( moving, initial ) );
+
+		assertEquals( motion.getX(), alg.getMotion().getX(), GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertEquals( motion.getYaw(), alg.getMotion().getYaw(), GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
+
+	@Test
+	public void maxIterations() {
+		createClouds( new Se2_F64( 0.1, -0.15, 0.06 ) );
+
+		IcpPointToPointSe2_F64 alg = new IcpPointToPointSe2_F64( new ExhaustiveNeighbor2D_F64(), 1, GrlConstants.DOUBLE_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertFalse( alg.process( moving ) );
+		assertEquals( 1, alg.getIterations() );
+	}
+}
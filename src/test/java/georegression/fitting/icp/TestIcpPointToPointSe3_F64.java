@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.icp;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.metric.nn.ExhaustiveNeighbor3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIcpPointToPointSe3_F64 {
+
+	Random rand = new Random( 234 );
+
+	PointCloud3D_F64 reference = new PointCloud3D_F64();
+	PointCloud3D_F64 moving = new PointCloud3D_F64();
+
+	/**
+	 * Creates a reference cloud on a coarse grid and a moving cloud which is the reference cloud transformed by
+	 * the inverse of the motion
+	 */
+	private void createClouds( Se3_F64 motion ) {
+		Se3_F64 inverse = motion.invert( null );
+		Point3D_F64 p = new Point3D_F64();
+		for( int i = 0; i < 5; i++ ) {
+			for( int j = 0; j < 5; j++ ) {
+				for( int k = 0; k < 5; k++ ) {
+					p.set( i + rand.nextGaussian()*0.05, j + rand.nextGaussian()*0.05, k*1.5 );
+					reference.add( p );
+					SePointOps_F64.transform( inverse, p, p );
+					moving.add( p );
+				}
+			}
+		}
+	}
+
+	@Test
+	public void noiseless() {
+		Se3_F64 motion = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.05, -0.03, 0.08, null ),
+				new Vector3D_F64( 0.1, -0.15, 0.05 ) );
+		createClouds( motion );
+
+		IcpPointToPointSe3_F64 alg = new IcpPointToPointSe3_F64( new ExhaustiveNeighbor3D_F64(), 100, GrlConstants.DOUBLE_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertTrue( alg.process( moving ) );
+
+		Se3_F64 found = alg.getMotion();
+		assertEquals( 0, alg.getRms(), GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertEquals( reference.size, alg.getNumMatches() );
+		assertTrue( found.getT().isIdentical( motion.getT(), GrlConstants.DOUBLE_TEST_TOL*100 ) );
+
+		// the transformed cloud should lie on top of the reference
+		for( int i = 0; i < reference.size*3; i++ ) {
+			assertEquals( reference.data[i], alg.getTransformed().data[i], GrlConstants.DOUBLE_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * Start from an initial estimate which is close to the true solution
+	 */
+	@Test
+	public void initialEstimate() {
+		Se3_F64 motion = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.4, -0.3, 0.8, null ),
+				new Vector3D_F64( 1, -1.5, 0.5 ) );
+		createClouds( motion );
+
+		Se3_F64 initial = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.38, -0.31, 0.82, null ),
+				new Vector3D_F64( 1.05, -1.45, 0.5 ) );
+
+		IcpPointToPointSe3_F64 alg = new IcpPointToPointSe3_F64( new ExhaustiveNeighbor3D_F64(), 100, GrlConstants.DOUBLE_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertTrue( alg.process( moving, initial ) );
+
+		assertTrue( alg.getMotion().getT().isIdentical( motion.getT(), GrlConstants.DOUBLE_TEST_TOL*100 ) );
+	}
+
+	@Test
+	public void maxIterations() {
+		Se3_F64 motion = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.05, -0.03, 0.08, null ),
+				new Vector3D_F64( 0.1, -0.15, 0.05 ) );
+		createClouds( motion );
+
+		IcpPointToPointSe3_F64 alg = new IcpPointToPointSe3_F64( new ExhaustiveNeighbor3D_F64(), 1, GrlConstants.DOUBLE_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertFalse( alg.process( moving ) );
+		assertEquals( 1, alg.getIterations() );
+	}
+
+	@Test
+	public void noMatches() {
+		reference.add( 100, 100, 100 );
+		reference.add( 100, 101, 100 );
+		reference.add( 100, 100, 101 );
+		moving.add( 0, 0, 0 );
+		moving.add( 0, 1, 0 );
+		moving.add( 0, 0, 1 );
+
+		IcpPointToPointSe3_F64 alg = new IcpPointToPointSe3_F64( new ExhaustiveNeighbor3D_F64(), 10, GrlConstants.DOUBLE_TEST_TOL, 2 );
+		alg.setReference( reference );
+		assertFalse( alg.process( moving ) );
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.struct.point.PointCloud2D_F64;
+
+import java.util.Random;
+
+/**
+ * Measures how long it takes to extract lines from a simulated 1080 beam laser scan of a room.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkExtractLines2D {
+
+	static int NUM_SCANS = 20000;
+	static int NUM_TRIALS = 5;
+
+	/**
+	 * Simulates a scan of a rectangular room with a box in it, from the center of the room
+	 */
+	public static PointCloud2D_F64 createScan( int numBeams, Random rand ) {
+		PointCloud2D_F64 scan = new PointCloud2D_F64( numBeams );
+
+		for( int i = 0; i < numBeams; i++ ) {
+			double angle = -Math.PI*0.75 + 1.5*Math.PI*i/numBeams;
+			double c = Math.cos( angle ), s = Math.sin( angle );
+
+			// distance to the walls of a 10 by 6 room
+			double range = Math.min( Math.abs( 5/c ), Math.abs( 3/s ) );
+			// box in front of the sensor
+			if( c > 0 && Math.abs( 2*s/c ) < 0.5 )
+				range = Math.min( range, 2/c );
+
+			range += rand.nextGaussian()*0.005;
+			scan.add( range*c, range*s );
+		}
+		return scan;
+	}
+
+	public static void benchmark( String name, ExtractLines2D_F64 alg, PointCloud2D_F64 scan ) {
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long before = System.nanoTime();
+			for( int i = 0; i < NUM_SCANS; i++ ) {
+				alg.process( scan );
+			}
+			long after = System.nanoTime();
+
+			System.out.printf( "%-18s %3d lines  %7.1f us/scan\n", name, alg.size(),
+					( after - before )/( 1000.0*NUM_SCANS ) );
+		}
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+		PointCloud2D_F64 scan = createScan( 1080, rand );
+
+		benchmark( "Split and Merge", new SplitMergeLines2D_F64( 0.05, 0.05, 10, 0.3 ), scan );
+		benchmark( "Sequential RANSAC", new SequentialRansacLines2D_F64( 234, 50, 0.03, 10, 0.3, 20 ), scan );
+	}
+}
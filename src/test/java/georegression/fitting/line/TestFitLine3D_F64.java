@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitLine3D_F64 {
+
+	Random rand = new Random( 234 );
+
+	Point3D_F64 start = new Point3D_F64( 100, -50, 20 );
+	Vector3D_F64 slope = new Vector3D_F64( 0.2, -0.5, 1 );
+
+	private List<Point3D_F64> createPoints( int N, double noise ) {
+		List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < N; i++ ) {
+			double t = rand.nextGaussian()*5;
+
+			Point3D_F64 p = new Point3D_F64();
+			p.x = start.x + t*slope.x + rand.nextGaussian()*noise;
+			p.y = start.y + t*slope.y + rand.nextGaussian()*noise;
+			p.z = start.z + t*slope.z + rand.nextGaussian()*noise;
+			points.add( p );
+		}
+		return points;
+	}
+
+	@Test
+	public void noiseless() {
+		List<Point3D_F64> points = createPoints( 20, 0 );
+
+		FitLine3D_F64 alg = new FitLine3D_F64();
+		LineParametric3D_F64 found = new LineParametric3D_F64();
+
+		assertTrue( alg.fit( points, found ) );
+		checkLine( points, found, GrlConstants.DOUBLE_TEST_TOL*100 );
+
+		assertTrue( alg.fit( new PointCloud3D_F64( points ), found ) );
+		checkLine( points, found, GrlConstants.DOUBLE_TEST_TOL*100 );
+
+		int indexes[] = new int[]{ 3, 8, 12, 19 };
+		assertTrue( alg.fit( new PointCloud3D_F64( points ), indexes, 4, found ) );
+		checkLine( points, found, GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
+
+	@Test
+	public void noisy() {
+		List<Point3D_F64> points = createPoints( 500, 0.01 );
+
+		FitLine3D_F64 alg = new FitLine3D_F64();
+		LineParametric3D_F64 found = new LineParametric3D_F64();
+		assertTrue( alg.fit( points, found ) );
+
+		double dot = found.slope.dot( slope )/slope.norm();
+		assertEquals( 1, Math.abs( dot ), 1e-3 );
+		assertEquals( 0, distance( found, start ), 0.01 );
+	}
+
+	@Test
+	public void degenerate() {
+		FitLine3D_F64 alg = new FitLine3D_F64();
+		LineParametric3D_F64 found = new LineParametric3D_F64();
+
+		// too few points
+		assertFalse( alg.fit( createPoints( 1, 0 ), found ) );
+
+		// all the points are the same
+		List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < 5; i++ )
+			points.add( new Point3D_F64( 1, 2, 3 ) );
+		assertFalse( alg.fit( points, found ) );
+	}
+
+	private static double distance( LineParametric3D_F64 line, Point3D_F64 p ) {
+		Vector3D_F64 d = new Vector3D_F64( p.x - line.p.x, p.y - line.p.y, p.z - line.p.z );
+		return d.cross( line.slope ).norm()/line.slope.norm();
+	}
+
+	private static void checkLine( List<Point3D_F64> points, LineParametric3D_F64 line, double tol ) {
+		assertEquals( 1, line.slope.norm(), GrlConstants.DOUBLE_TEST_TOL );
+		for( Point3D_F64 p : points ) {
+			assertEquals( 0, distance( line, p ), tol );
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LinePolar2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitLineIncremental_F32 {
+
+	Random rand = new Random( 234 );
+
+	/**
+	 * Creates noisy points along a line which is far from the origin
+	 */
+	private List<Point2D_F32> createPoints( int N ) {
+		float r = 150;
+		float theta = 0.75f;
+
+		List<Point2D_F32> pts = new ArrayList<Point2D_F32>();
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F32 p = new Point2D_F32();
+			p.x = i;
+			p.y = (float)( (r-p.x*Math.cos(theta))/Math.sin(theta));
+			p.x += (float)rand.nextGaussian()*0.1f;
+			p.y += (float)rand.nextGaussian()*0.1f;
+
+			pts.add(p);
+		}
+		return pts;
+	}
+
+	@Test
+	public void polar() {
+		List<Point2D_F32> pts = createPoints( 30 );
+
+		FitLineIncremental_F32 alg = new FitLineIncremental_F32();
+		for( Point2D_F32 p : pts ) {
+			alg.add( p );
+		}
+		assertEquals( 30, alg.size() );
+
+		LinePolar2D_F32 expected = FitLine_F32.polar( pts, null );
+		checkSame( expected, alg.polar( null ) );
+	}
+
+	@Test
+	public void polar_weighted() {
+		List<Point2D_F32> pts = createPoints( 30 );
+		float weights[] = new float[ pts.size() ];
+
+		FitLineIncremental_F32 alg = new FitLineIncremental_F32();
+		for( int i = 0; i < pts.size(); i++ ) {
+			weights[i] = rand.nextFloat()*2;
+			alg.add( pts.get( i ).x, pts.get( i ).y, weights[i] );
+		}
+
+		LinePolar2D_F32 expected = FitLine_F32.polar( pts, weights, null );
+		checkSame( expected, alg.polar( null ) );
+	}
+
+	/**
+	 * Move a window across the points, adding one point and removing another each step
+	 */
+	@Test
+	public void slidingWindow() {
+		List<Point2D_F32> pts = createPoints( 100 );
+		float weights[] = new float[ pts.size() ];
+		for( int i = 0; i < weights.length; i++ ) {
+			weights[i] = rand.nextFloat()*2;
+		}
+
+		int width = 10;
+		FitLineIncremental_F32 alg = new FitLineIncremental_F32();
+		FitLineIncremental_F32 algW = new FitLineIncremental_F32();
+		for( int i = 0; i < width; i++ ) {
+			alg.add( pts.get( i ) );
+			algW.add( pts.get( i ).x, pts.get( i ).y, weights[i] );
+		}
+
+		LinePolar2D_F32 found = new LinePolar2D_F32();
+		float windowWeights[] = new float[ width ];
+		for( int start = 1; start + width <= pts.size(); start++ ) {
+			Point2D_F32 old = pts.get( start - 1 );
+			Point2D_F32 p = pts.get( start + width - 1 );
+
+			alg.remove( old );
+			alg.add( p );
+			algW.remove( old.x, old.y, weights[start - 1] );
+			algW.add( p.x, p.y, weights[start + width - 1] );
+
+			List<Point2D_F32> window = pts.subList( start, start + width );
+			System.arraycopy( weights, start, windowWeights, 0, width );
+
+			assertEquals( width, alg.size() );
+			checkSame( FitLine_F32.polar( window, null ), alg.polar( found ) );
+			checkSame( FitLine_F32.polar( window, windowWeights, null ), algW.polar( found ) );
+		}
+	}
+
+	/**
+	 * Removing all the points and adding new ones should be the same as starting from scratch
+	 */
+	@Test
+	public void removeAll() {
+		List<Point2D_F32> pts = createPoints( 20 );
+
+		FitLineIncremental_F32 alg = new FitLineIncremental_F32();
+		for( int i = 0; i < 10; i++ )
+			alg.add( pts.get( i ) );
+		for( int i = 0; i < 10; i++ )
+			alg.remove( pts.get( i ) );
+		assertEquals( 0, alg.size() );
+		assertEquals( 0, alg.getTotalWeight(), 0 );
+
+		for( int i = 10; i < 20; i++ )
+			alg.add( pts.get( i ) );
+
+		checkSame( FitLine_F32.polar( pts.subList( 10, 20 ), null ), alg.polar( null ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void remove_empty() {
+		new FitLineIncremental_F32().remove( 1, 2 );
+	}
+
+	private static void checkSame( LinePolar2D_F32 expected, LinePolar2D_F32 found ) {
+		assertEquals( expected.angle, found.angle, GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( expected.distance, found.distance, GrlConstants.FLOAT_TEST_TOL*1000 );
+	}
+}
@@ -23,6 +23,7 @@ import georegression.metric.UtilAngle;
 import georegression.misc.GrlConstants;
 import georegression.struct.line.LinePolar2D_F32;
 import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -82,4 +83,21 @@ public class TestFitLine_F32 {
 		assertEquals(r,found.distance, GrlConstants.FLOAT_TEST_TOL);
 		assertTrue(UtilAngle.dist(r, found.distance) <= GrlConstants.FLOAT_TEST_TOL);
 	}
+
+	/**
+	 * The range version should produce the same result as the list version on the same points
+	 */
+	@Test
+	public void polar_cloudRange() {
+		List<Point2D_F32> pts = new ArrayList<Point2D_F32>();
+		for( int i = 0; i < 20; i++ ) {
+			pts.add( new Point2D_F32( i, 0.5f*i + 0.1f*( i % 3 ) ) );
+		}
+
+		LinePolar2D_F32 expected = FitLine_F32.polar( pts.subList( 5, 15 ), null );
+		LinePolar2D_F32 found = FitLine_F32.polar( new PointCloud2D_F32( pts ), 5, 15, null );
+
+		assertEquals( expected.angle, found.angle, GrlConstants.FLOAT_TEST_TOL );
+		assertEquals( expected.distance, found.distance, GrlConstants.FLOAT_TEST_TOL );
+	}
 }
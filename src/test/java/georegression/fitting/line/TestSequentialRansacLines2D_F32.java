@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static georegression.fitting.line.TestSplitMergeLines2D_F32.checkSegment;
+import static georegression.fitting.line.TestSplitMergeLines2D_F32.createScan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSequentialRansacLines2D_F32 {
+
+	Random rand = new Random( 234 );
+
+	/**
+	 * Three walls of a room, connected at the corners
+	 */
+	@Test
+	public void connectedWalls() {
+		float corners[][] = new float[][]{{0, 0}, {4, 0}, {4, 3}, {0, 3}};
+		PointCloud2D_F32 scan = createScan( corners, 0.05f, 0.002f, rand );
+
+		SequentialRansacLines2D_F32 alg = new SequentialRansacLines2D_F32( 234, 50, 0.02f, 5, 0.5f, 10 );
+		alg.process( scan );
+
+		assertEquals( 3, alg.size() );
+
+		// lines are found in order of support, so match them up using their index range
+		for( int i = 0; i < 3; i++ ) {
+			LineSegment2D_F32 found = alg.getSegments().get( i );
+			// walls are 4, 3, and 4 long, sampled every 0.05f
+			int first = alg.getFirstIndex( i );
+			int wall = first < 80 ? 0 : ( first < 140 ? 1 : 2 );
+			checkSegment( corners[wall], corners[wall + 1], found, 0.1f );
+		}
+	}
+
+	/**
+	 * Collinear walls separated by a gap should be split into two lines by a single RANSAC iteration
+	 */
+	@Test
+	public void gap() {
+		PointCloud2D_F32 scan = createScan( new float[][]{{0, 0}, {2, 0}}, 0.05f, 0, rand );
+		PointCloud2D_F32 second = createScan( new float[][]{{3, 0}, {5, 0}}, 0.05f, 0, rand );
+		for( int i = 0; i < second.size; i++ )
+			scan.add( second.getX( i ), second.getY( i ) );
+
+		SequentialRansacLines2D_F32 alg = new SequentialRansacLines2D_F32( 234, 50, 0.02f, 5, 0.5f, 10 );
+		alg.process( scan );
+
+		assertEquals( 2, alg.size() );
+		assertTrue( alg.getLastIndex( 0 ) <= alg.getFirstIndex( 1 ) );
+		checkSegment( new float[]{0, 0}, new float[]{1.95f, 0}, alg.getSegments().get( 0 ), GrlConstants.FLOAT_TEST_TOL );
+		checkSegment( new float[]{3, 0}, new float[]{4.95f, 0}, alg.getSegments().get( 1 ), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	@Test
+	public void maxLines() {
+		float corners[][] = new float[][]{{0, 0}, {4, 0}, {4, 3}, {0, 3}};
+		PointCloud2D_F32 scan = createScan( corners, 0.05f, 0.002f, rand );
+
+		SequentialRansacLines2D_F32 alg = new SequentialRansacLines2D_F32( 234, 50, 0.02f, 5, 0.5f, 2 );
+		alg.process( scan );
+
+		assertEquals( 2, alg.size() );
+	}
+
+	/**
+	 * Random points shouldn't produce any lines
+	 */
+	@Test
+	public void noLines() {
+		PointCloud2D_F32 scan = new PointCloud2D_F32();
+		for( int i = 0; i < 100; i++ )
+			scan.add( rand.nextFloat()*10, rand.nextFloat()*10 );
+
+		SequentialRansacLines2D_F32 alg = new SequentialRansacLines2D_F32( 234, 50, 0.02f, 5, 0.5f, 10 );
+		alg.process( scan );
+
+		assertEquals( 0, alg.size() );
+	}
+}
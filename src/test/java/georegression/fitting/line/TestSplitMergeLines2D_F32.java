@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSplitMergeLines2D_F32 {
+
+	Random rand = new Random( 234 );
+
+	/**
+	 * Three walls of a room, connected at the corners
+	 */
+	@Test
+	public void connectedWalls() {
+		float corners[][] = new float[][]{{0, 0}, {4, 0}, {4, 3}, {0, 3}};
+		PointCloud2D_F32 scan = createScan( corners, 0.05f, 0.002f, rand );
+
+		SplitMergeLines2D_F32 alg = new SplitMergeLines2D_F32( 0.05f, 0.05f, 5, 0.5f );
+		alg.process( scan );
+
+		assertEquals( 3, alg.size() );
+		for( int i = 0; i < 3; i++ ) {
+			checkSegment( corners[i], corners[i+1], alg.getSegments().get( i ), 0.1f );
+		}
+
+		// the ranges should cover the scan and be in order
+		assertEquals( 0, alg.getFirstIndex( 0 ) );
+		assertEquals( scan.size, alg.getLastIndex( 2 ) );
+		for( int i = 1; i < 3; i++ ) {
+			assertTrue( alg.getFirstIndex( i ) >= alg.getLastIndex( i - 1 ) - 1 );
+		}
+	}
+
+	/**
+	 * Split should over segment a line with a bump in it, which merge then fixes
+	 */
+	@Test
+	public void merge() {
+		float corners[][] = new float[][]{{0, 0}, {2, 0.03f}, {4, 0}};
+		PointCloud2D_F32 scan = createScan( corners, 0.05f, 0, rand );
+
+		SplitMergeLines2D_F32 alg = new SplitMergeLines2D_F32( 0.02f, 0.05f, 5, 0.5f );
+		alg.process( scan );
+		assertEquals( 1, alg.size() );
+
+		// merging is turned off
+		alg.setMergeTol( 0 );
+		alg.process( scan );
+		assertEquals( 2, alg.size() );
+	}
+
+	/**
+	 * Collinear walls with a gap between them should not be merged
+	 */
+	@Test
+	public void gap() {
+		PointCloud2D_F32 scan = createScan( new float[][]{{0, 0}, {2, 0}}, 0.05f, 0, rand );
+		PointCloud2D_F32 second = createScan( new float[][]{{3, 0}, {5, 0}}, 0.05f, 0, rand );
+		for( int i = 0; i < second.size; i++ )
+			scan.add( second.getX( i ), second.getY( i ) );
+
+		SplitMergeLines2D_F32 alg = new SplitMergeLines2D_F32( 0.05f, 0.05f, 5, 0.5f );
+		alg.process( scan );
+
+		assertEquals( 2, alg.size() );
+		checkSegment( new float[]{0, 0}, new float[]{1.95f, 0}, alg.getSegments().get( 0 ), GrlConstants.FLOAT_TEST_TOL );
+		checkSegment( new float[]{3, 0}, new float[]{4.95f, 0}, alg.getSegments().get( 1 ), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	/**
+	 * The list version and multiple calls should produce the same results
+	 */
+	@Test
+	public void list_multipleCalls() {
+		float corners[][] = new float[][]{{0, 0}, {4, 0}, {4, 3}, {0, 3}};
+		PointCloud2D_F32 scan = createScan( corners, 0.05f, 0.002f, rand );
+		List<Point2D_F32> list = new ArrayList<Point2D_F32>();
+		for( int i = 0; i < scan.size; i++ )
+			list.add( scan.get( i, null ) );
+
+		SplitMergeLines2D_F32 alg = new SplitMergeLines2D_F32( 0.05f, 0.05f, 5, 0.5f );
+		alg.process( createScan( new float[][]{{0, 0}, {1, 1}}, 0.05f, 0, rand ) );
+		assertEquals( 1, alg.size() );
+
+		alg.process( list );
+		assertEquals( 3, alg.size() );
+		for( int i = 0; i < 3; i++ ) {
+			checkSegment( corners[i], corners[i+1], alg.getSegments().get( i ), 0.1f );
+		}
+	}
+
+	/**
+	 * Creates an ordered scan along the polyline defined by the corners
+	 */
+	public static PointCloud2D_F32 createScan( float corners[][], float spacing, float noise, Random rand ) {
+		PointCloud2D_F32 scan = new PointCloud2D_F32();
+		for( int i = 0; i + 1 < corners.length; i++ ) {
+			float dx = corners[i+1][0] - corners[i][0];
+			float dy = corners[i+1][1] - corners[i][1];
+			int N = (int)Math.round( (float)Math.sqrt( dx*dx + dy*dy )/spacing );
+
+			for( int j = 0; j < N; j++ ) {
+				float t = j/(float)N;
+				scan.add( corners[i][0] + t*dx + (float)rand.nextGaussian()*noise,
+						corners[i][1] + t*dy + (float)rand.nextGaussian()*noise );
+			}
+		}
+		return scan;
+	}
+
+	/**
+	 * Checks the segment's end points, which can be in either order
+	 */
+	public static void checkSegment( float a[], float b[], LineSegment2D_F32 found, float tol ) {
+		float forward = (float)Math.max( distance( found.a, a ), distance( found.b, b ) );
+		float reverse = (float)Math.max( distance( found.a, b ), distance( found.b, a ) );
+
+		assertTrue( (float)Math.min( forward, reverse ) <= tol );
+	}
+
+	private static float distance( Point2D_F32 p, float a[] ) {
+		float dx = p.x - a[0];
+		float dy = p.y - a[1];
+		return (float)Math.sqrt( dx*dx + dy*dy );
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.line;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineSegment2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSplitMergeLines2D_F64 {
+
+	Random rand = new Random( 234 );
+
+	/**
+	 * Three walls of a room, connected at the corners
+	 */
+	@Test
+	public void connectedWalls() {
+		double corners[][] = new double[][]{{0, 0}, {4, 0}, {4, 3}, {0, 3}};
+		PointCloud2D_F64 scan = createScan( corners, 0.05, 0.002, rand );
+
+		SplitMergeLines2D_F64 alg = new SplitMergeLines2D_F64( 0.05, 0.05, 5, 0.5 );
+		alg.process( scan );
+
+		assertEquals( 3, alg.size() );
+		for( int i = 0; i < 3; i++ ) {
+			checkSegment( corners[i], corners[i+1], alg.getSegments().get( i ), 0.1 );
+		}
+
+		// the ranges should cover the scan and be in order
+		assertEquals( 0, alg.getFirstIndex( 0 ) );
+		assertEquals( scan.size, alg.getLastIndex( 2 ) );
+		for( int i = 1; i < 3; i++ ) {
+			assertTrue( alg.getFirstIndex( i ) >= alg.getLastIndex( i - 1 ) - 1 );
+		}
+	}
+
+	/**
+	 * Split should over segment a line with a bump in it, which merge then fixes
+	 */
+	@Test
+	public void merge() {
+		double corners[][] = new double[][]{{0, 0}, {2, 0.03}, {4, 0}};
+		PointCloud2D_F64 scan = createScan( corners, 0.05, 0, rand );
+
+		SplitMergeLines2D_F64 alg = new SplitMergeLines2D_F64( 0.02, 0.05, 5, 0.5 );
+		alg.process( scan );
+		assertEquals( 1, alg.size() );
+
+		// merging is turned off
+		alg.setMergeTol( 0 );
+		alg.process( scan );
+		assertEquals( 2, alg.size() );
+	}
+
+	/**
+	 * Collinear walls with a gap between them should not be merged
+	 */
+	@Test
+	public void gap() {
+		PointCloud2D_F64 scan = createScan( new double[][]{{0, 0}, {2, 0}}, 0.05, 0, rand );
+		PointCloud2D_F64 second = createScan( new double[][]{{3, 0}, {5, 0}}, 0.05, 0, rand );
+		for( int i = 0; i < second.size; i++ )
+			scan.add( second.getX( i ), second.getY( i ) );
+
+		SplitMergeLines2D_F64 alg = new SplitMergeLines2D_F64( 0.05, 0.05, 5, 0.5 );
+		alg.process( scan );
+
+		assertEquals( 2, alg.size() );
+		checkSegment( new double[]{0, 0}, new double[]{1.95, 0}, alg.getSegments().get( 0 ), GrlConstants.DOUBLE_TEST_TOL );
+		checkSegment( new double[]{3, 0}, new double[]{4.95, 0}, alg.getSegments().get( 1 ), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	/**
+	 * The list version and multiple calls should produce the same results
+	 */
+	@Test
+	public void list_multipleCalls() {
+		double corners[][] = new double[][]{{0, 0}, {4, 0}, {4, 3}, {0, 3}};
+		PointCloud2D_F64 scan = createScan( corners, 0.05, 0.002, rand );
+		List<Point2D_F64> list = new ArrayList<Point2D_F64>();
+		for( int i = 0; i < scan.size; i++ )
+			list.add( scan.get( i, null ) );
+
+		SplitMergeLines2D_F64 alg = new SplitMergeLines2D_F64( 0.05, 0.05, 5, 0.5 );
+		alg.process( createScan( new double[][]{{0, 0}, {1, 1}}, 0.05, 0, rand ) );
+		assertEquals( 1, alg.size() );
+
+		alg.process( list );
+		assertEquals( 3, alg.size() );
+		for( int i = 0; i < 3; i++ ) {
+			checkSegment( corners[i], corners[i+1], alg.getSegments().get( i ), 0.1 );
+		}
+	}
+
+	/**
+	 * Creates an ordered scan along the polyline defined by the corners
+	 */
+	public static PointCloud2D_F64 createScan( double corners[][], double spacing, double noise, Random rand ) {
+		PointCloud2D_F64 scan = new PointCloud2D_F64();
+		for( int i = 0; i + 1 < corners.length; i++ ) {
+			double dx = corners[i+1][0] - corners[i][0];
+			double dy = corners[i+1][1] - corners[i][1];
+			int N = (int)Math.round( Math.sqrt( dx*dx + dy*dy )/spacing );
+
+			for( int j = 0; j < N; j++ ) {
+				double t = j/(double)N;
+				scan.add( corners[i][0] + t*dx + rand.nextGaussian()*noise,
+						corners[i][1] + t*dy + rand.nextGaussian()*noise );
+			}
+		}
+		return scan;
+	}
+
+	/**
+	 * Checks the segment's end points, which can be in either order
+	 */
+	public static void checkSegment( double a[], double b[], LineSegment2D_F64 found, double tol ) {
+		double forward = Math.max( distance( found.a, a ), distance( found.b, b ) );
+		double reverse = Math.max( distance( found.a, b ), distance( found.b, a ) );
+
+		assertTrue( Math.min( forward, reverse ) <= tol );
+	}
+
+	private static double distance( Point2D_F64 p, double a[] ) {
+		double dx = p.x - a[0];
+		double dy = p.y - a[1];
+		return Math.sqrt( dx*dx + dy*dy );
+	}
+}
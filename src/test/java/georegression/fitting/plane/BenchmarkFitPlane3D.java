@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.plane;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.Random;
+
+/**
+ * Measures how many planes can be fit to small neighborhoods of points per second, as is done when
+ * estimating surface normals.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkFitPlane3D {
+
+	static int NUM_FITS = 1000000;
+	static int NUM_TRIALS = 5;
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+
+		PointCloud3D_F64 cloud = new PointCloud3D_F64( UtilPoint3D_F64.random( -1, 1, 10000, rand ) );
+		int neighbors = 16;
+		int indexes[] = new int[ neighbors ];
+
+		FitPlane3D_F64 alg = new FitPlane3D_F64();
+		PlaneNormal3D_F64 plane = new PlaneNormal3D_F64();
+
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long before = System.nanoTime();
+			for( int i = 0; i < NUM_FITS; i++ ) {
+				int first = i % ( cloud.size - neighbors );
+				for( int j = 0; j < neighbors; j++ )
+					indexes[j] = first + j;
+				alg.fit( cloud, indexes, neighbors, plane );
+			}
+			long after = System.nanoTime();
+
+			double seconds = ( after - before )/1e9;
+			System.out.printf( "%d neighbors: %6.1f ns/fit  %10.0f fits/sec\n", neighbors,
+					seconds*1e9/NUM_FITS, NUM_FITS/seconds );
+		}
+	}
+}
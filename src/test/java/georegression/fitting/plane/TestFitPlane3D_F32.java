@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.plane;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitPlane3D_F32 {
+
+	Random rand = new Random( 234 );
+
+	Point3D_F32 center = new Point3D_F32( 100, -50, 20 );
+	Vector3D_F32 normal = new Vector3D_F32( 0.2f, -0.5f, 1 );
+
+	/**
+	 * Creates points on the plane, with the point at index 0 being off of the plane
+	 */
+	private List<Point3D_F32> createPoints( int N, float noise ) {
+		// two vectors which are perpendicular to the normal
+		Vector3D_F32 a = new Vector3D_F32( 1, 0, -normal.x/normal.z );
+		Vector3D_F32 b = normal.cross( a );
+
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		points.add( new Point3D_F32( 0, 0, 0 ) );
+		for( int i = 0; i < N; i++ ) {
+			float s = (float)rand.nextGaussian()*2;
+			float t = (float)rand.nextGaussian()*2;
+
+			Point3D_F32 p = new Point3D_F32();
+			p.x = center.x + s*a.x + t*b.x + (float)rand.nextGaussian()*noise;
+			p.y = center.y + s*a.y + t*b.y + (float)rand.nextGaussian()*noise;
+			p.z = center.z + s*a.z + t*b.z + (float)rand.nextGaussian()*noise;
+			points.add( p );
+		}
+		return points;
+	}
+
+	@Test
+	public void noiseless() {
+		List<Point3D_F32> points = createPoints( 20, 0 );
+		List<Point3D_F32> onPlane = points.subList( 1, points.size() );
+
+		FitPlane3D_F32 alg = new FitPlane3D_F32();
+		PlaneNormal3D_F32 found = new PlaneNormal3D_F32();
+
+		assertTrue( alg.fit( onPlane, found ) );
+		checkPlane( onPlane, found, GrlConstants.FLOAT_TEST_TOL*100 );
+
+		assertTrue( alg.fit( new PointCloud3D_F32( onPlane ), found ) );
+		checkPlane( onPlane, found, GrlConstants.FLOAT_TEST_TOL*100 );
+
+		// skip the point which isn't on the plane
+		int indexes[] = new int[ points.size() + 5 ];
+		for( int i = 1; i < points.size(); i++ )
+			indexes[i-1] = i;
+		assertTrue( alg.fit( new PointCloud3D_F32( points ), indexes, points.size() - 1, found ) );
+		checkPlane( onPlane, found, GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	/**
+	 * With noise the normal should be close to the true normal
+	 */
+	@Test
+	public void noisy() {
+		List<Point3D_F32> points = createPoints( 500, 0.01f ).subList( 1, 501 );
+
+		FitPlane3D_F32 alg = new FitPlane3D_F32();
+		PlaneNormal3D_F32 found = new PlaneNormal3D_F32();
+		assertTrue( alg.fit( points, found ) );
+
+		float dot = found.n.dot( normal )/normal.norm();
+		assertEquals( 1, (float)Math.abs( dot ), 1e-3 );
+		assertEquals( 0, distance( found, center ), 0.01f );
+	}
+
+	@Test
+	public void degenerate() {
+		FitPlane3D_F32 alg = new FitPlane3D_F32();
+		PlaneNormal3D_F32 found = new PlaneNormal3D_F32();
+
+		// too few points
+		List<Point3D_F32> points = createPoints( 2, 0 ).subList( 1, 3 );
+		assertFalse( alg.fit( points, found ) );
+
+		// collinear points
+		points = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < 10; i++ )
+			points.add( new Point3D_F32( 1 + i, 2 - 2*i, 3 + 0.5f*i ) );
+		assertFalse( alg.fit( points, found ) );
+	}
+
+	private static float distance( PlaneNormal3D_F32 plane, Point3D_F32 p ) {
+		float dx = p.x - plane.p.x, dy = p.y - plane.p.y, dz = p.z - plane.p.z;
+		return ( dx*plane.n.x + dy*plane.n.y + dz*plane.n.z )/plane.n.norm();
+	}
+
+	private static void checkPlane( List<Point3D_F32> points, PlaneNormal3D_F32 plane, float tol ) {
+		assertEquals( 1, plane.n.norm(), GrlConstants.FLOAT_TEST_TOL );
+		for( Point3D_F32 p : points ) {
+			assertEquals( 0, distance( plane, p ), tol );
+		}
+	}
+}
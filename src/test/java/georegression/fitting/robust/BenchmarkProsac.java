@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.robust;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.ResidualTransformPoint;
+import georegression.fitting.affine.MotionAffinePoint2D_F64;
+import georegression.fitting.affine.ResidualAffinePointSq_F64;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.fitting.se.ResidualSe3PointSq_F64;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.GeoTuple;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.affine.AffinePointOps;
+import georegression.transform.se.SePointOps_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the number of hypotheses {@link Ransac} and {@link Prosac} need to reach the same confidence when
+ * the quality scores are correlated with a point pair being an inlier.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkProsac {
+
+	static int NUM_POINTS = 1000;
+	static double FRACTION_OUTLIERS = 0.85;
+	static int NUM_TRIALS = 10;
+
+	static Random rand = new Random( 234 );
+
+	public static <T extends InvertibleTransform, P extends GeoTuple>
+	void compare( String name, List<P> from, List<P> to, double scores[],
+				  MotionTransformPoint<T, P> fitter, ResidualTransformPoint<T, P> residual ) {
+		Ransac<T, P> ransac = new Ransac<T, P>( 234, fitter, residual, 100000, 0.01 );
+		Prosac<T, P> prosac = new Prosac<T, P>( 234, fitter, residual, 100000, 0.01 );
+
+		long totalRansac = 0, totalProsac = 0;
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			ransac.process( from, to );
+			prosac.process( from, to, scores );
+			totalRansac += ransac.getIterations();
+			totalProsac += prosac.getIterations();
+		}
+
+		System.out.printf( "%-8s RANSAC %8.1f hypotheses  inliers %4d   PROSAC %8.1f hypotheses  inliers %4d\n", name,
+				totalRansac/(double)NUM_TRIALS, ransac.getNumInliers(),
+				totalProsac/(double)NUM_TRIALS, prosac.getNumInliers() );
+	}
+
+	/**
+	 * Scores are normally distributed with the inlier mean shifted upwards so the orderings overlap
+	 */
+	private static double createScore( boolean outlier ) {
+		return outlier ? rand.nextGaussian() : 1.5 + rand.nextGaussian();
+	}
+
+	public static void main( String args[] ) {
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		List<Point3D_F64> from3 = UtilPoint3D_F64.random( -10, 10, NUM_POINTS, rand );
+		List<Point3D_F64> to3 = new ArrayList<Point3D_F64>();
+		double scores[] = new double[ NUM_POINTS ];
+		for( int i = 0; i < NUM_POINTS; i++ ) {
+			Point3D_F64 q = SePointOps_F64.transform( tran, from3.get( i ), null );
+			boolean outlier = rand.nextDouble() < FRACTION_OUTLIERS;
+			if( outlier )
+				q.set( rand.nextGaussian()*10, rand.nextGaussian()*10, rand.nextGaussian()*10 );
+			scores[i] = createScore( outlier );
+			to3.add( q );
+		}
+		compare( "Se3", from3, to3, scores, new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64() );
+
+		Affine2D_F64 model = new Affine2D_F64( 1.2, 0.1, -0.2, 0.9, 2, -3 );
+		List<Point2D_F64> from2 = UtilPoint2D_F64.random( -10, 10, NUM_POINTS, rand );
+		List<Point2D_F64> to2 = new ArrayList<Point2D_F64>();
+		for( int i = 0; i < NUM_POINTS; i++ ) {
+			Point2D_F64 q = AffinePointOps.transform( model, from2.get( i ), null );
+			boolean outlier = rand.nextDouble() < FRACTION_OUTLIERS;
+			if( outlier )
+				q.set( rand.nextGaussian()*10, rand.nextGaussian()*10 );
+			scores[i] = createScore( outlier );
+			to2.add( q );
+		}
+		compare( "Affine2D", from2, to2, scores, new MotionAffinePoint2D_F64(), new ResidualAffinePointSq_F64() );
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.robust;
+
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.fitting.se.ResidualSe3PointSq_F64;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.ResidualTransformPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures how many hypotheses per second {@link Ransac} and {@link RansacParallel} can generate and score.  Adaptive termination
+ * is effectively disabled by setting the confidence to one so that every trial runs the same number of
+ * iterations.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkRansac {
+
+	static int NUM_POINTS = 500;
+	static int NUM_ITERATIONS = 20000;
+	static int NUM_TRIALS = 5;
+
+	public static void parallel( List<Point3D_F64> from, List<Point3D_F64> to, int numWorkers ) {
+		ExecutorService executor = Executors.newFixedThreadPool( numWorkers );
+
+		List<MotionTransformPoint<Se3_F64, Point3D_F64>> fitters = new ArrayList<MotionTransformPoint<Se3_F64, Point3D_F64>>();
+		List<ResidualTransformPoint<Se3_F64, Point3D_F64>> residuals = new ArrayList<ResidualTransformPoint<Se3_F64, Point3D_F64>>();
+		for( int i = 0; i < numWorkers; i++ ) {
+			fitters.add( new MotionSe3PointSVD_F64() );
+			residuals.add( new ResidualSe3PointSq_F64() );
+		}
+
+		RansacParallel<Se3_F64, Point3D_F64> alg = new RansacParallel<Se3_F64, Point3D_F64>( 234,
+				fitters, residuals, NUM_ITERATIONS, 0.01, executor );
+		alg.setConfidence( 1.0 );
+
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long before = System.nanoTime();
+			alg.process( from, to );
+			long after = System.nanoTime();
+
+			double seconds = ( after - before )*1e-9;
+			System.out.printf( "Se3 SVD %2d workers: %8d hypotheses  %10.1f hypotheses/s  inliers %d\n",
+					numWorkers, alg.getIterations(), alg.getIterations()/seconds, alg.getNumInliers() );
+		}
+
+		executor.shutdown();
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, NUM_POINTS, rand );
+		List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : from ) {
+			Point3D_F64 q = SePointOps_F64.transform( tran, p, null );
+			// 80% outliers
+			if( rand.nextDouble() < 0.8 )
+				q.set( rand.nextGaussian()*10, rand.nextGaussian()*10, rand.nextGaussian()*10 );
+			to.add( q );
+		}
+
+		Ransac<Se3_F64, Point3D_F64> alg = new Ransac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), NUM_ITERATIONS, 0.01 );
+		alg.setConfidence( 1.0 );
+
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long before = System.nanoTime();
+			alg.process( from, to );
+			long after = System.nanoTime();
+
+			double seconds = ( after - before )*1e-9;
+			System.out.printf( "Se3 SVD: %8d hypotheses  %10.1f hypotheses/s  inliers %d\n",
+					alg.getIterations(), alg.getIterations()/seconds, alg.getNumInliers() );
+		}
+
+		int numProcessors = Runtime.getRuntime().availableProcessors();
+		for( int numWorkers = 1; numWorkers <= numProcessors; numWorkers *= 2 ) {
+			parallel( from, to, numWorkers );
+		}
+	}
+}
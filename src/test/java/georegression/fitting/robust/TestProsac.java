@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.robust;
+
+import georegression.fitting.affine.MotionAffinePoint2D_F64;
+import georegression.fitting.affine.ResidualAffinePointSq_F64;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.fitting.se.ResidualSe3PointSq_F64;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.affine.AffinePointOps;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestProsac {
+
+	Random rand = new Random( 234 );
+
+	Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+			new Vector3D_F64( 1, -2, 0.5 ) );
+
+	List<Point3D_F64> from = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+	double scores[];
+
+	/**
+	 * Creates a data set with 80% outliers.  Inliers tend to have a higher score than outliers
+	 */
+	private void createData( int N ) {
+		from = UtilPoint3D_F64.random( -10, 10, N, rand );
+		to.clear();
+		scores = new double[N];
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 p = SePointOps_F64.transform( tran, from.get( i ), null );
+			if( isOutlier( i ) ) {
+				p.x += 2 + rand.nextDouble()*5;
+				p.y -= 2 + rand.nextDouble()*5;
+				scores[i] = rand.nextDouble();
+			} else {
+				scores[i] = 0.5 + rand.nextDouble();
+			}
+			to.add( p );
+		}
+	}
+
+	private static boolean isOutlier( int i ) {
+		return i % 5 != 0;
+	}
+
+	@Test
+	public void findsInliers() {
+		createData( 300 );
+
+		Prosac<Se3_F64, Point3D_F64> alg = new Prosac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 5000, 0.01 );
+
+		assertTrue( alg.process( from, to, scores ) );
+
+		assertEquals( 60, alg.getNumInliers() );
+		int inliers[] = alg.getInliers();
+		for( int i = 0; i < alg.getNumInliers(); i++ ) {
+			assertFalse( isOutlier( inliers[i] ) );
+		}
+	}
+
+	/**
+	 * When the scores are informative PROSAC should need far fewer hypotheses than RANSAC
+	 */
+	@Test
+	public void fewerIterationsThanRansac() {
+		createData( 300 );
+
+		Prosac<Se3_F64, Point3D_F64> prosac = new Prosac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 5000, 0.01 );
+		Ransac<Se3_F64, Point3D_F64> ransac = new Ransac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 5000, 0.01 );
+
+		assertTrue( prosac.process( from, to, scores ) );
+		assertTrue( ransac.process( from, to ) );
+
+		assertEquals( ransac.getNumInliers(), prosac.getNumInliers() );
+		assertTrue( prosac.getIterations()*10 < ransac.getIterations() );
+	}
+
+	@Test
+	public void affine() {
+		Affine2D_F64 model = new Affine2D_F64( 1.2, 0.1, -0.2, 0.9, 2, -3 );
+
+		List<Point2D_F64> from = UtilPoint2D_F64.random( -10, 10, 200, rand );
+		List<Point2D_F64> to = new ArrayList<Point2D_F64>();
+		double scores[] = new double[ from.size() ];
+		for( int i = 0; i < from.size(); i++ ) {
+			Point2D_F64 p = AffinePointOps.transform( model, from.get( i ), null );
+			if( isOutlier( i ) ) {
+				p.x += 2 + rand.nextDouble()*5;
+				scores[i] = rand.nextDouble();
+			} else {
+				scores[i] = 0.5 + rand.nextDouble();
+			}
+			to.add( p );
+		}
+
+		Prosac<Affine2D_F64, Point2D_F64> alg = new Prosac<Affine2D_F64, Point2D_F64>( 234,
+				new MotionAffinePoint2D_F64(), new ResidualAffinePointSq_F64(), 5000, 0.01 );
+
+		assertTrue( alg.process( from, to, scores ) );
+		assertEquals( 40, alg.getNumInliers() );
+		assertEquals( model.a11, alg.getMotion().a11, 1e-8 );
+		assertEquals( model.tx, alg.getMotion().tx, 1e-8 );
+	}
+
+	@Test
+	public void sortedByScore() {
+		createData( 100 );
+
+		Prosac<Se3_F64, Point3D_F64> alg = new Prosac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 5000, 0.01 );
+
+		assertTrue( alg.process( from, to, scores ) );
+
+		int order[] = alg.getOrder();
+		boolean used[] = new boolean[ 100 ];
+		for( int i = 0; i < 100; i++ ) {
+			assertFalse( used[order[i]] );
+			used[order[i]] = true;
+			if( i > 0 )
+				assertTrue( scores[order[i - 1]] >= scores[order[i]] );
+		}
+	}
+
+	/**
+	 * Without scores the input should be treated as already sorted
+	 */
+	@Test
+	public void noScores() {
+		createData( 300 );
+
+		Prosac<Se3_F64, Point3D_F64> alg = new Prosac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 5000, 0.01 );
+
+		assertTrue( alg.process( from, to ) );
+		assertEquals( 60, alg.getNumInliers() );
+		for( int i = 0; i < 300; i++ )
+			assertEquals( i, alg.getOrder()[i] );
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.robust;
+
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.fitting.se.ResidualSe3PointSq_F64;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.test.GeometryUnitTest;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansac {
+
+	Random rand = new Random( 234 );
+
+	Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+			new Vector3D_F64( 1, -2, 0.5 ) );
+
+	List<Point3D_F64> from = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+
+	/**
+	 * Creates a data set where every third point is an outlier
+	 */
+	private void createData( int N ) {
+		from = UtilPoint3D_F64.random( -10, 10, N, rand );
+		to.clear();
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 p = SePointOps_F64.transform( tran, from.get( i ), null );
+			if( i % 3 == 0 ) {
+				p.x += 2 + rand.nextDouble()*5;
+				p.y -= 2 + rand.nextDouble()*5;
+			}
+			to.add( p );
+		}
+	}
+
+	@Test
+	public void findsInliers() {
+		createData( 90 );
+
+		Ransac<Se3_F64, Point3D_F64> alg = new Ransac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 500, 0.01 );
+
+		assertTrue( alg.process( from, to ) );
+
+		assertEquals( 60, alg.getNumInliers() );
+		int inliers[] = alg.getInliers();
+		for( int i = 0; i < alg.getNumInliers(); i++ ) {
+			assertTrue( inliers[i] % 3 != 0 );
+		}
+
+		Point3D_F64 expected = new Point3D_F64();
+		Point3D_F64 found = new Point3D_F64();
+		for( int i = 1; i < from.size(); i += 3 ) {
+			SePointOps_F64.transform( tran, from.get( i ), expected );
+			SePointOps_F64.transform( alg.getMotion(), from.get( i ), found );
+			GeometryUnitTest.assertEquals( expected, found, 1e-6 );
+		}
+
+		// it should have stopped well before the maximum number of iterations
+		assertTrue( alg.getIterations() < 100 );
+	}
+
+	/**
+	 * Should be able to call it multiple times with data of different sizes
+	 */
+	@Test
+	public void multipleCalls() {
+		Ransac<Se3_F64, Point3D_F64> alg = new Ransac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 500, 0.01 );
+
+		createData( 90 );
+		assertTrue( alg.process( from, to ) );
+		assertEquals( 60, alg.getNumInliers() );
+
+		createData( 30 );
+		assertTrue( alg.process( from, to ) );
+		assertEquals( 20, alg.getNumInliers() );
+	}
+
+	/**
+	 * Local refinement should never reduce the number of inliers and should increase it when the inliers are
+	 * noisy, since a minimal sample produces a poor estimate.
+	 */
+	@Test
+	public void localRefinement() {
+		createData( 300 );
+		for( int i = 0; i < to.size(); i++ ) {
+			Point3D_F64 p = to.get( i );
+			p.x += rand.nextGaussian()*0.1;
+			p.y += rand.nextGaussian()*0.1;
+			p.z += rand.nextGaussian()*0.1;
+		}
+
+		Ransac<Se3_F64, Point3D_F64> plain = new Ransac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 20, 0.1 );
+		Ransac<Se3_F64, Point3D_F64> local = new Ransac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 20, 0.1 );
+		local.setLocalIterations( 5 );
+
+		assertTrue( plain.process( from, to ) );
+		assertTrue( local.process( from, to ) );
+
+		assertTrue( local.getNumInliers() > plain.getNumInliers() );
+		int inliers[] = local.getInliers();
+		for( int i = 0; i < local.getNumInliers(); i++ ) {
+			assertTrue( inliers[i] % 3 != 0 );
+		}
+	}
+
+	@Test
+	public void tooFewPoints() {
+		createData( 2 );
+
+		Ransac<Se3_F64, Point3D_F64> alg = new Ransac<Se3_F64, Point3D_F64>( 234,
+				new MotionSe3PointSVD_F64(), new ResidualSe3PointSq_F64(), 500, 0.01 );
+
+		assertFalse( alg.process( from, to ) );
+	}
+
+	@Test
+	public void adaptiveIterations() {
+		// all inliers, any sample will do
+		assertEquals( 0, Ransac.adaptiveIterations( 0.99, 10, 10, 3 ) );
+		// no inliers
+		assertEquals( Integer.MAX_VALUE, Ransac.adaptiveIterations( 0.99, 0, 10, 3 ) );
+		// half inliers with 3 points: log(0.01)/log(1-0.125) = 34.49
+		assertEquals( 35, Ransac.adaptiveIterations( 0.99, 50, 100, 3 ) );
+	}
+}
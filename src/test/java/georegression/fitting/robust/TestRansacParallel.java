@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.robust;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.ResidualTransformPoint;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.fitting.se.ResidualSe3PointSq_F64;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansacParallel {
+
+	Random rand = new Random( 234 );
+
+	ExecutorService executor = Executors.newFixedThreadPool( 4 );
+
+	List<Point3D_F64> from;
+	List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+
+	public TestRansacParallel() {
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		// every third point is an outlier
+		from = UtilPoint3D_F64.random( -10, 10, 90, rand );
+		for( int i = 0; i < from.size(); i++ ) {
+			Point3D_F64 p = SePointOps_F64.transform( tran, from.get( i ), null );
+			if( i % 3 == 0 ) {
+				p.x += 2 + rand.nextDouble()*5;
+				p.z -= 2 + rand.nextDouble()*5;
+			}
+			to.add( p );
+		}
+	}
+
+	@After
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private RansacParallel<Se3_F64, Point3D_F64> create( int numWorkers ) {
+		List<MotionTransformPoint<Se3_F64, Point3D_F64>> fitters = new ArrayList<MotionTransformPoint<Se3_F64, Point3D_F64>>();
+		List<ResidualTransformPoint<Se3_F64, Point3D_F64>> residuals = new ArrayList<ResidualTransformPoint<Se3_F64, Point3D_F64>>();
+		for( int i = 0; i < numWorkers; i++ ) {
+			fitters.add( new MotionSe3PointSVD_F64() );
+			residuals.add( new ResidualSe3PointSq_F64() );
+		}
+
+		return new RansacParallel<Se3_F64, Point3D_F64>( 234, fitters, residuals, 500, 0.01, executor );
+	}
+
+	@Test
+	public void deterministic() {
+		RansacParallel<Se3_F64, Point3D_F64> alg = create( 4 );
+
+		assertTrue( alg.process( from, to ) );
+		checkInliers( alg );
+
+		Se3_F64 first = alg.getMotion().copy();
+		int iterations = alg.getIterations();
+
+		// should produce the exact same results when run again
+		for( int trial = 0; trial < 5; trial++ ) {
+			assertTrue( alg.process( from, to ) );
+			assertEquals( iterations, alg.getIterations() );
+			for( int i = 0; i < 9; i++ )
+				assertEquals( first.getR().data[i], alg.getMotion().getR().data[i], 0 );
+		}
+	}
+
+	@Test
+	public void shared() {
+		RansacParallel<Se3_F64, Point3D_F64> alg = create( 4 );
+		alg.setDeterministic( false );
+
+		for( int trial = 0; trial < 5; trial++ ) {
+			assertTrue( alg.process( from, to ) );
+			checkInliers( alg );
+			assertTrue( alg.getIterations() < 200 );
+		}
+	}
+
+	private void checkInliers( RansacParallel<Se3_F64, Point3D_F64> alg ) {
+		assertEquals( 60, alg.getNumInliers() );
+		int inliers[] = alg.getInliers();
+		for( int i = 0; i < alg.getNumInliers(); i++ ) {
+			assertTrue( inliers[i] % 3 != 0 );
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.GeoTuple;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the time it takes to fit a 2D or 3D rigid body motion to a minimal sample, as is done inside of RANSAC,
+ * to a larger set of points, to a large batch of small independent problems, and to one very large set of points.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkMotionSe {
+
+	static int NUM_FITS = 200000;
+	static int NUM_TRIALS = 5;
+
+	public static <T extends InvertibleTransform, P extends GeoTuple>
+	void benchmark( String name, MotionTransformPoint<T, P> alg, List<P> from, List<P> to ) {
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long before = System.nanoTime();
+			for( int i = 0; i < NUM_FITS; i++ ) {
+				alg.process( from, to );
+			}
+			long after = System.nanoTime();
+
+			System.out.printf( "%-16s %3d points: %8.1f ns/fit\n", name, from.size(),
+					( after - before )/(double)NUM_FITS );
+		}
+	}
+
+	/**
+	 * Compares fitting many small problems one at a time against the batch fitter
+	 */
+	public static void benchmarkBatch( Random rand, int numProblems, int pointsPerProblem ) {
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		int N = numProblems*pointsPerProblem;
+		List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, N, rand );
+		List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : from ) {
+			to.add( SePointOps_F64.transform( tran, p, null ) );
+		}
+		PointCloud3D_F64 cloudFrom = new PointCloud3D_F64( from );
+		PointCloud3D_F64 cloudTo = new PointCloud3D_F64( to );
+
+		int offsets[] = new int[ numProblems + 1 ];
+		for( int i = 0; i <= numProblems; i++ )
+			offsets[i] = i*pointsPerProblem;
+
+		double poses[] = new double[ numProblems*MotionSe3PointBatch_F64.POSE_LENGTH ];
+		boolean success[] = new boolean[ numProblems ];
+
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool( numThreads );
+
+		MotionSe3PointSVD_F64 single = new MotionSe3PointSVD_F64();
+		MotionSe3PointBatch_F64 batch = new MotionSe3PointBatch_F64();
+		MotionSe3PointBatch_F64 parallel = new MotionSe3PointBatch_F64( executor, numThreads );
+
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long time0 = System.nanoTime();
+			for( int i = 0; i < numProblems; i++ ) {
+				int start = offsets[i], end = offsets[i+1];
+				single.process( from.subList( start, end ), to.subList( start, end ) );
+				MotionSe3PointBatch_F64.getPose( poses, i, null );
+			}
+			long time1 = System.nanoTime();
+			batch.process( cloudFrom, cloudTo, offsets, numProblems, poses, success );
+			long time2 = System.nanoTime();
+			parallel.process( cloudFrom, cloudTo, offsets, numProblems, poses, success );
+			long time3 = System.nanoTime();
+
+			System.out.printf( "Batch %d x %d points: single %6.1f  batch %6.1f  parallel(%d) %6.1f ns/fit\n",
+					numProblems, pointsPerProblem,
+					( time1 - time0 )/(double)numProblems,
+					( time2 - time1 )/(double)numProblems,
+					numThreads, ( time3 - time2 )/(double)numProblems );
+		}
+
+		executor.shutdown();
+	}
+
+	/**
+	 * Compares the sequential and parallel modes on one very large set of points
+	 */
+	public static void benchmarkLarge( Random rand, int N ) {
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		PointCloud3D_F64 cloudFrom = new PointCloud3D_F64( N );
+		PointCloud3D_F64 cloudTo = new PointCloud3D_F64( N );
+		Point3D_F64 p = new Point3D_F64();
+		for( int i = 0; i < N; i++ ) {
+			p.set( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian() );
+			cloudFrom.add( p );
+			SePointOps_F64.transform( tran, p, p );
+			cloudTo.add( p );
+		}
+
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool( numThreads );
+
+		MotionSe3PointSVD_F64 sequential = new MotionSe3PointSVD_F64();
+		MotionSe3PointSVD_F64 parallel = new MotionSe3PointSVD_F64( executor, 65536 );
+
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long time0 = System.nanoTime();
+			sequential.process( cloudFrom, cloudTo );
+			long time1 = System.nanoTime();
+			parallel.process( cloudFrom, cloudTo );
+			long time2 = System.nanoTime();
+
+			System.out.printf( "Large %d points: sequential %6.1f  parallel(%d) %6.1f ms\n", N,
+					( time1 - time0 )*1e-6, numThreads, ( time2 - time1 )*1e-6 );
+		}
+
+		executor.shutdown();
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		for( int N : new int[]{3, 30} ) {
+			List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, N, rand );
+			List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+			for( Point3D_F64 p : from ) {
+				to.add( SePointOps_F64.transform( tran, p, null ) );
+			}
+
+			benchmark( "SVD", new MotionSe3PointSVD_F64(), from, to );
+			benchmark( "CrossCovariance", new MotionSe3PointCrossCovariance_F64(), from, to );
+		}
+
+		Se2_F64 tran2 = new Se2_F64( 1, -2, 0.6 );
+		for( int N : new int[]{3, 30} ) {
+			List<Point2D_F64> from = UtilPoint2D_F64.random( -10, 10, N, rand );
+			List<Point2D_F64> to = new ArrayList<Point2D_F64>();
+			for( Point2D_F64 p : from ) {
+				to.add( SePointOps_F64.transform( tran2, p, null ) );
+			}
+
+			benchmark( "Se2 SVD", new MotionSe2PointSVD_F64(), from, to );
+		}
+
+		benchmarkBatch( rand, 100000, 4 );
+		benchmarkLarge( rand, 5000000 );
+	}
+}
@@ -23,6 +23,7 @@ import georegression.geometry.UtilPoint2D_F32;
 import georegression.misc.GrlConstants;
 import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
 import georegression.struct.se.Se2_F32;
 import georegression.transform.se.SePointOps_F32;
 import org.junit.Test;
@@ -62,6 +63,23 @@ public class TestMotionSe2PointSVD_F32 {
 		checkTransform( from, to, tranFound, GrlConstants.FLOAT_TEST_TOL );
 	}
 
+	@Test
+	public void noiseless_cloud() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> from = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> to = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : from ) {
+			to.add( SePointOps_F32.transform( tran, p, null ) );
+		}
+
+		MotionSe2PointSVD_F32 alg = new MotionSe2PointSVD_F32();
+
+		assertTrue( alg.process( new PointCloud2D_F32( from ), new PointCloud2D_F32( to ) ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
 	public static void checkTransform( List<Point2D_F32> from, List<Point2D_F32> to, Se2_F32 tranFound, float tol ) {
 		Point2D_F32 foundPt = new Point2D_F32();
 		for( int i = 0; i < from.size(); i++ ) {
@@ -23,6 +23,7 @@ import georegression.geometry.UtilPoint2D_F64;
 import georegression.misc.GrlConstants;
 import georegression.misc.test.GeometryUnitTest;
 import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
 import georegression.struct.se.Se2_F64;
 import georegression.transform.se.SePointOps_F64;
 import org.junit.Test;
@@ -62,6 +63,23 @@ public class TestMotionSe2PointSVD_F64 {
 		checkTransform( from, to, tranFound, GrlConstants.DOUBLE_TEST_TOL );
 	}
 
+	@Test
+	public void noiseless_cloud() {
+		Se2_F64 tran = new Se2_F64( 2, -4, 0.93 );
+
+		List<Point2D_F64> from = UtilPoint2D_F64.random( -10, 10, 30, rand );
+		List<Point2D_F64> to = new ArrayList<Point2D_F64>();
+		for( Point2D_F64 p : from ) {
+			to.add( SePointOps_F64.transform( tran, p, null ) );
+		}
+
+		MotionSe2PointSVD_F64 alg = new MotionSe2PointSVD_F64();
+
+		assertTrue( alg.process( new PointCloud2D_F64( from ), new PointCloud2D_F64( to ) ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
 	public static void checkTransform( List<Point2D_F64> from, List<Point2D_F64> to, Se2_F64 tranFound, double tol ) {
 		Point2D_F64 foundPt = new Point2D_F64();
 		for( int i = 0; i < from.size(); i++ ) {
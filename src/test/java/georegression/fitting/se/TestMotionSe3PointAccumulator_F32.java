@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointAccumulator_F32 {
+
+	Random rand = new Random( 234 );
+
+	Se3_F32 tran = new Se3_F32( RotationMatrixGenerator.eulerXYZ( 0.2f, -0.3f, 1.1f, null ),
+			new Vector3D_F32( 1, -2, 0.5f ) );
+
+	List<Point3D_F32> from = UtilPoint3D_F32.random( -10, 10, 40, rand );
+	List<Point3D_F32> to = new ArrayList<Point3D_F32>();
+
+	public TestMotionSe3PointAccumulator_F32() {
+		for( Point3D_F32 p : from ) {
+			to.add( SePointOps_F32.transform( tran, p, null ) );
+		}
+		// add noise so that the solution depends on exactly which points are used
+		UtilPoint3D_F32.noiseNormal( to, 0.1f, rand );
+	}
+
+	/**
+	 * Adds the points one at a time and compares against the batch solution
+	 */
+	@Test
+	public void add() {
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+
+		for( int i = 0; i < from.size(); i++ ) {
+			alg.add( from.get( i ), to.get( i ) );
+		}
+
+		assertEquals( from.size(), alg.size() );
+		assertTrue( alg.process() );
+
+		checkAgainstBatch( from, to, alg.getMotion() );
+	}
+
+	/**
+	 * Simulate a sliding window
+	 */
+	@Test
+	public void remove() {
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+
+		int window = 10;
+		for( int i = 0; i < from.size(); i++ ) {
+			alg.add( from.get( i ), to.get( i ) );
+			if( i >= window )
+				alg.remove( from.get( i - window ), to.get( i - window ) );
+
+			if( i >= window ) {
+				assertTrue( alg.process() );
+				int start = i - window + 1;
+				checkAgainstBatch( from.subList( start, i + 1 ), to.subList( start, i + 1 ), alg.getMotion() );
+			}
+		}
+	}
+
+	@Test
+	public void merge() {
+		MotionSe3PointAccumulator_F32 a = new MotionSe3PointAccumulator_F32();
+		MotionSe3PointAccumulator_F32 b = new MotionSe3PointAccumulator_F32();
+
+		for( int i = 0; i < from.size(); i++ ) {
+			if( i % 2 == 0 )
+				a.add( from.get( i ), to.get( i ) );
+			else
+				b.add( from.get( i ), to.get( i ) );
+		}
+
+		a.merge( b );
+		assertEquals( from.size(), a.size() );
+		assertTrue( a.process() );
+
+		checkAgainstBatch( from, to, a.getMotion() );
+	}
+
+	/**
+	 * Points which are far from the origin relative to their spread, e.g. in a map frame
+	 */
+	@Test
+	public void farFromOrigin() {
+		createFarPoints();
+
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		for( int i = 0; i < from.size(); i++ ) {
+			alg.add( from.get( i ), to.get( i ) );
+		}
+		assertTrue( alg.process() );
+
+		checkRotation( alg.getMotion() );
+	}
+
+	/**
+	 * Merge two accumulators which have different origins far from the coordinate system's origin
+	 */
+	@Test
+	public void merge_farFromOrigin() {
+		createFarPoints();
+
+		MotionSe3PointAccumulator_F32 a = new MotionSe3PointAccumulator_F32();
+		MotionSe3PointAccumulator_F32 b = new MotionSe3PointAccumulator_F32();
+		for( int i = 0; i < from.size(); i++ ) {
+			if( i < from.size()/2 )
+				a.add( from.get( i ), to.get( i ) );
+			else
+				b.add( from.get( i ), to.get( i ) );
+		}
+
+		// merge into an empty accumulator too
+		MotionSe3PointAccumulator_F32 c = new MotionSe3PointAccumulator_F32();
+		c.merge( b );
+		a.merge( c );
+		assertEquals( from.size(), a.size() );
+		assertTrue( a.process() );
+
+		checkRotation( a.getMotion() );
+	}
+
+	/**
+	 * Creates noiseless points with a spread of 1 meter, but far from the origin
+	 */
+	private void createFarPoints() {
+		from.clear();
+		to.clear();
+		for( int i = 0; i < 50; i++ ) {
+			Point3D_F32 p = new Point3D_F32( (float)( 5e5 + rand.nextFloat() - 0.5f ),
+					(float)( 4e6 + rand.nextFloat() - 0.5f ), (float)( 100 + rand.nextFloat() - 0.5f ) );
+			from.add( p );
+			to.add( SePointOps_F32.transform( tran, p, null ) );
+		}
+	}
+
+	private void checkRotation( Se3_F32 found ) {
+		float tol = GrlConstants.FLOAT_TEST_TOL*100;
+		for( int i = 0; i < 9; i++ )
+			assertEquals( tran.getR().data[i], found.getR().data[i], tol );
+	}
+
+	@Test
+	public void tooFewPoints() {
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+
+		alg.add( from.get( 0 ), to.get( 0 ) );
+		alg.add( from.get( 1 ), to.get( 1 ) );
+
+		assertFalse( alg.process() );
+	}
+
+	private void checkAgainstBatch( List<Point3D_F32> from, List<Point3D_F32> to, Se3_F32 found ) {
+		MotionSe3PointSVD_F32 batch = new MotionSe3PointSVD_F32();
+		assertTrue( batch.process( from, to ) );
+
+		Se3_F32 expected = batch.getMotion();
+
+		float tol = GrlConstants.FLOAT_TEST_TOL*100;
+		for( int i = 0; i < 9; i++ )
+			assertEquals( expected.getR().data[i], found.getR().data[i], tol );
+		assertEquals( expected.getT().x, found.getT().x, tol );
+		assertEquals( expected.getT().y, found.getT().y, tol );
+		assertEquals( expected.getT().z, found.getT().z, tol );
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.se;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointBatch_F64 {
+
+	Random rand = new Random( 2345 );
+
+	PointCloud3D_F64 from = new PointCloud3D_F64();
+	PointCloud3D_F64 to = new PointCloud3D_F64();
+	List<Se3_F64> truth = new ArrayList<Se3_F64>();
+
+	/**
+	 * Creates problems with a variable number of points, each with its own motion
+	 */
+	private int[] createProblems( int numProblems ) {
+		int offsets[] = new int[ numProblems + 1 ];
+
+		for( int i = 0; i < numProblems; i++ ) {
+			offsets[i] = from.size;
+
+			Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ(
+					rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), null ),
+					new Vector3D_F64( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian() ) );
+			truth.add( tran );
+
+			int N = 3 + rand.nextInt( 10 );
+			for( Point3D_F64 p : UtilPoint3D_F64.random( -10, 10, N, rand ) ) {
+				from.add( p );
+				to.add( SePointOps_F64.transform( tran, p, null ) );
+			}
+		}
+		offsets[numProblems] = from.size;
+
+		return offsets;
+	}
+
+	@Test
+	public void noiseless() {
+		int numProblems = 50;
+		int offsets[] = createProblems( numProblems );
+
+		double poses[] = new double[ numProblems*MotionSe3PointBatch_F64.POSE_LENGTH ];
+		boolean success[] = new boolean[ numProblems ];
+
+		MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64();
+		assertEquals( numProblems, alg.process( from, to, offsets, numProblems, poses, success ) );
+
+		Se3_F64 found = new Se3_F64();
+		for( int i = 0; i < numProblems; i++ ) {
+			assertTrue( success[i] );
+			MotionSe3PointBatch_F64.getPose( poses, i, found );
+
+			Se3_F64 expected = truth.get( i );
+			assertTrue( MatrixFeatures.isIdentical( expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL*100 ) );
+			assertEquals( 0, expected.getT().distance( found.getT() ), GrlConstants.DOUBLE_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * Should produce the same solution as fitting each problem individually
+	 */
+	@Test
+	public void compareToSingle() {
+		int numProblems = 20;
+		int offsets[] = createProblems( numProblems );
+
+		// add noise so that the solution isn't exact
+		for( int i = 0; i < to.size*3; i++ ) {
+			to.data[i] += rand.nextGaussian()*0.1;
+		}
+
+		double poses[] = new double[ numProblems*MotionSe3PointBatch_F64.POSE_LENGTH ];
+		boolean success[] = new boolean[ numProblems ];
+
+		MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64();
+		alg.process( from, to, offsets, numProblems, poses, success );
+
+		MotionSe3PointSVD_F64 single = new MotionSe3PointSVD_F64();
+		Se3_F64 found = new Se3_F64();
+		for( int i = 0; i < numProblems; i++ ) {
+			List<Point3D_F64> a = new ArrayList<Point3D_F64>();
+			List<Point3D_F64> b = new ArrayList<Point3D_F64>();
+			for( int j = offsets[i]; j < offsets[i+1]; j++ ) {
+				a.add( from.get( j, null ) );
+				b.add( to.get( j, null ) );
+			}
+			assertTrue( single.process( a, b ) );
+			MotionSe3PointBatch_F64.getPose( poses, i, found );
+
+			Se3_F64 expected = single.getMotion();
+			assertTrue( MatrixFeatures.isIdentical( expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL*100 ) );
+			assertEquals( 0, expected.getT().distance( found.getT() ), GrlConstants.DOUBLE_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * Problems without enough points should be marked as failed and not stop the others from being solved
+	 */
+	@Test
+	public void tooFewPoints() {
+		int offsets[] = createProblems( 2 );
+		// the second problem now has only 2 points
+		offsets = new int[]{ offsets[0], offsets[1], offsets[1] + 2 };
+
+		double poses[] = new double[ 2*MotionSe3PointBatch_F64.POSE_LENGTH ];
+		boolean success[] = new boolean[ 2 ];
+
+		MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64();
+		assertEquals( 1, alg.process( from, to, offsets, 2, poses, success ) );
+		assertTrue( success[0] );
+		assertFalse( success[1] );
+	}
+
+	/**
+	 * An empty batch after a non-empty one.  The workers should not be using stale state from the previous call.
+	 */
+	@Test
+	public void emptyAfterNonEmpty() {
+		int offsets[] = createProblems( 3 );
+
+		double poses[] = new double[ 3*MotionSe3PointBatch_F64.POSE_LENGTH ];
+		boolean success[] = new boolean[ 3 ];
+
+		MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64();
+		assertEquals( 3, alg.process( from, to, offsets, 3, poses, success ) );
+		assertEquals( 0, alg.process( from, to, new int[]{ 0 }, 0, poses, success ) );
+	}
+
+	/**
+	 * The parallel version should produce identical results
+	 */
+	@Test
+	public void parallel() {
+		int numProblems = 37;
+		int offsets[] = createProblems( numProblems );
+
+		double expected[] = new double[ numProblems*MotionSe3PointBatch_F64.POSE_LENGTH ];
+		double found[] = new double[ expected.length ];
+		boolean success[] = new boolean[ numProblems ];
+
+		new MotionSe3PointBatch_F64().process( from, to, offsets, numProblems, expected, success );
+
+		ExecutorService executor = Executors.newFixedThreadPool( 3 );
+		try {
+			MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64( executor, 4 );
+			assertEquals( numProblems, alg.process( from, to, offsets, numProblems, found, success ) );
+			// call it twice to make sure it can be reused
+			assertEquals( numProblems, alg.process( from, to, offsets, numProblems, found, success ) );
+		} finally {
+			executor.shutdown();
+		}
+
+		for( int i = 0; i < expected.length; i++ ) {
+			assertEquals( expected[i], found[i], 0 );
+		}
+	}
+}
@@ -20,8 +20,23 @@
 package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.point.Vector3D_F32;
 import georegression.struct.se.Se3_F32;
+import georegression.struct.so.Quaternion;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -33,4 +48,93 @@ public class TestMotionSe3PointCrossCovariance_F32 extends GeneralMotionSe3Tests
 		return new MotionSe3PointCrossCovariance_F32();
 	}
 
+	/**
+	 * The packed array version should produce the same solution as the list version
+	 */
+	@Test
+	public void process_cloud() {
+		Se3_F32 tran = new Se3_F32( RotationMatrixGenerator.eulerXYZ( 0.1f, -0.4f, 1.2f, null ),
+				new Vector3D_F32( 1, -2, 0.5f ) );
+
+		List<Point3D_F32> from = UtilPoint3D_F32.random( -10, 10, 30, rand );
+		List<Point3D_F32> to = new ArrayList<Point3D_F32>();
+		for( Point3D_F32 p : from ) {
+			to.add( SePointOps_F32.transform( tran, p, null ) );
+		}
+
+		MotionSe3PointCrossCovariance_F32 alg = new MotionSe3PointCrossCovariance_F32();
+
+		PointCloud3D_F32 cloudFrom = new PointCloud3D_F32( from );
+		PointCloud3D_F32 cloudTo = new PointCloud3D_F32( to );
+
+		assertTrue( alg.process( cloudFrom, cloudTo ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	/**
+	 * With noisy data the solution should be the same as the one found using SVD, since both are optimal
+	 */
+	@Test
+	public void noisy_compareToSvd() {
+		MotionSe3PointCrossCovariance_F32 alg = new MotionSe3PointCrossCovariance_F32();
+		MotionSe3PointSVD_F32 svd = new MotionSe3PointSVD_F32();
+
+		for( int trial = 0; trial < 20; trial++ ) {
+			Se3_F32 tran = new Se3_F32( RotationMatrixGenerator.eulerXYZ( (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+					(float)rand.nextGaussian(), null ), new Vector3D_F32( 1, -2, 0.5f ) );
+
+			List<Point3D_F32> from = UtilPoint3D_F32.random( -10, 10, 20, rand );
+			List<Point3D_F32> to = new ArrayList<Point3D_F32>();
+			for( Point3D_F32 p : from ) {
+				Point3D_F32 q = SePointOps_F32.transform( tran, p, null );
+				q.x += (float)rand.nextGaussian()*0.5f;
+				q.y += (float)rand.nextGaussian()*0.5f;
+				q.z += (float)rand.nextGaussian()*0.5f;
+				to.add( q );
+			}
+
+			assertTrue( alg.process( from, to ) );
+			assertTrue( svd.process( from, to ) );
+
+			Se3_F32 found = alg.getMotion();
+			Se3_F32 expected = svd.getMotion();
+			for( int i = 0; i < 9; i++ )
+				assertEquals( expected.getR().data[i], found.getR().data[i], GrlConstants.FLOAT_TEST_TOL*100 );
+			assertTrue( expected.getT().isIdentical( found.getT(), GrlConstants.FLOAT_TEST_TOL*100 ) );
+
+			// the quaternion in param should describe the same rotation
+			Quaternion q = new Quaternion( alg.getParam()[0], alg.getParam()[1], alg.getParam()[2], alg.getParam()[3] );
+			DenseMatrix64F R = RotationMatrixGenerator.quaternionToMatrix( q, null );
+			for( int i = 0; i < 9; i++ )
+				assertEquals( R.data[i], found.getR().data[i], GrlConstants.FLOAT_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * When the points are collinear the rotation around the line is ambiguous and the largest eigenvalue is
+	 * not distinct.  Any of the solutions is acceptable.
+	 */
+	@Test
+	public void collinear() {
+		Se3_F32 tran = new Se3_F32( RotationMatrixGenerator.eulerXYZ( 0.1f, -0.4f, 1.2f, null ),
+				new Vector3D_F32( 1, -2, 0.5f ) );
+
+		List<Point3D_F32> from = new ArrayList<Point3D_F32>();
+		List<Point3D_F32> to = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < 10; i++ ) {
+			Point3D_F32 p = new Point3D_F32( i, 2*i - 1, -i );
+			from.add( p );
+			to.add( SePointOps_F32.transform( tran, p, null ) );
+		}
+
+		MotionSe3PointCrossCovariance_F32 alg = new MotionSe3PointCrossCovariance_F32();
+		assertTrue( alg.process( from, to ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+
+		// the decomposition is reused, so a second call should work too
+		assertTrue( alg.process( from, to ) );
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
 }
@@ -20,8 +20,23 @@
 package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
 import georegression.struct.se.Se3_F64;
+import georegression.struct.so.Quaternion;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -33,4 +48,93 @@ public class TestMotionSe3PointCrossCovariance_F64 extends GeneralMotionSe3Tests
 		return new MotionSe3PointCrossCovariance_F64();
 	}
 
+	/**
+	 * The packed array version should produce the same solution as the list version
+	 */
+	@Test
+	public void process_cloud() {
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.4, 1.2, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, 30, rand );
+		List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : from ) {
+			to.add( SePointOps_F64.transform( tran, p, null ) );
+		}
+
+		MotionSe3PointCrossCovariance_F64 alg = new MotionSe3PointCrossCovariance_F64();
+
+		PointCloud3D_F64 cloudFrom = new PointCloud3D_F64( from );
+		PointCloud3D_F64 cloudTo = new PointCloud3D_F64( to );
+
+		assertTrue( alg.process( cloudFrom, cloudTo ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	/**
+	 * With noisy data the solution should be the same as the one found using SVD, since both are optimal
+	 */
+	@Test
+	public void noisy_compareToSvd() {
+		MotionSe3PointCrossCovariance_F64 alg = new MotionSe3PointCrossCovariance_F64();
+		MotionSe3PointSVD_F64 svd = new MotionSe3PointSVD_F64();
+
+		for( int trial = 0; trial < 20; trial++ ) {
+			Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( rand.nextGaussian(), rand.nextGaussian(),
+					rand.nextGaussian(), null ), new Vector3D_F64( 1, -2, 0.5 ) );
+
+			List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, 20, rand );
+			List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+			for( Point3D_F64 p : from ) {
+				Point3D_F64 q = SePointOps_F64.transform( tran, p, null );
+				q.x += rand.nextGaussian()*0.5;
+				q.y += rand.nextGaussian()*0.5;
+				q.z += rand.nextGaussian()*0.5;
+				to.add( q );
+			}
+
+			assertTrue( alg.process( from, to ) );
+			assertTrue( svd.process( from, to ) );
+
+			Se3_F64 found = alg.getMotion();
+			Se3_F64 expected = svd.getMotion();
+			for( int i = 0; i < 9; i++ )
+				assertEquals( expected.getR().data[i], found.getR().data[i], GrlConstants.DOUBLE_TEST_TOL*100 );
+			assertTrue( expected.getT().isIdentical( found.getT(), GrlConstants.DOUBLE_TEST_TOL*100 ) );
+
+			// the quaternion in param should describe the same rotation
+			Quaternion q = new Quaternion( alg.getParam()[0], alg.getParam()[1], alg.getParam()[2], alg.getParam()[3] );
+			DenseMatrix64F R = RotationMatrixGenerator.quaternionToMatrix( q, null );
+			for( int i = 0; i < 9; i++ )
+				assertEquals( R.data[i], found.getR().data[i], GrlConstants.DOUBLE_TEST_TOL*100 );
+		}
+	}
+
+	/**
+	 * When the points are collinear the rotation around the line is ambiguous and the largest eigenvalue is
+	 * not distinct.  Any of the solutions is acceptable.
+	 */
+	@Test
+	public void collinear() {
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.4, 1.2, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		List<Point3D_F64> from = new ArrayList<Point3D_F64>();
+		List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < 10; i++ ) {
+			Point3D_F64 p = new Point3D_F64( i, 2*i - 1, -i );
+			from.add( p );
+			to.add( SePointOps_F64.transform( tran, p, null ) );
+		}
+
+		MotionSe3PointCrossCovariance_F64 alg = new MotionSe3PointCrossCovariance_F64();
+		assertTrue( alg.process( from, to ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL*100 );
+
+		// the decomposition is reused, so a second call should work too
+		assertTrue( alg.process( from, to ) );
+		checkTransform( from, to, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
 }
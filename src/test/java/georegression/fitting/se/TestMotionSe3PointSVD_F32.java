@@ -20,8 +20,23 @@
 package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.point.Vector3D_F32;
 import georegression.struct.se.Se3_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -33,4 +48,67 @@ public class TestMotionSe3PointSVD_F32 extends GeneralMotionSe3Tests_F32 {
 		return new MotionSe3PointSVD_F32();
 	}
 
+	/**
+	 * The packed array version should produce the same solution as the list version
+	 */
+	@Test
+	public void process_cloud() {
+		Se3_F32 tran = new Se3_F32( RotationMatrixGenerator.eulerXYZ( 0.1f, -0.4f, 1.2f, null ),
+				new Vector3D_F32( 1, -2, 0.5f ) );
+
+		List<Point3D_F32> from = UtilPoint3D_F32.random( -10, 10, 30, rand );
+		List<Point3D_F32> to = new ArrayList<Point3D_F32>();
+		for( Point3D_F32 p : from ) {
+			to.add( SePointOps_F32.transform( tran, p, null ) );
+		}
+
+		MotionSe3PointSVD_F32 alg = new MotionSe3PointSVD_F32();
+
+		PointCloud3D_F32 cloudFrom = new PointCloud3D_F32( from );
+		PointCloud3D_F32 cloudTo = new PointCloud3D_F32( to );
+
+		assertTrue( alg.process( cloudFrom, cloudTo ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	/**
+	 * The parallel mode should produce the same solution as the sequential mode
+	 */
+	@Test
+	public void process_parallel() {
+		Se3_F32 tran = new Se3_F32( RotationMatrixGenerator.eulerXYZ( 0.1f, -0.4f, 1.2f, null ),
+				new Vector3D_F32( 1, -2, 0.5f ) );
+
+		List<Point3D_F32> from = UtilPoint3D_F32.random( -10, 10, 1000, rand );
+		List<Point3D_F32> to = new ArrayList<Point3D_F32>();
+		for( Point3D_F32 p : from ) {
+			Point3D_F32 q = SePointOps_F32.transform( tran, p, null );
+			q.x += (float)rand.nextGaussian()*0.1f;
+			to.add( q );
+		}
+		PointCloud3D_F32 cloudFrom = new PointCloud3D_F32( from );
+		PointCloud3D_F32 cloudTo = new PointCloud3D_F32( to );
+
+		MotionSe3PointSVD_F32 sequential = new MotionSe3PointSVD_F32();
+		assertTrue( sequential.process( from, to ) );
+		Se3_F32 expected = sequential.getMotion();
+
+		ExecutorService executor = Executors.newFixedThreadPool( 3 );
+		MotionSe3PointSVD_F32 alg = new MotionSe3PointSVD_F32( executor, 64 );
+
+		assertTrue( alg.process( from, to ) );
+		checkEquals( expected, alg.getMotion() );
+		alg.getMotion().reset();
+		assertTrue( alg.process( cloudFrom, cloudTo ) );
+		checkEquals( expected, alg.getMotion() );
+		executor.shutdown();
+	}
+
+	private void checkEquals( Se3_F32 expected, Se3_F32 found ) {
+		assertTrue( expected.getT().isIdentical( found.getT(), GrlConstants.FLOAT_TEST_TOL ) );
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( expected.getR().data[i], found.getR().data[i], GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
 }
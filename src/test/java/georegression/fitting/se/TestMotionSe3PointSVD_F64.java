@@ -20,8 +20,23 @@
 package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
 import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -33,4 +48,67 @@ public class TestMotionSe3PointSVD_F64 extends GeneralMotionSe3Tests_F64 {
 		return new MotionSe3PointSVD_F64();
 	}
 
+	/**
+	 * The packed array version should produce the same solution as the list version
+	 */
+	@Test
+	public void process_cloud() {
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.4, 1.2, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, 30, rand );
+		List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : from ) {
+			to.add( SePointOps_F64.transform( tran, p, null ) );
+		}
+
+		MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+
+		PointCloud3D_F64 cloudFrom = new PointCloud3D_F64( from );
+		PointCloud3D_F64 cloudTo = new PointCloud3D_F64( to );
+
+		assertTrue( alg.process( cloudFrom, cloudTo ) );
+
+		checkTransform( from, to, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	/**
+	 * The parallel mode should produce the same solution as the sequential mode
+	 */
+	@Test
+	public void process_parallel() {
+		Se3_F64 tran = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.4, 1.2, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, 1000, rand );
+		List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : from ) {
+			Point3D_F64 q = SePointOps_F64.transform( tran, p, null );
+			q.x += rand.nextGaussian()*0.1;
+			to.add( q );
+		}
+		PointCloud3D_F64 cloudFrom = new PointCloud3D_F64( from );
+		PointCloud3D_F64 cloudTo = new PointCloud3D_F64( to );
+
+		MotionSe3PointSVD_F64 sequential = new MotionSe3PointSVD_F64();
+		assertTrue( sequential.process( from, to ) );
+		Se3_F64 expected = sequential.getMotion();
+
+		ExecutorService executor = Executors.newFixedThreadPool( 3 );
+		MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64( executor, 64 );
+
+		assertTrue( alg.process( from, to ) );
+		checkEquals( expected, alg.getMotion() );
+		alg.getMotion().reset();
+		assertTrue( alg.process( cloudFrom, cloudTo ) );
+		checkEquals( expected, alg.getMotion() );
+		executor.shutdown();
+	}
+
+	private void checkEquals( Se3_F64 expected, Se3_F64 found ) {
+		assertTrue( expected.getT().isIdentical( found.getT(), GrlConstants.DOUBLE_TEST_TOL ) );
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( expected.getR().data[i], found.getR().data[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.se;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRefineSe3PointLM_F32 {
+
+	Random rand = new Random( 234 );
+
+	Se3_F32 motion = new Se3_F32( RotationMatrixGenerator.eulerXYZ( 0.5f, -0.2f, 1.1f, null ),
+			new Vector3D_F32( 1, -0.5f, 2 ) );
+
+	PointCloud3D_F32 from = new PointCloud3D_F32();
+	PointCloud3D_F32 to = new PointCloud3D_F32();
+
+	/**
+	 * Creates points which are transformed by 'motion', plus noise.  The first 'numOutliers' destination
+	 * points are randomly moved far away.
+	 */
+	private void createPoints( int N, float noise, int numOutliers ) {
+		Point3D_F32 p = new Point3D_F32();
+		for( int i = 0; i < N; i++ ) {
+			p.set( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian() );
+			from.add( p );
+			SePointOps_F32.transform( motion, p, p );
+			if( i < numOutliers ) {
+				p.x += 2 + rand.nextFloat()*3;
+				p.y -= 2 + rand.nextFloat()*3;
+			}
+			to.add( p.x + (float)rand.nextGaussian()*noise, p.y + (float)rand.nextGaussian()*noise,
+					p.z + (float)rand.nextGaussian()*noise );
+		}
+	}
+
+	/**
+	 * Creates an initial estimate by perturbing the true motion
+	 */
+	private Se3_F32 perturb( Se3_F32 original ) {
+		Se3_F32 delta = new Se3_F32( RotationMatrixGenerator.eulerXYZ( 0.2f, 0.1f, -0.15f, null ),
+				new Vector3D_F32( 0.3f, 0.2f, -0.1f ) );
+		return original.concat( delta, null );
+	}
+
+	@Test
+	public void noiseless() {
+		createPoints( 30, 0, 0 );
+
+		RefineSe3PointLM_F32 alg = new RefineSe3PointLM_F32();
+		assertTrue( alg.process( from, to, perturb( motion ) ) );
+
+		assertTrue( alg.getInitialCost() > 1 );
+		assertEquals( 0, alg.getCost(), GrlConstants.FLOAT_TEST_TOL );
+		checkEquals( motion, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	/**
+	 * With squared loss the optimal solution is the same as the closed form SVD solution
+	 */
+	@Test
+	public void squared_sameAsSvd() {
+		createPoints( 50, 0.05f, 0 );
+
+		MotionSe3PointSVD_F32 svd = new MotionSe3PointSVD_F32();
+		assertTrue( svd.process( from, to ) );
+
+		RefineSe3PointLM_F32 alg = new RefineSe3PointLM_F32();
+		assertTrue( alg.process( from, to, perturb( motion ) ) );
+
+		checkEquals( svd.getMotion(), alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+		assertTrue( alg.getIterations() < 20 );
+	}
+
+	/**
+	 * Starting at the optimal solution it should stay there
+	 */
+	@Test
+	public void startAtOptimal() {
+		createPoints( 50, 0.05f, 0 );
+
+		MotionSe3PointSVD_F32 svd = new MotionSe3PointSVD_F32();
+		assertTrue( svd.process( from, to ) );
+
+		RefineSe3PointLM_F32 alg = new RefineSe3PointLM_F32();
+		assertTrue( alg.process( from, to, svd.getMotion() ) );
+
+		checkEquals( svd.getMotion(), alg.getMotion(), GrlConstants.FLOAT_TEST_TOL*100 );
+		assertTrue( alg.getCost() <= alg.getInitialCost() );
+	}
+
+	/**
+	 * Robust loss functions should be much less influenced by outliers than least squares
+	 */
+	@Test
+	public void robust() {
+		createPoints( 100, 0.01f, 20 );
+
+		MotionSe3PointSVD_F32 svd = new MotionSe3PointSVD_F32();
+		assertTrue( svd.process( from, to ) );
+		float errorSvd = error( svd.getMotion() );
+
+		RefineSe3PointLM_F32 huber = new RefineSe3PointLM_F32( 200, GrlConstants.FLOAT_TEST_TOL, RefineSe3PointLM_F32.Loss.HUBER, 0.05f );
+		assertTrue( huber.process( from, to, svd.getMotion() ) );
+		RefineSe3PointLM_F32 cauchy = new RefineSe3PointLM_F32( 200, GrlConstants.FLOAT_TEST_TOL, RefineSe3PointLM_F32.Loss.CAUCHY, 0.05f );
+		assertTrue( cauchy.process( from, to, svd.getMotion() ) );
+
+		assertTrue( huber.getCost() < huber.getInitialCost() );
+		assertTrue( cauchy.getCost() < cauchy.getInitialCost() );
+		assertTrue( error( huber.getMotion() ) < errorSvd*0.2f );
+		assertTrue( error( cauchy.getMotion() ) < errorSvd*0.2f );
+		assertTrue( error( cauchy.getMotion() ) < 0.05f );
+	}
+
+	@Test
+	public void list_sameAsCloud() {
+		createPoints( 40, 0.05f, 5 );
+
+		List<Point3D_F32> listFrom = new ArrayList<Point3D_F32>();
+		List<Point3D_F32> listTo = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < from.size; i++ ) {
+			listFrom.add( from.get( i, null ) );
+			listTo.add( to.get( i, null ) );
+		}
+
+		RefineSe3PointLM_F32 alg = new RefineSe3PointLM_F32( 100, GrlConstants.FLOAT_TEST_TOL, RefineSe3PointLM_F32.Loss.HUBER, 0.1f );
+		assertTrue( alg.process( from, to, perturb( motion ) ) );
+		Se3_F32 expected = alg.getMotion().copy();
+		assertTrue( alg.process( listFrom, listTo, perturb( motion ) ) );
+
+		checkEquals( expected, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	@Test
+	public void maxIterations() {
+		createPoints( 30, 0.05f, 0 );
+
+		RefineSe3PointLM_F32 alg = new RefineSe3PointLM_F32( 2, 0, RefineSe3PointLM_F32.Loss.SQUARED, 1 );
+		assertFalse( alg.process( from, to, perturb( motion ) ) );
+		assertEquals( 2, alg.getIterations() );
+		assertTrue( alg.getCost() < alg.getInitialCost() );
+	}
+
+	@Test
+	public void tooFewPoints() {
+		createPoints( 2, 0, 0 );
+
+		RefineSe3PointLM_F32 alg = new RefineSe3PointLM_F32();
+		assertFalse( alg.process( from, to, motion ) );
+	}
+
+	/**
+	 * All the points lie along a line, so rotation around that line is unconstrained.  The translation should
+	 * still be found.
+	 */
+	@Test
+	public void collinear() {
+		for( int i = 0; i < 5; i++ ) {
+			from.add( i, 0, 0 );
+			to.add( i + 0.1f, 0, 0 );
+		}
+
+		RefineSe3PointLM_F32 alg = new RefineSe3PointLM_F32();
+		assertTrue( alg.process( from, to, new Se3_F32() ) );
+
+		assertTrue( alg.getCost() < alg.getInitialCost()*GrlConstants.FLOAT_TEST_TOL );
+		assertEquals( 0.1f, alg.getMotion().getT().x, GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( 0, alg.getMotion().getT().y, GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( 0, alg.getMotion().getT().z, GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+
+	/**
+	 * If the system can't be solved it should give up and report that it failed
+	 */
+	@Test
+	public void solveFails() {
+		createPoints( 30, 0, 0 );
+		for( int i = 0; i < from.size*3; i++ ) {
+			from.data[i] = Float.NaN;
+		}
+
+		RefineSe3PointLM_F32 alg = new RefineSe3PointLM_F32( 100, 0, RefineSe3PointLM_F32.Loss.SQUARED, 1 );
+		assertFalse( alg.process( from, to, motion ) );
+		assertTrue( alg.getIterations() <= 100 );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void badLossParam() {
+		new RefineSe3PointLM_F32( 100, GrlConstants.FLOAT_TEST_TOL, RefineSe3PointLM_F32.Loss.CAUCHY, 0 );
+	}
+
+	/**
+	 * Distance between the true motion and the found motion, using the difference in how they transform
+	 * the points
+	 */
+	private float error( Se3_F32 found ) {
+		Point3D_F32 p = new Point3D_F32();
+		Point3D_F32 a = new Point3D_F32();
+		Point3D_F32 b = new Point3D_F32();
+		float total = 0;
+		for( int i = 0; i < from.size; i++ ) {
+			from.get( i, p );
+			SePointOps_F32.transform( motion, p, a );
+			SePointOps_F32.transform( found, p, b );
+			total += a.distance( b );
+		}
+		return total/from.size;
+	}
+
+	private void checkEquals( Se3_F32 expected, Se3_F32 found, float tol ) {
+		assertTrue( expected.getT().isIdentical( found.getT(), tol ) );
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( expected.getR().data[i], found.getR().data[i], tol );
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.se;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRefineSe3PointLM_F64 {
+
+	Random rand = new Random( 234 );
+
+	Se3_F64 motion = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.5, -0.2, 1.1, null ),
+			new Vector3D_F64( 1, -0.5, 2 ) );
+
+	PointCloud3D_F64 from = new PointCloud3D_F64();
+	PointCloud3D_F64 to = new PointCloud3D_F64();
+
+	/**
+	 * Creates points which are transformed by 'motion', plus noise.  The first 'numOutliers' destination
+	 * points are randomly moved far away.
+	 */
+	private void createPoints( int N, double noise, int numOutliers ) {
+		Point3D_F64 p = new Point3D_F64();
+		for( int i = 0; i < N; i++ ) {
+			p.set( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian() );
+			from.add( p );
+			SePointOps_F64.transform( motion, p, p );
+			if( i < numOutliers ) {
+				p.x += 2 + rand.nextDouble()*3;
+				p.y -= 2 + rand.nextDouble()*3;
+			}
+			to.add( p.x + rand.nextGaussian()*noise, p.y + rand.nextGaussian()*noise,
+					p.z + rand.nextGaussian()*noise );
+		}
+	}
+
+	/**
+	 * Creates an initial estimate by perturbing the true motion
+	 */
+	private Se3_F64 perturb( Se3_F64 original ) {
+		Se3_F64 delta = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, 0.1, -0.15, null ),
+				new Vector3D_F64( 0.3, 0.2, -0.1 ) );
+		return original.concat( delta, null );
+	}
+
+	@Test
+	public void noiseless() {
+		createPoints( 30, 0, 0 );
+
+		RefineSe3PointLM_F64 alg = new RefineSe3PointLM_F64();
+		assertTrue( alg.process( from, to, perturb( motion ) ) );
+
+		assertTrue( alg.getInitialCost() > 1 );
+		assertEquals( 0, alg.getCost(), GrlConstants.DOUBLE_TEST_TOL );
+		checkEquals( motion, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
+
+	/**
+	 * With squared loss the optimal solution is the same as the closed form SVD solution
+	 */
+	@Test
+	public void squared_sameAsSvd() {
+		createPoints( 50, 0.05, 0 );
+
+		MotionSe3PointSVD_F64 svd = new MotionSe3PointSVD_F64();
+		assertTrue( svd.process( from, to ) );
+
+		RefineSe3PointLM_F64 alg = new RefineSe3PointLM_F64();
+		assertTrue( alg.process( from, to, perturb( motion ) ) );
+
+		checkEquals( svd.getMotion(), alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertTrue( alg.getIterations() < 20 );
+	}
+
+	/**
+	 * Starting at the optimal solution it should stay there
+	 */
+	@Test
+	public void startAtOptimal() {
+		createPoints( 50, 0.05, 0 );
+
+		MotionSe3PointSVD_F64 svd = new MotionSe3PointSVD_F64();
+		assertTrue( svd.process( from, to ) );
+
+		RefineSe3PointLM_F64 alg = new RefineSe3PointLM_F64();
+		assertTrue( alg.process( from, to, svd.getMotion() ) );
+
+		checkEquals( svd.getMotion(), alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertTrue( alg.getCost() <= alg.getInitialCost() );
+	}
+
+	/**
+	 * Robust loss functions should be much less influenced by outliers than least squares
+	 */
+	@Test
+	public void robust() {
+		createPoints( 100, 0.01, 20 );
+
+		MotionSe3PointSVD_F64 svd = new MotionSe3PointSVD_F64();
+		assertTrue( svd.process( from, to ) );
+		double errorSvd = error( svd.getMotion() );
+
+		RefineSe3PointLM_F64 huber = new RefineSe3PointLM_F64( 200, GrlConstants.DOUBLE_TEST_TOL, RefineSe3PointLM_F64.Loss.HUBER, 0.05 );
+		assertTrue( huber.process( from, to, svd.getMotion() ) );
+		RefineSe3PointLM_F64 cauchy = new RefineSe3PointLM_F64( 200, GrlConstants.DOUBLE_TEST_TOL, RefineSe3PointLM_F64.Loss.CAUCHY, 0.05 );
+		assertTrue( cauchy.process( from, to, svd.getMotion() ) );
+
+		assertTrue( huber.getCost() < huber.getInitialCost() );
+		assertTrue( cauchy.getCost() < cauchy.getInitialCost() );
+		assertTrue( error( huber.getMotion() ) < errorSvd*0.2 );
+		assertTrue( error( cauchy.getMotion() ) < errorSvd*0.2 );
+		assertTrue( error( cauchy.getMotion() ) < 0.05 );
+	}
+
+	@Test
+	public void list_sameAsCloud() {
+		createPoints( 40, 0.05, 5 );
+
+		List<Point3D_F64> listFrom = new ArrayList<Point3D_F64>();
+		List<Point3D_F64> listTo = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < from.size; i++ ) {
+			listFrom.add( from.get( i, null ) );
+			listTo.add( to.get( i, null ) );
+		}
+
+		RefineSe3PointLM_F64 alg = new RefineSe3PointLM_F64( 100, GrlConstants.DOUBLE_TEST_TOL, RefineSe3PointLM_F64.Loss.HUBER, 0.1 );
+		assertTrue( alg.process( from, to, perturb( motion ) ) );
+		Se3_F64 expected = alg.getMotion().copy();
+		assertTrue( alg.process( listFrom, listTo, perturb( motion ) ) );
+
+		checkEquals( expected, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	@Test
+	public void maxIterations() {
+		createPoints( 30, 0.05, 0 );
+
+		RefineSe3PointLM_F64 alg = new RefineSe3PointLM_F64( 2, 0, RefineSe3PointLM_F64.Loss.SQUARED, 1 );
+		assertFalse( alg.process( from, to, perturb( motion ) ) );
+		assertEquals( 2, alg.getIterations() );
+		assertTrue( alg.getCost() < alg.getInitialCost() );
+	}
+
+	@Test
+	public void tooFewPoints() {
+		createPoints( 2, 0, 0 );
+
+		RefineSe3PointLM_F64 alg = new RefineSe3PointLM_F64();
+		assertFalse( alg.process( from, to, motion ) );
+	}
+
+	/**
+	 * All the points lie along a line, so rotation around that line is unconstrained.  The translation should
+	 * still be found.
+	 */
+	@Test
+	public void collinear() {
+		for( int i = 0; i < 5; i++ ) {
+			from.add( i, 0, 0 );
+			to.add( i + 0.1, 0, 0 );
+		}
+
+		RefineSe3PointLM_F64 alg = new RefineSe3PointLM_F64();
+		assertTrue( alg.process( from, to, new Se3_F64() ) );
+
+		assertTrue( alg.getCost() < alg.getInitialCost()*GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 0.1, alg.getMotion().getT().x, GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertEquals( 0, alg.getMotion().getT().y, GrlConstants.DOUBLE_TEST_TOL*100 );
+		assertEquals( 0, alg.getMotion().getT().z, GrlConstants.DOUBLE_TEST_TOL*100 );
+	}
+
+	/**
+	 * If the system can't be solved it should give up and report that it failed
+	 */
+	@Test
+	public void solveFails() {
+		createPoints( 30, 0, 0 );
+		for( int i = 0; i < from.size*3; i++ ) {
+			from.data[i] = Double.NaN;
+		}
+
+		RefineSe3PointLM_F64 alg = new RefineSe3PointLM_F64( 100, 0, RefineSe3PointLM_F64.Loss.SQUARED, 1 );
+		assertFalse( alg.process( from, to, motion ) );
+		assertTrue( alg.getIterations() <= 100 );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void badLossParam() {
+		new RefineSe3PointLM_F64( 100, GrlConstants.DOUBLE_TEST_TOL, RefineSe3PointLM_F64.Loss.CAUCHY, 0 );
+	}
+
+	/**
+	 * Distance between the true motion and the found motion, using the difference in how they transform
+	 * the points
+	 */
+	private double error( Se3_F64 found ) {
+		Point3D_F64 p = new Point3D_F64();
+		Point3D_F64 a = new Point3D_F64();
+		Point3D_F64 b = new Point3D_F64();
+		double total = 0;
+		for( int i = 0; i < from.size; i++ ) {
+			from.get( i, p );
+			SePointOps_F64.transform( motion, p, a );
+			SePointOps_F64.transform( found, p, b );
+			total += a.distance( b );
+		}
+		return total/from.size;
+	}
+
+	private void checkEquals( Se3_F64 expected, Se3_F64 found, double tol ) {
+		assertTrue( expected.getT().isIdentical( found.getT(), tol ) );
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( expected.getR().data[i], found.getR().data[i], tol );
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.sim;
+
+import georegression.fitting.se.MotionSe2PointSVD_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+import georegression.struct.sim.Sim2_F64;
+import georegression.transform.sim.SimPointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSim2PointUmeyama_F64 {
+
+	Random rand = new Random( 234 );
+
+	List<Point2D_F64> from = new ArrayList<Point2D_F64>();
+	List<Point2D_F64> to = new ArrayList<Point2D_F64>();
+
+	private void createPoints( Sim2_F64 sim, int N, double noise ) {
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 p = new Point2D_F64( rand.nextGaussian(), rand.nextGaussian() );
+			Point2D_F64 q = SimPointOps_F64.transform( sim, p, null );
+			q.x += rand.nextGaussian()*noise;
+			q.y += rand.nextGaussian()*noise;
+			from.add( p );
+			to.add( q );
+		}
+	}
+
+	private PointCloud2D_F64 toCloud( List<Point2D_F64> points ) {
+		PointCloud2D_F64 cloud = new PointCloud2D_F64();
+		for( int i = 0; i < points.size(); i++ ) {
+			cloud.add( points.get( i ).x, points.get( i ).y );
+		}
+		return cloud;
+	}
+
+	@Test
+	public void noiseless() {
+		Sim2_F64 expected = new Sim2_F64( 2.5, 1, -2, 2.5 );
+		createPoints( expected, 20, 0 );
+
+		MotionSim2PointUmeyama_F64 alg = new MotionSim2PointUmeyama_F64();
+		assertTrue( alg.process( from, to ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+
+		alg.getMotion().reset();
+		assertTrue( alg.process( toCloud( from ), toCloud( to ) ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	@Test
+	public void minimal() {
+		Sim2_F64 expected = new Sim2_F64( 0.4, 1, -2, -2.5 );
+		MotionSim2PointUmeyama_F64 alg = new MotionSim2PointUmeyama_F64();
+		createPoints( expected, alg.getMinimumPoints(), 0 );
+
+		assertTrue( alg.process( from, to ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	/**
+	 * With noise the rotation should be the same as the one found for a rigid body motion
+	 */
+	@Test
+	public void noisy_sameRotationAsSe2() {
+		Sim2_F64 expected = new Sim2_F64( 2.5, 1, -2, 2.5 );
+		createPoints( expected, 50, 0.1 );
+
+		MotionSim2PointUmeyama_F64 alg = new MotionSim2PointUmeyama_F64();
+		MotionSe2PointSVD_F64 se = new MotionSe2PointSVD_F64();
+		assertTrue( alg.process( from, to ) );
+		assertTrue( se.process( from, to ) );
+
+		assertEquals( se.getMotion().getYaw(), alg.getMotion().getYaw(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 2.5, alg.getMotion().scale, 0.1 );
+	}
+
+	@Test
+	public void degenerate() {
+		for( int i = 0; i < 5; i++ ) {
+			from.add( new Point2D_F64( 1, 2 ) );
+			to.add( new Point2D_F64( rand.nextGaussian(), rand.nextGaussian() ) );
+		}
+
+		MotionSim2PointUmeyama_F64 alg = new MotionSim2PointUmeyama_F64();
+		assertFalse( alg.process( from, to ) );
+	}
+
+	private void checkEquals( Sim2_F64 expected, Sim2_F64 found, double tol ) {
+		assertEquals( expected.scale, found.scale, tol );
+		assertEquals( expected.getYaw(), found.getYaw(), tol );
+		assertTrue( expected.tran.isIdentical( found.tran, tol ) );
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.sim;
+
+import georegression.fitting.se.MotionSe3PointSVD_F32;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.sim.Sim3_F32;
+import georegression.transform.sim.SimPointOps_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSim3PointUmeyama_F32 {
+
+	Random rand = new Random( 234 );
+
+	List<Point3D_F32> from = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> to = new ArrayList<Point3D_F32>();
+
+	private void createPoints( Sim3_F32 sim, int N, float offset, float noise ) {
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F32 p = new Point3D_F32( offset + (float)rand.nextGaussian(), offset + (float)rand.nextGaussian(),
+					offset + (float)rand.nextGaussian() );
+			Point3D_F32 q = SimPointOps_F32.transform( sim, p, null );
+			q.x += (float)rand.nextGaussian()*noise;
+			q.y += (float)rand.nextGaussian()*noise;
+			q.z += (float)rand.nextGaussian()*noise;
+			from.add( p );
+			to.add( q );
+		}
+	}
+
+	private PointCloud3D_F32 toCloud( List<Point3D_F32> points ) {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < points.size(); i++ ) {
+			cloud.add( points.get( i ) );
+		}
+		return cloud;
+	}
+
+	@Test
+	public void noiseless() {
+		Sim3_F32 expected = new Sim3_F32( 2.5f, RotationMatrixGenerator.eulerXYZ( 0.4f, -1.2f, 2.1f, null ),
+				new Vector3D_F32( 1, -2, 0.5f ) );
+		createPoints( expected, 20, 0, 0 );
+
+		MotionSim3PointUmeyama_F32 alg = new MotionSim3PointUmeyama_F32();
+		assertTrue( alg.process( from, to ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+
+		alg.getMotion().reset();
+		assertTrue( alg.process( toCloud( from ), toCloud( to ) ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	/**
+	 * The minimal number of points
+	 */
+	@Test
+	public void minimal() {
+		Sim3_F32 expected = new Sim3_F32( 0.3f, RotationMatrixGenerator.eulerXYZ( 0.4f, -1.2f, 2.1f, null ),
+				new Vector3D_F32( 1, -2, 0.5f ) );
+		MotionSim3PointUmeyama_F32 alg = new MotionSim3PointUmeyama_F32();
+		createPoints( expected, alg.getMinimumPoints(), 0, 0 );
+
+		assertTrue( alg.process( from, to ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	/**
+	 * Points are far from the origin, which is a problem for naive single pass algorithms
+	 */
+	@Test
+	public void farFromOrigin() {
+		Sim3_F32 expected = new Sim3_F32( 1.5f, RotationMatrixGenerator.eulerXYZ( 0.4f, -1.2f, 2.1f, null ),
+				new Vector3D_F32( 1, -2, 0.5f ) );
+		createPoints( expected, 20, 1000, 0 );
+
+		MotionSim3PointUmeyama_F32 alg = new MotionSim3PointUmeyama_F32();
+		assertTrue( alg.process( from, to ) );
+
+		for( int i = 0; i < from.size(); i++ ) {
+			Point3D_F32 found = SimPointOps_F32.transform( alg.getMotion(), from.get( i ), null );
+			assertEquals( 0, found.distance( to.get( i ) ), GrlConstants.FLOAT_TEST_TOL*1000 );
+		}
+	}
+
+	/**
+	 * With noise the rotation should be the same as the one found for a rigid body motion
+	 */
+	@Test
+	public void noisy_sameRotationAsSe3() {
+		Sim3_F32 expected = new Sim3_F32( 2.5f, RotationMatrixGenerator.eulerXYZ( 0.4f, -1.2f, 2.1f, null ),
+				new Vector3D_F32( 1, -2, 0.5f ) );
+		createPoints( expected, 50, 0, 0.1f );
+
+		MotionSim3PointUmeyama_F32 alg = new MotionSim3PointUmeyama_F32();
+		MotionSe3PointSVD_F32 se = new MotionSe3PointSVD_F32();
+		assertTrue( alg.process( from, to ) );
+		assertTrue( se.process( from, to ) );
+
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( se.getMotion().R.data[i], alg.getMotion().R.data[i], GrlConstants.FLOAT_TEST_TOL );
+		}
+		assertEquals( 2.5f, alg.getMotion().scale, 0.1f );
+	}
+
+	@Test
+	public void degenerate() {
+		for( int i = 0; i < 5; i++ ) {
+			from.add( new Point3D_F32( 1, 2, 3 ) );
+			to.add( new Point3D_F32( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian() ) );
+		}
+
+		MotionSim3PointUmeyama_F32 alg = new MotionSim3PointUmeyama_F32();
+		assertFalse( alg.process( from, to ) );
+		assertFalse( alg.process( new ArrayList<Point3D_F32>(), new ArrayList<Point3D_F32>() ) );
+	}
+
+	private void checkEquals( Sim3_F32 expected, Sim3_F32 found, float tol ) {
+		assertEquals( expected.scale, found.scale, tol );
+		assertTrue( expected.T.isIdentical( found.T, tol ) );
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( expected.R.data[i], found.R.data[i], tol );
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.fitting.sim;
+
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.sim.Sim3_F64;
+import georegression.transform.sim.SimPointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSim3PointUmeyama_F64 {
+
+	Random rand = new Random( 234 );
+
+	List<Point3D_F64> from = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+
+	private void createPoints( Sim3_F64 sim, int N, double offset, double noise ) {
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 p = new Point3D_F64( offset + rand.nextGaussian(), offset + rand.nextGaussian(),
+					offset + rand.nextGaussian() );
+			Point3D_F64 q = SimPointOps_F64.transform( sim, p, null );
+			q.x += rand.nextGaussian()*noise;
+			q.y += rand.nextGaussian()*noise;
+			q.z += rand.nextGaussian()*noise;
+			from.add( p );
+			to.add( q );
+		}
+	}
+
+	private PointCloud3D_F64 toCloud( List<Point3D_F64> points ) {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64();
+		for( int i = 0; i < points.size(); i++ ) {
+			cloud.add( points.get( i ) );
+		}
+		return cloud;
+	}
+
+	@Test
+	public void noiseless() {
+		Sim3_F64 expected = new Sim3_F64( 2.5, RotationMatrixGenerator.eulerXYZ( 0.4, -1.2, 2.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+		createPoints( expected, 20, 0, 0 );
+
+		MotionSim3PointUmeyama_F64 alg = new MotionSim3PointUmeyama_F64();
+		assertTrue( alg.process( from, to ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+
+		alg.getMotion().reset();
+		assertTrue( alg.process( toCloud( from ), toCloud( to ) ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	/**
+	 * The minimal number of points
+	 */
+	@Test
+	public void minimal() {
+		Sim3_F64 expected = new Sim3_F64( 0.3, RotationMatrixGenerator.eulerXYZ( 0.4, -1.2, 2.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+		MotionSim3PointUmeyama_F64 alg = new MotionSim3PointUmeyama_F64();
+		createPoints( expected, alg.getMinimumPoints(), 0, 0 );
+
+		assertTrue( alg.process( from, to ) );
+		checkEquals( expected, alg.getMotion(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	/**
+	 * Points are far from the origin, which is a problem for naive single pass algorithms
+	 */
+	@Test
+	public void farFromOrigin() {
+		Sim3_F64 expected = new Sim3_F64( 1.5, RotationMatrixGenerator.eulerXYZ( 0.4, -1.2, 2.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+		createPoints( expected, 20, 1000, 0 );
+
+		MotionSim3PointUmeyama_F64 alg = new MotionSim3PointUmeyama_F64();
+		assertTrue( alg.process( from, to ) );
+
+		for( int i = 0; i < from.size(); i++ ) {
+			Point3D_F64 found = SimPointOps_F64.transform( alg.getMotion(), from.get( i ), null );
+			assertEquals( 0, found.distance( to.get( i ) ), GrlConstants.DOUBLE_TEST_TOL*1000 );
+		}
+	}
+
+	/**
+	 * With noise the rotation should be the same as the one found for a rigid body motion
+	 */
+	@Test
+	public void noisy_sameRotationAsSe3() {
+		Sim3_F64 expected = new Sim3_F64( 2.5, RotationMatrixGenerator.eulerXYZ( 0.4, -1.2, 2.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+		createPoints( expected, 50, 0, 0.1 );
+
+		MotionSim3PointUmeyama_F64 alg = new MotionSim3PointUmeyama_F64();
+		MotionSe3PointSVD_F64 se = new MotionSe3PointSVD_F64();
+		assertTrue( alg.process( from, to ) );
+		assertTrue( se.process( from, to ) );
+
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( se.getMotion().R.data[i], alg.getMotion().R.data[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+		assertEquals( 2.5, alg.getMotion().scale, 0.1 );
+	}
+
+	@Test
+	public void degenerate() {
+		for( int i = 0; i < 5; i++ ) {
+			from.add( new Point3D_F64( 1, 2, 3 ) );
+			to.add( new Point3D_F64( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian() ) );
+		}
+
+		MotionSim3PointUmeyama_F64 alg = new MotionSim3PointUmeyama_F64();
+		assertFalse( alg.process( from, to ) );
+		assertFalse( alg.process( new ArrayList<Point3D_F64>(), new ArrayList<Point3D_F64>() ) );
+	}
+
+	private void checkEquals( Sim3_F64 expected, Sim3_F64 found, double tol ) {
+		assertEquals( expected.scale, found.scale, tol );
+		assertTrue( expected.T.isIdentical( found.T, tol ) );
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals( expected.R.data[i], found.R.data[i], tol );
+		}
+	}
+}
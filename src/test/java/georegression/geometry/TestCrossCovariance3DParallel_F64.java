@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCrossCovariance3DParallel_F64 {
+
+	Random rand = new Random( 234 );
+
+	List<Point3D_F64> from = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+
+	private void createPoints( int N ) {
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 f = new Point3D_F64( 10 + rand.nextGaussian(), rand.nextGaussian()*2, rand.nextGaussian() );
+			from.add( f );
+			to.add( new Point3D_F64( f.y + rand.nextGaussian(), 5 - f.x, f.z*3 + rand.nextGaussian() ) );
+		}
+	}
+
+	/**
+	 * Should produce the same result as the sequential algorithm, for chunk sizes which do and don't evenly
+	 * divide the number of points
+	 */
+	@Test
+	public void compareToSequential() {
+		createPoints( 1000 );
+		PointCloud3D_F64 cloudFrom = new PointCloud3D_F64( from );
+		PointCloud3D_F64 cloudTo = new PointCloud3D_F64( to );
+
+		CrossCovariance3D_F64 expected = new CrossCovariance3D_F64();
+		expected.process( from, to );
+
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		CrossCovariance3D_F64 found = new CrossCovariance3D_F64();
+		for( int chunkSize : new int[]{1, 7, 100, 1000, 5000} ) {
+			CrossCovariance3DParallel_F64 alg = new CrossCovariance3DParallel_F64( executor, chunkSize );
+
+			alg.process( from, to, found );
+			check( expected, found, GrlConstants.DOUBLE_TEST_TOL );
+
+			alg.process( cloudFrom, cloudTo, found );
+			check( expected, found, GrlConstants.DOUBLE_TEST_TOL );
+		}
+		executor.shutdown();
+	}
+
+	/**
+	 * For a fixed chunk size the results should be identical no matter how many threads are used
+	 */
+	@Test
+	public void deterministic() {
+		createPoints( 2000 );
+		PointCloud3D_F64 cloudFrom = new PointCloud3D_F64( from );
+		PointCloud3D_F64 cloudTo = new PointCloud3D_F64( to );
+
+		ExecutorService executor = Executors.newFixedThreadPool( 1 );
+		CrossCovariance3D_F64 expected = new CrossCovariance3D_F64();
+		new CrossCovariance3DParallel_F64( executor, 37 ).process( cloudFrom, cloudTo, expected );
+		executor.shutdown();
+
+		executor = Executors.newFixedThreadPool( 5 );
+		CrossCovariance3DParallel_F64 alg = new CrossCovariance3DParallel_F64( executor, 37 );
+		CrossCovariance3D_F64 found = new CrossCovariance3D_F64();
+		for( int trial = 0; trial < 5; trial++ ) {
+			alg.process( cloudFrom, cloudTo, found );
+			check( expected, found, 0 );
+		}
+		executor.shutdown();
+	}
+
+	@Test
+	public void empty() {
+		CrossCovariance3DParallel_F64 alg = new CrossCovariance3DParallel_F64( null, 10 );
+		CrossCovariance3D_F64 found = new CrossCovariance3D_F64();
+		alg.process( new PointCloud3D_F64(), new PointCloud3D_F64(), found );
+
+		assertEquals( 0, found.N );
+	}
+
+	private void check( CrossCovariance3D_F64 expected, CrossCovariance3D_F64 found, double tol ) {
+		assertEquals( expected.N, found.N );
+		assertEquals( expected.meanFromX, found.meanFromX, tol );
+		assertEquals( expected.meanFromY, found.meanFromY, tol );
+		assertEquals( expected.meanFromZ, found.meanFromZ, tol );
+		assertEquals( expected.meanToX, found.meanToX, tol );
+		assertEquals( expected.meanToY, found.meanToY, tol );
+		assertEquals( expected.meanToZ, found.meanToZ, tol );
+
+		double scale = Math.abs( expected.s11 ) + Math.abs( expected.s22 ) + Math.abs( expected.s33 );
+		assertEquals( expected.s11, found.s11, tol*scale );
+		assertEquals( expected.s12, found.s12, tol*scale );
+		assertEquals( expected.s13, found.s13, tol*scale );
+		assertEquals( expected.s21, found.s21, tol*scale );
+		assertEquals( expected.s22, found.s22, tol*scale );
+		assertEquals( expected.s23, found.s23, tol*scale );
+		assertEquals( expected.s31, found.s31, tol*scale );
+		assertEquals( expected.s32, found.s32, tol*scale );
+		assertEquals( expected.s33, found.s33, tol*scale );
+	}
+}
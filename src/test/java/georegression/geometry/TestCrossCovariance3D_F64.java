@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCrossCovariance3D_F64 {
+
+	Random rand = new Random( 234 );
+
+	List<Point3D_F64> from = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+
+	private void createPoints( int N, double offset ) {
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 f = new Point3D_F64( offset + rand.nextGaussian(), rand.nextGaussian()*2, rand.nextGaussian() );
+			from.add( f );
+			to.add( new Point3D_F64( f.y + rand.nextGaussian(), offset - f.x, f.z*3 + rand.nextGaussian() ) );
+		}
+	}
+
+	@Test
+	public void process_list() {
+		createPoints( 50, 100 );
+
+		CrossCovariance3D_F64 alg = new CrossCovariance3D_F64();
+		alg.process( from, to );
+		check( 0, from.size(), alg );
+
+		alg.process( from, to, 10, 35 );
+		check( 10, 35, alg );
+	}
+
+	@Test
+	public void process_cloud() {
+		createPoints( 50, 100 );
+		PointCloud3D_F64 cloudFrom = new PointCloud3D_F64( from );
+		PointCloud3D_F64 cloudTo = new PointCloud3D_F64( to );
+
+		CrossCovariance3D_F64 alg = new CrossCovariance3D_F64();
+		alg.process( cloudFrom, cloudTo );
+		check( 0, from.size(), alg );
+
+		alg.process( cloudFrom, cloudTo, 10, 35 );
+		check( 10, 35, alg );
+	}
+
+	@Test
+	public void process_empty() {
+		CrossCovariance3D_F64 alg = new CrossCovariance3D_F64();
+		alg.process( from, to );
+
+		assertEquals( 0, alg.N );
+		assertEquals( 0, alg.meanFromX, 0 );
+		assertEquals( 0, alg.s11, 0 );
+	}
+
+	/**
+	 * Combining two disjoint sets should produce the same results as processing them together
+	 */
+	@Test
+	public void combine() {
+		createPoints( 50, 100 );
+
+		CrossCovariance3D_F64 a = new CrossCovariance3D_F64();
+		CrossCovariance3D_F64 b = new CrossCovariance3D_F64();
+		CrossCovariance3D_F64 found = new CrossCovariance3D_F64();
+
+		a.process( from, to, 0, 20 );
+		b.process( from, to, 20, 50 );
+		found.combine( a, b );
+		check( 0, 50, found );
+
+		// the output can be the same as an input
+		b.combine( a, b );
+		check( 0, 50, b );
+
+		// one set being empty
+		b.process( from, to, 20, 20 );
+		a.combine( a, b );
+		check( 0, 20, a );
+		a.combine( b, a );
+		check( 0, 20, a );
+	}
+
+	/**
+	 * Compares against a two pass computation
+	 */
+	private void check( int first, int last, CrossCovariance3D_F64 found ) {
+		int N = last - first;
+		Point3D_F64 meanFrom = new Point3D_F64();
+		Point3D_F64 meanTo = new Point3D_F64();
+		for( int i = first; i < last; i++ ) {
+			Point3D_F64 f = from.get( i ), t = to.get( i );
+			meanFrom.set( meanFrom.x + f.x/N, meanFrom.y + f.y/N, meanFrom.z + f.z/N );
+			meanTo.set( meanTo.x + t.x/N, meanTo.y + t.y/N, meanTo.z + t.z/N );
+		}
+
+		double S[] = new double[9];
+		for( int i = first; i < last; i++ ) {
+			Point3D_F64 f = from.get( i ), t = to.get( i );
+			double fx = f.x - meanFrom.x, fy = f.y - meanFrom.y, fz = f.z - meanFrom.z;
+			double tx = t.x - meanTo.x, ty = t.y - meanTo.y, tz = t.z - meanTo.z;
+			S[0] += tx*fx; S[1] += tx*fy; S[2] += tx*fz;
+			S[3] += ty*fx; S[4] += ty*fy; S[5] += ty*fz;
+			S[6] += tz*fx; S[7] += tz*fy; S[8] += tz*fz;
+		}
+
+		double tol = GrlConstants.DOUBLE_TEST_TOL;
+		assertEquals( N, found.N );
+		assertEquals( meanFrom.x, found.meanFromX, tol );
+		assertEquals( meanFrom.y, found.meanFromY, tol );
+		assertEquals( meanFrom.z, found.meanFromZ, tol );
+		assertEquals( meanTo.x, found.meanToX, tol );
+		assertEquals( meanTo.y, found.meanToY, tol );
+		assertEquals( meanTo.z, found.meanToZ, tol );
+
+		double scale = Math.abs( S[0] ) + Math.abs( S[4] ) + Math.abs( S[8] );
+		assertEquals( S[0], found.s11, tol*scale );
+		assertEquals( S[1], found.s12, tol*scale );
+		assertEquals( S[2], found.s13, tol*scale );
+		assertEquals( S[3], found.s21, tol*scale );
+		assertEquals( S[4], found.s22, tol*scale );
+		assertEquals( S[5], found.s23, tol*scale );
+		assertEquals( S[6], found.s31, tol*scale );
+		assertEquals( S[7], found.s32, tol*scale );
+		assertEquals( S[8], found.s33, tol*scale );
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.ejml.ops.MatrixFeatures;
+import org.ejml.ops.RandomMatrices;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEigenSymm3x3_F32 {
+
+	Random rand = new Random( 234 );
+
+	@Test
+	public void random() {
+		for( int i = 0; i < 200; i++ ) {
+			DenseMatrix64F A = RandomMatrices.createRandom( 3, 3, -1, 1, rand );
+			DenseMatrix64F S = new DenseMatrix64F( 3, 3 );
+			CommonOps.multTransA( A, A, S );
+			check( S );
+
+			// indefinite matrices
+			CommonOps.add( A, CommonOps.transpose( A, null ), S );
+			check( S );
+		}
+	}
+
+	/**
+	 * Repeated eigenvalues, zero eigenvalues, and matrices which are already diagonal
+	 */
+	@Test
+	public void special() {
+		check( CommonOps.identity( 3 ) );
+		check( new DenseMatrix64F( 3, 3 ) );
+		check( CommonOps.diag( 0.5f, 3, 2 ) );
+		check( CommonOps.diag( 1, -1, 1 ) );
+
+		DenseMatrix64F a = RandomMatrices.createRandom( 3, 1, -1, 1, rand );
+		DenseMatrix64F S = new DenseMatrix64F( 3, 3 );
+		CommonOps.multTransB( a, a, S );
+		check( S );
+	}
+
+	/**
+	 * Eigenvalues which are much smaller than the largest one should still be accurate
+	 */
+	@Test
+	public void smallEigenvalue() {
+		DenseMatrix64F R = RotationMatrixGenerator.eulerXYZ( 0.3f, -1, 2, null );
+		DenseMatrix64F D = CommonOps.diag( 1e4, 1, 1e-6 );
+		DenseMatrix64F tmp = new DenseMatrix64F( 3, 3 );
+		DenseMatrix64F S = new DenseMatrix64F( 3, 3 );
+		CommonOps.mult( R, D, tmp );
+		CommonOps.multTransB( tmp, R, S );
+
+		EigenSymm3x3_F32 alg = new EigenSymm3x3_F32();
+		alg.decompose( (float)S.get( 0, 0 ), (float)S.get( 0, 1 ), (float)S.get( 0, 2 ),
+				(float)S.get( 1, 1 ), (float)S.get( 1, 2 ), (float)S.get( 2, 2 ) );
+
+		assertEquals( 1e-6, alg.e3, 1e4*GrlConstants.FLOAT_TEST_TOL );
+		// the eigenvector should be the last column of R, up to its sign
+		/**/double dot = alg.v13*R.get( 0, 2 ) + alg.v23*R.get( 1, 2 ) + alg.v33*R.get( 2, 2 );
+		assertEquals( 1, (float)Math.abs( dot ), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	private void check( DenseMatrix64F S ) {
+		EigenSymm3x3_F32 alg = new EigenSymm3x3_F32();
+		alg.decompose( (float)S.get( 0, 0 ), (float)S.get( 0, 1 ), (float)S.get( 0, 2 ),
+				(float)S.get( 1, 1 ), (float)S.get( 1, 2 ), (float)S.get( 2, 2 ) );
+
+		assertTrue( alg.e1 >= alg.e2 );
+		assertTrue( alg.e2 >= alg.e3 );
+
+		DenseMatrix64F V = new DenseMatrix64F( 3, 3, true, alg.v11, alg.v12, alg.v13,
+				alg.v21, alg.v22, alg.v23, alg.v31, alg.v32, alg.v33 );
+
+		// V should be a rotation matrix
+		assertTrue( MatrixFeatures.isOrthogonal( V, GrlConstants.FLOAT_TEST_TOL*10 ) );
+		assertEquals( 1, CommonOps.det( V ), GrlConstants.FLOAT_TEST_TOL*10 );
+
+		// S = V*D*V^T
+		DenseMatrix64F D = CommonOps.diag( alg.e1, alg.e2, alg.e3 );
+		DenseMatrix64F tmp = new DenseMatrix64F( 3, 3 );
+		DenseMatrix64F found = new DenseMatrix64F( 3, 3 );
+		CommonOps.mult( V, D, tmp );
+		CommonOps.multTransB( tmp, V, found );
+
+		assertTrue( MatrixFeatures.isIdentical( S, found, GrlConstants.FLOAT_TEST_TOL*10 ) );
+	}
+}
@@ -64,7 +64,37 @@ public class TestRotationMatrixGenerator {
 
 	@Test
 	public void matrixToQuaternion() {
-		fail( "implement" );
+		// random rotations, including ones close to 180 degrees around each axis
+		for( int i = 0; i < 20; i++ ) {
+			checkMatrixToQuaternion( RotationMatrixGenerator.eulerXYZ(
+					rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), null ) );
+		}
+		checkMatrixToQuaternion( RotationMatrixGenerator.eulerXYZ( Math.PI, 0, 0, null ) );
+		checkMatrixToQuaternion( RotationMatrixGenerator.eulerXYZ( 0, Math.PI, 0, null ) );
+		checkMatrixToQuaternion( RotationMatrixGenerator.eulerXYZ( 0, 0, Math.PI, null ) );
+	}
+
+	/**
+	 * Rotation matrices which are the identity plus round off error have a trace slightly more than 3.  They
+	 * must not be turned into a 180 degree rotation.
+	 */
+	@Test
+	public void matrixToQuaternion_nearIdentity() {
+		DenseMatrix64F R = CommonOps.identity( 3 );
+		// the trace is now exactly 3 + 4.4e-16
+		R.set( 0, 0, 1.0 + 2*Math.ulp( 1.0 ) );
+
+		Quaternion q = RotationMatrixGenerator.matrixToQuaternion( R, null );
+		DenseMatrix64F found = RotationMatrixGenerator.quaternionToMatrix( q, null );
+
+		assertTrue( MatrixFeatures.isIdentity( found, 1e-8 ) );
+	}
+
+	private void checkMatrixToQuaternion( DenseMatrix64F R ) {
+		Quaternion q = RotationMatrixGenerator.matrixToQuaternion( R, null );
+		DenseMatrix64F found = RotationMatrixGenerator.quaternionToMatrix( q, null );
+
+		assertTrue( MatrixFeatures.isIdentical( R, found, 1e-8 ) );
 	}
 
 	@Test
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestScatterMatrix3D_F32 {
+
+	Random rand = new Random( 234 );
+
+	@Test
+	public void compareToNaive() {
+		List<Point3D_F32> points = UtilPoint3D_F32.random( -1, 1, 30, rand );
+		for( Point3D_F32 p : points ) {
+			p.x += 1000;
+			p.z -= 500;
+		}
+
+		ScatterMatrix3D_F32 expected = naive( points );
+		ScatterMatrix3D_F32 alg = new ScatterMatrix3D_F32();
+
+		alg.process( points );
+		checkSame( expected, alg );
+
+		PointCloud3D_F32 cloud = new PointCloud3D_F32( points );
+		alg.process( cloud );
+		checkSame( expected, alg );
+
+		// add some points which will be skipped
+		int indexes[] = new int[ points.size() ];
+		for( int i = 0; i < 5; i++ )
+			cloud.add( 2, 3, 4 );
+		for( int i = 0; i < points.size(); i++ )
+			indexes[i] = points.size() - 1 - i;
+		alg.process( cloud, indexes, points.size() );
+		checkSame( expected, alg );
+	}
+
+	@Test
+	public void empty() {
+		ScatterMatrix3D_F32 alg = new ScatterMatrix3D_F32();
+		alg.process( new ArrayList<Point3D_F32>() );
+		assertEquals( 0, alg.N );
+		assertEquals( 0, alg.s11, 0 );
+		assertEquals( 0, alg.meanX, 0 );
+	}
+
+	private ScatterMatrix3D_F32 naive( List<Point3D_F32> points ) {
+		ScatterMatrix3D_F32 ret = new ScatterMatrix3D_F32();
+		ret.N = points.size();
+		for( Point3D_F32 p : points ) {
+			ret.meanX += p.x; ret.meanY += p.y; ret.meanZ += p.z;
+		}
+		ret.meanX /= ret.N; ret.meanY /= ret.N; ret.meanZ /= ret.N;
+
+		for( Point3D_F32 p : points ) {
+			float dx = p.x - ret.meanX, dy = p.y - ret.meanY, dz = p.z - ret.meanZ;
+			ret.s11 += dx*dx; ret.s12 += dx*dy; ret.s13 += dx*dz;
+			ret.s22 += dy*dy; ret.s23 += dy*dz;
+			ret.s33 += dz*dz;
+		}
+		return ret;
+	}
+
+	private void checkSame( ScatterMatrix3D_F32 expected, ScatterMatrix3D_F32 found ) {
+		float tol = GrlConstants.FLOAT_TEST_TOL*1000;
+
+		assertEquals( expected.N, found.N );
+		assertEquals( expected.meanX, found.meanX, tol );
+		assertEquals( expected.meanY, found.meanY, tol );
+		assertEquals( expected.meanZ, found.meanZ, tol );
+		assertEquals( expected.s11, found.s11, tol );
+		assertEquals( expected.s12, found.s12, tol );
+		assertEquals( expected.s13, found.s13, tol );
+		assertEquals( expected.s22, found.s22, tol );
+		assertEquals( expected.s23, found.s23, tol );
+		assertEquals( expected.s33, found.s33, tol );
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import org.ejml.alg.dense.decomposition.DecompositionFactory;
+import org.ejml.alg.dense.decomposition.SingularValueDecomposition;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.ejml.ops.RandomMatrices;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvd3x3_F32 {
+
+	Random rand = new Random( 234 );
+
+	@Test
+	public void random() {
+		for( int i = 0; i < 200; i++ ) {
+			DenseMatrix64F A = RandomMatrices.createRandom( 3, 3, -1, 1, rand );
+			check( A );
+		}
+	}
+
+	/**
+	 * Matrices with one or more zero singular values
+	 */
+	@Test
+	public void rankDeficient() {
+		for( int i = 0; i < 50; i++ ) {
+			DenseMatrix64F a = RandomMatrices.createRandom( 3, 1, -1, 1, rand );
+			DenseMatrix64F b = RandomMatrices.createRandom( 1, 3, -1, 1, rand );
+			DenseMatrix64F c = RandomMatrices.createRandom( 3, 1, -1, 1, rand );
+			DenseMatrix64F d = RandomMatrices.createRandom( 1, 3, -1, 1, rand );
+
+			DenseMatrix64F A = new DenseMatrix64F( 3, 3 );
+			CommonOps.mult( a, b, A );
+			check( A );
+
+			DenseMatrix64F B = new DenseMatrix64F( 3, 3 );
+			CommonOps.mult( c, d, B );
+			CommonOps.add( A, B, B );
+			check( B );
+		}
+
+		check( new DenseMatrix64F( 3, 3 ) );
+	}
+
+	/**
+	 * Repeated singular values and matrices which are already diagonal
+	 */
+	@Test
+	public void special() {
+		check( CommonOps.identity( 3 ) );
+		check( CommonOps.diag( 1, -1, 1 ) );
+		check( CommonOps.diag( 0.5f, 3, 2 ) );
+		check( RotationMatrixGenerator.eulerXYZ( 0.3f, -1, 2, null ) );
+	}
+
+	private void check( DenseMatrix64F A ) {
+		Svd3x3_F32 alg = new Svd3x3_F32();
+		alg.decompose( (float)A.data[0], (float)A.data[1], (float)A.data[2],
+				(float)A.data[3], (float)A.data[4], (float)A.data[5],
+				(float)A.data[6], (float)A.data[7], (float)A.data[8] );
+
+		DenseMatrix64F U = new DenseMatrix64F( 3, 3, true, alg.u11, alg.u12, alg.u13, alg.u21, alg.u22, alg.u23,
+				alg.u31, alg.u32, alg.u33 );
+		DenseMatrix64F V = new DenseMatrix64F( 3, 3, true, alg.v11, alg.v12, alg.v13, alg.v21, alg.v22, alg.v23,
+				alg.v31, alg.v32, alg.v33 );
+		DenseMatrix64F W = CommonOps.diag( alg.w1, alg.w2, alg.w3 );
+
+		// U and V are rotation matrices
+		assertEquals( 1, CommonOps.det( U ), GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( 1, CommonOps.det( V ), GrlConstants.FLOAT_TEST_TOL*100 );
+
+		// A = U*W*V^T
+		DenseMatrix64F UW = new DenseMatrix64F( 3, 3 );
+		DenseMatrix64F found = new DenseMatrix64F( 3, 3 );
+		CommonOps.mult( U, W, UW );
+		CommonOps.multTransB( UW, V, found );
+		for( int i = 0; i < 9; i++ )
+			assertEquals( A.data[i], found.data[i], GrlConstants.FLOAT_TEST_TOL*100 );
+
+		// compare the singular values against a general purpose SVD
+		SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd( 3, 3 );
+		assertTrue( svd.decompose( A.copy() ) );
+		/**/double expected[] = svd.getSingularValues().clone();
+		Arrays.sort( expected );
+
+		assertTrue( alg.w1 >= 0 && alg.w2 >= 0 );
+		assertEquals( expected[2], alg.w1, GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( expected[1], alg.w2, GrlConstants.FLOAT_TEST_TOL*100 );
+		assertEquals( expected[0], (float)Math.abs( alg.w3 ), GrlConstants.FLOAT_TEST_TOL*100 );
+		if( expected[0] > GrlConstants.FLOAT_TEST_TOL )
+			assertEquals( CommonOps.det( A ) < 0, alg.w3 < 0 );
+
+		// U*V^T should be a rotation matrix
+		DenseMatrix64F R = new DenseMatrix64F( 3, 3 );
+		alg.rotationUVt( R );
+		assertEquals( 1, CommonOps.det( R ), GrlConstants.FLOAT_TEST_TOL*100 );
+	}
+}
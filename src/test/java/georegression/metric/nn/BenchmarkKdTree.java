@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.metric.nn;
+
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures how long it takes to build a {@link KdTree3D_F64} with and without threads and how many
+ * nearest neighbor queries per second it can process.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkKdTree {
+
+	static int NUM_POINTS = 1000000;
+	static int NUM_QUERIES = 1000000;
+	static int NUM_TRIALS = 3;
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+
+		PointCloud3D_F64 cloud = new PointCloud3D_F64( NUM_POINTS );
+		for( int i = 0; i < NUM_POINTS; i++ )
+			cloud.add( rand.nextGaussian()*10, rand.nextGaussian()*10, rand.nextGaussian() );
+
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool( numThreads );
+
+		KdTree3D_F64 tree = new KdTree3D_F64();
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long before = System.nanoTime();
+			tree.setPoints( cloud );
+			long middle = System.nanoTime();
+			tree.setPoints( cloud, executor );
+			long after = System.nanoTime();
+
+			System.out.printf( "build %d points:  single %6.1f ms   %d threads %6.1f ms\n", NUM_POINTS,
+					( middle - before )*1e-6, numThreads, ( after - middle )*1e-6 );
+		}
+		executor.shutdown();
+
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long before = System.nanoTime();
+			for( int i = 0; i < NUM_QUERIES; i++ ) {
+				tree.findNearest( rand.nextGaussian()*10, rand.nextGaussian()*10, rand.nextGaussian(), Double.MAX_VALUE );
+			}
+			long after = System.nanoTime();
+
+			System.out.printf( "nearest: %10.1f queries/s\n", NUM_QUERIES/( ( after - before )*1e-9 ) );
+		}
+	}
+}
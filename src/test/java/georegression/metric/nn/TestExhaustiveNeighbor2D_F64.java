@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.metric.nn;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PointCloud2D_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestExhaustiveNeighbor2D_F64 {
+
+	@Test
+	public void findNearest() {
+		PointCloud2D_F64 cloud = new PointCloud2D_F64();
+		cloud.add( 1, 2 );
+		cloud.add( 4, 5 );
+		cloud.add( -1, 0 );
+
+		ExhaustiveNeighbor2D_F64 alg = new ExhaustiveNeighbor2D_F64();
+		alg.setPoints( cloud );
+
+		assertEquals( 1, alg.findNearest( 4, 5.5, 10 ) );
+		assertEquals( 0.25, alg.getDistanceSq(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 2, alg.findNearest( -1, 0.5, 10 ) );
+
+		// nothing is close enough
+		assertEquals( -1, alg.findNearest( 20, 20, 10 ) );
+	}
+}
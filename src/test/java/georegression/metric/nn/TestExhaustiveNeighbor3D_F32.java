@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.metric.nn;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.PointCloud3D_F32;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestExhaustiveNeighbor3D_F32 {
+
+	@Test
+	public void findNearest() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		cloud.add( 1, 2, 3 );
+		cloud.add( 4, 5, 6 );
+		cloud.add( -1, 0, 2 );
+
+		ExhaustiveNeighbor3D_F32 alg = new ExhaustiveNeighbor3D_F32();
+		alg.setPoints( cloud );
+
+		assertEquals( 1, alg.findNearest( 4, 5, 5.5f, 10 ) );
+		assertEquals( 0.25f, alg.getDistanceSq(), GrlConstants.FLOAT_TEST_TOL );
+		assertEquals( 2, alg.findNearest( -1, 0.5f, 2, 10 ) );
+
+		// nothing is close enough
+		assertEquals( -1, alg.findNearest( 20, 20, 20, 10 ) );
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.metric.nn;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdTree3D_F32 {
+
+	Random rand = new Random( 234 );
+
+	private PointCloud3D_F32 createCloud( int N ) {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32( N );
+		for( int i = 0; i < N; i++ ) {
+			cloud.add( (float)rand.nextGaussian(), (float)rand.nextGaussian(), (float)rand.nextGaussian()*3 );
+		}
+		return cloud;
+	}
+
+	/**
+	 * Compare against exhaustive search
+	 */
+	@Test
+	public void findNearest() {
+		PointCloud3D_F32 cloud = createCloud( 500 );
+
+		KdTree3D_F32 alg = new KdTree3D_F32();
+		alg.setPoints( cloud );
+		ExhaustiveNeighbor3D_F32 expected = new ExhaustiveNeighbor3D_F32();
+		expected.setPoints( cloud );
+
+		for( int i = 0; i < 200; i++ ) {
+			float x = (float)rand.nextGaussian(), y = (float)rand.nextGaussian(), z = (float)rand.nextGaussian()*3;
+			float maxDistanceSq = i % 2 == 0 ? Float.MAX_VALUE : 0.05f;
+
+			int found = alg.findNearest( x, y, z, maxDistanceSq );
+			assertEquals( expected.findNearest( x, y, z, maxDistanceSq ), found );
+			if( found >= 0 )
+				assertEquals( expected.getDistanceSq(), alg.getDistanceSq(), GrlConstants.FLOAT_TEST_TOL );
+		}
+
+		// every point should find itself
+		for( int i = 0; i < cloud.size; i++ ) {
+			assertEquals( i, alg.findNearest( cloud.getX( i ), cloud.getY( i ), cloud.getZ( i ), 1 ) );
+			assertEquals( 0, alg.getDistanceSq(), GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void findNearest_k() {
+		PointCloud3D_F32 cloud = createCloud( 300 );
+
+		KdTree3D_F32 alg = new KdTree3D_F32();
+		alg.setPoints( cloud );
+
+		int k = 7;
+		int index[] = new int[ k ];
+		float distanceSq[] = new float[ k ];
+		float all[] = new float[ cloud.size ];
+
+		for( int trial = 0; trial < 50; trial++ ) {
+			float x = (float)rand.nextGaussian(), y = (float)rand.nextGaussian(), z = (float)rand.nextGaussian()*3;
+
+			assertEquals( k, alg.findNearest( x, y, z, Float.MAX_VALUE, k, index, distanceSq ) );
+
+			for( int i = 0; i < cloud.size; i++ )
+				all[i] = distanceSq( cloud, i, x, y, z );
+			Arrays.sort( all );
+
+			for( int i = 0; i < k; i++ ) {
+				assertEquals( all[i], distanceSq[i], GrlConstants.FLOAT_TEST_TOL );
+				assertEquals( distanceSq[i], distanceSq( cloud, index[i], x, y, z ), GrlConstants.FLOAT_TEST_TOL );
+			}
+
+			// limit the distance so that fewer than k are found
+			float maxDistanceSq = ( all[2] + all[3] )/2;
+			assertEquals( 3, alg.findNearest( x, y, z, maxDistanceSq, k, index, distanceSq ) );
+		}
+	}
+
+	@Test
+	public void findRadius() {
+		PointCloud3D_F32 cloud = createCloud( 300 );
+
+		KdTree3D_F32 alg = new KdTree3D_F32();
+		alg.setPoints( cloud );
+
+		int index[] = new int[ cloud.size ];
+		float distanceSq[] = new float[ cloud.size ];
+
+		for( int trial = 0; trial < 50; trial++ ) {
+			float x = (float)rand.nextGaussian(), y = (float)rand.nextGaussian(), z = (float)rand.nextGaussian()*3;
+			float radius = 0.8f;
+
+			int found = alg.findRadius( x, y, z, radius, index, distanceSq );
+
+			boolean inside[] = new boolean[ cloud.size ];
+			for( int i = 0; i < found; i++ ) {
+				assertFalse( inside[index[i]] );
+				inside[index[i]] = true;
+				assertEquals( distanceSq( cloud, index[i], x, y, z ), distanceSq[i], GrlConstants.FLOAT_TEST_TOL );
+			}
+			for( int i = 0; i < cloud.size; i++ ) {
+				assertEquals( distanceSq( cloud, i, x, y, z ) <= radius*radius, inside[i] );
+			}
+
+			// output arrays which are too small
+			int small[] = new int[ 1 ];
+			assertEquals( found, alg.findRadius( x, y, z, radius, small, distanceSq ) );
+		}
+	}
+
+	/**
+	 * Many identical points can cause problems for the partitioning
+	 */
+	@Test
+	public void duplicatePoints() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < 1000; i++ )
+			cloud.add( 1, 2, i % 2 );
+
+		KdTree3D_F32 alg = new KdTree3D_F32();
+		alg.setPoints( cloud );
+
+		int found = alg.findNearest( 1, 2, 0.9f, Float.MAX_VALUE );
+		assertEquals( 1, found % 2 );
+		assertEquals( 0.01f, alg.getDistanceSq(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	@Test
+	public void setPoints_list() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random( -1, 1, 100, rand );
+
+		KdTree3D_F32 alg = new KdTree3D_F32();
+		alg.setPoints( list );
+
+		assertEquals( 100, alg.size() );
+		for( int i = 0; i < list.size(); i++ ) {
+			Point3D_F32 p = list.get( i );
+			assertEquals( i, alg.findNearest( p.x, p.y, p.z, Float.MAX_VALUE ) );
+		}
+	}
+
+	/**
+	 * The parallel build should produce the same tree as the single threaded one
+	 */
+	@Test
+	public void setPoints_parallel() {
+		PointCloud3D_F32 cloud = createCloud( 50000 );
+
+		KdTree3D_F32 expected = new KdTree3D_F32();
+		expected.setPoints( cloud );
+
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		KdTree3D_F32 alg = new KdTree3D_F32();
+		alg.setPoints( cloud, executor );
+		executor.shutdown();
+
+		for( int i = 0; i < 200; i++ ) {
+			float x = (float)rand.nextGaussian(), y = (float)rand.nextGaussian(), z = (float)rand.nextGaussian()*3;
+			assertEquals( expected.findNearest( x, y, z, Float.MAX_VALUE ),
+					alg.findNearest( x, y, z, Float.MAX_VALUE ) );
+		}
+	}
+
+	@Test
+	public void empty() {
+		KdTree3D_F32 alg = new KdTree3D_F32();
+		alg.setPoints( new PointCloud3D_F32() );
+
+		assertEquals( -1, alg.findNearest( 1, 2, 3, Float.MAX_VALUE ) );
+	}
+
+	private static float distanceSq( PointCloud3D_F32 cloud, int i, float x, float y, float z ) {
+		float dx = cloud.getX( i ) - x, dy = cloud.getY( i ) - y, dz = cloud.getZ( i ) - z;
+		return dx*dx + dy*dy + dz*dz;
+	}
+}
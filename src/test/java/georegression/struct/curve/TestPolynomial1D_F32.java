@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.curve;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPolynomial1D_F32 {
+
+	@Test
+	public void evaluate() {
+		Polynomial1D_F32 poly = new Polynomial1D_F32( 2, -1, 0.5f, 3 );
+		assertEquals( 3, poly.getDegree() );
+
+		float x = 1.5f;
+		float expected = 2 - x + 0.5f*x*x + 3*x*x*x;
+		assertEquals( expected, poly.evaluate( x ), GrlConstants.FLOAT_TEST_TOL );
+
+		// all coefficients are zero by default
+		assertEquals( 0, new Polynomial1D_F32( 4 ).evaluate( 2 ), 0 );
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.curve;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPolynomial2D_F64 {
+
+	Random rand = new Random( 234 );
+
+	@Test
+	public void index() {
+		assertEquals( 0, Polynomial2D_F64.index( 0, 0 ) );
+		assertEquals( 1, Polynomial2D_F64.index( 1, 0 ) );
+		assertEquals( 2, Polynomial2D_F64.index( 0, 1 ) );
+		assertEquals( 3, Polynomial2D_F64.index( 2, 0 ) );
+		assertEquals( 4, Polynomial2D_F64.index( 1, 1 ) );
+		assertEquals( 5, Polynomial2D_F64.index( 0, 2 ) );
+		assertEquals( 9, Polynomial2D_F64.index( 0, 3 ) );
+		assertEquals( 10, Polynomial2D_F64.numTerms( 3 ) );
+	}
+
+	@Test
+	public void evaluate() {
+		for( int degree = 0; degree <= 4; degree++ ) {
+			Polynomial2D_F64 poly = new Polynomial2D_F64( degree );
+			for( int i = 0; i < poly.c.length; i++ )
+				poly.c[i] = rand.nextGaussian();
+
+			double x = 0.7, y = -1.3;
+
+			// brute force evaluation
+			double expected = 0;
+			for( int i = 0; i <= degree; i++ ) {
+				for( int j = 0; i + j <= degree; j++ ) {
+					expected += poly.get( i, j )*Math.pow( x, i )*Math.pow( y, j );
+				}
+			}
+
+			assertEquals( expected, poly.evaluate( x, y ), GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package georegression.struct.point;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.misc.test.GeometryUnitTest;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointCloud3D_F32 {
+
+	Random rand = new Random( 234 );
+
+	@Test
+	public void add_grow() {
+		PointCloud3D_F32 alg = new PointCloud3D_F32( 2 );
+
+		for( int i = 0; i < 25; i++ ) {
+			alg.add( i, i + 1, i + 2 );
+		}
+
+		assertEquals( 25, alg.size() );
+		for( int i = 0; i < 25; i++ ) {
+			assertEquals( i, alg.getX( i ), GrlConstants.FLOAT_TEST_TOL );
+			assertEquals( i + 1, alg.getY( i ), GrlConstants.FLOAT_TEST_TOL );
+			assertEquals( i + 2, alg.getZ( i ), GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void set_list() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random( -10, 10, 20, rand );
+
+		PointCloud3D_F32 alg = new PointCloud3D_F32( 5 );
+		alg.add( 1, 2, 3 );
+		alg.set( list );
+
+		assertEquals( list.size(), alg.size() );
+
+		Point3D_F32 p = new Point3D_F32();
+		for( int i = 0; i < list.size(); i++ ) {
+			GeometryUnitTest.assertEquals( list.get( i ), alg.get( i, p ), GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void copy() {
+		PointCloud3D_F32 alg = new PointCloud3D_F32( UtilPoint3D_F32.random( -10, 10, 20, rand ) );
+		PointCloud3D_F32 found = alg.copy();
+
+		assertEquals( alg.size(), found.size() );
+		for( int i = 0; i < alg.size*3; i++ ) {
+			assertEquals( alg.data[i], found.data[i], GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+}
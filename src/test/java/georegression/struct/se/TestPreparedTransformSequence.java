@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.se;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPreparedTransformSequence {
+
+	Se2_F64 a = new Se2_F64( 1, 2, 0.5 );
+	Se2_F64 b = new Se2_F64( -2, 0.5, -1.2 );
+	Se2_F64 c = new Se2_F64( 0.3, 4, 2.1 );
+
+	/**
+	 * Compare against the results from the sequence
+	 */
+	@Test
+	public void computeTransform() {
+		InvertibleTransformSequence sequence = new InvertibleTransformSequence();
+		sequence.addTransform( true, a );
+		sequence.addTransform( false, b );
+		sequence.addTransform( true, c );
+
+		Se2_F64 expected = new Se2_F64();
+		sequence.computeTransform( expected );
+
+		PreparedTransformSequence<Se2_F64> alg = sequence.prepare();
+		Se2_F64 found = new Se2_F64();
+		alg.computeTransform( found );
+		checkEquals( expected, found );
+
+		// evaluating it a second time should produce the same results
+		found.reset();
+		alg.computeTransform( found );
+		checkEquals( expected, found );
+	}
+
+	@Test
+	public void computeTransform_single() {
+		InvertibleTransformSequence sequence = new InvertibleTransformSequence();
+		sequence.addTransform( false, a );
+
+		Se2_F64 found = new Se2_F64();
+		new PreparedTransformSequence<Se2_F64>( sequence ).computeTransform( found );
+
+		checkEquals( a.invert( null ), found );
+	}
+
+	@Test
+	public void computeTransform_empty() {
+		Se2_F64 found = new Se2_F64( 1, 2, 3 );
+		new PreparedTransformSequence<Se2_F64>( new InvertibleTransformSequence() ).computeTransform( found );
+
+		checkEquals( new Se2_F64( 1, 2, 3 ), found );
+	}
+
+	/**
+	 * The inverse should only be recomputed after the transform has been marked as dirty
+	 */
+	@Test
+	public void markDirty() {
+		InvertibleTransformSequence sequence = new InvertibleTransformSequence();
+		sequence.addTransform( true, a );
+		sequence.addTransform( false, b );
+
+		PreparedTransformSequence<Se2_F64> alg = sequence.prepare();
+		Se2_F64 found = new Se2_F64();
+		alg.computeTransform( found );
+
+		// forward transforms are used directly
+		a.set( 3, -1, 0.2 );
+		alg.computeTransform( found );
+		checkEquals( a.concat( b.invert( null ), null ), found );
+		Se2_F64 before = found.copy();
+
+		// the old inverse is still cached
+		b.set( 0.1, 0.7, -0.4 );
+		alg.computeTransform( found );
+		checkEquals( before, found );
+
+		alg.markDirty( 1 );
+		alg.computeTransform( found );
+		checkEquals( a.concat( b.invert( null ), null ), found );
+	}
+
+	private static void checkEquals( Se2_F64 expected, Se2_F64 found ) {
+		assertEquals( expected.getX(), found.getX(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( expected.getY(), found.getY(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( expected.getCosineYaw(), found.getCosineYaw(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( expected.getSineYaw(), found.getSineYaw(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+}
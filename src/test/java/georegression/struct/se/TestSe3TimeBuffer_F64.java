@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.se;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.misc.GrlConstants;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSe3TimeBuffer_F64 {
+
+	Random rand = new Random( 234 );
+
+	/**
+	 * Pose which changes linearly with time.  Rotation is around the z-axis so SLERP is linear too.
+	 */
+	private static Se3_F64 createPose( double time ) {
+		Se3_F64 pose = new Se3_F64();
+		pose.getT().set( 1 + time, 2 - 0.5*time, 3*time );
+		RotationMatrixGenerator.eulerXYZ( 0, 0, 0.1 + 0.2*time, pose.getR() );
+		return pose;
+	}
+
+	private static void checkEquals( Se3_F64 expected, Se3_F64 found ) {
+		assertEquals( expected.getT().x, found.getT().x, GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( expected.getT().y, found.getT().y, GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( expected.getT().z, found.getT().z, GrlConstants.DOUBLE_TEST_TOL );
+		assertTrue( MatrixFeatures.isIdentical( expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+
+	@Test
+	public void lookup_exact() {
+		Se3TimeBuffer_F64 alg = new Se3TimeBuffer_F64( 10 );
+		for( int i = 0; i < 5; i++ )
+			alg.add( i, createPose( i ) );
+
+		Se3_F64 found = new Se3_F64();
+		for( int i = 0; i < 5; i++ ) {
+			assertTrue( alg.lookup( i, found ) );
+			checkEquals( createPose( i ), found );
+		}
+	}
+
+	@Test
+	public void lookup_interpolate() {
+		Se3TimeBuffer_F64 alg = new Se3TimeBuffer_F64( 10 );
+		for( int i = 0; i < 5; i++ )
+			alg.add( i*0.5, createPose( i*0.5 ) );
+
+		Se3_F64 found = new Se3_F64();
+		for( int i = 0; i < 20; i++ ) {
+			double time = rand.nextDouble()*2;
+			assertTrue( alg.lookup( time, found ) );
+			checkEquals( createPose( time ), found );
+		}
+	}
+
+	/**
+	 * Rotation matrices which are the identity plus round off error have a trace slightly more than 3.  They
+	 * must not be turned into a 180 degree rotation.
+	 */
+	@Test
+	public void nearIdentity() {
+		Se3TimeBuffer_F64 alg = new Se3TimeBuffer_F64( 10 );
+
+		DenseMatrix64F R1 = RotationMatrixGenerator.eulerXYZ( 0.3, -1.2, 2.1, null );
+		Se3_F64 pose = new Se3_F64();
+		CommonOps.multTransB( R1, R1, pose.getR() );
+		alg.add( 0, pose );
+		// the trace is now exactly 3 + 4.4e-16
+		CommonOps.setIdentity( pose.getR() );
+		pose.getR().set( 0, 0, 1.0 + 2*Math.ulp( 1.0 ) );
+		alg.add( 1, pose );
+
+		Se3_F64 found = new Se3_F64();
+		for( int i = 0; i <= 4; i++ ) {
+			assertTrue( alg.lookup( i/4.0, found ) );
+			assertTrue( MatrixFeatures.isIdentity( found.getR(), GrlConstants.DOUBLE_TEST_TOL ) );
+		}
+	}
+
+	@Test
+	public void lookup_outside() {
+		Se3TimeBuffer_F64 alg = new Se3TimeBuffer_F64( 10 );
+		Se3_F64 found = new Se3_F64();
+
+		assertFalse( alg.lookup( 0, found ) );
+
+		alg.add( 1, createPose( 1 ) );
+		alg.add( 2, createPose( 2 ) );
+
+		assertFalse( alg.lookup( 0.99, found ) );
+		assertFalse( alg.lookup( 2.01, found ) );
+	}
+
+	/**
+	 * Add more poses than the capacity and see if the oldest ones are dropped
+	 */
+	@Test
+	public void wrapAround() {
+		Se3TimeBuffer_F64 alg = new Se3TimeBuffer_F64( 4 );
+		for( int i = 0; i < 11; i++ )
+			alg.add( i, createPose( i ) );
+
+		assertEquals( 4, alg.size() );
+
+		Se3_F64 found = new Se3_F64();
+		assertFalse( alg.lookup( 6.9, found ) );
+		assertTrue( alg.lookup( 7, found ) );
+		checkEquals( createPose( 7 ), found );
+		assertTrue( alg.lookup( 9.25, found ) );
+		checkEquals( createPose( 9.25 ), found );
+	}
+
+	@Test
+	public void reset() {
+		Se3TimeBuffer_F64 alg = new Se3TimeBuffer_F64( 4 );
+		alg.add( 1, createPose( 1 ) );
+		alg.add( 2, createPose( 2 ) );
+		alg.reset();
+
+		assertEquals( 0, alg.size() );
+		assertFalse( alg.lookup( 1.5, new Se3_F64() ) );
+
+		// time is allowed to go backwards after a reset
+		alg.add( 0, createPose( 0 ) );
+		assertEquals( 1, alg.size() );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void add_timeNotIncreasing() {
+		Se3TimeBuffer_F64 alg = new Se3TimeBuffer_F64( 4 );
+		alg.add( 1, createPose( 1 ) );
+		alg.add( 1, createPose( 1 ) );
+	}
+
+	/**
+	 * One thread adds poses while another looks them up.  Since the poses change linearly any torn read
+	 * would produce an incorrect result.
+	 */
+	@Test
+	public void concurrent() throws InterruptedException {
+		final Se3TimeBuffer_F64 alg = new Se3TimeBuffer_F64( 8 );
+		final int total = 20000;
+
+		alg.add( 0, createPose( 0 ) );
+
+		final boolean failed[] = new boolean[1];
+		Thread reader = new Thread() {
+			public void run() {
+				Se3TimeBuffer_F64.Reader reader = alg.createReader();
+				Random rand = new Random( 234 );
+				Se3_F64 found = new Se3_F64();
+				for( int i = 0; i < total; i++ ) {
+					double time = rand.nextDouble()*i*0.01;
+					if( reader.lookup( time, found ) ) {
+						Se3_F64 expected = createPose( time );
+						if( Math.abs( expected.getT().x - found.getT().x ) > GrlConstants.DOUBLE_TEST_TOL ||
+								!MatrixFeatures.isIdentical( expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL ) )
+							failed[0] = true;
+					}
+				}
+			}
+		};
+		reader.start();
+
+		for( int i = 1; i < total; i++ )
+			alg.add( i*0.01, createPose( i*0.01 ) );
+
+		reader.join();
+		assertFalse( failed[0] );
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.se;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTransformGraph {
+
+	Se2_F64 worldToBase = new Se2_F64( 1, 2, 0.5 );
+	Se2_F64 baseToArm = new Se2_F64( -2, 0.5, -1.2 );
+	Se2_F64 baseToCamera = new Se2_F64( 0.3, 4, 2.1 );
+
+	/**
+	 * world -> base -> arm
+	 *            \---> camera
+	 */
+	private TransformGraph<Se2_F64> createGraph() {
+		TransformGraph<Se2_F64> graph = new TransformGraph<Se2_F64>();
+
+		graph.addTransform( "world", "base", worldToBase );
+		graph.addTransform( "base", "arm", baseToArm );
+		graph.addTransform( "base", "camera", baseToCamera );
+
+		return graph;
+	}
+
+	@Test
+	public void lookupTransform_forward() {
+		TransformGraph<Se2_F64> graph = createGraph();
+
+		Se2_F64 expected = worldToBase.concat( baseToArm, null );
+		Se2_F64 found = new Se2_F64();
+		assertTrue( graph.lookupTransform( "world", "arm", found ) );
+
+		checkEquals( expected, found );
+	}
+
+	@Test
+	public void lookupTransform_backwards() {
+		TransformGraph<Se2_F64> graph = createGraph();
+
+		Se2_F64 expected = worldToBase.concat( baseToArm, null ).invert( null );
+		Se2_F64 found = new Se2_F64();
+		assertTrue( graph.lookupTransform( "arm", "world", found ) );
+
+		checkEquals( expected, found );
+	}
+
+	/**
+	 * Path goes backwards through one transform then forward through another
+	 */
+	@Test
+	public void lookupTransform_mixed() {
+		TransformGraph<Se2_F64> graph = createGraph();
+
+		Se2_F64 expected = baseToCamera.invert( null ).concat( baseToArm, null );
+		Se2_F64 found = new Se2_F64();
+		assertTrue( graph.lookupTransform( "camera", "arm", found ) );
+
+		checkEquals( expected, found );
+	}
+
+	@Test
+	public void lookupTransform_sameFrame() {
+		TransformGraph<Se2_F64> graph = createGraph();
+
+		Se2_F64 found = new Se2_F64( 1, 2, 3 );
+		assertTrue( graph.lookupTransform( "arm", "arm", found ) );
+
+		checkEquals( new Se2_F64( 0, 0, 0 ), found );
+	}
+
+	@Test
+	public void lookupTransform_notConnected() {
+		TransformGraph<Se2_F64> graph = createGraph();
+		graph.addTransform( "foo", "bar", new Se2_F64( 1, 2, 3 ) );
+
+		assertFalse( graph.lookupTransform( "world", "bar", new Se2_F64() ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lookupTransform_unknownFrame() {
+		createGraph().lookupTransform( "world", "moon", new Se2_F64() );
+	}
+
+	/**
+	 * The result should be cached after the first look up and not change when the input transform is modified
+	 */
+	@Test
+	public void cache() {
+		TransformGraph<Se2_F64> graph = createGraph();
+
+		assertFalse( graph.isCached( "world", "arm" ) );
+		Se2_F64 found = new Se2_F64();
+		graph.lookupTransform( "world", "arm", found );
+		assertTrue( graph.isCached( "world", "arm" ) );
+
+		// a copy should have been saved
+		baseToArm.set( 5, 6, 0.1 );
+		Se2_F64 again = new Se2_F64();
+		graph.lookupTransform( "world", "arm", again );
+
+		checkEquals( found, again );
+	}
+
+	/**
+	 * Changing a transform should only invalidate the paths which use it
+	 */
+	@Test
+	public void setTransform() {
+		TransformGraph<Se2_F64> graph = createGraph();
+		Se2_F64 found = new Se2_F64();
+
+		graph.lookupTransform( "world", "arm", found );
+		graph.lookupTransform( "world", "camera", found );
+		graph.lookupTransform( "camera", "world", found );
+
+		baseToCamera.set( -1, 3, 0.2 );
+		graph.setTransform( "base", "camera", baseToCamera );
+
+		assertTrue( graph.isCached( "world", "arm" ) );
+		assertFalse( graph.isCached( "world", "camera" ) );
+		assertFalse( graph.isCached( "camera", "world" ) );
+
+		graph.lookupTransform( "world", "camera", found );
+		checkEquals( worldToBase.concat( baseToCamera, null ), found );
+		graph.lookupTransform( "camera", "world", found );
+		checkEquals( worldToBase.concat( baseToCamera, null ).invert( null ), found );
+	}
+
+	/**
+	 * Set the transform using the reverse direction from when it was added
+	 */
+	@Test
+	public void setTransform_reverse() {
+		TransformGraph<Se2_F64> graph = createGraph();
+
+		baseToArm.set( 3, -1, 0.7 );
+		graph.setTransform( "arm", "base", baseToArm.invert( null ) );
+
+		Se2_F64 found = new Se2_F64();
+		graph.lookupTransform( "base", "arm", found );
+		checkEquals( baseToArm, found );
+	}
+
+	/**
+	 * Adding a transform can create a shorter path, so the cache must be cleared
+	 */
+	@Test
+	public void addTransform_clearCache() {
+		TransformGraph<Se2_F64> graph = createGraph();
+		Se2_F64 found = new Se2_F64();
+		graph.lookupTransform( "arm", "camera", found );
+
+		Se2_F64 armToCamera = new Se2_F64( 0.5, 0.5, 0.5 );
+		graph.addTransform( "arm", "camera", armToCamera );
+		assertFalse( graph.isCached( "arm", "camera" ) );
+
+		graph.lookupTransform( "arm", "camera", found );
+		checkEquals( armToCamera, found );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addTransform_duplicate() {
+		createGraph().addTransform( "arm", "base", new Se2_F64() );
+	}
+
+	private static void checkEquals( Se2_F64 expected, Se2_F64 found ) {
+		assertEquals( expected.getX(), found.getX(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( expected.getY(), found.getY(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( expected.getCosineYaw(), found.getCosineYaw(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( expected.getSineYaw(), found.getSineYaw(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.sim;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.GenericInvertibleTransformTests_F32;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.transform.se.SePointOps_F32;
+import georegression.transform.sim.SimPointOps_F32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSim2_F32 extends GenericInvertibleTransformTests_F32<Point2D_F32> {
+
+	Random rand = new Random( 234 );
+
+	/**
+	 * Setting to a rigid body transform should produce the same result as the rigid body transform
+	 */
+	@Test
+	public void set_Se2() {
+		Se2_F32 se = new Se2_F32( 1, -2, 0.7f );
+		Sim2_F32 sim = (Sim2_F32)createRandomTransform();
+		sim.set( se );
+
+		Point2D_F32 p = createRandomPoint();
+		Point2D_F32 expected = SePointOps_F32.transform( se, p, null );
+		Point2D_F32 found = SimPointOps_F32.transform( sim, p, null );
+
+		assertTrue( found.isIdentical( expected, GrlConstants.FLOAT_TEST_TOL ) );
+	}
+
+	@Test
+	public void concat_yaw() {
+		Sim2_F32 a = new Sim2_F32( 2, 1, 2, 0.5f );
+		Sim2_F32 b = new Sim2_F32( 0.5f, -1, 3, 1.1f );
+
+		Sim2_F32 c = a.concat( b, null );
+		assertEquals( 1.6f, c.getYaw(), GrlConstants.FLOAT_TEST_TOL );
+		assertEquals( 1, c.getScale(), GrlConstants.FLOAT_TEST_TOL );
+	}
+
+	@Override
+	public Point2D_F32 createRandomPoint() {
+		return new Point2D_F32( (float)rand.nextGaussian()*3, (float)rand.nextGaussian()*3 );
+	}
+
+	@Override
+	public InvertibleTransform createRandomTransform() {
+		return new Sim2_F32( 0.2f + rand.nextFloat()*3, (float)rand.nextGaussian()*3, (float)rand.nextGaussian()*3,
+				(float)( ( rand.nextFloat() - 0.5f )*2.0f*Math.PI ) );
+	}
+
+	@Override
+	public Point2D_F32 apply( InvertibleTransform se, Point2D_F32 point, Point2D_F32 result ) {
+		return SimPointOps_F32.transform( (Sim2_F32)se, point, result );
+	}
+}
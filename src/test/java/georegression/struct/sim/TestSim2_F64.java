@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.sim;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.GenericInvertibleTransformTests_F64;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import georegression.transform.sim.SimPointOps_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSim2_F64 extends GenericInvertibleTransformTests_F64<Point2D_F64> {
+
+	Random rand = new Random( 234 );
+
+	/**
+	 * Setting to a rigid body transform should produce the same result as the rigid body transform
+	 */
+	@Test
+	public void set_Se2() {
+		Se2_F64 se = new Se2_F64( 1, -2, 0.7 );
+		Sim2_F64 sim = (Sim2_F64)createRandomTransform();
+		sim.set( se );
+
+		Point2D_F64 p = createRandomPoint();
+		Point2D_F64 expected = SePointOps_F64.transform( se, p, null );
+		Point2D_F64 found = SimPointOps_F64.transform( sim, p, null );
+
+		assertTrue( found.isIdentical( expected, GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+
+	@Test
+	public void concat_yaw() {
+		Sim2_F64 a = new Sim2_F64( 2, 1, 2, 0.5 );
+		Sim2_F64 b = new Sim2_F64( 0.5, -1, 3, 1.1 );
+
+		Sim2_F64 c = a.concat( b, null );
+		assertEquals( 1.6, c.getYaw(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 1, c.getScale(), GrlConstants.DOUBLE_TEST_TOL );
+	}
+
+	@Override
+	public Point2D_F64 createRandomPoint() {
+		return new Point2D_F64( rand.nextGaussian()*3, rand.nextGaussian()*3 );
+	}
+
+	@Override
+	public InvertibleTransform createRandomTransform() {
+		return new Sim2_F64( 0.2 + rand.nextDouble()*3, rand.nextGaussian()*3, rand.nextGaussian()*3,
+				(double)( ( rand.nextDouble() - 0.5 )*2.0*Math.PI ) );
+	}
+
+	@Override
+	public Point2D_F64 apply( InvertibleTransform se, Point2D_F64 point, Point2D_F64 result ) {
+		return SimPointOps_F64.transform( (Sim2_F64)se, point, result );
+	}
+}
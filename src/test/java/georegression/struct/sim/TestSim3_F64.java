@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.sim;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.misc.GrlConstants;
+import georegression.struct.GenericInvertibleTransformTests_F64;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import georegression.transform.sim.SimPointOps_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSim3_F64 extends GenericInvertibleTransformTests_F64<Point3D_F64> {
+
+	Random rand = new Random( 234 );
+
+	/**
+	 * Setting to a rigid body transform should produce the same result as the rigid body transform
+	 */
+	@Test
+	public void set_Se3() {
+		Se3_F64 se = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.5, 1.2, null ),
+				new Vector3D_F64( 1, 2, -3 ) );
+		Sim3_F64 sim = (Sim3_F64)createRandomTransform();
+		sim.set( se );
+
+		Point3D_F64 p = createRandomPoint();
+		Point3D_F64 expected = SePointOps_F64.transform( se, p, null );
+		Point3D_F64 found = SimPointOps_F64.transform( sim, p, null );
+
+		assertTrue( found.isIdentical( expected, GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+
+	@Override
+	public Point3D_F64 createRandomPoint() {
+		return new Point3D_F64( rand.nextGaussian()*3, rand.nextGaussian()*3, rand.nextGaussian()*3 );
+	}
+
+	@Override
+	public InvertibleTransform createRandomTransform() {
+		double rotX = (double)( ( rand.nextDouble() - 0.5 )*2.0*Math.PI );
+		double rotY = (double)( ( rand.nextDouble() - 0.5 )*2.0*Math.PI );
+		double rotZ = (double)( ( rand.nextDouble() - 0.5 )*2.0*Math.PI );
+
+		return new Sim3_F64( 0.2 + rand.nextDouble()*3, RotationMatrixGenerator.eulerXYZ( rotX, rotY, rotZ, null ),
+				new Vector3D_F64( rand.nextGaussian()*2, rand.nextGaussian()*2, rand.nextGaussian()*2 ) );
+	}
+
+	@Override
+	public Point3D_F64 apply( InvertibleTransform se, Point3D_F64 point, Point3D_F64 result ) {
+		return SimPointOps_F64.transform( (Sim3_F64)se, point, result );
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.struct.so;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.misc.GrlConstants;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSpecialOrthogonalOps {
+
+	@Test
+	public void slerp() {
+		Quaternion a = toQuaternion( 0.1, -0.2, 0.3 );
+		Quaternion b = toQuaternion( 0.1, -0.2, 1.5 );
+
+		checkRotation( 0.1, -0.2, 0.3, SpecialOrthogonalOps.slerp( a, b, 0, null ) );
+		checkRotation( 0.1, -0.2, 1.5, SpecialOrthogonalOps.slerp( a, b, 1, null ) );
+		checkRotation( 0.1, -0.2, 0.6, SpecialOrthogonalOps.slerp( a, b, 0.25, null ) );
+	}
+
+	/**
+	 * q and -q are the same rotation.  Should take the shortest path.
+	 */
+	@Test
+	public void slerp_negative() {
+		Quaternion a = toQuaternion( 0, 0, 0.3 );
+		Quaternion b = toQuaternion( 0, 0, 1.5 );
+		b.q1 = -b.q1;
+		b.q2 = -b.q2;
+		b.q3 = -b.q3;
+		b.q4 = -b.q4;
+
+		checkRotation( 0, 0, 0.6, SpecialOrthogonalOps.slerp( a, b, 0.25, null ) );
+	}
+
+	private static Quaternion toQuaternion( double rotX, double rotY, double rotZ ) {
+		DenseMatrix64F R = RotationMatrixGenerator.eulerXYZ( rotX, rotY, rotZ, null );
+		return RotationMatrixGenerator.matrixToQuaternion( R, null );
+	}
+
+	private static void checkRotation( double rotX, double rotY, double rotZ, Quaternion found ) {
+		DenseMatrix64F expected = RotationMatrixGenerator.eulerXYZ( rotX, rotY, rotZ, null );
+		DenseMatrix64F R = RotationMatrixGenerator.quaternionToMatrix( found, null );
+		assertTrue( MatrixFeatures.isIdentical( expected, R, GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+}
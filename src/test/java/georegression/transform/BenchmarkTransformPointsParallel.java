@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.transform;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the throughput of transforming a large LiDAR sized cloud into the world frame, sequentially and in
+ * parallel with different chunk sizes.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkTransformPointsParallel {
+
+	static int NUM_TRIALS = 5;
+
+	public static void main( String args[] ) {
+		int N = args.length > 0 ? Integer.parseInt( args[0] ) : 5000000;
+
+		Random rand = new Random( 234 );
+		Se3_F64 se = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		double src[] = new double[ N*3 ];
+		for( int i = 0; i < src.length; i++ )
+			src[i] = rand.nextGaussian()*50;
+		double dst[] = new double[ N*3 ];
+
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool( numThreads );
+
+		TransformPointsParallel_F64 sequential = new TransformPointsParallel_F64( null );
+		benchmark( "sequential", sequential, se, src, dst, N );
+		for( int chunkSize : new int[]{4096, 16384, 65536, 262144} ) {
+			TransformPointsParallel_F64 parallel = new TransformPointsParallel_F64( executor, chunkSize, chunkSize );
+			benchmark( "parallel(" + numThreads + ") chunk " + chunkSize, parallel, se, src, dst, N );
+		}
+
+		executor.shutdown();
+	}
+
+	private static void benchmark( String name, TransformPointsParallel_F64 alg, Se3_F64 se,
+								   double src[], double dst[], int N ) {
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			alg.transform( se, src, 0, 3, dst, 0, 3, N );
+			System.out.printf( "%-28s %6.1f ms  %7.1f Mpoints/sec\n", name, alg.getElapsedNano()*1e-6,
+					alg.getPointsPerSecond()*1e-6 );
+		}
+	}
+}
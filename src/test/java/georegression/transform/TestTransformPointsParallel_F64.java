@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.transform;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.homo.Homography2D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.affine.AffinePointOps;
+import georegression.transform.homo.HomographyPointOps;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTransformPointsParallel_F64 {
+
+	Random rand = new Random( 234 );
+	ExecutorService executor = Executors.newFixedThreadPool( 3 );
+
+	Se3_F64 se = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.7, 1.2, null ),
+			new Vector3D_F64( 1, 2, 3 ) );
+	Affine2D_F64 affine = new Affine2D_F64( 1.5, -0.5, 0.3, 2, -2, 3 );
+	Homography2D_F64 homography = new Homography2D_F64( 1.5, -0.5, 2, 0.3, 2, -1, 0.01, -0.02, 1 );
+
+	@After
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Compare against the sequential bulk functions for chunk sizes which do and don't evenly divide the
+	 * number of points
+	 */
+	@Test
+	public void compareToSequential() {
+		int N = 1000;
+		for( int chunkSize : new int[]{1, 7, 100, 1000, 5000} ) {
+			TransformPointsParallel_F64 alg = new TransformPointsParallel_F64( executor, chunkSize, 0 );
+
+			double src[] = random( 2 + N*4 );
+			double expected[] = new double[ 1 + N*3 ];
+			double found[] = new double[ 1 + N*3 ];
+
+			SePointOps_F64.transform( se, src, 2, 4, expected, 1, 3, N );
+			alg.transform( se, src, 2, 4, found, 1, 3, N );
+			check( expected, found );
+
+			AffinePointOps.transform( affine, src, 2, 4, expected, 1, 3, N );
+			alg.transform( affine, src, 2, 4, found, 1, 3, N );
+			check( expected, found );
+
+			HomographyPointOps.transform( homography, src, 2, 4, expected, 1, 3, N );
+			alg.transform( homography, src, 2, 4, found, 1, 3, N );
+			check( expected, found );
+		}
+	}
+
+	@Test
+	public void inPlace() {
+		int N = 1000;
+		double src[] = random( N*3 );
+		double expected[] = new double[ N*3 ];
+		SePointOps_F64.transform( se, src, 0, 3, expected, 0, 3, N );
+
+		TransformPointsParallel_F64 alg = new TransformPointsParallel_F64( executor, 64, 0 );
+		alg.transform( se, src, 0, 3, src, 0, 3, N );
+		check( expected, src );
+	}
+
+	/**
+	 * Below the threshold and without an executor it should still work
+	 */
+	@Test
+	public void sequential() {
+		int N = 500;
+		double src[] = random( N*2 );
+		double expected[] = new double[ N*2 ];
+		double found[] = new double[ N*2 ];
+		AffinePointOps.transform( affine, src, 0, 2, expected, 0, 2, N );
+
+		TransformPointsParallel_F64 alg = new TransformPointsParallel_F64( executor, 10, 1000 );
+		alg.transform( affine, src, 0, 2, found, 0, 2, N );
+		check( expected, found );
+
+		found = new double[ N*2 ];
+		alg = new TransformPointsParallel_F64( null, 10, 0 );
+		alg.transform( affine, src, 0, 2, found, 0, 2, N );
+		check( expected, found );
+	}
+
+	@Test
+	public void pointsPerSecond() {
+		int N = 10000;
+		double src[] = random( N*3 );
+
+		TransformPointsParallel_F64 alg = new TransformPointsParallel_F64( executor, 1000, 0 );
+		assertEquals( 0, alg.getPointsPerSecond(), 0 );
+
+		alg.transform( se, src, 0, 3, src, 0, 3, N );
+		assertTrue( alg.getElapsedNano() > 0 );
+		assertTrue( alg.getPointsPerSecond() > 0 );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void badStride() {
+		TransformPointsParallel_F64 alg = new TransformPointsParallel_F64( executor );
+		double src[] = new double[ 10 ];
+		alg.transform( se, src, 0, 2, src, 0, 2, 5 );
+	}
+
+	private void check( double expected[], double found[] ) {
+		for( int i = 0; i < expected.length; i++ ) {
+			assertEquals( expected[i], found[i], 0 );
+		}
+	}
+
+	private double[] random( int length ) {
+		double ret[] = new double[ length ];
+		for( int i = 0; i < length; i++ )
+			ret[i] = (double)( rand.nextGaussian()*5 );
+		return ret;
+	}
+}
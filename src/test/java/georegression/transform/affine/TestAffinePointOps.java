@@ -19,8 +19,15 @@
 
 package georegression.transform.affine;
 
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point2D_F64;
 import org.junit.Test;
 
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 
@@ -32,4 +39,108 @@ public class TestAffinePointOps {
 	public void stuff() {
 		fail("implement");
 	}
+
+	@Test
+	public void transform_interleaved_F64() {
+		Affine2D_F64 tran = new Affine2D_F64( 1.5, -0.5, 0.3, 2, -2, 3 );
+		double src[] = random_F64( 3 + 9*5 + 2 );
+		double dst[] = new double[ 1 + 9*3 + 2 ];
+
+		AffinePointOps.transform( tran, src, 3, 5, dst, 1, 3, 10 );
+
+		for( int i = 0; i < 10; i++ ) {
+			Point2D_F64 expected = AffinePointOps.transform( tran, src[3 + i*5], src[4 + i*5], null );
+			assertEquals( expected.x, dst[1 + i*3], 1e-8 );
+			assertEquals( expected.y, dst[2 + i*3], 1e-8 );
+		}
+
+		// in-place
+		AffinePointOps.transform( tran, src, 3, 5, src, 3, 5, 10 );
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals( dst[1 + i*3], src[3 + i*5], 1e-8 );
+			assertEquals( dst[2 + i*3], src[4 + i*5], 1e-8 );
+		}
+	}
+
+	@Test
+	public void transform_soa_F64() {
+		Affine2D_F64 tran = new Affine2D_F64( 1.5, -0.5, 0.3, 2, -2, 3 );
+		double srcX[] = random_F64( 12 ), srcY[] = random_F64( 12 );
+		double dstX[] = new double[ 11 ], dstY[] = new double[ 11 ];
+
+		AffinePointOps.transform( tran, srcX, srcY, 2, dstX, dstY, 1, 10 );
+
+		for( int i = 0; i < 10; i++ ) {
+			Point2D_F64 expected = AffinePointOps.transform( tran, srcX[2 + i], srcY[2 + i], null );
+			assertEquals( expected.x, dstX[1 + i], 1e-8 );
+			assertEquals( expected.y, dstY[1 + i], 1e-8 );
+		}
+
+		// in-place
+		AffinePointOps.transform( tran, srcX, srcY, 2, srcX, srcY, 2, 10 );
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals( dstX[1 + i], srcX[2 + i], 1e-8 );
+			assertEquals( dstY[1 + i], srcY[2 + i], 1e-8 );
+		}
+	}
+
+	private static double[] random_F64( int length ) {
+		Random rand = new Random( 234 + length );
+		double ret[] = new double[ length ];
+		for( int i = 0; i < length; i++ )
+			ret[i] = rand.nextGaussian()*5;
+		return ret;
+	}
+
+	@Test
+	public void transform_interleaved_F32() {
+		Affine2D_F32 tran = new Affine2D_F32( 1.5f, -0.5f, 0.3f, 2, -2, 3 );
+		float src[] = random_F32( 3 + 9*5 + 2 );
+		float dst[] = new float[ 1 + 9*3 + 2 ];
+
+		AffinePointOps.transform( tran, src, 3, 5, dst, 1, 3, 10 );
+
+		for( int i = 0; i < 10; i++ ) {
+			Point2D_F32 expected = AffinePointOps.transform( tran, src[3 + i*5], src[4 + i*5], null );
+			assertEquals( expected.x, dst[1 + i*3], 1e-4 );
+			assertEquals( expected.y, dst[2 + i*3], 1e-4 );
+		}
+
+		// in-place
+		AffinePointOps.transform( tran, src, 3, 5, src, 3, 5, 10 );
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals( dst[1 + i*3], src[3 + i*5], 1e-4 );
+			assertEquals( dst[2 + i*3], src[4 + i*5], 1e-4 );
+		}
+	}
+
+	@Test
+	public void transform_soa_F32() {
+		Affine2D_F32 tran = new Affine2D_F32( 1.5f, -0.5f, 0.3f, 2, -2, 3 );
+		float srcX[] = random_F32( 12 ), srcY[] = random_F32( 12 );
+		float dstX[] = new float[ 11 ], dstY[] = new float[ 11 ];
+
+		AffinePointOps.transform( tran, srcX, srcY, 2, dstX, dstY, 1, 10 );
+
+		for( int i = 0; i < 10; i++ ) {
+			Point2D_F32 expected = AffinePointOps.transform( tran, srcX[2 + i], srcY[2 + i], null );
+			assertEquals( expected.x, dstX[1 + i], 1e-4 );
+			assertEquals( expected.y, dstY[1 + i], 1e-4 );
+		}
+
+		// in-place
+		AffinePointOps.transform( tran, srcX, srcY, 2, srcX, srcY, 2, 10 );
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals( dstX[1 + i], srcX[2 + i], 1e-4 );
+			assertEquals( dstY[1 + i], srcY[2 + i], 1e-4 );
+		}
+	}
+
+	private static float[] random_F32( int length ) {
+		Random rand = new Random( 234 + length );
+		float ret[] = new float[ length ];
+		for( int i = 0; i < length; i++ )
+			ret[i] = (float)rand.nextGaussian()*5;
+		return ret;
+	}
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.transform.se;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+
+import java.util.Random;
+
+/**
+ * Compares transforming points one at a time against the bulk packed array functions.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkSePointOps {
+
+	static int NUM_POINTS = 1000000;
+	static int NUM_TRIALS = 5;
+	static int NUM_REPEATS = 20;
+
+	public static void main( String args[] ) {
+		Random rand = new Random( 234 );
+		Se3_F64 se = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.2, -0.3, 1.1, null ),
+				new Vector3D_F64( 1, -2, 0.5 ) );
+
+		Point3D_F64 points[] = new Point3D_F64[ NUM_POINTS ];
+		double interleaved[] = new double[ NUM_POINTS*3 ];
+		double x[] = new double[ NUM_POINTS ], y[] = new double[ NUM_POINTS ], z[] = new double[ NUM_POINTS ];
+		for( int i = 0; i < NUM_POINTS; i++ ) {
+			points[i] = new Point3D_F64( rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian() );
+			interleaved[i*3] = x[i] = points[i].x;
+			interleaved[i*3+1] = y[i] = points[i].y;
+			interleaved[i*3+2] = z[i] = points[i].z;
+		}
+		double output[] = new double[ NUM_POINTS*3 ];
+		double outX[] = new double[ NUM_POINTS ], outY[] = new double[ NUM_POINTS ], outZ[] = new double[ NUM_POINTS ];
+		Point3D_F64 p = new Point3D_F64();
+
+		for( int trial = 0; trial < NUM_TRIALS; trial++ ) {
+			long time0 = System.nanoTime();
+			for( int repeat = 0; repeat < NUM_REPEATS; repeat++ ) {
+				for( int i = 0; i < NUM_POINTS; i++ ) {
+					SePointOps_F64.transform( se, points[i], p );
+				}
+			}
+			long time1 = System.nanoTime();
+			for( int repeat = 0; repeat < NUM_REPEATS; repeat++ ) {
+				SePointOps_F64.transform( se, interleaved, 0, 3, output, 0, 3, NUM_POINTS );
+			}
+			long time2 = System.nanoTime();
+			for( int repeat = 0; repeat < NUM_REPEATS; repeat++ ) {
+				SePointOps_F64.transform( se, x, y, z, 0, outX, outY, outZ, 0, NUM_POINTS );
+			}
+			long time3 = System.nanoTime();
+
+			double total = (double)NUM_POINTS*NUM_REPEATS;
+			System.out.printf( "Se3 Mpoints/sec: Point3D %6.1f  interleaved %6.1f  soa %6.1f\n",
+					total*1e3/( time1 - time0 ), total*1e3/( time2 - time1 ), total*1e3/( time3 - time2 ) );
+		}
+	}
+}
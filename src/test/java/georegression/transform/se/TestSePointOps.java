@@ -30,6 +30,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -161,4 +162,111 @@ public class TestSePointOps {
 		assertEquals( 7, Pt.getY(), 1e-8 );
 		assertEquals( 9, Pt.getZ(), 1e-8 );
 	}
+
+	@Test
+	public void transform_2d_interleaved() {
+		Se2_F64 tran = new Se2_F64( -2, 3, 0.6 );
+		double src[] = random( 3 + 9*5 + 2 );
+		double dst[] = new double[ 1 + 9*3 + 2 ];
+
+		SePointOps_F64.transform( tran, src, 3, 5, dst, 1, 3, 10 );
+
+		for( int i = 0; i < 10; i++ ) {
+			Point2D_F64 expected = SePointOps_F64.transform( tran, src[3 + i*5], src[4 + i*5], null );
+			assertEquals( expected.x, dst[1 + i*3], 1e-8 );
+			assertEquals( expected.y, dst[2 + i*3], 1e-8 );
+			// padding between points should not be modified
+			assertEquals( 0, dst[i*3], 0 );
+		}
+
+		// in-place
+		SePointOps_F64.transform( tran, src, 3, 5, src, 3, 5, 10 );
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals( dst[1 + i*3], src[3 + i*5], 1e-8 );
+			assertEquals( dst[2 + i*3], src[4 + i*5], 1e-8 );
+		}
+	}
+
+	@Test
+	public void transform_2d_soa() {
+		Se2_F64 tran = new Se2_F64( -2, 3, 0.6 );
+		double srcX[] = random( 12 ), srcY[] = random( 12 );
+		double dstX[] = new double[ 11 ], dstY[] = new double[ 11 ];
+
+		SePointOps_F64.transform( tran, srcX, srcY, 2, dstX, dstY, 1, 10 );
+
+		for( int i = 0; i < 10; i++ ) {
+			Point2D_F64 expected = SePointOps_F64.transform( tran, srcX[2 + i], srcY[2 + i], null );
+			assertEquals( expected.x, dstX[1 + i], 1e-8 );
+			assertEquals( expected.y, dstY[1 + i], 1e-8 );
+		}
+
+		// in-place
+		SePointOps_F64.transform( tran, srcX, srcY, 2, srcX, srcY, 2, 10 );
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals( dstX[1 + i], srcX[2 + i], 1e-8 );
+			assertEquals( dstY[1 + i], srcY[2 + i], 1e-8 );
+		}
+	}
+
+	@Test
+	public void transform_3d_interleaved() {
+		Se3_F64 se = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.7, 1.2, null ),
+				new Vector3D_F64( 1, 2, 3 ) );
+		double src[] = random( 2 + 9*4 + 3 );
+		double dst[] = new double[ 9*3 + 3 ];
+
+		SePointOps_F64.transform( se, src, 2, 4, dst, 0, 3, 10 );
+
+		Point3D_F64 expected = new Point3D_F64();
+		for( int i = 0; i < 10; i++ ) {
+			expected.set( src[2 + i*4], src[3 + i*4], src[4 + i*4] );
+			SePointOps_F64.transform( se, expected, expected );
+			assertEquals( expected.x, dst[i*3], 1e-8 );
+			assertEquals( expected.y, dst[1 + i*3], 1e-8 );
+			assertEquals( expected.z, dst[2 + i*3], 1e-8 );
+		}
+
+		// in-place
+		SePointOps_F64.transform( se, src, 2, 4, src, 2, 4, 10 );
+		for( int i = 0; i < 10; i++ ) {
+			for( int j = 0; j < 3; j++ )
+				assertEquals( dst[j + i*3], src[2 + j + i*4], 1e-8 );
+		}
+	}
+
+	@Test
+	public void transform_3d_soa() {
+		Se3_F64 se = new Se3_F64( RotationMatrixGenerator.eulerXYZ( 0.1, -0.7, 1.2, null ),
+				new Vector3D_F64( 1, 2, 3 ) );
+		double srcX[] = random( 11 ), srcY[] = random( 11 ), srcZ[] = random( 11 );
+		double dstX[] = new double[ 10 ], dstY[] = new double[ 10 ], dstZ[] = new double[ 10 ];
+
+		SePointOps_F64.transform( se, srcX, srcY, srcZ, 1, dstX, dstY, dstZ, 0, 10 );
+
+		Point3D_F64 expected = new Point3D_F64();
+		for( int i = 0; i < 10; i++ ) {
+			expected.set( srcX[1 + i], srcY[1 + i], srcZ[1 + i] );
+			SePointOps_F64.transform( se, expected, expected );
+			assertEquals( expected.x, dstX[i], 1e-8 );
+			assertEquals( expected.y, dstY[i], 1e-8 );
+			assertEquals( expected.z, dstZ[i], 1e-8 );
+		}
+
+		// in-place
+		SePointOps_F64.transform( se, srcX, srcY, srcZ, 1, srcX, srcY, srcZ, 1, 10 );
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals( dstX[i], srcX[1 + i], 1e-8 );
+			assertEquals( dstY[i], srcY[1 + i], 1e-8 );
+			assertEquals( dstZ[i], srcZ[1 + i], 1e-8 );
+		}
+	}
+
+	private static double[] random( int length ) {
+		Random rand = new Random( 234 + length );
+		double ret[] = new double[ length ];
+		for( int i = 0; i < length; i++ )
+			ret[i] = rand.nextGaussian()*5;
+		return ret;
+	}
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2012, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * GeoRegression is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JGRL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with GeoRegression.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package georegression.transform.sim;
+
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.sim.Sim2_F64;
+import georegression.struct.sim.Sim3_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSimPointOps_F64 {
+
+	@Test
+	public void transform_2D() {
+		Sim2_F64 sim = new Sim2_F64( 2, 1, -1, Math.PI/2 );
+
+		Point2D_F64 found = SimPointOps_F64.transform( sim, new Point2D_F64( 1, 2 ), null );
+
+		// rotate to (-2,1), scale to (-4,2), then translate
+		assertEquals( -3, found.x, GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals( 1, found.y, GrlConstants.DOUBLE_TEST_TOL );
+
+		// the input and output can be the same instance
+		Point2D_F64 p = new Point2D_F64( 1, 2 );
+		SimPointOps_F64.transform( sim, p, p );
+		assertTrue( p.isIdentical( found, GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+
+	@Test
+	public void transformReverse_2D() {
+		Sim2_F64 sim = new Sim2_F64( 2.5, 1, -1, 0.4 );
+		Point2D_F64 p = new Point2D_F64( 1, 2 );
+
+		Point2D_F64 tran = SimPointOps_F64.transform( sim, p, null );
+		Point2D_F64 found = SimPointOps_F64.transformReverse( sim, tran, tran );
+
+		assertTrue( p.isIdentical( found, GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+
+	@Test
+	public void transform_3D() {
+		Sim3_F64 sim = new Sim3_F64( 2, RotationMatrixGenerator.rotZ( Math.PI/2, null ),
+				new Vector3D_F64( 1, -1, 3 ) );
+
+		Point3D_F64 found = SimPointOps_F64.transform( sim, new Point3D_F64( 1, 2, 3 ), null );
+
+		// rotate to (-2,1,3), scale to (-4,2,6), then translate
+		assertTrue( found.isIdentical( new Point3D_F64( -3, 1, 9 ), GrlConstants.DOUBLE_TEST_TOL ) );
+
+		// the input and output can be the same instance
+		Point3D_F64 p = new Point3D_F64( 1, 2, 3 );
+		SimPointOps_F64.transform( sim, p, p );
+		assertTrue( p.isIdentical( found, GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+
+	@Test
+	public void transformReverse_3D() {
+		Sim3_F64 sim = new Sim3_F64( 0.3, RotationMatrixGenerator.eulerXYZ( 0.1, -0.5, 1.2, null ),
+				new Vector3D_F64( 1, -1, 3 ) );
+		Point3D_F64 p = new Point3D_F64( 1, 2, 3 );
+
+		Point3D_F64 tran = SimPointOps_F64.transform( sim, p, null );
+		Point3D_F64 found = SimPointOps_F64.transformReverse( sim, tran, tran );
+
+		assertTrue( p.isIdentical( found, GrlConstants.DOUBLE_TEST_TOL ) );
+	}
+}